@@ -0,0 +1,59 @@
+package org.geogebra.benchmarks;
+
+import org.geogebra.common.AppCommonFactory;
+import org.geogebra.common.jre.headless.AppCommon;
+import org.geogebra.common.kernel.arithmetic.ValidExpression;
+import org.geogebra.common.kernel.commands.AlgebraProcessor;
+import org.geogebra.common.kernel.kernelND.GeoElementND;
+import org.geogebra.common.kernel.parser.ParseException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Parsing and processing of algebra input.
+ */
+@State(Scope.Thread)
+public class AlgebraProcessorBenchmark {
+
+	@Param({ "(1, 2) + 3 (4, 5)", "sin(x) + x^2 / (1 + x^2)",
+			"Sequence((k, k^2), k, 1, 50)", "Circle((1, 1), (3, 4))" })
+	public String input;
+
+	private AppCommon app;
+	private AlgebraProcessor algebraProcessor;
+
+	/**
+	 * Creates app.
+	 */
+	@Setup
+	public void setup() {
+		app = AppCommonFactory.create();
+		algebraProcessor = app.getKernel().getAlgebraProcessor();
+	}
+
+	/**
+	 * @return parsed input
+	 * @throws ParseException
+	 *             if input is invalid
+	 */
+	@Benchmark
+	public ValidExpression parse() throws ParseException {
+		return app.getKernel().getParser().parseGeoGebraExpression(input);
+	}
+
+	/**
+	 * @return number of created elements
+	 */
+	@Benchmark
+	public int process() {
+		GeoElementND[] geos = algebraProcessor.processAlgebraCommand(input,
+				false);
+		for (GeoElementND geo : geos) {
+			geo.remove();
+		}
+		return geos.length;
+	}
+}
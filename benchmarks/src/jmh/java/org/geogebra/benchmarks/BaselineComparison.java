@@ -0,0 +1,195 @@
+package org.geogebra.benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+import org.geogebra.common.move.ggtapi.models.json.JSONArray;
+import org.geogebra.common.move.ggtapi.models.json.JSONException;
+import org.geogebra.common.move.ggtapi.models.json.JSONObject;
+
+/**
+ * Compares JMH results (JSON format) with results of a baseline run.
+ * <p>
+ * Usage: BaselineComparison BASELINE CURRENT REPORT [THRESHOLD_PERCENT]
+ * [FAIL_ON_REGRESSION]
+ * <p>
+ * A benchmark is reported as regression if it got slower by more than the
+ * threshold and the difference is larger than the combined error of both
+ * runs.
+ */
+public final class BaselineComparison {
+
+	private static final double DEFAULT_THRESHOLD = 10;
+
+	/**
+	 * Score of a single benchmark with given parameters.
+	 */
+	static final class Result {
+		final double score;
+		final double error;
+		final String unit;
+		final boolean higherIsBetter;
+
+		Result(double score, double error, String unit,
+				boolean higherIsBetter) {
+			this.score = score;
+			this.error = error;
+			this.unit = unit;
+			this.higherIsBetter = higherIsBetter;
+		}
+	}
+
+	private BaselineComparison() {
+		// command line tool
+	}
+
+	/**
+	 * @param args
+	 *            baseline file, current file, report file, threshold in
+	 *            percent, whether to fail on regression
+	 * @throws IOException
+	 *             if files cannot be read or written
+	 */
+	public static void main(String[] args) throws IOException {
+		if (args.length < 3) {
+			System.err.println("Usage: BaselineComparison BASELINE CURRENT"
+					+ " REPORT [THRESHOLD_PERCENT] [FAIL_ON_REGRESSION]");
+			System.exit(2);
+		}
+		double threshold = args.length > 3 ? Double.parseDouble(args[3])
+				: DEFAULT_THRESHOLD;
+		boolean failOnRegression = args.length > 4
+				&& Boolean.parseBoolean(args[4]);
+		Map<String, Result> baseline = read(new File(args[0]));
+		Map<String, Result> current = read(new File(args[1]));
+		List<String> regressions = new ArrayList<>();
+		String report = compare(baseline, current, threshold, regressions);
+		File reportFile = new File(args[2]);
+		if (reportFile.getParentFile() != null) {
+			reportFile.getParentFile().mkdirs();
+		}
+		Files.write(reportFile.toPath(),
+				report.getBytes(StandardCharsets.UTF_8));
+		System.out.println(report);
+		if (failOnRegression && !regressions.isEmpty()) {
+			System.err.println(regressions.size() + " regression(s) found");
+			System.exit(1);
+		}
+	}
+
+	/**
+	 * @param file
+	 *            JMH result in JSON format
+	 * @return results by benchmark name and parameters
+	 * @throws IOException
+	 *             if the file cannot be read
+	 */
+	static Map<String, Result> read(File file) throws IOException {
+		String json = new String(Files.readAllBytes(file.toPath()),
+				StandardCharsets.UTF_8);
+		try {
+			return parse(json);
+		} catch (JSONException e) {
+			throw new IOException("Invalid JMH result " + file, e);
+		}
+	}
+
+	/**
+	 * @param json
+	 *            JMH result in JSON format
+	 * @return results by benchmark name and parameters
+	 * @throws JSONException
+	 *             if the JSON is not a JMH result
+	 */
+	static Map<String, Result> parse(String json) throws JSONException {
+		Map<String, Result> results = new TreeMap<>();
+		JSONArray runs = new JSONArray(json);
+		for (int i = 0; i < runs.length(); i++) {
+			JSONObject run = runs.getJSONObject(i);
+			StringBuilder key = new StringBuilder(run.getString("benchmark"));
+			JSONObject params = run.optJSONObject("params");
+			if (params != null) {
+				for (String param : new TreeSet<>(params.keySet())) {
+					key.append(' ').append(param).append('=')
+							.append(params.getString(param));
+				}
+			}
+			JSONObject metric = run.getJSONObject("primaryMetric");
+			String mode = run.getString("mode");
+			results.put(key.toString(),
+					new Result(metric.getDouble("score"),
+							metric.optDouble("scoreError", 0),
+							metric.getString("scoreUnit"),
+							"thrpt".equals(mode)));
+		}
+		return results;
+	}
+
+	/**
+	 * @param baseline
+	 *            baseline results
+	 * @param current
+	 *            current results
+	 * @param threshold
+	 *            allowed slowdown in percent
+	 * @param regressions
+	 *            output: names of benchmarks that got slower
+	 * @return report
+	 */
+	static String compare(Map<String, Result> baseline,
+			Map<String, Result> current, double threshold,
+			List<String> regressions) {
+		StringBuilder sb = new StringBuilder();
+		sb.append(String.format(Locale.ROOT, "%-70s %14s %14s %9s%n",
+				"Benchmark", "Baseline", "Current", "Change"));
+		for (Map.Entry<String, Result> entry : current.entrySet()) {
+			String name = entry.getKey();
+			Result now = entry.getValue();
+			Result before = baseline.get(name);
+			if (before == null || !before.unit.equals(now.unit)) {
+				sb.append(String.format(Locale.ROOT, "%-70s %14s %14.3f %9s%n",
+						name, "-", now.score, "new"));
+				continue;
+			}
+			// positive change means slower
+			double change = 100 * (now.score - before.score) / before.score;
+			if (now.higherIsBetter) {
+				change = -change;
+			}
+			boolean significant = Math.abs(now.score - before.score)
+					> nonNaN(before.error) + nonNaN(now.error);
+			String flag = "";
+			if (change > threshold && significant) {
+				flag = "  REGRESSION";
+				regressions.add(name);
+			} else if (change < -threshold && significant) {
+				flag = "  improved";
+			}
+			sb.append(String.format(Locale.ROOT,
+					"%-70s %14.3f %14.3f %+8.1f%%%s%n", name, before.score,
+					now.score, change, flag));
+		}
+		for (String name : baseline.keySet()) {
+			if (!current.containsKey(name)) {
+				sb.append(String.format(Locale.ROOT, "%-70s %14.3f %14s %9s%n",
+						name, baseline.get(name).score, "-", "removed"));
+			}
+		}
+		sb.append(String.format(Locale.ROOT,
+				"%d benchmark(s), %d regression(s) over %.1f%%%n",
+				current.size(), regressions.size(), threshold));
+		return sb.toString();
+	}
+
+	private static double nonNaN(double value) {
+		return Double.isNaN(value) ? 0 : value;
+	}
+}
@@ -0,0 +1,62 @@
+package org.geogebra.benchmarks;
+
+import org.geogebra.common.AppCommonFactory;
+import org.geogebra.common.awt.GPoint;
+import org.geogebra.common.euclidian.EuclidianView;
+import org.geogebra.common.euclidian.plot.CurvePlotter;
+import org.geogebra.common.euclidian.plot.GeneralPathClippedForCurvePlotter;
+import org.geogebra.common.euclidian.plot.Gap;
+import org.geogebra.common.jre.headless.AppCommon;
+import org.geogebra.common.kernel.kernelND.CurveEvaluable;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Sampling of function graphs and parametric curves.
+ */
+@State(Scope.Thread)
+public class CurvePlotterBenchmark {
+
+	@Param({ "f(x) = sin(x)", "f(x) = x^3 - 2x", "f(x) = tan(x)",
+			"f(x) = sin(1 / x)", "f(x) = sqrt(x^2 - 4) + floor(x)",
+			"a = Curve(cos(3t), sin(5t), t, 0, 2pi)" })
+	public String definition;
+
+	private EuclidianView view;
+	private CurveEvaluable curve;
+	private GeneralPathClippedForCurvePlotter path;
+	private double tMin;
+	private double tMax;
+
+	/**
+	 * Creates the curve.
+	 */
+	@Setup
+	public void setup() {
+		AppCommon app = AppCommonFactory.create();
+		view = app.getActiveEuclidianView();
+		curve = (CurveEvaluable) app.getKernel().getAlgebraProcessor()
+				.processAlgebraCommand(definition, false)[0];
+		path = new GeneralPathClippedForCurvePlotter(view);
+		if (curve.isFunctionInX()) {
+			tMin = view.getXmin();
+			tMax = view.getXmax();
+		} else {
+			tMin = curve.getMinParameter();
+			tMax = curve.getMaxParameter();
+		}
+	}
+
+	/**
+	 * @return label position
+	 */
+	@Benchmark
+	public GPoint plot() {
+		path.reset();
+		return CurvePlotter.plotCurve(curve, tMin, tMax, view, path, true,
+				Gap.MOVE_TO);
+	}
+}
@@ -0,0 +1,44 @@
+package org.geogebra.benchmarks;
+
+import org.geogebra.common.AppCommonFactory;
+import org.geogebra.common.jre.headless.AppCommon;
+import org.geogebra.common.kernel.geos.GeoLocus;
+import org.geogebra.common.kernel.implicit.GeoImplicitCurve;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Tracing of implicit curves in the graphics view.
+ */
+@State(Scope.Thread)
+public class ImplicitCurveBenchmark {
+
+	@Param({ "x^4 + y^4 - 4x y = 1", "sin(x) + cos(y) = 0.5",
+			"x^3 + y^3 = 3x y", "(x^2 + y^2)^2 = 8(x^2 - y^2)",
+			"sin(x y) = 0.3" })
+	public String equation;
+
+	private GeoImplicitCurve curve;
+
+	/**
+	 * Creates the curve.
+	 */
+	@Setup
+	public void setup() {
+		AppCommon app = AppCommonFactory.create();
+		curve = (GeoImplicitCurve) app.getKernel().getAlgebraProcessor()
+				.processAlgebraCommand("c: " + equation, false)[0];
+	}
+
+	/**
+	 * @return traced curve
+	 */
+	@Benchmark
+	public GeoLocus trace() {
+		curve.updatePath();
+		return curve.getLocus();
+	}
+}
@@ -0,0 +1,80 @@
+package org.geogebra.benchmarks;
+
+import org.geogebra.common.AppCommonFactory;
+import org.geogebra.common.jre.headless.AppCommon;
+import org.geogebra.common.kernel.Construction;
+import org.geogebra.common.kernel.commands.AlgebraProcessor;
+import org.geogebra.common.kernel.geos.GeoPoint;
+import org.geogebra.common.main.undo.DefaultUndoManager;
+import org.geogebra.common.main.undo.DeltaUndoManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Storing and restoring undo points after a small change of a large
+ * construction.
+ */
+@State(Scope.Thread)
+public class UndoBenchmark {
+
+	@Param({ "100", "1000" })
+	public int size;
+
+	@Param({ "default", "delta" })
+	public String manager;
+
+	private Construction cons;
+	private DefaultUndoManager undoManager;
+	private GeoPoint free;
+	private int step = 0;
+
+	/**
+	 * Creates the construction and the first undo point.
+	 */
+	@Setup
+	public void setup() {
+		AppCommon app = AppCommonFactory.create();
+		AlgebraProcessor ap = app.getKernel().getAlgebraProcessor();
+		ap.processAlgebraCommand("A = (1, 1)", false);
+		for (int i = 0; i < size; i++) {
+			ap.processAlgebraCommand(
+					"P_{" + i + "} = (" + i + ", " + (i % 10) + ")", false);
+		}
+		ap.processAlgebraCommand("B = 2A", false);
+		cons = app.getKernel().getConstruction();
+		undoManager = "delta".equals(manager) ? new DeltaUndoManager(cons)
+				: new DefaultUndoManager(cons);
+		free = (GeoPoint) app.getKernel().lookupLabel("A");
+		store();
+	}
+
+	private void store() {
+		undoManager.storeUndoInfo(cons.getCurrentUndoXML(true), false);
+	}
+
+	/**
+	 * Moves a point and stores an undo point.
+	 */
+	@Benchmark
+	public void storeUndoPoint() {
+		step++;
+		free.setCoords(step % 10, step % 7, 1);
+		free.updateCascade();
+		store();
+	}
+
+	/**
+	 * Undoes and redoes the last change.
+	 */
+	@Benchmark
+	public void undoRedo() {
+		if (!undoManager.undoPossible()) {
+			storeUndoPoint();
+		}
+		undoManager.undo();
+		undoManager.redo();
+	}
+}
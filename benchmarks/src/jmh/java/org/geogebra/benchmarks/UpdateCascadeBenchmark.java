@@ -0,0 +1,68 @@
+package org.geogebra.benchmarks;
+
+import org.geogebra.common.AppCommonFactory;
+import org.geogebra.common.jre.headless.AppCommon;
+import org.geogebra.common.kernel.commands.AlgebraProcessor;
+import org.geogebra.common.kernel.geos.GeoPoint;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Update of dependent elements after a free point moved, on synthetic
+ * dependency graphs.
+ */
+@State(Scope.Thread)
+public class UpdateCascadeBenchmark {
+
+	/** each element depends on the previous one */
+	private static final String CHAIN = "chain";
+	/** all elements depend on the free point */
+	private static final String FAN = "fan";
+	/** each element depends on the two previous ones */
+	private static final String LATTICE = "lattice";
+
+	@Param({ "100", "1000" })
+	public int size;
+
+	@Param({ CHAIN, FAN, LATTICE })
+	public String shape;
+
+	private GeoPoint free;
+	private int step = 0;
+
+	/**
+	 * Creates the construction.
+	 */
+	@Setup
+	public void setup() {
+		AppCommon app = AppCommonFactory.create();
+		AlgebraProcessor ap = app.getKernel().getAlgebraProcessor();
+		ap.processAlgebraCommand("P_{0} = (1, 1)", false);
+		ap.processAlgebraCommand("P_{1} = P_{0} + (1, 0)", false);
+		for (int i = 2; i < size; i++) {
+			String definition;
+			if (CHAIN.equals(shape)) {
+				definition = "P_{" + (i - 1) + "} + (1, 0)";
+			} else if (FAN.equals(shape)) {
+				definition = "P_{0} + (" + i + ", 0)";
+			} else {
+				definition = "(P_{" + (i - 1) + "} + P_{" + (i - 2) + "}) / 2";
+			}
+			ap.processAlgebraCommand("P_{" + i + "} = " + definition, false);
+		}
+		free = (GeoPoint) app.getKernel().lookupLabel("P_{0}");
+	}
+
+	/**
+	 * Moves the free point and updates all dependent points.
+	 */
+	@Benchmark
+	public void moveFreePoint() {
+		step++;
+		free.setCoords(step % 10, step % 7, 1);
+		free.updateCascade();
+	}
+}
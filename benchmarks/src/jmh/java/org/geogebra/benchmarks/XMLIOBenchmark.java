@@ -0,0 +1,70 @@
+package org.geogebra.benchmarks;
+
+import org.geogebra.common.AppCommonFactory;
+import org.geogebra.common.io.MyXMLio;
+import org.geogebra.common.jre.headless.AppCommon;
+import org.geogebra.common.kernel.commands.AlgebraProcessor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Saving and loading constructions.
+ */
+@State(Scope.Thread)
+public class XMLIOBenchmark {
+
+	@Param({ "50", "500" })
+	public int size;
+
+	private MyXMLio xmlio;
+	private String xml;
+
+	/**
+	 * Creates a construction with points, lines, conics, functions and
+	 * texts.
+	 * 
+	 * @throws Exception
+	 *             if the construction cannot be saved
+	 */
+	@Setup
+	public void setup() throws Exception {
+		AppCommon app = AppCommonFactory.create();
+		AlgebraProcessor ap = app.getKernel().getAlgebraProcessor();
+		for (int i = 0; i < size; i++) {
+			ap.processAlgebraCommand("A_{" + i + "} = (" + i + ", 1)", false);
+			ap.processAlgebraCommand("B_{" + i + "} = A_{" + i + "} + (1, 2)",
+					false);
+			ap.processAlgebraCommand("g_{" + i + "} = Line(A_{" + i + "}, B_{"
+					+ i + "})", false);
+			ap.processAlgebraCommand(
+					"c_{" + i + "} = Circle(A_{" + i + "}, B_{" + i + "})",
+					false);
+			ap.processAlgebraCommand(
+					"f_{" + i + "}(x) = sin(x) + x(A_{" + i + "})", false);
+			ap.processAlgebraCommand("t_{" + i + "} = \"Text " + i + "\"",
+					false);
+		}
+		xmlio = app.getKernel().getConstruction().getXMLio();
+		xml = xmlio.getFullXML();
+	}
+
+	/**
+	 * @return full XML
+	 */
+	@Benchmark
+	public String save() {
+		return xmlio.getFullXML();
+	}
+
+	/**
+	 * @throws Exception
+	 *             if XML is invalid
+	 */
+	@Benchmark
+	public void load() throws Exception {
+		xmlio.processXMLString(xml, true, false);
+	}
+}
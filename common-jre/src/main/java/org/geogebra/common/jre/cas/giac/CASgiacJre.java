@@ -1,10 +1,28 @@
 package org.geogebra.common.jre.cas.giac;
 
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+
 import org.geogebra.common.cas.CASparser;
 import org.geogebra.common.cas.error.TimeoutException;
 import org.geogebra.common.cas.giac.CASgiacB;
+import org.geogebra.common.cas.giac.GiacCacheStorage;
 import org.geogebra.common.cas.giac.binding.CASGiacBinding;
+import org.geogebra.common.cas.giac.binding.Context;
 import org.geogebra.common.jre.cas.giac.binding.CASGiacBindingJre;
+import org.geogebra.common.kernel.CASException;
+import org.geogebra.common.kernel.Kernel;
+import org.geogebra.common.kernel.StringTemplate;
+import org.geogebra.common.kernel.arithmetic.AssignmentType;
+import org.geogebra.common.kernel.arithmetic.Command;
+import org.geogebra.common.kernel.arithmetic.MyArbitraryConstant;
+import org.geogebra.common.kernel.arithmetic.ValidExpression;
+import org.geogebra.common.kernel.geos.GeoCasCell;
 import org.geogebra.common.util.debug.Log;
 
 /**
@@ -12,6 +30,8 @@
  */
 public abstract class CASgiacJre extends CASgiacB {
 
+	private volatile GiacWorkerPool workerPool;
+
     /**
      * @param casParser casParser
      */
@@ -24,6 +44,208 @@ public CASGiacBinding createBinding() {
         return new CASGiacBindingJre();
     }
 
+	/**
+	 * Evaluates Giac commands in a pool of long-lived worker threads, each
+	 * with its own Giac context. Commands sent through
+	 * {@link #evaluateGeoGebraCASAsync} can then run at the same time.
+	 *
+	 * @param workers
+	 *            number of worker threads; 0 to evaluate every command in a
+	 *            new thread (or the calling thread if threads are not used)
+	 */
+	public synchronized void setWorkerPoolSize(int workers) {
+		if (workerPool != null) {
+			workerPool.shutdown();
+		}
+		workerPool = workers > 0
+				? new GiacWorkerPool(workers, this::newContext, this::stopThread)
+				: null;
+	}
+
+	/**
+	 * Stops the worker pool and closes the storage of the result cache. Giac
+	 * can still be used afterwards, but without the storage.
+	 */
+	public synchronized void shutdown() {
+		setWorkerPoolSize(0);
+		GiacCacheStorage storage = getResultCache().getStorage();
+		getResultCache().setStorage(null);
+		if (storage instanceof Closeable) {
+			try {
+				((Closeable) storage).close();
+			} catch (IOException e) {
+				Log.debug("Could not close Giac cache: " + e.getMessage());
+			}
+		}
+	}
+
+	/**
+	 * @return worker pool, null if not used
+	 */
+	public GiacWorkerPool getWorkerPool() {
+		return workerPool;
+	}
+
+	@Override
+	protected Context getContext() {
+		Context workerContext = GiacWorkerPool.getWorkerContext();
+		return workerContext != null ? workerContext : super.getContext();
+	}
+
+	@Override
+	protected String evaluate(String exp, long timeoutMillis0)
+			throws Throwable {
+		GiacWorkerPool pool = workerPool;
+		if (pool == null) {
+			return super.evaluate(exp, timeoutMillis0);
+		}
+		String result = pool.invoke(rawCall(exp, timeoutMillis0),
+				timeoutMillis0);
+		synchronized (this) {
+			return processResult(result);
+		}
+	}
+
+	private Callable<String> rawCall(final String exp, final long timeout) {
+		return () -> {
+			try {
+				return evalRaw(exp, timeout);
+			} catch (Throwable t) {
+				Log.debug("problem from JNI Giac: " + t.toString());
+				// force error in GeoGebra
+				return FORCE_ERROR;
+			}
+		};
+	}
+
+	/**
+	 * Evaluates the input like
+	 * {@link #evaluateGeoGebraCAS(ValidExpression, MyArbitraryConstant, StringTemplate, GeoCasCell, Kernel)}
+	 * without blocking other CAS calls while Giac is running.
+	 * <p>
+	 * The input is translated to Giac syntax in the calling thread and
+	 * evaluated in the worker pool. The result is converted to GeoGebra
+	 * syntax by the thread calling {@link Future#get()} since it may create
+	 * elements of the construction. The Giac call is stopped after the CAS
+	 * timeout, then the future fails with {@link TimeoutException}; waiting
+	 * with a shorter timeout doesn't stop it. Without worker pool, or for inputs that need special
+	 * handling (KeepInput, Delete, Numeric, delayed assignments), the input is
+	 * evaluated before this method returns.
+	 *
+	 * @param inputExpression
+	 *            input
+	 * @param arbconst
+	 *            arbitrary constant handler
+	 * @param tpl
+	 *            template for the result
+	 * @param cell
+	 *            CAS cell, may be null
+	 * @param kernel
+	 *            kernel
+	 * @return result in GeoGebra syntax; the future fails with
+	 *         {@link CASException} if the evaluation failed
+	 */
+	public Future<String> evaluateGeoGebraCASAsync(
+			final ValidExpression inputExpression,
+			final MyArbitraryConstant arbconst, final StringTemplate tpl,
+			final GeoCasCell cell, final Kernel kernel) {
+		final GiacWorkerPool pool = workerPool;
+		final String giacInput;
+		final int nrOfVars;
+		synchronized (this) {
+			if (pool == null || !isAsyncSupported(inputExpression, cell)) {
+				FutureTask<String> task = new FutureTask<>(
+						() -> evaluateGeoGebraCAS(inputExpression, arbconst,
+								tpl, cell, kernel));
+				task.run();
+				return task;
+			}
+			String translated = casParser.translateToCAS(inputExpression,
+					StringTemplate.giacTemplate, this);
+			// don't need to replace Unicode when sending to JNI
+			giacInput = casParser.replaceIndices(translated, false);
+			nrOfVars = casParser.getNrOfVars();
+			casParser.setNrOfVars(0);
+		}
+		final GiacWorkerPool.Call<String> call = pool
+				.submit(rawCall(giacInput, timeoutMillis), timeoutMillis);
+		return new Future<String>() {
+			private String result;
+			private ExecutionException error;
+			private boolean converted;
+
+			@Override
+			public boolean cancel(boolean mayInterruptIfRunning) {
+				return call.cancel(mayInterruptIfRunning);
+			}
+
+			@Override
+			public boolean isCancelled() {
+				return call.isCancelled();
+			}
+
+			@Override
+			public boolean isDone() {
+				return call.isDone();
+			}
+
+			@Override
+			public String get() throws InterruptedException, ExecutionException {
+				return convert(call.get());
+			}
+
+			@Override
+			public String get(long wait, TimeUnit unit)
+					throws InterruptedException, ExecutionException,
+					java.util.concurrent.TimeoutException {
+				// a short wait doesn't stop the call, only the Giac timeout
+				return convert(call.get(unit.toMillis(wait)));
+			}
+
+			private synchronized String convert(String giacResult)
+					throws ExecutionException {
+				if (!converted) {
+					try {
+						result = toGeoGebraResult(giacResult, nrOfVars,
+								arbconst, tpl, kernel);
+					} catch (CASException e) {
+						error = new ExecutionException(e);
+					}
+					converted = true;
+				}
+				if (error != null) {
+					throw error;
+				}
+				return result;
+			}
+		};
+	}
+
+	private static boolean isAsyncSupported(ValidExpression input,
+			GeoCasCell cell) {
+		Command cmd = input.getTopLevelCommand();
+		if (cmd != null && ("KeepInput".equals(cmd.getName())
+				|| "Delete".equals(cmd.getName())
+				|| "Numeric".equals(cmd.getName()))) {
+			return false;
+		}
+		return cell == null || (!cell.isKeepInputUsed()
+				&& cell.getAssignmentType() != AssignmentType.DELAYED);
+	}
+
+	private synchronized String toGeoGebraResult(String giacResult,
+			int nrOfVars, MyArbitraryConstant arbconst, StringTemplate tpl,
+			Kernel kernel) throws CASException {
+		String plainResult = processResult(giacResult);
+		if (nrOfVars > 0) {
+			plainResult = keepSolutionVariables(plainResult, nrOfVars);
+		}
+		if (plainResult == null || plainResult.isEmpty()) {
+			return null;
+		}
+		return toGeoGebraString(plainResult, arbconst, tpl, kernel);
+	}
+
 	/**
 	 * synchronized needed in case CAS called from a thread eg Input Bar preview
 	 * eg sin(x)>0
@@ -0,0 +1,376 @@
+package org.geogebra.common.jre.cas.giac;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+
+import org.geogebra.common.cas.giac.GiacCacheStorage;
+import org.geogebra.common.cas.giac.GiacResultCache;
+import org.geogebra.common.util.MaxSizeHashMap;
+import org.geogebra.common.util.debug.Log;
+
+/**
+ * Giac results stored in an append-only file, one result per line. New
+ * results are appended immediately, so they survive a crash.
+ * <p>
+ * Only the most recent results are kept in memory. For the others an index
+ * maps the hash of the input to the position of its line in the file, so a
+ * lookup reads a single line; the index needs 24 bytes or less per result.
+ * <p>
+ * The first line contains the version of the application that wrote the
+ * file; files of other versions are discarded because Giac output may change
+ * between versions.
+ * <p>
+ * To pre-warm the cache, open worksheets with the file set as storage, or
+ * merge files from other machines with {@link #importFrom(File)}.
+ */
+public class GiacCacheFile implements GiacCacheStorage, Closeable {
+
+	/** number of results kept in memory by default */
+	public static final int DEFAULT_MEMORY_SIZE = 1000;
+	private static final String VERSION_PREFIX = "#version\t";
+	/** offset of the version line, marks empty index slots */
+	private static final long NONE = 0;
+
+	private final MaxSizeHashMap<String, String> recent;
+	private final String version;
+	private final FileOutputStream writer;
+	private final RandomAccessFile lookup;
+	/** length of the file */
+	private long end;
+	/** hash of the input for each index slot */
+	private int[] hashes = new int[64];
+	/** position of the line for each index slot */
+	private long[] offsets = new long[64];
+	private int size;
+
+	/**
+	 * Callback for the results in a cache file.
+	 */
+	private interface ResultHandler {
+		void handle(String key, String result, long offset) throws IOException;
+	}
+
+	/**
+	 * @param file
+	 *            file to read the results from and append new results to
+	 * @param version
+	 *            version of the application (and Giac)
+	 * @throws IOException
+	 *             if the file can't be read or opened for writing
+	 */
+	public GiacCacheFile(File file, String version) throws IOException {
+		this(file, version, DEFAULT_MEMORY_SIZE);
+	}
+
+	/**
+	 * @param file
+	 *            file to read the results from and append new results to
+	 * @param version
+	 *            version of the application (and Giac)
+	 * @param memorySize
+	 *            number of results kept in memory
+	 * @throws IOException
+	 *             if the file can't be read or opened for writing
+	 */
+	public GiacCacheFile(File file, String version, int memorySize)
+			throws IOException {
+		this.version = version;
+		this.recent = new MaxSizeHashMap<>(memorySize);
+		boolean valid = file.exists() && read(file, version, null);
+		// files of other versions are overwritten
+		writer = new FileOutputStream(file, valid);
+		lookup = new RandomAccessFile(file, "r");
+		if (valid) {
+			end = lookup.length();
+			read(file, version, (key, result, offset) -> {
+				index(key, offset);
+				recent.put(key, result);
+			});
+			// drop the incomplete line left from an interrupted write
+			long lineEnd = end;
+			while (!endsWithNewline(lineEnd)) {
+				lineEnd--;
+			}
+			if (lineEnd < end) {
+				writer.getChannel().truncate(lineEnd);
+				end = lineEnd;
+			}
+		} else {
+			write(VERSION_PREFIX + escape(version));
+		}
+	}
+
+	@Override
+	public synchronized String get(String key) {
+		String result = recent.get(key);
+		if (result != null) {
+			return result;
+		}
+		int hash = key.hashCode();
+		String prefix = escape(key) + '\t';
+		int mask = hashes.length - 1;
+		try {
+			for (int slot = mix(hash) & mask; offsets[slot] != NONE;
+					slot = (slot + 1) & mask) {
+				if (hashes[slot] == hash) {
+					String line = readLine(offsets[slot]);
+					if (line.startsWith(prefix)) {
+						result = unescape(line.substring(prefix.length()));
+						recent.put(key, result);
+						return result;
+					}
+				}
+			}
+		} catch (IOException e) {
+			Log.debug("Could not read Giac result: " + e.getMessage());
+		}
+		return null;
+	}
+
+	@Override
+	public synchronized void put(String key, String result) {
+		if (result.equals(get(key))) {
+			return;
+		}
+		try {
+			long offset = end;
+			write(escape(key) + '\t' + escape(result));
+			index(key, offset);
+			recent.put(key, result);
+		} catch (IOException e) {
+			Log.debug("Could not store Giac result: " + e.getMessage());
+		}
+	}
+
+	/**
+	 * Adds results from another cache file of the same version.
+	 *
+	 * @param file
+	 *            cache file
+	 * @return number of results read
+	 * @throws IOException
+	 *             if the file can't be read
+	 */
+	public int importFrom(File file) throws IOException {
+		final int[] count = { 0 };
+		if (!read(file, version, (key, result, offset) -> {
+			put(key, result);
+			count[0]++;
+		})) {
+			Log.debug("Ignoring Giac cache of other version: " + file);
+			return 0;
+		}
+		return count[0];
+	}
+
+	/**
+	 * @return number of stored results
+	 */
+	public synchronized int size() {
+		return size;
+	}
+
+	/**
+	 * Closes the file, results can't be added or read afterwards.
+	 *
+	 * @throws IOException
+	 *             if the file can't be closed
+	 */
+	@Override
+	public synchronized void close() throws IOException {
+		try {
+			writer.close();
+		} finally {
+			lookup.close();
+		}
+	}
+
+	/**
+	 * Points the index entry of the key to given line, adds the entry if
+	 * needed.
+	 */
+	private void index(String key, long offset) throws IOException {
+		int hash = key.hashCode();
+		String prefix = escape(key) + '\t';
+		int mask = hashes.length - 1;
+		int slot = mix(hash) & mask;
+		while (offsets[slot] != NONE && (hashes[slot] != hash
+				|| !readLine(offsets[slot]).startsWith(prefix))) {
+			slot = (slot + 1) & mask;
+		}
+		if (offsets[slot] == NONE) {
+			hashes[slot] = hash;
+			size++;
+		}
+		offsets[slot] = offset;
+		if (2 * size > hashes.length) {
+			growIndex();
+		}
+	}
+
+	private void growIndex() {
+		int[] oldHashes = hashes;
+		long[] oldOffsets = offsets;
+		hashes = new int[2 * oldHashes.length];
+		offsets = new long[2 * oldOffsets.length];
+		int mask = hashes.length - 1;
+		for (int i = 0; i < oldOffsets.length; i++) {
+			if (oldOffsets[i] != NONE) {
+				int slot = mix(oldHashes[i]) & mask;
+				while (offsets[slot] != NONE) {
+					slot = (slot + 1) & mask;
+				}
+				hashes[slot] = oldHashes[i];
+				offsets[slot] = oldOffsets[i];
+			}
+		}
+	}
+
+	private static int mix(int hash) {
+		return hash ^ (hash >>> 16);
+	}
+
+	private void write(String line) throws IOException {
+		byte[] bytes = (line + "\n").getBytes(StandardCharsets.UTF_8);
+		writer.write(bytes);
+		writer.flush();
+		end += bytes.length;
+	}
+
+	/**
+	 * @return whether the part of the file up to given position ends with a
+	 *         line break; the version line always does
+	 */
+	private boolean endsWithNewline(long position) throws IOException {
+		lookup.seek(position - 1);
+		return lookup.read() == '\n';
+	}
+
+	/**
+	 * @return line starting at given position, without the line break
+	 */
+	private String readLine(long offset) throws IOException {
+		lookup.seek(offset);
+		ByteArrayOutputStream line = new ByteArrayOutputStream();
+		byte[] chunk = new byte[256];
+		int length;
+		while ((length = lookup.read(chunk)) > 0) {
+			int lineEnd = 0;
+			while (lineEnd < length && chunk[lineEnd] != '\n') {
+				lineEnd++;
+			}
+			line.write(chunk, 0, lineEnd);
+			if (lineEnd < length) {
+				break;
+			}
+		}
+		return new String(line.toByteArray(), StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * @param handler
+	 *            receives the persistent results, may be null to check the
+	 *            version only
+	 * @return whether the file was written by given version
+	 */
+	private static boolean read(File file, String version,
+			ResultHandler handler) throws IOException {
+		try (InputStream in = new BufferedInputStream(
+				new FileInputStream(file))) {
+			ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+			String line = readLine(in, bytes);
+			if (line == null
+					|| !line.equals(VERSION_PREFIX + escape(version))) {
+				return false;
+			}
+			long offset = bytes.size() + 1;
+			while (handler != null && (line = readLine(in, bytes)) != null) {
+				int tab = line.indexOf('\t');
+				// lines without separator are left from interrupted writes
+				if (tab > 0) {
+					String result = unescape(line.substring(tab + 1));
+					if (GiacResultCache.isPersistent(result)) {
+						handler.handle(unescape(line.substring(0, tab)),
+								result, offset);
+					}
+				}
+				offset += bytes.size() + 1;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * @return next complete line, null at the end of the stream
+	 */
+	private static String readLine(InputStream in, ByteArrayOutputStream bytes)
+			throws IOException {
+		bytes.reset();
+		int b;
+		while ((b = in.read()) != '\n') {
+			if (b < 0) {
+				return null;
+			}
+			bytes.write(b);
+		}
+		return new String(bytes.toByteArray(), StandardCharsets.UTF_8);
+	}
+
+	private static String escape(String text) {
+		StringBuilder sb = new StringBuilder(text.length());
+		for (int i = 0; i < text.length(); i++) {
+			char c = text.charAt(i);
+			switch (c) {
+			case '\\':
+				sb.append("\\\\");
+				break;
+			case '\t':
+				sb.append("\\t");
+				break;
+			case '\n':
+				sb.append("\\n");
+				break;
+			case '\r':
+				sb.append("\\r");
+				break;
+			default:
+				sb.append(c);
+			}
+		}
+		return sb.toString();
+	}
+
+	private static String unescape(String text) {
+		StringBuilder sb = new StringBuilder(text.length());
+		for (int i = 0; i < text.length(); i++) {
+			char c = text.charAt(i);
+			if (c == '\\' && i + 1 < text.length()) {
+				i++;
+				switch (text.charAt(i)) {
+				case 't':
+					sb.append('\t');
+					break;
+				case 'n':
+					sb.append('\n');
+					break;
+				case 'r':
+					sb.append('\r');
+					break;
+				default:
+					sb.append(text.charAt(i));
+				}
+			} else {
+				sb.append(c);
+			}
+		}
+		return sb.toString();
+	}
+}
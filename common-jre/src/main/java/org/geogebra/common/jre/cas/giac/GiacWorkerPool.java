@@ -0,0 +1,424 @@
+package org.geogebra.common.jre.cas.giac;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import org.geogebra.common.cas.error.TimeoutException;
+import org.geogebra.common.cas.giac.binding.Context;
+import org.geogebra.common.util.debug.Log;
+
+/**
+ * Long-lived threads for Giac calls. Every worker thread creates its own Giac
+ * context on first use, so calls running on different workers don't share any
+ * Giac state.
+ * <p>
+ * Timeouts don't start a new thread per call: a single timer thread stops
+ * calls that run longer than their Giac timeout. The worker of such a call
+ * gets a new context for the following calls. Waiting for a result with a
+ * shorter timeout doesn't affect the call.
+ */
+public class GiacWorkerPool {
+
+	private final ThreadPoolExecutor executor;
+	private final ScheduledThreadPoolExecutor timer;
+	private final Supplier<Context> contextFactory;
+	private final Consumer<Thread> threadStopper;
+	private final AtomicInteger workerCount = new AtomicInteger();
+	private final long startNanos = System.nanoTime();
+
+	private final AtomicLong submitted = new AtomicLong();
+	private final AtomicLong completed = new AtomicLong();
+	private final AtomicLong timedOut = new AtomicLong();
+	private final AtomicLong totalWaitNanos = new AtomicLong();
+	private final AtomicLong totalRunNanos = new AtomicLong();
+	private final AtomicLong maxLatencyNanos = new AtomicLong();
+
+	/**
+	 * @param size
+	 *            number of worker threads
+	 * @param contextFactory
+	 *            creates Giac context for a worker
+	 * @param threadStopper
+	 *            stops a worker that did not finish in time
+	 */
+	public GiacWorkerPool(int size, Supplier<Context> contextFactory,
+			Consumer<Thread> threadStopper) {
+		this.contextFactory = contextFactory;
+		this.threadStopper = threadStopper;
+		executor = new ThreadPoolExecutor(size, size, 0, TimeUnit.MILLISECONDS,
+				new LinkedBlockingQueue<>(), this::newWorker);
+		timer = new ScheduledThreadPoolExecutor(1, runnable -> {
+			Thread thread = new Thread(runnable, "Giac timeout");
+			thread.setDaemon(true);
+			return thread;
+		});
+		timer.setRemoveOnCancelPolicy(true);
+	}
+
+	private Thread newWorker(Runnable runnable) {
+		Worker worker = new Worker(runnable,
+				"Giac worker " + workerCount.incrementAndGet(), contextFactory);
+		worker.setDaemon(true);
+		return worker;
+	}
+
+	/**
+	 * @return Giac context of the current thread if it's a worker, null
+	 *         otherwise
+	 */
+	static Context getWorkerContext() {
+		Thread thread = Thread.currentThread();
+		return thread instanceof Worker ? ((Worker) thread).getContext()
+				: null;
+	}
+
+	/**
+	 * @param call
+	 *            Giac call
+	 * @param timeoutMillis
+	 *            Giac timeout in milliseconds, counted from the start of the
+	 *            call; the call is stopped afterwards
+	 * @param <T>
+	 *            result type
+	 * @return pending result of the call
+	 */
+	public <T> Call<T> submit(Callable<T> call, long timeoutMillis) {
+		Call<T> task = new Call<>(call, timeoutMillis);
+		submitted.incrementAndGet();
+		task.future = executor.submit(task);
+		return task;
+	}
+
+	/**
+	 * Runs the call in a worker and waits for the result.
+	 *
+	 * @param call
+	 *            Giac call
+	 * @param timeoutMillis
+	 *            Giac timeout in milliseconds
+	 * @param <T>
+	 *            result type
+	 * @return result of the call
+	 * @throws Throwable
+	 *             exception thrown by the call, {@link TimeoutException} if
+	 *             the call was stopped after the timeout
+	 */
+	public <T> T invoke(Callable<T> call, long timeoutMillis) throws Throwable {
+		Call<T> task = submit(call, timeoutMillis);
+		try {
+			return task.get();
+		} catch (ExecutionException e) {
+			throw e.getCause();
+		}
+	}
+
+	/**
+	 * Stops all workers.
+	 */
+	public void shutdown() {
+		executor.shutdownNow();
+		timer.shutdownNow();
+	}
+
+	/**
+	 * @return statistics of the calls so far
+	 */
+	public Metrics getMetrics() {
+		return new Metrics(this);
+	}
+
+	/**
+	 * Worker thread with its own Giac context.
+	 */
+	private static final class Worker extends Thread {
+		private final Supplier<Context> contextFactory;
+		private Context context;
+		private volatile boolean stale;
+
+		Worker(Runnable runnable, String name, Supplier<Context> contextFactory) {
+			super(runnable, name);
+			this.contextFactory = contextFactory;
+		}
+
+		Context getContext() {
+			if (context == null || stale) {
+				stale = false;
+				context = contextFactory.get();
+			}
+			return context;
+		}
+
+		/**
+		 * Makes sure the next call doesn't use the context of an interrupted
+		 * one.
+		 */
+		void discardContext() {
+			stale = true;
+		}
+	}
+
+	/**
+	 * Pending Giac call.
+	 *
+	 * @param <T>
+	 *            result type
+	 */
+	public final class Call<T> implements Callable<T> {
+		private final Callable<T> call;
+		private final long timeoutMillis;
+		private final long submitNanos = System.nanoTime();
+		private volatile Thread runner;
+		private volatile boolean finished;
+		private volatile boolean expired;
+		private volatile Future<T> future;
+
+		Call(Callable<T> call, long timeoutMillis) {
+			this.call = call;
+			this.timeoutMillis = timeoutMillis;
+		}
+
+		@Override
+		public T call() throws Exception {
+			long startNanos = System.nanoTime();
+			runner = Thread.currentThread();
+			ScheduledFuture<?> watchdog = timer.schedule(this::expire,
+					timeoutMillis, TimeUnit.MILLISECONDS);
+			try {
+				return call.call();
+			} finally {
+				watchdog.cancel(false);
+				runner = null;
+				finished = true;
+				long endNanos = System.nanoTime();
+				completed.incrementAndGet();
+				totalWaitNanos.addAndGet(startNanos - submitNanos);
+				totalRunNanos.addAndGet(endNanos - startNanos);
+				long latency = endNanos - submitNanos;
+				maxLatencyNanos.accumulateAndGet(latency, Math::max);
+			}
+		}
+
+		/**
+		 * @return whether the call finished, failed or was cancelled
+		 */
+		public boolean isDone() {
+			return future.isDone();
+		}
+
+		/**
+		 * @return whether the call was cancelled by {@link #cancel(boolean)}
+		 */
+		public boolean isCancelled() {
+			return future.isCancelled() && !expired;
+		}
+
+		/**
+		 * Waits for the result; the call stops at the latest after its Giac
+		 * timeout.
+		 *
+		 * @return result of the call
+		 * @throws ExecutionException
+		 *             if the call failed; caused by {@link TimeoutException}
+		 *             if it was stopped after its Giac timeout
+		 * @throws InterruptedException
+		 *             if the current thread was interrupted while waiting
+		 * @throws CancellationException
+		 *             if the call was cancelled
+		 */
+		public T get() throws ExecutionException, InterruptedException {
+			try {
+				return future.get();
+			} catch (CancellationException e) {
+				throw expiredOr(e);
+			}
+		}
+
+		/**
+		 * Waits for the result; if there is none in time, the call goes on.
+		 *
+		 * @param waitMillis
+		 *            maximal waiting time in milliseconds
+		 * @return result of the call
+		 * @throws ExecutionException
+		 *             if the call failed; caused by {@link TimeoutException}
+		 *             if it was stopped after its Giac timeout
+		 * @throws InterruptedException
+		 *             if the current thread was interrupted while waiting
+		 * @throws java.util.concurrent.TimeoutException
+		 *             if the call didn't finish while waiting
+		 * @throws CancellationException
+		 *             if the call was cancelled
+		 */
+		public T get(long waitMillis) throws ExecutionException,
+				InterruptedException, java.util.concurrent.TimeoutException {
+			try {
+				return future.get(waitMillis, TimeUnit.MILLISECONDS);
+			} catch (CancellationException e) {
+				throw expiredOr(e);
+			}
+		}
+
+		private ExecutionException expiredOr(CancellationException e) {
+			if (expired) {
+				Log.debug("Thread timeout from Giac");
+				return new ExecutionException(
+						new TimeoutException("Thread timeout from Giac"));
+			}
+			throw e;
+		}
+
+		/**
+		 * Cancels the call; a running call is stopped if
+		 * mayInterruptIfRunning is set.
+		 *
+		 * @param mayInterruptIfRunning
+		 *            whether to stop a running call
+		 * @return whether the call was cancelled
+		 */
+		public boolean cancel(boolean mayInterruptIfRunning) {
+			boolean cancelled = future.cancel(mayInterruptIfRunning);
+			if (cancelled && mayInterruptIfRunning) {
+				stopRunner();
+			}
+			return cancelled;
+		}
+
+		private void expire() {
+			if (finished) {
+				return;
+			}
+			expired = true;
+			timedOut.incrementAndGet();
+			future.cancel(true);
+			stopRunner();
+		}
+
+		private void stopRunner() {
+			Thread worker = runner;
+			if (worker != null && !finished) {
+				((Worker) worker).discardContext();
+				try {
+					// interrupt doesn't stop native code
+					threadStopper.accept(worker);
+				} catch (Throwable t) {
+					Log.debug("Could not stop Giac worker: " + t);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Throughput and latency of the calls, measured since the pool was created.
+	 */
+	public static final class Metrics {
+		private final long submitted;
+		private final long completed;
+		private final long timedOut;
+		private final int queued;
+		private final double elapsedSeconds;
+		private final long totalWaitNanos;
+		private final long totalRunNanos;
+		private final long maxLatencyNanos;
+
+		Metrics(GiacWorkerPool pool) {
+			submitted = pool.submitted.get();
+			completed = pool.completed.get();
+			timedOut = pool.timedOut.get();
+			queued = pool.executor.getQueue().size();
+			elapsedSeconds = (System.nanoTime() - pool.startNanos) / 1E9;
+			totalWaitNanos = pool.totalWaitNanos.get();
+			totalRunNanos = pool.totalRunNanos.get();
+			maxLatencyNanos = pool.maxLatencyNanos.get();
+		}
+
+		/**
+		 * @return number of submitted calls
+		 */
+		public long getSubmittedCount() {
+			return submitted;
+		}
+
+		/**
+		 * @return number of finished calls (including failed ones)
+		 */
+		public long getCompletedCount() {
+			return completed;
+		}
+
+		/**
+		 * @return number of calls that timed out
+		 */
+		public long getTimeoutCount() {
+			return timedOut;
+		}
+
+		/**
+		 * @return number of calls waiting for a worker
+		 */
+		public int getQueuedCount() {
+			return queued;
+		}
+
+		/**
+		 * @return finished calls per second
+		 */
+		public double getThroughput() {
+			return elapsedSeconds > 0 ? completed / elapsedSeconds : 0;
+		}
+
+		/**
+		 * @return average time between submitting a call and its start in
+		 *         milliseconds
+		 */
+		public double getAverageWaitMillis() {
+			return average(totalWaitNanos);
+		}
+
+		/**
+		 * @return average running time of a call in milliseconds
+		 */
+		public double getAverageRunMillis() {
+			return average(totalRunNanos);
+		}
+
+		/**
+		 * @return average time between submitting a call and its end in
+		 *         milliseconds
+		 */
+		public double getAverageLatencyMillis() {
+			return average(totalWaitNanos + totalRunNanos);
+		}
+
+		/**
+		 * @return maximal time between submitting a call and its end in
+		 *         milliseconds
+		 */
+		public double getMaxLatencyMillis() {
+			return maxLatencyNanos / 1E6;
+		}
+
+		private double average(long totalNanos) {
+			return completed > 0 ? totalNanos / 1E6 / completed : 0;
+		}
+
+		@Override
+		public String toString() {
+			return "submitted: " + submitted + ", completed: " + completed
+					+ ", timeouts: " + timedOut + ", queued: " + queued
+					+ ", throughput: " + getThroughput() + "/s"
+					+ ", latency: " + getAverageLatencyMillis() + "ms (max "
+					+ getMaxLatencyMillis() + "ms)";
+		}
+	}
+}
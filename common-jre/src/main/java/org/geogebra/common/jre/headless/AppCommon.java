@@ -23,6 +23,7 @@
 import org.geogebra.common.jre.factory.FormatFactoryJre;
 import org.geogebra.common.jre.io.MyXMLioCommon;
 import org.geogebra.common.jre.kernel.commands.CommandDispatcherJre;
+import org.geogebra.common.jre.main.DeflaterStateCompressor;
 import org.geogebra.common.jre.main.LocalizationJre;
 import org.geogebra.common.jre.util.UtilFactoryJre;
 import org.geogebra.common.kernel.Construction;
@@ -35,6 +36,7 @@
 import org.geogebra.common.main.App;
 import org.geogebra.common.main.AppConfig;
 import org.geogebra.common.main.DialogManager;
+import org.geogebra.common.main.Feature;
 import org.geogebra.common.main.FontManager;
 import org.geogebra.common.main.GlobalKeyDispatcher;
 import org.geogebra.common.main.GuiManagerInterface;
@@ -49,6 +51,7 @@
 import org.geogebra.common.main.settings.config.AppConfigGraphing3D;
 import org.geogebra.common.main.settings.config.AppConfigNotes;
 import org.geogebra.common.main.undo.DefaultUndoManager;
+import org.geogebra.common.main.undo.DeltaUndoManager;
 import org.geogebra.common.main.undo.UndoManager;
 import org.geogebra.common.plugin.GgbAPI;
 import org.geogebra.common.plugin.ScriptManager;
@@ -566,6 +569,11 @@ public void setActiveView(int evID) {
 
     @Override
     public UndoManager getUndoManager(Construction cons) {
+		if (has(Feature.DELTA_UNDO)) {
+			DeltaUndoManager undoManager = new DeltaUndoManager(cons);
+			undoManager.setCompressor(new DeflaterStateCompressor());
+			return undoManager;
+		}
 		return new DefaultUndoManager(cons);
     }
 
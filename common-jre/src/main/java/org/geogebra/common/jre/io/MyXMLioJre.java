@@ -153,6 +153,25 @@ protected void processXMLBuffer(byte[] buffer, boolean clearConstruction,
 		bs.close();
 	}
 
+	/**
+	 * Handles the XML file read from the stream without loading it into
+	 * memory first. The stream is not closed.
+	 * 
+	 * @param is
+	 *            input stream, e.g. zip stream positioned at the XML entry
+	 * @param clearConstruction
+	 *            whether to clear construction
+	 * @param isGGTOrDefaults
+	 *            whether this is just ggt/defaults (no construction)
+	 * @throws Exception
+	 *             on parsing error
+	 */
+	protected void processXMLStream(InputStream is, boolean clearConstruction,
+			boolean isGGTOrDefaults) throws Exception {
+		doParseXML(new XMLStreamInputStream(is, false), clearConstruction,
+				isGGTOrDefaults, true, true, true);
+	}
+
 	/**
 	 * Reads from a zipped input stream that includes only the construction
 	 * saved in xml format.
@@ -657,13 +676,25 @@ public static class XMLStreamInputStream implements XMLStreamJre {
 
 		private InputStream is;
 		private InputStreamReader reader;
+		private boolean closeStream;
 
 		/**
 		 * @param is
 		 *            input stream
 		 */
 		public XMLStreamInputStream(InputStream is) {
+			this(is, true);
+		}
+
+		/**
+		 * @param is
+		 *            input stream
+		 * @param closeStream
+		 *            whether to close the stream after parsing
+		 */
+		public XMLStreamInputStream(InputStream is, boolean closeStream) {
 			this.is = is;
+			this.closeStream = closeStream;
 		}
 
 		@Override
@@ -674,7 +705,9 @@ public Reader getReader() throws Exception {
 
 		@Override
 		public void closeReader() throws Exception {
-			reader.close();
+			if (closeStream) {
+				reader.close();
+			}
 		}
 	}
 }
@@ -0,0 +1,43 @@
+package org.geogebra.common.jre.kernel;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+import org.geogebra.common.kernel.ParallelUpdateExecutor;
+
+/**
+ * Runs construction update tasks in a fork/join pool.
+ */
+public class ForkJoinUpdateExecutor implements ParallelUpdateExecutor {
+
+	private final ForkJoinPool pool;
+
+	/**
+	 * Executor using the common pool.
+	 */
+	public ForkJoinUpdateExecutor() {
+		this(ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * @param pool
+	 *            pool for the update tasks
+	 */
+	public ForkJoinUpdateExecutor(ForkJoinPool pool) {
+		this.pool = pool;
+	}
+
+	@Override
+	public void runAll(List<Runnable> tasks) {
+		final List<ForkJoinTask<?>> forkJoinTasks = new ArrayList<>(
+				tasks.size());
+		for (Runnable task : tasks) {
+			forkJoinTasks.add(ForkJoinTask.adapt(task));
+		}
+		pool.invoke(ForkJoinTask.adapt(() -> {
+			ForkJoinTask.invokeAll(forkJoinTasks);
+		}));
+	}
+}
@@ -0,0 +1,57 @@
+package org.geogebra.common.jre.main;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+import org.geogebra.common.main.undo.StateCompressor;
+
+/**
+ * Compresses undo states using deflate.
+ */
+public class DeflaterStateCompressor implements StateCompressor {
+
+	private static final int BUFFER_SIZE = 8192;
+
+	@Override
+	public byte[] compress(String data) {
+		Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+		try {
+			deflater.setInput(data.getBytes(StandardCharsets.UTF_8));
+			deflater.finish();
+			ByteArrayOutputStream out = new ByteArrayOutputStream();
+			byte[] buffer = new byte[BUFFER_SIZE];
+			while (!deflater.finished()) {
+				int length = deflater.deflate(buffer);
+				out.write(buffer, 0, length);
+			}
+			return out.toByteArray();
+		} finally {
+			deflater.end();
+		}
+	}
+
+	@Override
+	public String decompress(byte[] compressed) {
+		Inflater inflater = new Inflater();
+		try {
+			inflater.setInput(compressed);
+			ByteArrayOutputStream out = new ByteArrayOutputStream();
+			byte[] buffer = new byte[BUFFER_SIZE];
+			while (!inflater.finished()) {
+				int length = inflater.inflate(buffer);
+				if (length == 0 && inflater.needsInput()) {
+					throw new IllegalStateException("Truncated undo state");
+				}
+				out.write(buffer, 0, length);
+			}
+			return new String(out.toByteArray(), StandardCharsets.UTF_8);
+		} catch (DataFormatException e) {
+			throw new IllegalStateException(e);
+		} finally {
+			inflater.end();
+		}
+	}
+}
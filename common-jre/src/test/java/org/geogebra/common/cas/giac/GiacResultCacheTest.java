@@ -0,0 +1,94 @@
+package org.geogebra.common.cas.giac;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Test;
+
+public class GiacResultCacheTest {
+
+	@Test
+	public void canonicalFormShouldIgnoreSpaces() {
+		assertEquals(GiacResultCache.canonicalForm("factor(x^2 - 1)"),
+				GiacResultCache.canonicalForm("factor( x^2-1 )"));
+		assertNotEquals(GiacResultCache.canonicalForm("a b"),
+				GiacResultCache.canonicalForm("ab"));
+		assertNotEquals(GiacResultCache.canonicalForm("\"a b\""),
+				GiacResultCache.canonicalForm("\"ab\""));
+	}
+
+	@Test
+	public void canonicalFormShouldIgnoreVariableNames() {
+		assertEquals(
+				GiacResultCache.canonicalForm(
+						"solve(ggbtmpvara^2=ggbtmpvarb,ggbtmpvara)"),
+				GiacResultCache.canonicalForm(
+						"solve(ggbtmpvarx^2=ggbtmpvary,ggbtmpvarx)"));
+		assertNotEquals(
+				GiacResultCache.canonicalForm(
+						"solve(ggbtmpvara^2=ggbtmpvarb,ggbtmpvara)"),
+				GiacResultCache.canonicalForm(
+						"solve(ggbtmpvary^2=ggbtmpvarx,ggbtmpvary)"));
+	}
+
+	@Test
+	public void resultShouldUseVariablesOfInput() {
+		GiacResultCache cache = new GiacResultCache(10);
+		cache.put("solve(ggbtmpvara^2=4,ggbtmpvara)",
+				"{ggbtmpvara=-2,ggbtmpvara=2}");
+		assertEquals("{ggbtmpvarx=-2,ggbtmpvarx=2}",
+				cache.get("solve(ggbtmpvarx^2 = 4, ggbtmpvarx)"));
+		assertNull(cache.get("solve(ggbtmpvarx^2=5,ggbtmpvarx)"));
+		assertEquals(1, cache.getHitCount());
+		assertEquals(1, cache.getMissCount());
+		assertEquals(0.5, cache.getHitRate(), 0);
+	}
+
+	@Test
+	public void storageShouldKeepRemovedResults() {
+		Map<String, String> stored = new HashMap<>();
+		GiacResultCache cache = new GiacResultCache(1);
+		cache.setStorage(new GiacCacheStorage() {
+			@Override
+			public String get(String key) {
+				return stored.get(key);
+			}
+
+			@Override
+			public void put(String key, String result) {
+				stored.put(key, result);
+			}
+		});
+		cache.put("factor(ggbtmpvarx^2-1)", "(ggbtmpvarx-1)*(ggbtmpvarx+1)");
+		cache.put("expand((ggbtmpvarx+1)^2)", "ggbtmpvarx^2+2*ggbtmpvarx+1");
+		assertEquals("(ggbtmpvart-1)*(ggbtmpvart+1)",
+				cache.get("factor(ggbtmpvart^2-1)"));
+		assertEquals(1, cache.getStorageHitCount());
+	}
+
+	@Test
+	public void storageShouldSkipTimeoutsAndErrors() {
+		Map<String, String> stored = new HashMap<>();
+		GiacResultCache cache = new GiacResultCache(10);
+		cache.setStorage(new GiacCacheStorage() {
+			@Override
+			public String get(String key) {
+				return stored.get(key);
+			}
+
+			@Override
+			public void put(String key, String result) {
+				stored.put(key, result);
+			}
+		});
+		cache.put("solve(x^9=1)", "\"Error: user interruption\"");
+		cache.put("factor(", "?");
+		cache.put("expand((x+1)^2)", "x^2+2*x+1");
+		assertEquals(1, stored.size());
+		assertEquals(3, cache.size());
+	}
+}
@@ -0,0 +1,45 @@
+package org.geogebra.common.euclidian;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.geogebra.test.TestEvent;
+import org.junit.Test;
+
+public class DrawableLayerCacheTest extends BaseControllerTest {
+
+	@Test
+	public void draggingShouldCacheUnchangedDrawables() {
+		add("A=(1,-1)");
+		add("B=(5,-1)");
+		add("f=Line(A,B)");
+		add("C=(1,-3)");
+		add("c=Circle(C,1)");
+		add("D=(5,-5)");
+		for (int i = 0; i < 10; i++) {
+			add("P_{" + i + "}=(" + i + ",-8)");
+		}
+		setMode(EuclidianConstants.MODE_MOVE);
+		EuclidianView view = getApp().getActiveEuclidianView();
+		DrawableLayerCache cache = view.getLayerCache();
+		dragStart(50, 150);
+		for (int i = 1; i <= 4; i++) {
+			drag(50 + 10 * i, 150 + 10 * i);
+		}
+		assertTrue(cache.isValid());
+
+		add("SetColor(D, \"red\")");
+		drag(100, 200);
+		assertFalse(cache.isValid());
+		dragEnd(110, 210);
+		view.repaintView();
+		assertFalse(cache.isValid());
+	}
+
+	private void drag(int x, int y) {
+		EuclidianView view = getApp().getActiveEuclidianView();
+		view.getEuclidianController()
+				.wrapMouseDragged(new TestEvent(x, y, null, false), true);
+		view.repaintView();
+	}
+}
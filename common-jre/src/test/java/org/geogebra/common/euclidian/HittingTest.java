@@ -1,6 +1,7 @@
 package org.geogebra.common.euclidian;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 
 import org.geogebra.common.euclidian.event.PointerEventType;
 import org.junit.Test;
@@ -21,6 +22,25 @@ public void polygonTool() {
 		assertEquals("p2", getSelectedLabel());
 	}
 
+	@Test
+	public void hitTestingShouldOnlyCheckNearbyDrawables() {
+		for (int i = 0; i < 100; i++) {
+			add("pt" + i + "=(" + (i % 10) + "," + (-(i / 10)) + ")");
+		}
+		setMode(EuclidianConstants.MODE_MOVE);
+		click(150, 100);
+		assertEquals("pt23", getSelectedLabel());
+		DrawableIndex index = getApp().getActiveEuclidianView().getDrawableIndex();
+		int candidates = index.findCandidates(150, 100, 3);
+		assertTrue(candidates < 10);
+
+		add("SetCoords(pt23, 8.5, -8.5)");
+		click(425, 425);
+		assertEquals("pt23", getSelectedLabel());
+		click(150, 100);
+		assertEquals(0, getApp().getSelectionManager().selectedGeosSize());
+	}
+
 	private String getSelectedLabel() {
 		return getApp().getSelectionManager().getSelectedGeos().get(0).getLabelSimple();
 	}
@@ -0,0 +1,132 @@
+package org.geogebra.common.geogebra3D.euclidian3D.printer3D;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+
+import org.junit.Test;
+
+public class FormatSTLBinaryTest {
+
+	private static class MemoryOutput implements BinaryOutput {
+		private final ByteArrayOutputStream stream = new ByteArrayOutputStream();
+		private final ArrayList<Integer> writeSizes = new ArrayList<>();
+		private byte[] data;
+
+		@Override
+		public void write(byte[] bytes, int offset, int length) {
+			writeSizes.add(length);
+			stream.write(bytes, offset, length);
+		}
+
+		@Override
+		public void writeAt(long position, byte[] bytes) {
+			data = stream.toByteArray();
+			System.arraycopy(bytes, 0, data, (int) position, bytes.length);
+		}
+
+		@Override
+		public void close() {
+			if (data == null) {
+				data = stream.toByteArray();
+			}
+		}
+	}
+
+	@Test
+	public void shouldWriteHeaderAndTriangles() {
+		MemoryOutput output = new MemoryOutput();
+		FormatSTLBinary format = new FormatSTLBinary(output);
+		StringBuilder sb = new StringBuilder();
+		format.getScriptStart(sb);
+		format.getPolyhedronStart(sb, false, false);
+		format.getTriangle(sb, 0, 0, 1, 0, 0, 0, 1, 0, 0, 0, 1, 0);
+		format.getTriangle(sb, 0, 0, -1, 0, 0, 0, 0, 1, 0, 1, 0, 0);
+		format.getScriptEnd(sb);
+
+		assertEquals(0, sb.length());
+		assertNull(format.getError());
+		assertEquals(2, format.getTriangleCount());
+		ByteBuffer stl = ByteBuffer.wrap(output.data)
+				.order(ByteOrder.LITTLE_ENDIAN);
+		assertEquals(84 + 2 * 50, output.data.length);
+		assertEquals('g', stl.get(0));
+		assertEquals(2, stl.getInt(80));
+		// normal and vertices of the first triangle
+		float[] expected = { 0, 0, 1, 0, 0, 0, 1, 0, 0, 0, 1, 0 };
+		for (int i = 0; i < expected.length; i++) {
+			assertEquals(expected[i], stl.getFloat(84 + 4 * i), 0);
+		}
+		assertEquals(0, stl.getShort(84 + 48));
+		assertEquals(-1, stl.getFloat(84 + 50 + 8), 0);
+	}
+
+	@Test
+	public void shouldWeldVerticesAndDropCollapsedTriangles() {
+		MemoryOutput output = new MemoryOutput();
+		FormatSTLBinary format = new FormatSTLBinary(output);
+		StringBuilder sb = new StringBuilder();
+		format.getScriptStart(sb);
+		format.getPolyhedronStart(sb, false, false);
+		format.getTriangle(sb, 0, 0, 1, 0, 0, 0, 1, 0, 0, 0, 1, 0);
+		double e = FormatSTLBinary.WELD_TOLERANCE / 2;
+		format.getTriangle(sb, 0, 0, 1, 1 + e, -e, e, 1 - e, 1, 0, -e, 1 + e,
+				0);
+		// collapses to an edge
+		format.getTriangle(sb, 0, 0, 1, 0, 0, 0, e, e, 0, 1, 0, 0);
+		format.getScriptEnd(sb);
+
+		assertEquals(2, format.getTriangleCount());
+		ByteBuffer stl = ByteBuffer.wrap(output.data)
+				.order(ByteOrder.LITTLE_ENDIAN);
+		// first vertex of the second triangle is (1, 0, 0)
+		assertEquals(1, stl.getFloat(84 + 50 + 12), 0);
+		assertEquals(0, stl.getFloat(84 + 50 + 16), 0);
+		assertEquals(0, stl.getFloat(84 + 50 + 20), 0);
+	}
+
+	@Test
+	public void shouldWriteInBlocksAndReportProgress() {
+		MemoryOutput output = new MemoryOutput();
+		FormatSTLBinary format = new FormatSTLBinary(output);
+		ArrayList<Integer> progress = new ArrayList<>();
+		format.setProgressListener(progress::add);
+		StringBuilder sb = new StringBuilder();
+		format.getScriptStart(sb);
+		format.getPolyhedronStart(sb, false, false);
+		int n = FormatSTLBinary.PROGRESS_STEP + 2000;
+		for (int i = 0; i < n; i++) {
+			format.getTriangle(sb, 0, 0, 1, i, 0, 0, i + 1, 0, 0, i, 1, 0);
+		}
+		format.getScriptEnd(sb);
+
+		assertEquals(84 + 50 * n, output.data.length);
+		for (int size : output.writeSizes) {
+			assertTrue(size <= FormatSTLBinary.BUFFER_TRIANGLES
+					* FormatSTLBinary.TRIANGLE_SIZE);
+		}
+		assertEquals(2, progress.size());
+		assertEquals(n, (int) progress.get(1));
+	}
+
+	@Test
+	public void weldingShouldMergeNeighboursInAdjacentCells() {
+		VertexWelder welder = new VertexWelder(0.1);
+		int v = welder.add(0.19, 0, 0);
+		assertEquals(v, welder.add(0.21, 0, 0));
+		assertEquals(v, welder.add(0.1, -0.05, 0.05));
+		assertTrue(welder.add(0.3, 0, 0) != v);
+		for (int i = 0; i < 1000; i++) {
+			welder.add(i, i, i);
+		}
+		assertEquals(v, welder.add(0.19, 0, 0));
+		assertEquals(1002, welder.size());
+		welder.clear();
+		assertEquals(0, welder.add(5, 5, 5));
+	}
+}
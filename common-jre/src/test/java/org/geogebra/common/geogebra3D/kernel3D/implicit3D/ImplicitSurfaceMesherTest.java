@@ -0,0 +1,86 @@
+package org.geogebra.common.geogebra3D.kernel3D.implicit3D;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashMap;
+
+import org.geogebra.common.AppCommonFactory;
+import org.geogebra.common.BaseUnitTest;
+import org.geogebra.common.geogebra3D.kernel3D.geos.GeoTriangulatedSurface3D;
+import org.geogebra.common.jre.headless.AppCommon;
+import org.geogebra.common.kernel.arithmetic.Equation;
+import org.geogebra.common.kernel.arithmetic.ExpressionNode;
+import org.geogebra.common.kernel.geos.GeoFunctionNVar;
+import org.junit.Test;
+
+public class ImplicitSurfaceMesherTest extends BaseUnitTest {
+
+	/** 300 pixels in each direction: 8 coarse and 16 fine cells */
+	private static final double[] BOUNDS = { -3, 3, -3, 3, -3, 3, 50, 50,
+			50 };
+	private static final double FINE_STEP = 6.0 / 16;
+
+	@Override
+	public AppCommon createAppCommon() {
+		return AppCommonFactory.create3D();
+	}
+
+	@Test
+	public void sphereMeshShouldBeClosed() {
+		ImplicitSurfaceMesher mesher = meshSphere();
+		assertTrue(mesher.getTriangleCount() > 0);
+		// every edge is shared by exactly two triangles, which is only
+		// possible if adjacent cells use the same vertex indices
+		HashMap<Long, Integer> edges = new HashMap<>();
+		for (int t = 0; t < mesher.getTriangleCount(); t++) {
+			for (int corner = 0; corner < 3; corner++) {
+				int start = mesher.getTriangleVertex(t, corner);
+				int end = mesher.getTriangleVertex(t, (corner + 1) % 3);
+				assertNotEquals(start, end);
+				long key = ((long) Math.min(start, end) << 32)
+						| Math.max(start, end);
+				edges.merge(key, 1, Integer::sum);
+			}
+		}
+		for (int count : edges.values()) {
+			assertEquals(2, count);
+		}
+	}
+
+	@Test
+	public void sphereVerticesShouldLieOnRefinedGrid() {
+		ImplicitSurfaceMesher mesher = meshSphere();
+		boolean onFineLine = false;
+		for (int v = 0; v < mesher.getVertexCount(); v++) {
+			double radius = 0;
+			int onGrid = 0;
+			for (int coord = 0; coord < 3; coord++) {
+				double c = mesher.getVertexCoord(v, coord);
+				radius += c * c;
+				double steps = (c + 3) / FINE_STEP;
+				if (Math.abs(steps - Math.round(steps)) < 1E-9) {
+					onGrid++;
+					onFineLine |= Math.round(steps) % 2 != 0;
+				}
+			}
+			// linear interpolation on the fine grid is close to the sphere
+			assertEquals(2, Math.sqrt(radius), 0.02);
+			// two coordinates of a vertex on a grid edge are on the grid
+			assertTrue(onGrid >= 2);
+		}
+		// vertices between the coarse grid lines come from refined cells
+		assertTrue(onFineLine);
+	}
+
+	private ImplicitSurfaceMesher meshSphere() {
+		GeoFunctionNVar f = add("f(x, y, z) = x^2 + y^2 + z^2 - 4");
+		Equation sphere = new Equation(getKernel(), f.getFunctionExpression(),
+				new ExpressionNode(getKernel(), 0.0));
+		ImplicitSurfaceMesher mesher = new ImplicitSurfaceMesher(
+				new GeoImplicitSurface(getConstruction(), sphere));
+		mesher.update(BOUNDS, new GeoTriangulatedSurface3D());
+		return mesher;
+	}
+}
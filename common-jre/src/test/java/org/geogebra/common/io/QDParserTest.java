@@ -0,0 +1,79 @@
+package org.geogebra.common.io;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+
+import org.junit.Test;
+
+public class QDParserTest {
+
+	private static class RecordingHandler implements DocHandler {
+		private final ArrayList<String> tags = new ArrayList<>();
+		private final ArrayList<LinkedHashMap<String, String>> attributes =
+				new ArrayList<>();
+		private final StringBuilder text = new StringBuilder();
+		private boolean ended = false;
+
+		@Override
+		public void startElement(String tag, LinkedHashMap<String, String> h) {
+			tags.add(tag);
+			attributes.add(new LinkedHashMap<>(h));
+		}
+
+		@Override
+		public void endElement(String tag) {
+			// not needed
+		}
+
+		@Override
+		public void startDocument() {
+			// not needed
+		}
+
+		@Override
+		public void endDocument() {
+			ended = true;
+		}
+
+		@Override
+		public void text(String str) {
+			text.append(str);
+		}
+	}
+
+	@Test
+	public void shouldParseDocumentLongerThanBuffer() throws Exception {
+		StringBuilder xml = new StringBuilder("<?xml version=\"1.0\"?>\n<a>");
+		int count = 2 * QDParser.BUFFER_SIZE / 20;
+		for (int i = 0; i < count; i++) {
+			xml.append("<b val=\"").append(i % 2 == 0 ? "true" : "x&lt;y")
+					.append("\"/>\n");
+		}
+		xml.append("</a>");
+		RecordingHandler handler = new RecordingHandler();
+		new QDParser().parse(handler, new StringReader(xml.toString()));
+		assertTrue(handler.ended);
+		assertEquals(count + 1, handler.tags.size());
+		assertEquals("true", handler.attributes.get(1).get("val"));
+		assertEquals("x<y", handler.attributes.get(2).get("val"));
+		assertEquals("x<y", handler.attributes.get(count).get("val"));
+		// repeated strings are shared
+		assertSame(handler.tags.get(1), handler.tags.get(count));
+		assertSame(handler.attributes.get(1).get("val"),
+				handler.attributes.get(count - 1).get("val"));
+	}
+
+	@Test
+	public void shouldSkipComments() throws Exception {
+		RecordingHandler handler = new RecordingHandler();
+		new QDParser().parse(handler,
+				new StringReader("<a><!-- c > d --><b/></a>"));
+		assertTrue(handler.ended);
+		assertEquals(2, handler.tags.size());
+	}
+}
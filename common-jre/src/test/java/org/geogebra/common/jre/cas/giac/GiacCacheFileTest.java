@@ -0,0 +1,91 @@
+package org.geogebra.common.jre.cas.giac;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.Test;
+
+public class GiacCacheFileTest {
+
+	@Test
+	public void resultsShouldSurviveReopening() throws IOException {
+		File file = createFile();
+		GiacCacheFile cache = new GiacCacheFile(file, "1.0");
+		cache.put("factor(x^2-1)", "(x-1)*(x+1)");
+		cache.close();
+		GiacCacheFile reopened = new GiacCacheFile(file, "1.0");
+		assertEquals("(x-1)*(x+1)", reopened.get("factor(x^2-1)"));
+		reopened.close();
+	}
+
+	@Test
+	public void otherVersionShouldBeDiscarded() throws IOException {
+		File file = createFile();
+		File other = createFile();
+		GiacCacheFile cache = new GiacCacheFile(file, "1.0");
+		cache.put("factor(x^2-1)", "(x-1)*(x+1)");
+		cache.close();
+		GiacCacheFile otherCache = new GiacCacheFile(other, "1.0");
+		otherCache.put("factor(x^2-4)", "(x-2)*(x+2)");
+		otherCache.close();
+		GiacCacheFile upgraded = new GiacCacheFile(file, "2.0");
+		assertNull(upgraded.get("factor(x^2-1)"));
+		assertEquals(0, upgraded.importFrom(other));
+		upgraded.put("expand((x+1)^2)", "x^2+2*x+1");
+		upgraded.close();
+		GiacCacheFile reopened = new GiacCacheFile(file, "2.0");
+		assertEquals(1, reopened.size());
+		reopened.close();
+	}
+
+	@Test
+	public void evictedResultsShouldBeReadFromFile() throws IOException {
+		File file = createFile();
+		GiacCacheFile cache = new GiacCacheFile(file, "1.0", 2);
+		for (int i = 0; i < 100; i++) {
+			cache.put("factor(x^2-" + i * i + ")", "result" + i);
+		}
+		cache.put("factor(x^2-4)", "(x-2)*(x+2)");
+		assertEquals(100, cache.size());
+		assertEquals("result7", cache.get("factor(x^2-49)"));
+		assertEquals("(x-2)*(x+2)", cache.get("factor(x^2-4)"));
+		assertNull(cache.get("factor(x^2-2)"));
+		cache.close();
+		GiacCacheFile reopened = new GiacCacheFile(file, "1.0", 2);
+		assertEquals(100, reopened.size());
+		assertEquals("result50", reopened.get("factor(x^2-2500)"));
+		assertEquals("(x-2)*(x+2)", reopened.get("factor(x^2-4)"));
+		reopened.close();
+	}
+
+	@Test
+	public void incompleteLineShouldBeDropped() throws IOException {
+		File file = createFile();
+		GiacCacheFile cache = new GiacCacheFile(file, "1.0");
+		cache.put("factor(x^2-1)", "(x-1)*(x+1)");
+		cache.close();
+		try (FileOutputStream out = new FileOutputStream(file, true)) {
+			out.write("factor(x^2-4)\t(x-2)*".getBytes(StandardCharsets.UTF_8));
+		}
+		GiacCacheFile reopened = new GiacCacheFile(file, "1.0");
+		assertNull(reopened.get("factor(x^2-4)"));
+		reopened.put("expand((x+1)^2)", "x^2+2*x+1");
+		reopened.close();
+		GiacCacheFile again = new GiacCacheFile(file, "1.0", 1);
+		assertEquals(2, again.size());
+		assertEquals("(x-1)*(x+1)", again.get("factor(x^2-1)"));
+		assertEquals("x^2+2*x+1", again.get("expand((x+1)^2)"));
+		again.close();
+	}
+
+	private static File createFile() throws IOException {
+		File file = File.createTempFile("giac", ".cache");
+		file.deleteOnExit();
+		return file;
+	}
+}
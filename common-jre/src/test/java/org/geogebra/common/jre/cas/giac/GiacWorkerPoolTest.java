@@ -0,0 +1,86 @@
+package org.geogebra.common.jre.cas.giac;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import org.geogebra.common.cas.error.TimeoutException;
+import org.geogebra.common.cas.giac.binding.Context;
+import org.junit.After;
+import org.junit.Test;
+
+public class GiacWorkerPoolTest {
+
+	private final GiacWorkerPool pool = new GiacWorkerPool(1, () -> new Context() {
+		// no Giac needed
+	}, Thread::interrupt);
+
+	@After
+	public void shutdown() {
+		pool.shutdown();
+	}
+
+	@Test
+	public void invokeShouldReturnResult() throws Throwable {
+		assertEquals("42", pool.invoke(() -> "42", 1000));
+		GiacWorkerPool.Metrics metrics = pool.getMetrics();
+		assertEquals(1, metrics.getSubmittedCount());
+		assertEquals(1, metrics.getCompletedCount());
+		assertEquals(0, metrics.getTimeoutCount());
+	}
+
+	@Test
+	public void workerShouldHaveContext() throws Throwable {
+		assertNull(GiacWorkerPool.getWorkerContext());
+		Context first = pool.invoke(GiacWorkerPool::getWorkerContext, 1000);
+		assertNotNull(first);
+		assertEquals(first, pool.invoke(GiacWorkerPool::getWorkerContext, 1000));
+	}
+
+	@Test
+	public void timeoutShouldDiscardContext() throws Throwable {
+		Context first = pool.invoke(GiacWorkerPool::getWorkerContext, 1000);
+		try {
+			pool.invoke(() -> {
+				Thread.sleep(10000);
+				return "slow";
+			}, 50);
+			fail("Timeout expected");
+		} catch (TimeoutException e) {
+			// expected
+		}
+		assertEquals(1, pool.getMetrics().getTimeoutCount());
+		assertNotSame(first, pool.invoke(GiacWorkerPool::getWorkerContext, 1000));
+	}
+
+	@Test
+	public void shortWaitShouldNotStopCall() throws Exception {
+		GiacWorkerPool.Call<String> call = pool.submit(() -> {
+			Thread.sleep(200);
+			return "done";
+		}, 10000);
+		try {
+			call.get(10);
+			fail("Timeout expected");
+		} catch (java.util.concurrent.TimeoutException e) {
+			// expected
+		}
+		assertEquals("done", call.get());
+		assertEquals(0, pool.getMetrics().getTimeoutCount());
+	}
+
+	@Test
+	public void cancelShouldStopCall() throws Throwable {
+		GiacWorkerPool.Call<String> call = pool.submit(() -> {
+			Thread.sleep(10000);
+			return "slow";
+		}, 60000);
+		assertTrue(call.cancel(true));
+		assertTrue(call.isCancelled());
+		assertTrue(call.isDone());
+		assertEquals("42", pool.invoke(() -> "42", 1000));
+	}
+}
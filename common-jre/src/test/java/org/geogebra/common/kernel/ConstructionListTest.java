@@ -0,0 +1,116 @@
+package org.geogebra.common.kernel;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.Random;
+
+import org.geogebra.common.BaseUnitTest;
+import org.geogebra.common.kernel.algos.ConstructionElement;
+import org.geogebra.common.kernel.geos.GeoNumeric;
+import org.junit.Test;
+
+public class ConstructionListTest extends BaseUnitTest {
+
+	@Test
+	public void indicesShouldFollowInsertionsAndRemovals() {
+		ConstructionList list = new ConstructionList();
+		ArrayList<ConstructionElement> expected = new ArrayList<>();
+		Random random = new Random(42);
+		for (int i = 0; i < 2000; i++) {
+			int op = random.nextInt(4);
+			if (op < 2 || expected.isEmpty()) {
+				ConstructionElement ce = new GeoNumeric(getConstruction());
+				int index = op == 0 ? expected.size()
+						: random.nextInt(expected.size() + 1);
+				list.add(index, ce);
+				expected.add(index, ce);
+			} else if (op == 2) {
+				int index = random.nextInt(expected.size());
+				assertSame(expected.remove(index), list.remove(index));
+			} else {
+				ConstructionElement ce = expected
+						.remove(random.nextInt(expected.size()));
+				assertTrue(list.remove(ce));
+				assertFalse(list.remove(ce));
+				assertEquals(-1, list.indexOf(ce));
+			}
+			assertSameElements(expected, list);
+		}
+	}
+
+	@Test
+	public void clearShouldKeepLastIndices() {
+		ConstructionList list = new ConstructionList();
+		ConstructionElement first = new GeoNumeric(getConstruction());
+		ConstructionElement second = new GeoNumeric(getConstruction());
+		list.add(0, second);
+		list.add(0, first);
+		list.clear();
+		assertTrue(list.isEmpty());
+		assertEquals(0, first.getConstructionIndex());
+		assertEquals(1, second.getConstructionIndex());
+		assertEquals(-1, list.indexOf(first));
+	}
+
+	@Test
+	public void iteratorsShouldStartAtIndex() {
+		ConstructionList list = new ConstructionList();
+		ArrayList<ConstructionElement> expected = new ArrayList<>();
+		for (int i = 0; i < 100; i++) {
+			ConstructionElement ce = new GeoNumeric(getConstruction());
+			list.add(i / 2, ce);
+			expected.add(i / 2, ce);
+		}
+		Iterator<ConstructionElement> forward = list.iterator(40);
+		for (int i = 40; i < expected.size(); i++) {
+			assertSame(expected.get(i), forward.next());
+		}
+		assertFalse(forward.hasNext());
+		Iterator<ConstructionElement> backward = list.descendingIterator(40);
+		for (int i = 40; i >= 0; i--) {
+			assertSame(expected.get(i), backward.next());
+		}
+		assertFalse(backward.hasNext());
+		assertFalse(list.descendingIterator(-1).hasNext());
+	}
+
+	@Test
+	public void iteratorShouldContinueAfterRemoval() {
+		ConstructionList list = new ConstructionList();
+		ArrayList<ConstructionElement> expected = new ArrayList<>();
+		for (int i = 0; i < 100; i++) {
+			ConstructionElement ce = new GeoNumeric(getConstruction());
+			list.add(i, ce);
+			expected.add(ce);
+		}
+		int index = 0;
+		for (ConstructionElement ce : list) {
+			assertSame(expected.get(index), ce);
+			if (index % 3 != 1) {
+				list.remove(ce);
+			}
+			index++;
+		}
+		assertEquals(expected.size(), index);
+		assertEquals(33, list.size());
+	}
+
+	private static void assertSameElements(
+			ArrayList<ConstructionElement> expected, ConstructionList list) {
+		assertEquals(expected.size(), list.size());
+		int index = 0;
+		for (ConstructionElement ce : list) {
+			assertSame(expected.get(index), ce);
+			assertSame(ce, list.get(index));
+			assertEquals(index, list.indexOf(ce));
+			assertEquals(index, ce.getConstructionIndex());
+			index++;
+		}
+		assertEquals(expected.size(), index);
+	}
+}
@@ -0,0 +1,115 @@
+package org.geogebra.common.kernel;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+
+import org.geogebra.common.BaseUnitTest;
+import org.geogebra.common.jre.kernel.ForkJoinUpdateExecutor;
+import org.geogebra.common.kernel.geos.GeoNumeric;
+import org.geogebra.common.kernel.geos.GeoPoint;
+import org.junit.Test;
+
+public class ParallelUpdateTest extends BaseUnitTest {
+
+	private static final int GROUPS = 40;
+
+	private static class CountingExecutor implements ParallelUpdateExecutor {
+		private int calls = 0;
+		private int tasks = 0;
+
+		@Override
+		public void runAll(List<Runnable> taskList) {
+			calls++;
+			tasks += taskList.size();
+			for (Runnable task : taskList) {
+				task.run();
+			}
+		}
+	}
+
+	@Test
+	public void shouldUpdateIndependentGroupsConcurrently() {
+		createGroups();
+		getConstruction().setParallelUpdateExecutor(
+				new ForkJoinUpdateExecutor());
+		changeFreeNumbers();
+		getConstruction().updateConstruction(false);
+		checkGroups();
+	}
+
+	@Test
+	public void shouldSplitIntoTasks() {
+		createGroups();
+		CountingExecutor executor = new CountingExecutor();
+		getConstruction().setParallelUpdateExecutor(executor);
+		changeFreeNumbers();
+		getConstruction().updateConstruction(false);
+		checkGroups();
+		assertEquals(1, executor.calls);
+		assertTrue(executor.tasks > 1);
+	}
+
+	@Test
+	public void shouldUpdateSmallConstructionSequentially() {
+		add("a = 1");
+		add("P = (a, 1)");
+		CountingExecutor executor = new CountingExecutor();
+		getConstruction().setParallelUpdateExecutor(executor);
+		getConstruction().updateConstruction(false);
+		assertEquals(0, executor.calls);
+	}
+
+	@Test
+	public void shouldUpdateAllAlgorithmsConcurrently() {
+		createGroups();
+		CountingExecutor executor = new CountingExecutor();
+		getConstruction().setParallelUpdateExecutor(executor);
+		changeFreeNumbers();
+		getConstruction().updateAllAlgorithms();
+		checkGroups();
+		assertEquals(1, executor.calls);
+	}
+
+	@Test
+	public void shouldKeepRandomElementsSequential() {
+		createGroups();
+		add("r = RandomBetween(1, 10)");
+		GeoPoint random = add("R = (r, 1)");
+		CountingExecutor executor = new CountingExecutor();
+		getConstruction().setParallelUpdateExecutor(executor);
+		changeFreeNumbers();
+		getConstruction().updateConstruction(true);
+		checkGroups();
+		assertEquals(((GeoNumeric) lookup("r")).getValue(), random.getInhomX(),
+				DELTA);
+	}
+
+	private void createGroups() {
+		for (int i = 0; i < GROUPS; i++) {
+			add("a_{" + i + "} = " + i);
+			add("P_{" + i + "} = (a_{" + i + "}, 1)");
+			add("Q_{" + i + "} = (1, 2a_{" + i + "})");
+			add("d_{" + i + "} = Distance(P_{" + i + "}, Q_{" + i + "})");
+			add("M_{" + i + "} = P_{" + i + "} + Q_{" + i + "}");
+		}
+	}
+
+	private void changeFreeNumbers() {
+		for (int i = 0; i < GROUPS; i++) {
+			((GeoNumeric) lookup("a_{" + i + "}")).setValue(i + 1);
+		}
+	}
+
+	private void checkGroups() {
+		for (int i = 0; i < GROUPS; i++) {
+			double a = i + 1;
+			assertEquals(Math.hypot(a - 1, 1 - 2 * a),
+					((GeoNumeric) lookup("d_{" + i + "}")).getValue(), DELTA);
+			GeoPoint m = (GeoPoint) lookup("M_{" + i + "}");
+			assertEquals(a + 1, m.getInhomX(), DELTA);
+			assertEquals(1 + 2 * a, m.getInhomY(), DELTA);
+		}
+	}
+}
@@ -3,6 +3,9 @@
 import static org.geogebra.test.OrderingComparison.greaterThan;
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 
 import java.util.Objects;
 
@@ -14,6 +17,7 @@
 import org.geogebra.common.kernel.geos.GeoFunction;
 import org.geogebra.common.kernel.geos.GeoList;
 import org.geogebra.common.kernel.geos.GeoLocus;
+import org.geogebra.common.kernel.geos.GeoNumeric;
 import org.geogebra.common.kernel.implicit.GeoImplicitCurve;
 import org.junit.Test;
 
@@ -59,6 +63,37 @@ public void sequenceOfLociShouldChangeOnZoom() {
 		assertThat(ptsBefore, greaterThan(ptsAfter * 10));
 	}
 
+	@Test
+	public void longSequenceOfNumbersShouldBeComputedInBulk() {
+		add("a=2");
+		add("n=2000");
+		GeoList seq = add("seq=Sequence(k^2/a, k, 1, n)");
+		assertTrue(seq.isPackedNumbers());
+		assertEquals(2000, seq.size());
+		assertEquals(50, seq.getPackedX(9), DELTA);
+		add("SetValue(a,4)");
+		assertEquals(25, seq.getPackedX(9), DELTA);
+		assertEquals(25, ((GeoNumeric) seq.get(9)).getValue(), DELTA);
+		add("SetValue(n,10)");
+		assertFalse(seq.isPackedNumbers());
+		assertEquals(10, seq.size());
+		assertEquals(25, ((GeoNumeric) seq.get(9)).getValue(), DELTA);
+		add("SetValue(n,3000)");
+		assertEquals(3000, seq.size());
+		assertEquals(2250000, seq.getPackedX(2999), DELTA);
+	}
+
+	@Test
+	public void longSequenceOfPointsShouldBeComputedInBulk() {
+		GeoList seq = add("Sequence((k, 2k), k, 0.5, 1000, 0.5)");
+		assertTrue(seq.isPackedPoints());
+		assertEquals(2000, seq.size());
+		assertEquals(2, seq.getPackedX(3), DELTA);
+		assertEquals(4, seq.getPackedY(3), DELTA);
+		GeoList angles = add("Sequence(k*1°, k, 1, 2000)");
+		assertFalse(angles.isPackedNumbers());
+	}
+
 	private String functionPoints(GeoElement geoElement) {
 		ExpressionNode functionExpression = ((GeoFunction) geoElement).getFunctionExpression();
 		return Objects.requireNonNull(functionExpression).getRight().toValueString(
@@ -0,0 +1,65 @@
+package org.geogebra.common.kernel.algos;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Arrays;
+
+import org.geogebra.common.BaseUnitTest;
+import org.geogebra.common.kernel.geos.GeoElement;
+import org.geogebra.common.kernel.geos.GeoPoint;
+import org.junit.Test;
+
+public class AlgoUpdateSchedulerTest extends BaseUnitTest {
+
+	@Test
+	public void shouldUpdateInConstructionOrder() {
+		GeoPoint a = add("A = (1, 1)");
+		add("C = A + (1, 0)");
+		add("D = C + A");
+		a.setCoords(2, 2, 1);
+		AlgoUpdateScheduler scheduler = getConstruction().getUpdateScheduler();
+		AlgoUpdateScheduler.Batch batch = scheduler.begin();
+		batch.add(lookup("D").getParentAlgorithm());
+		batch.add(lookup("C").getParentAlgorithm());
+		batch.add(lookup("D").getParentAlgorithm());
+		assertEquals(2, batch.size());
+		batch.updateAll(false);
+		scheduler.end(batch);
+		assertPoint("C", 3, 2);
+		assertPoint("D", 5, 4);
+	}
+
+	@Test
+	public void shouldUpdateSharedDependentsOfMovedPoints() {
+		GeoPoint a = add("A = (1, 1)");
+		GeoPoint b = add("B = (2, 0)");
+		add("M = (A + B) / 2");
+		add("N = M + A + B");
+		a.setCoords(3, 3, 1);
+		b.setCoords(5, 1, 1);
+		GeoElement.updateCascade(Arrays.asList(a, b), false);
+		assertPoint("M", 4, 2);
+		assertPoint("N", 12, 6);
+	}
+
+	@Test
+	public void shouldSkipRemovedAlgos() {
+		GeoPoint a = add("A = (1, 1)");
+		add("C = 2A");
+		a.setCoords(2, 2, 1);
+		AlgoUpdateScheduler scheduler = getConstruction().getUpdateScheduler();
+		AlgoUpdateScheduler.Batch batch = scheduler.begin();
+		batch.addAll(a.getAlgoUpdateSet());
+		batch.removeAll(a.getAlgoUpdateSet());
+		assertEquals(0, batch.size());
+		batch.updateAll(false);
+		scheduler.end(batch);
+		assertPoint("C", 2, 2);
+	}
+
+	private void assertPoint(String label, double x, double y) {
+		GeoPoint point = (GeoPoint) lookup(label);
+		assertEquals(x, point.getInhomX(), DELTA);
+		assertEquals(y, point.getInhomY(), DELTA);
+	}
+}
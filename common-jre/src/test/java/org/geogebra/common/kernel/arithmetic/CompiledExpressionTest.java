@@ -0,0 +1,79 @@
+package org.geogebra.common.kernel.arithmetic;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.geogebra.common.BaseUnitTest;
+import org.geogebra.common.kernel.geos.GeoFunction;
+import org.geogebra.common.kernel.geos.GeoNumeric;
+import org.geogebra.common.plugin.Operation;
+import org.junit.Test;
+
+public class CompiledExpressionTest extends BaseUnitTest {
+
+	private static final double[] SAMPLES = { -3.5, -2, -1, -0.5, 0, 0.1,
+			Math.PI / 2, 1, 2.5, 10 * Math.PI, 1E7 };
+
+	@Test
+	public void shouldMatchTreeEvaluation() {
+		checkSameValues("x^2 + 3x - 1");
+		checkSameValues("sin(x) cos(2x) / (x - 1)");
+		checkSameValues("exp(-x^2 / 2) / sqrt(2pi)");
+		checkSameValues("tan(x) + ln(abs(x))");
+		checkSameValues("sinh(x) - cosh(x) + tanh(0.1x)");
+		checkSameValues("x^(1/3) + x^(-2/3)");
+		checkSameValues("exp((0.1 + x) * 0.3)");
+		checkSameValues("If(x > 0, x, -x) + 2x");
+		checkSameValues("floor(x) + sin(10pi x)");
+	}
+
+	@Test
+	public void shouldReadFreeNumbersAtRuntime() {
+		GeoNumeric a = add("a = 2");
+		GeoFunction f = add("f(x) = a x + sin(a x)");
+		ExpressionNode expression = f.getFunction().getExpression();
+		CompiledExpression compiled = CompiledExpression.compile(expression);
+		f.getFunction().getFunctionVariable().set(1);
+		assertEquals(2 + Math.sin(2), compiled.evaluate(), DELTA);
+		a.setValue(3);
+		assertEquals(3 + Math.sin(3), compiled.evaluate(), DELTA);
+		assertTrue(compiled.isCompiledFrom(expression));
+	}
+
+	@Test
+	public void shouldDetectChangedTree() {
+		GeoFunction f = add("f(x) = 2x + 1");
+		ExpressionNode expression = f.getFunction().getExpression();
+		CompiledExpression compiled = CompiledExpression.compile(expression);
+		assertEquals(0, compiled.getFallbackCount());
+		expression.setOperation(Operation.MINUS);
+		assertFalse(compiled.isCompiledFrom(expression));
+		assertFalse(compiled.isCompiledFrom(expression.deepCopy(getKernel())));
+	}
+
+	@Test
+	public void functionValueShouldUseCompiledCode() {
+		GeoFunction f = add("f(x) = x^2");
+		for (int i = 0; i < 20; i++) {
+			assertEquals(i * i, f.value(i), DELTA);
+		}
+		f.getFunction().getExpression().setRight(new MyDouble(getKernel(), 3));
+		for (int i = 0; i < 20; i++) {
+			assertEquals(i * i * i, f.value(i), DELTA);
+		}
+	}
+
+	private void checkSameValues(String definition) {
+		GeoFunction f = add(definition);
+		Function fun = f.getFunction();
+		CompiledExpression compiled = CompiledExpression
+				.compile(fun.getExpression());
+		for (double x : SAMPLES) {
+			fun.getFunctionVariable().set(x);
+			double expected = fun.getExpression().evaluateDouble();
+			assertEquals(definition + " at " + x, expected, compiled.evaluate(),
+					0);
+		}
+	}
+}
@@ -0,0 +1,152 @@
+package org.geogebra.common.kernel.arithmetic;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+
+import org.geogebra.common.BaseUnitTest;
+import org.geogebra.common.kernel.ParallelUpdateExecutor;
+import org.geogebra.common.kernel.geos.GeoCurveCartesian;
+import org.geogebra.common.kernel.geos.GeoFunction;
+import org.geogebra.common.kernel.geos.GeoFunctionNVar;
+import org.geogebra.common.kernel.geos.GeoNumeric;
+import org.geogebra.common.kernel.implicit.GeoImplicit;
+import org.junit.After;
+import org.junit.Test;
+
+public class FunctionBulkEvaluationTest extends BaseUnitTest {
+
+	private static final int POINTS = 10000;
+
+	@After
+	public void resetExecutor() {
+		getConstruction().setParallelUpdateExecutor(null);
+	}
+
+	@Test
+	public void shouldMatchSingleEvaluation() {
+		checkSameValues("x^2 + 3x - 1");
+		checkSameValues("sin(x) cos(2x) / (x - 1)");
+		checkSameValues("If(x > 0, x, -x) + floor(x)");
+		checkSameValues("x > 1");
+		checkSameValues("f1(x) = ?");
+	}
+
+	@Test
+	public void shouldOnlyFillRange() {
+		GeoFunction f = add("f(x) = 2x");
+		double[] xs = samples();
+		double[] out = new double[xs.length];
+		f.evaluate(xs, out, 10, 20);
+		assertEquals(0, out[9], 0);
+		assertEquals(2 * xs[10], out[10], DELTA);
+		assertEquals(2 * xs[19], out[19], DELTA);
+		assertEquals(0, out[20], 0);
+	}
+
+	@Test
+	public void shouldSplitSimpleFunctions() {
+		CountingExecutor executor = new CountingExecutor();
+		getConstruction().setParallelUpdateExecutor(executor);
+		GeoNumeric a = add("a = 2");
+		GeoFunction f = add("f(x) = a sin(x) + x^2");
+		checkSameValues(f);
+		assertTrue(executor.tasks > 1);
+		a.setValue(3);
+		checkSameValues(f);
+	}
+
+	@Test
+	public void shouldNotSplitFunctionsWithSharedState() {
+		CountingExecutor executor = new CountingExecutor();
+		getConstruction().setParallelUpdateExecutor(executor);
+		add("g(x) = x^3");
+		checkSameValues((GeoFunction) add("f(x) = g(x) + 1"));
+		checkSameValues((GeoFunction) add("h(x) = x + random()"), 1);
+		assertEquals(0, executor.tasks);
+	}
+
+	@Test
+	public void shouldEvaluateFunctionsWithOverriddenValue() {
+		GeoImplicit curve = add("x^3 + y^2 = 4");
+		GeoFunction g = add("g(x) = 2x");
+		GeoFunction composite = new GeoFunction(getConstruction(), curve,
+				null, g);
+		assertTrue(Math.abs(composite.value(1)) > 0);
+		checkSameValues(composite);
+	}
+
+	@Test
+	public void shouldSplitFunctionsOfSeveralVariables() {
+		CountingExecutor executor = new CountingExecutor();
+		getConstruction().setParallelUpdateExecutor(executor);
+		add("a = 2");
+		GeoFunctionNVar f = add("f(x, y, z) = a x y - z^2");
+		// three coordinates for each of the points
+		double[] xs = samples(3 * POINTS);
+		double[] out = new double[xs.length / 3];
+		f.getFunction().evaluate(xs, out, 0, out.length);
+		assertTrue(executor.tasks > 1);
+		double[] single = new double[3];
+		for (int i = 0; i < out.length; i++) {
+			System.arraycopy(xs, 3 * i, single, 0, 3);
+			assertEquals(f.evaluate(single), out[i], 0);
+		}
+	}
+
+	@Test
+	public void shouldEvaluateCurves() {
+		GeoCurveCartesian curve = add("c = Curve(cos(t), t^2, t, 0, 10)");
+		double[] ts = samples();
+		double[][] out = new double[2][ts.length];
+		curve.evaluateCurve(ts, out, 0, ts.length);
+		double[] single = new double[2];
+		for (int i = 0; i < ts.length; i += 97) {
+			curve.evaluateCurve(ts[i], single);
+			assertEquals(single[0], out[0][i], 0);
+			assertEquals(single[1], out[1][i], 0);
+		}
+	}
+
+	private void checkSameValues(String definition) {
+		checkSameValues((GeoFunction) add(definition));
+	}
+
+	private void checkSameValues(GeoFunction f) {
+		checkSameValues(f, 0);
+	}
+
+	private void checkSameValues(GeoFunction f, double delta) {
+		double[] xs = samples();
+		double[] out = new double[xs.length];
+		f.evaluate(xs, out, 0, xs.length);
+		for (int i = 0; i < xs.length; i++) {
+			assertEquals(f.value(xs[i]), out[i], delta);
+		}
+	}
+
+	private static double[] samples() {
+		return samples(POINTS);
+	}
+
+	private static double[] samples(int count) {
+		double[] xs = new double[count];
+		for (int i = 0; i < count; i++) {
+			xs[i] = -10 + 20.0 * i / count;
+		}
+		return xs;
+	}
+
+	private static class CountingExecutor implements ParallelUpdateExecutor {
+		private int tasks = 0;
+
+		@Override
+		public void runAll(List<Runnable> taskList) {
+			tasks += taskList.size();
+			for (Runnable task : taskList) {
+				task.run();
+			}
+		}
+	}
+}
@@ -2268,6 +2268,9 @@ public void cmdIterationList() {
 		t("IterationList[ x*2, 2, 5 ]", "{2, 4, 8, 16, 32, 64}");
 		t("IterationList[ a+b, a, b, {1,1}, 5 ]", "{1, 1, 2, 3, 5, 8}");
 		t("IterationList[ x*y, {1,1}, 6 ]", "{1, 1, 2, 6, 24, 120, 720}");
+		t("Sum(IterationList(x+1, 0, 1000))", "500500");
+		t("Element(IterationList(x+y, {1,0}, 1000), 1001)", "500500");
+		t("Sum(IterationList(b-a, a, b, {0,1}, 1000))", "1");
 	}
 
 	@Test
@@ -4354,6 +4357,8 @@ public void cmdZip() {
 		t("Zip[ i + j, i, {1, 2}, j, {3, 4} ]", "{4, 6}");
 		t("Zip[ i + j, j, {1, 2}, i, {3, 4} ]", "{4, 6}");
 		t("Zip(2*A,A,{(1,1),(2,3),(4,5,6)})", "{(2, 2, 0), (4, 6, 0), (8, 10, 12)}");
+		t("Sum(Zip(i * j, i, 1..1000, j, 1..2000))", "333833500");
+		t("Sum(Zip((i, k), i, 1..1000, k))", "(500500, 500500)");
 	}
 
 	@Test
@@ -0,0 +1,101 @@
+package org.geogebra.common.kernel.discrete;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.util.Arrays;
+
+import org.junit.Test;
+
+public class WeightedGraphTest {
+
+	@Test
+	public void shortestPathShouldUseWeights() {
+		WeightedGraph graph = new WeightedGraph();
+		graph.clear(4);
+		graph.addEdge(0, 1, 1);
+		graph.addEdge(1, 3, 1);
+		int direct = graph.addEdge(0, 3, 5);
+		assertArrayEquals(new int[] { 0, 1, 3 },
+				graph.getShortestPath(0, 3, true));
+		assertArrayEquals(new int[] { 0, 3 },
+				graph.getShortestPath(0, 3, false));
+		graph.setWeight(direct, 1.5);
+		assertArrayEquals(new int[] { 0, 3 },
+				graph.getShortestPath(0, 3, true));
+		assertArrayEquals(new int[] { 3, 0 },
+				graph.getShortestPath(3, 0, true));
+		assertArrayEquals(new int[] { 2 }, graph.getShortestPath(2, 2, true));
+		assertNull(graph.getShortestPath(0, 2, true));
+	}
+
+	@Test
+	public void shortestPathShouldMatchFloydWarshall() {
+		int n = 30;
+		WeightedGraph graph = new WeightedGraph();
+		graph.clear(n);
+		double[][] dist = new double[n][n];
+		for (double[] row : dist) {
+			Arrays.fill(row, Double.POSITIVE_INFINITY);
+		}
+		for (int i = 0; i < n; i++) {
+			dist[i][i] = 0;
+		}
+		for (int k = 0; k < 3 * n; k++) {
+			int a = (k * 7) % n;
+			int b = (k * 13 + 5) % n;
+			double w = (k * 37) % 11 + 1;
+			graph.addEdge(a, b, w);
+			dist[a][b] = Math.min(dist[a][b], w);
+			dist[b][a] = dist[a][b];
+		}
+		double[][] edges = new double[n][];
+		for (int i = 0; i < n; i++) {
+			edges[i] = dist[i].clone();
+		}
+		for (int k = 0; k < n; k++) {
+			for (int i = 0; i < n; i++) {
+				for (int j = 0; j < n; j++) {
+					dist[i][j] = Math.min(dist[i][j], dist[i][k] + dist[k][j]);
+				}
+			}
+		}
+		for (int j = 0; j < n; j++) {
+			int[] path = graph.getShortestPath(0, j, true);
+			if (Double.isInfinite(dist[0][j])) {
+				assertNull(path);
+			} else {
+				assertEquals(dist[0][j], pathLength(path, edges), 1E-9);
+			}
+		}
+	}
+
+	@Test
+	public void spanningForestShouldHaveMinimalWeight() {
+		WeightedGraph graph = new WeightedGraph();
+		graph.clear(6);
+		graph.addEdge(0, 1, 4);
+		graph.addEdge(1, 2, 1);
+		graph.addEdge(0, 2, 2);
+		graph.addEdge(2, 3, 7);
+		graph.addEdge(1, 3, 3);
+		// second component
+		graph.addEdge(4, 5, 1);
+		int[] forest = graph.getMinimumSpanningForest();
+		assertEquals(4, forest.length);
+		double weight = 0;
+		for (int edge : forest) {
+			weight += graph.getWeight(edge);
+		}
+		assertEquals(7, weight, 0);
+	}
+
+	private static double pathLength(int[] path, double[][] edges) {
+		double length = 0;
+		for (int i = 1; i < path.length; i++) {
+			length += edges[path[i - 1]][path[i]];
+		}
+		return length;
+	}
+}
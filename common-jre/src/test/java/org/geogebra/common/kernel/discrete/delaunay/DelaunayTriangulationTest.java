@@ -0,0 +1,84 @@
+package org.geogebra.common.kernel.discrete.delaunay;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Iterator;
+import java.util.Random;
+import java.util.TreeSet;
+
+import org.junit.Test;
+
+public class DelaunayTriangulationTest {
+
+	@Test
+	public void updateShouldMatchNewTriangulation() {
+		Random random = new Random(42);
+		PointDt[] points = randomPoints(random, 200);
+		DelaunayTriangulation dt = new DelaunayTriangulation(points.clone());
+		int updates = 0;
+		for (int i = 0; i < 50; i++) {
+			points[random.nextInt(points.length)] = new PointDt(
+					random.nextDouble(), random.nextDouble());
+			if (dt.update(points.clone())) {
+				updates++;
+			} else {
+				dt = new DelaunayTriangulation(points.clone());
+			}
+			assertEquals(edges(new DelaunayTriangulation(points.clone())),
+					edges(dt));
+		}
+		assertTrue("only " + updates + " incremental updates", updates > 40);
+	}
+
+	@Test
+	public void updateShouldHandleAddedAndRemovedPoints() {
+		Random random = new Random(7);
+		PointDt[] points = randomPoints(random, 100);
+		PointDt[] fewer = new PointDt[points.length - 1];
+		System.arraycopy(points, 0, fewer, 0, fewer.length);
+		DelaunayTriangulation dt = new DelaunayTriangulation(fewer);
+		if (dt.update(points)) {
+			assertEquals(edges(new DelaunayTriangulation(points)), edges(dt));
+		}
+	}
+
+	@Test
+	public void updateShouldNotDeleteHullPoints() {
+		PointDt[] points = { new PointDt(0, 0), new PointDt(4, 0),
+				new PointDt(0, 4), new PointDt(4, 4), new PointDt(1, 2),
+				new PointDt(2, 1), new PointDt(3, 2), new PointDt(2, 3) };
+		DelaunayTriangulation dt = new DelaunayTriangulation(points.clone());
+		points[0] = new PointDt(-1, -1);
+		assertFalse(dt.update(points));
+	}
+
+	private static PointDt[] randomPoints(Random random, int n) {
+		PointDt[] points = new PointDt[n];
+		for (int i = 0; i < n; i++) {
+			points[i] = new PointDt(random.nextDouble(), random.nextDouble());
+		}
+		return points;
+	}
+
+	private static TreeSet<String> edges(DelaunayTriangulation dt) {
+		TreeSet<String> edges = new TreeSet<>();
+		Iterator<TriangleDt> it = dt.trianglesIterator();
+		while (it.hasNext()) {
+			TriangleDt triangle = it.next();
+			if (!triangle.isHalfplane()) {
+				addEdge(edges, triangle.p1(), triangle.p2());
+				addEdge(edges, triangle.p2(), triangle.p3());
+				addEdge(edges, triangle.p3(), triangle.p1());
+			}
+		}
+		return edges;
+	}
+
+	private static void addEdge(TreeSet<String> edges, PointDt a, PointDt b) {
+		String s1 = a.toString();
+		String s2 = b.toString();
+		edges.add(s1.compareTo(s2) < 0 ? s1 + s2 : s2 + s1);
+	}
+}
@@ -3,6 +3,9 @@
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
 
 import org.geogebra.common.BaseUnitTest;
 import org.geogebra.common.kernel.StringTemplate;
@@ -49,4 +52,56 @@ public void setShouldCopyLabeledElements() {
 		allLists.getExpressionXML(sb);
 		assertThat(sb.toString(), is("<expression label=\"allLists\" exp=\"{{1}}\"/>\n"));
 	}
+
+	@Test
+	public void packedNumbersShouldBehaveLikeElements() {
+		GeoList packed = new GeoList(getConstruction());
+		packed.setNumbers(new double[] {1, 2.5, 4});
+		packed.setLabel("packed");
+		assertTrue(packed.isPackedNumbers());
+		assertEquals("{1, 2.5, 4}",
+				packed.toValueString(StringTemplate.defaultTemplate));
+		assertEquals(2.5, ((GeoNumeric) add("Mean(packed)")).getValue(), DELTA);
+		assertSame(packed.get(1), packed.get(1));
+		assertEquals(2.5, ((GeoNumeric) packed.get(1)).getValue(), DELTA);
+	}
+
+	@Test
+	public void packedPointsShouldBeUsedForStatistics() {
+		GeoList packed = new GeoList(getConstruction());
+		packed.setPoints(new double[] {1, 2, 3}, new double[] {2, 4, 6});
+		packed.setLabel("packed");
+		assertTrue(packed.isPackedPoints());
+		assertEquals(14, ((GeoNumeric) add("SigmaXX(packed)")).getValue(),
+				DELTA);
+		assertEquals(1, ((GeoNumeric) add("PMCC(packed)")).getValue(), DELTA);
+	}
+
+	@Test
+	public void longListsShouldBePacked() {
+		StringBuilder input = new StringBuilder("long={");
+		for (int i = 0; i < 2000; i++) {
+			input.append(i == 0 ? "" : ",").append(i % 7);
+		}
+		GeoList list = add(input.append("}").toString());
+		assertTrue(list.isPackedNumbers());
+		GeoList shortList = add("{1,2,3}");
+		assertFalse(shortList.isPackedNumbers());
+		assertEquals(2.9975, ((GeoNumeric) add("Mean(long)")).getValue(),
+				1E-10);
+		add("SetValue(long,3,10)");
+		assertEquals(10, list.getPackedX(2), DELTA);
+	}
+
+	@Test
+	public void resetDefinitionShouldKeepPackedValues() {
+		GeoList packed = new GeoList(getConstruction());
+		packed.setPoints(new double[] {1, 2, 3}, new double[] {2, 4, 6});
+		GeoElement created = packed.get(1);
+		packed.resetDefinition();
+		assertTrue(packed.isPackedPoints());
+		assertSame(created, packed.get(1));
+		assertEquals(3, packed.getPackedX(2), DELTA);
+		assertEquals(4, packed.getPackedY(1), DELTA);
+	}
 }
@@ -67,6 +67,33 @@ public void functionLabelsShouldBeSequential() {
 				getApp().getGgbApi().getAllObjectNames());
 	}
 
+	@Test
+	public void pointLabelsShouldReuseFreedLabels() {
+		for (int i = 0; i < 30; i++) {
+			add("(" + i + ",0)");
+		}
+		GeoElement point = add("(0,1)");
+		assertEquals("G_1", point.getLabelSimple());
+		lookup("B").remove();
+		point = add("(0,2)");
+		assertEquals("B", point.getLabelSimple());
+		lookup("C").rename("P_{10}");
+		point = add("(0,3)");
+		assertEquals("C", point.getLabelSimple());
+		point = add("(0,4)");
+		assertEquals("H_1", point.getLabelSimple());
+	}
+
+	@Test
+	public void numberedLabelsShouldReuseFreedLabels() {
+		for (int i = 0; i < 3; i++) {
+			add("Text(\"a\")");
+		}
+		lookup("text2").remove();
+		assertEquals("text2", add("Text(\"b\")").getLabelSimple());
+		assertEquals("text4", add("Text(\"c\")").getLabelSimple());
+	}
+
 	private GeoElement addSilent(String string) {
 		GeoElement geo = add(string);
 		geo.remove();
@@ -2,10 +2,19 @@
 
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 
 import org.geogebra.common.BaseUnitTest;
+import org.geogebra.common.kernel.MyPoint;
 import org.geogebra.common.kernel.StringTemplate;
 import org.geogebra.common.kernel.geos.GeoElement;
+import org.junit.After;
+import org.junit.Before;
 import org.junit.Test;
 
 import com.himamis.retex.editor.share.util.Unicode;
@@ -18,4 +27,91 @@ public void toValueStringTest() {
 		assertThat(implicit.toValueString(StringTemplate.algebraTemplate),
 				is("r(2) / r(x) = 4".replace('r', Unicode.SQUARE_ROOT)));
 	}
+
+	@Before
+	public void disableTimer() {
+		GeoImplicitCurve.setFastDrawThreshold(Integer.MAX_VALUE);
+	}
+
+	@After
+	public void resetTimer() {
+		GeoImplicitCurve.setFastDrawThreshold(10);
+	}
+
+	@Test
+	public void panningShouldReuseVisibleCells() {
+		GeoImplicitCurve definition = add("x^4 + y^4 = 16 + 3x y");
+		TestCurve curve = new TestCurve(definition, -10, 10, -10, 10);
+		curve.getLocus();
+		int fullUpdate = curve.evaluations;
+		assertTrue(fullUpdate > 0);
+
+		curve.setViewBounds(-9.7, 10.3, -10.2, 9.8);
+		curve.getLocus();
+		assertTrue(curve.evaluations < fullUpdate / 4);
+
+		TestCurve fresh = new TestCurve(definition, -9.7, 10.3, -10.2, 9.8);
+		assertEquals(getPoints(fresh), getPoints(curve));
+	}
+
+	@Test
+	public void changedCurveShouldBeRecomputed() {
+		GeoImplicitCurve definition = add("x^4 + y^4 = 81");
+		TestCurve curve = new TestCurve(definition, -10, 10, -10, 10);
+		curve.getLocus();
+		int gridCorners = 41 * 41;
+		assertTrue(curve.evaluations >= gridCorners);
+		curve.getLocus();
+		assertTrue(curve.evaluations < gridCorners);
+
+		curve.set(add("x^4 + y^4 = 256"));
+		curve.getLocus();
+		assertTrue(curve.evaluations >= gridCorners);
+		for (MyPoint point : curve.getLocus().getPoints()) {
+			assertEquals(4, Math.pow(Math.pow(point.x, 4) + Math.pow(point.y, 4),
+					0.25), 0.05);
+		}
+	}
+
+	private static List<String> getPoints(GeoImplicitCurve curve) {
+		ArrayList<String> points = new ArrayList<>();
+		for (MyPoint point : curve.getLocus().getPoints()) {
+			points.add(String.format("%.8f %.8f", point.x, point.y));
+		}
+		Collections.sort(points);
+		return points;
+	}
+
+	/**
+	 * Curve with fixed view bounds that counts evaluations since the last
+	 * path update.
+	 */
+	private static class TestCurve extends GeoImplicitCurve {
+		private double[] viewBounds;
+		private int evaluations;
+
+		TestCurve(GeoImplicitCurve curve, double xMin, double xMax,
+				double yMin, double yMax) {
+			super(curve);
+			setViewBounds(xMin, xMax, yMin, yMax);
+		}
+
+		void setViewBounds(double xMin, double xMax, double yMin,
+				double yMax) {
+			viewBounds = new double[] { xMin, xMax, yMin, yMax, 50, 50 };
+			euclidianViewUpdate();
+		}
+
+		@Override
+		protected double[] getViewBounds() {
+			evaluations = 0;
+			return viewBounds;
+		}
+
+		@Override
+		public double evaluateImplicitCurve(double x, double y, int factor) {
+			evaluations++;
+			return super.evaluateImplicitCurve(x, y, factor);
+		}
+	}
 }
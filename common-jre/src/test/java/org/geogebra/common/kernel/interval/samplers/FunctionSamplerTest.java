@@ -0,0 +1,67 @@
+package org.geogebra.common.kernel.interval.samplers;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.geogebra.common.BaseUnitTest;
+import org.geogebra.common.euclidian.plot.interval.PlotterUtils;
+import org.geogebra.common.kernel.geos.GeoFunction;
+import org.geogebra.common.kernel.interval.Interval;
+import org.junit.Test;
+
+public class FunctionSamplerTest extends BaseUnitTest {
+
+	@Test
+	public void panShouldEvaluateNewSamplesOnly() {
+		GeoFunction function = add("x^2 + 1");
+		FunctionSampler sampler = newSampler(function, -5, 5);
+		int evaluations = sampler.getEvaluationCount();
+		sampler.extend(new Interval(-4, 6));
+		assertEquals(evaluations + 10, sampler.getEvaluationCount());
+		assertEquals(newSampler(function, -4, 6).tuples(), sampler.tuples());
+		sampler.extend(new Interval(-6, 4));
+		assertEquals(evaluations + 30, sampler.getEvaluationCount());
+		assertEquals(newSampler(function, -6, 4).tuples(), sampler.tuples());
+	}
+
+	@Test
+	public void panShouldKeepAsymptotes() {
+		GeoFunction function = add("1/x");
+		FunctionSampler sampler = newSampler(function, -5, 5);
+		sampler.extend(new Interval(-3, 7));
+		assertEquals(newSampler(function, -3, 7).tuples(), sampler.tuples());
+	}
+
+	@Test
+	public void zoomInShouldReuseUndefinedSamples() {
+		GeoFunction function = add("sqrt(x)");
+		FunctionSampler sampler = newSampler(function, -10, 10);
+		sampler.resample(new Interval(-10, 10));
+		int evaluations = sampler.getEvaluationCount();
+		Interval domain = new Interval(-5, 5);
+		sampler.update(domain);
+		assertTrue(sampler.getEvaluationCount() - evaluations <= 51);
+		FunctionSampler expected = newSampler(function, -5, 5);
+		expected.resample(domain);
+		assertEquals(expected.tuples(), sampler.tuples());
+	}
+
+	@Test
+	public void zoomOutShouldEvaluateAllSamples() {
+		GeoFunction function = add("sin(x)");
+		FunctionSampler sampler = newSampler(function, -5, 5);
+		sampler.resample(new Interval(-5, 5));
+		int evaluations = sampler.getEvaluationCount();
+		Interval domain = new Interval(-10, 10);
+		sampler.update(domain);
+		assertEquals(evaluations + 100, sampler.getEvaluationCount());
+		FunctionSampler expected = newSampler(function, -10, 10);
+		expected.resample(domain);
+		assertEquals(expected.tuples(), sampler.tuples());
+	}
+
+	private static FunctionSampler newSampler(GeoFunction function, double xmin, double xmax) {
+		return PlotterUtils.newSampler(function,
+				PlotterUtils.newRange(xmin, xmax, -5, 5), 100);
+	}
+}
@@ -0,0 +1,55 @@
+package org.geogebra.common.kernel.prover.polynomial;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.math.BigInteger;
+import java.util.HashMap;
+
+import org.geogebra.common.BaseUnitTest;
+import org.junit.Before;
+import org.junit.Test;
+
+public class PPolynomialTest extends BaseUnitTest {
+
+	private PVariable a;
+	private PVariable b;
+
+	@Before
+	public void createVariables() {
+		a = new PVariable(getKernel());
+		b = new PVariable(getKernel());
+	}
+
+	@Test
+	public void productShouldCollectTerms() {
+		PPolynomial sum = new PPolynomial(a).add(new PPolynomial(b));
+		PPolynomial diff = new PPolynomial(a).subtract(new PPolynomial(b));
+		assertEquals("-" + b.getName() + "^2+" + a.getName() + "^2",
+				sum.multiply(diff).toString());
+		assertTrue(sum.subtract(sum).isZero());
+		assertEquals(sum, new PPolynomial(b).add(new PPolynomial(a)));
+	}
+
+	@Test
+	public void coefficientsShouldNotOverflow() {
+		PPolynomial max = new PPolynomial(Long.MAX_VALUE);
+		PPolynomial square = max.multiply(max).multiply(new PPolynomial(a));
+		BigInteger expected = BigInteger.valueOf(Long.MAX_VALUE).pow(2);
+		assertEquals(expected + "*" + a.getName(), square.toString());
+		assertEquals("9223372036854775808", max.add(new PPolynomial(1))
+				.toString());
+		assertTrue(square.subtract(square).isZero());
+	}
+
+	@Test
+	public void substituteShouldMultiplyCoefficients() {
+		PPolynomial p = new PPolynomial(BigInteger.valueOf(3), a, 2)
+				.multiply(new PPolynomial(b)).add(new PPolynomial(b));
+		HashMap<PVariable, BigInteger> substitutions = new HashMap<>();
+		substitutions.put(a, BigInteger.valueOf(2));
+		assertEquals("13*" + b.getName(), p.substitute(substitutions).toString());
+		assertEquals(b.getName() + "+3*" + b.getName() + "^3",
+				p.substitute(a, b).toString());
+	}
+}
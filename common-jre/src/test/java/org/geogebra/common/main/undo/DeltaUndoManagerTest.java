@@ -0,0 +1,129 @@
+package org.geogebra.common.main.undo;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import org.geogebra.common.BaseUnitTest;
+import org.geogebra.common.jre.main.DeflaterStateCompressor;
+import org.geogebra.common.kernel.Construction;
+import org.geogebra.common.kernel.StringTemplate;
+import org.geogebra.common.kernel.geos.GeoNumeric;
+import org.geogebra.common.kernel.geos.GeoPoint;
+import org.junit.Before;
+import org.junit.Test;
+
+public class DeltaUndoManagerTest extends BaseUnitTest {
+
+	private DeltaUndoManager undoManager;
+
+	@Before
+	public void setupUndo() {
+		undoManager = new DeltaUndoManager(getKernel().getConstruction());
+	}
+
+	@Test
+	public void chunksShouldJoinToOriginalXML() {
+		add("A = (1, 2)");
+		add("f(x) = x^2");
+		add("B = 2A");
+		StringBuilder xml = getKernel().getConstruction()
+				.getCurrentUndoXML(true);
+		String[] chunks = XMLChunks.split(xml);
+		assertEquals(xml.toString(), XMLChunks.join(chunks));
+		int elements = 0;
+		for (String chunk : chunks) {
+			if (XMLChunks.isElement(chunk)) {
+				elements++;
+			}
+		}
+		assertEquals(3, elements);
+	}
+
+	@Test
+	public void shouldRestoreMovedPoint() {
+		GeoPoint a = add("A = (1, 2)");
+		add("B = 2A");
+		storeUndo();
+		a.setCoords(3, 4, 1);
+		a.updateRepaint();
+		storeUndo();
+		undoManager.undo();
+		assertEquals("(2, 4)", valueOf("B"));
+		undoManager.redo();
+		assertEquals("(6, 8)", valueOf("B"));
+		assertTrue(a == lookup("A"));
+	}
+
+	@Test
+	public void shouldRestoreAddedElement() {
+		add("A = (1, 2)");
+		storeUndo();
+		add("C = A + (1, 1)");
+		storeUndo();
+		undoManager.undo();
+		assertNull(lookup("C"));
+		undoManager.redo();
+		assertEquals("(2, 3)", valueOf("C"));
+	}
+
+	@Test
+	public void shouldRestoreOldCompressedStates() {
+		undoManager.setCompressor(new DeflaterStateCompressor());
+		GeoNumeric a = add("a = 0");
+		add("b = a + 1");
+		storeUndo();
+		int steps = 2 * DeltaUndoManager.KEYFRAME_INTERVAL + 5;
+		for (int i = 1; i <= steps; i++) {
+			a.setValue(i);
+			a.updateRepaint();
+			storeUndo();
+		}
+		for (int i = steps - 1; i >= 0; i--) {
+			undoManager.undo();
+			assertEquals(i + 1, ((GeoNumeric) lookup("b")).getValue(), DELTA);
+		}
+	}
+
+	@Test
+	public void keyframesShouldOnlyCountStoredStates() {
+		GeoNumeric a = add("a = 0");
+		storeUndo();
+		int steps = 2 * DeltaUndoManager.KEYFRAME_INTERVAL;
+		for (int i = 1; i <= steps; i++) {
+			a.setValue(i);
+			a.updateRepaint();
+			storeUndo();
+			// unchanged, discarded
+			storeUndo();
+		}
+		assertEquals(steps, undoManager.getHistorySize());
+		int index = 0;
+		for (UndoCommand command : undoManager.undoInfoList) {
+			assertEquals(index % DeltaUndoManager.KEYFRAME_INTERVAL == 0,
+					((DeltaAppState) command.getAppState()).isKeyframe());
+			index++;
+		}
+	}
+
+	@Test
+	public void shouldRespectMemoryLimit() {
+		GeoNumeric a = add("a = 0");
+		storeUndo();
+		undoManager.setMaxBytes(1);
+		a.setValue(1);
+		a.updateRepaint();
+		storeUndo();
+		assertEquals(0, undoManager.getHistorySize());
+		assertTrue(undoManager.getStoredBytes() > 0);
+	}
+
+	private void storeUndo() {
+		Construction cons = getKernel().getConstruction();
+		undoManager.storeUndoInfo(cons.getCurrentUndoXML(true), false);
+	}
+
+	private String valueOf(String label) {
+		return lookup(label).toValueString(StringTemplate.editTemplate);
+	}
+}
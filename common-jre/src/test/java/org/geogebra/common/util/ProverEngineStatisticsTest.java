@@ -0,0 +1,48 @@
+package org.geogebra.common.util;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.geogebra.common.util.Prover.ProofResult;
+import org.geogebra.common.util.Prover.ProverEngine;
+import org.junit.After;
+import org.junit.Test;
+
+public class ProverEngineStatisticsTest {
+
+	private final List<ProverEngine> defaultOrder = Arrays.asList(
+			ProverEngine.RECIOS_PROVER, ProverEngine.BOTANAS_PROVER);
+
+	@After
+	public void reset() {
+		ProverEngineStatistics.get().reset();
+	}
+
+	@Test
+	public void orderShouldNotChangeWithFewRuns() {
+		ProverEngineStatistics statistics = ProverEngineStatistics.get();
+		statistics.record(ProverEngine.RECIOS_PROVER, 1000,
+				ProofResult.UNKNOWN);
+		statistics.record(ProverEngine.BOTANAS_PROVER, 10, ProofResult.TRUE);
+		assertEquals(defaultOrder, statistics.sort(defaultOrder));
+	}
+
+	@Test
+	public void fastestConclusiveEngineShouldComeFirst() {
+		ProverEngineStatistics statistics = ProverEngineStatistics.get();
+		for (int i = 0; i < ProverEngineStatistics.MIN_RUNS; i++) {
+			statistics.record(ProverEngine.RECIOS_PROVER, 10,
+					ProofResult.UNKNOWN);
+			statistics.record(ProverEngine.BOTANAS_PROVER, 100,
+					ProofResult.FALSE);
+		}
+		assertEquals(Arrays.asList(ProverEngine.BOTANAS_PROVER,
+				ProverEngine.RECIOS_PROVER), statistics.sort(defaultOrder));
+		assertEquals(ProverEngineStatistics.MIN_RUNS,
+				statistics.getConclusiveRuns(ProverEngine.BOTANAS_PROVER));
+		assertEquals(10, statistics.getAverageTime(ProverEngine.RECIOS_PROVER),
+				0);
+	}
+}
@@ -42,7 +42,6 @@
 import org.geogebra.common.main.settings.AbstractSettings;
 import org.geogebra.common.main.settings.CASSettings;
 import org.geogebra.common.plugin.Operation;
-import org.geogebra.common.util.MaxSizeHashMap;
 import org.geogebra.common.util.debug.Log;
 import org.geogebra.regexp.shared.MatchResult;
 import org.geogebra.regexp.shared.RegExp;
@@ -390,7 +389,7 @@ public enum CustomFunctions {
 		final public String functionName;
 		/** definition string */
 		final public String definitionString;
-		private static List<Entry<CustomFunctions, CustomFunctions>> CustomFunctionsDependencies;
+		private static volatile List<Entry<CustomFunctions, CustomFunctions>> CustomFunctionsDependencies;
 
 		CustomFunctions(String functionName, String definitionString) {
 			this.functionName = functionName;
@@ -402,36 +401,42 @@ public String toString() {
 			return functionName;
 		}
 
-		private static void setDependency(CustomFunctions cf1,
-				CustomFunctions cf2) {
+		private static void setDependency(
+				List<Entry<CustomFunctions, CustomFunctions>> dependencies,
+				CustomFunctions cf1, CustomFunctions cf2) {
 			Entry<CustomFunctions, CustomFunctions> pair = new SimpleEntry<>(
 					cf1, cf2);
-			CustomFunctionsDependencies.add(pair);
+			dependencies.add(pair);
 		}
 
 		/**
 		 * Create dependencies between two CAS custom functions. This is
 		 * required to ensure that all dependencies will be loaded when a custom
-		 * function is loaded.
+		 * function is loaded. The dependencies are only created once.
 		 */
 		public static void setDependencies() {
-			CustomFunctionsDependencies = new ArrayList<>();
-			setDependency(IMPLICIT_CURVE_COEFFS, COEFF_MATRIX);
-			setDependency(IMPLICIT_CURVE_COEFFS, COEFF_MATRICES);
-			setDependency(IMPLICIT_CURVE_COEFFS, FACTOR_SQR_FREE);
-			setDependency(GEOM_ELIM, PRIM_POLY);
-			setDependency(LOCUS_EQU, IMPLICIT_CURVE_COEFFS);
-			setDependency(LOCUS_EQU, GEOM_ELIM);
-			setDependency(LOCUS_EQU, JACOBI_PREPARE);
-			setDependency(ENVELOPE_EQU, LOCUS_EQU);
-			setDependency(ENVELOPE_EQU, GEOM_JACOBI_DET);
-			setDependency(GEOM_JACOBI_DET, JACOBI_PREPARE);
-			setDependency(GEOM_JACOBI_DET, JACOBI_DET);
-			setDependency(AFACTOR_ALG_NUM, IRRED);
-			setDependency(ABSFACT, AFACTOR_ALG_NUM);
-			setDependency(COS_2PI_OVER_N_MINPOLY, FACTOR_SQR_FREE);
-			setDependency(CHECK_DERIVATIVE, XCOORD);
-			setDependency(CHECK_DERIVATIVE, YCOORD);
+			if (CustomFunctionsDependencies != null) {
+				return;
+			}
+			List<Entry<CustomFunctions, CustomFunctions>> dependencies = new ArrayList<>();
+			setDependency(dependencies, IMPLICIT_CURVE_COEFFS, COEFF_MATRIX);
+			setDependency(dependencies, IMPLICIT_CURVE_COEFFS, COEFF_MATRICES);
+			setDependency(dependencies, IMPLICIT_CURVE_COEFFS, FACTOR_SQR_FREE);
+			setDependency(dependencies, GEOM_ELIM, PRIM_POLY);
+			setDependency(dependencies, LOCUS_EQU, IMPLICIT_CURVE_COEFFS);
+			setDependency(dependencies, LOCUS_EQU, GEOM_ELIM);
+			setDependency(dependencies, LOCUS_EQU, JACOBI_PREPARE);
+			setDependency(dependencies, ENVELOPE_EQU, LOCUS_EQU);
+			setDependency(dependencies, ENVELOPE_EQU, GEOM_JACOBI_DET);
+			setDependency(dependencies, GEOM_JACOBI_DET, JACOBI_PREPARE);
+			setDependency(dependencies, GEOM_JACOBI_DET, JACOBI_DET);
+			setDependency(dependencies, AFACTOR_ALG_NUM, IRRED);
+			setDependency(dependencies, ABSFACT, AFACTOR_ALG_NUM);
+			setDependency(dependencies, COS_2PI_OVER_N_MINPOLY, FACTOR_SQR_FREE);
+			setDependency(dependencies, CHECK_DERIVATIVE, XCOORD);
+			setDependency(dependencies, CHECK_DERIVATIVE, YCOORD);
+			// publish the complete list only, Giac may be called from several threads
+			CustomFunctionsDependencies = dependencies;
 		}
 
 		/**
@@ -467,8 +472,8 @@ public static ArrayList<CustomFunctions> prereqs(
 	 */
 	public long timeoutMillis = 5000;
 	final private static String EVALFA = "evalfa(";
-	private StringBuilder expSB = new StringBuilder(EVALFA);
-	private MaxSizeHashMap<String, String> casGiacCache = new MaxSizeHashMap<>(Kernel.GEOGEBRA_CAS_CACHE_SIZE);
+	private final GiacResultCache casGiacCache = new GiacResultCache(
+			Kernel.GEOGEBRA_CAS_CACHE_SIZE);
 
 	// eg {(ggbtmpvarx>(-sqrt(110)/5)) && ((sqrt(110)/5)>ggbtmpvarx)}
 	// eg {(ggbtmpvarx>=(-sqrt(110)/5)) && ((sqrt(110)/5)>=ggbtmpvarx)}
@@ -734,34 +739,46 @@ private String getPlainResult(ValidExpression casInput, Kernel kernel) {
 
 		// get initial nr of vars
 		int nrOfVars = casParser.getNrOfVars();
-		StringBuilder newPlainResult = new StringBuilder();
 		// case we need to process the result
 		if (nrOfVars > 0) {
-			// get array of potential results
-			String[] partsOfResult = plainResult.split("},");
-			for (int i = 0; i < partsOfResult.length; i++) {
-				// get array of solutions
-				String[] partsOfCurrSol = partsOfResult[i].split(",");
-				// append only asked solutions
-				for (int j = 0; j < nrOfVars; j++) {
-					if (j == nrOfVars - 1) {
-						newPlainResult.append(partsOfCurrSol[j]);
-						newPlainResult.append("},");
-					} else {
-						newPlainResult.append(partsOfCurrSol[j]);
-						newPlainResult.append(",");
-					}
-				}
-			}
-			newPlainResult.setLength(newPlainResult.length() - 1);
-			newPlainResult.append("}");
 			// reset nrOfVars
 			casParser.setNrOfVars(0);
-			return newPlainResult.toString();
+			return keepSolutionVariables(plainResult, nrOfVars);
 		}
 		return plainResult;
 	}
 
+	/**
+	 * @param plainResult
+	 *            list of solutions from Giac
+	 * @param nrOfVars
+	 *            number of variables asked for
+	 * @return solutions restricted to the first nrOfVars variables
+	 */
+	protected static String keepSolutionVariables(String plainResult,
+			int nrOfVars) {
+		StringBuilder newPlainResult = new StringBuilder();
+		// get array of potential results
+		String[] partsOfResult = plainResult.split("},");
+		for (int i = 0; i < partsOfResult.length; i++) {
+			// get array of solutions
+			String[] partsOfCurrSol = partsOfResult[i].split(",");
+			// append only asked solutions
+			for (int j = 0; j < nrOfVars; j++) {
+				if (j == nrOfVars - 1) {
+					newPlainResult.append(partsOfCurrSol[j]);
+					newPlainResult.append("},");
+				} else {
+					newPlainResult.append(partsOfCurrSol[j]);
+					newPlainResult.append(",");
+				}
+			}
+		}
+		newPlainResult.setLength(newPlainResult.length() - 1);
+		newPlainResult.append("}");
+		return newPlainResult.toString();
+	}
+
 	/**
 	 * 
 	 * @param result
@@ -1465,11 +1482,7 @@ protected String postProcess(String s) {
 	 * @return "evalfa(" + s + ")"
 	 */
 	protected String wrapInevalfa(String s) {
-		expSB.setLength(EVALFA.length());
-		expSB.append(s);
-		expSB.append(")");
-
-		return expSB.toString();
+		return EVALFA + s + ")";
 	}
 
 	/**
@@ -1486,6 +1499,16 @@ public int getCasGiacCacheSize() {
 		return casGiacCache.size();
 	}
 
+	/**
+	 * @return cache of Giac results
+	 */
+	public GiacResultCache getResultCache() {
+		return casGiacCache;
+	}
+
+	/**
+	 * Removes all cached results.
+	 */
 	public void clearCache() {
 		casGiacCache.clear();
 	}
@@ -38,12 +38,27 @@ public CASgiacB(CASparser casParser) {
 	 * Create context instance
 	 */
 	protected void createContext() {
+		context = newContext();
+	}
+
+	/**
+	 * @return new Giac context, null if CAS is not available
+	 */
+	protected final Context newContext() {
 		try {
 			CASGiacBinding binding = createBinding();
-			context = binding.createContext();
+			return binding.createContext();
 		} catch (Throwable e) {
 			Log.error("CAS not available: " + e.getMessage());
 		}
+		return null;
+	}
+
+	/**
+	 * @return Giac context to be used by the current thread
+	 */
+	protected Context getContext() {
+		return context;
 	}
 
 	@Override
@@ -56,11 +71,12 @@ final public void clearResult() {
 	 * @param timeoutMilliseconds timeout in milliseconds
 	 * @return String from Giac
 	 */
-	final String evalRaw(String exp0, long timeoutMilliseconds) {
+	protected final String evalRaw(String exp0, long timeoutMilliseconds) {
 		CASGiacBinding binding = createBinding();
+		Context context = getContext();
 		// #5439
 		// reset Giac before each call
-		init(exp0, timeoutMilliseconds);
+		init(context, exp0, timeoutMilliseconds);
 
 		String exp = wrapInevalfa(exp0);
 
@@ -96,7 +112,7 @@ protected void debug(String prefix, String giacString) {
 
 	}
 
-	private void init(String exp, long timeoutMilliseconds) {
+	private void init(Context context, String exp, long timeoutMilliseconds) {
 		CASGiacBinding binding = createBinding();
 		Gen g = binding.createGen(initString, context);
 		g.eval(1, context);
@@ -168,7 +184,16 @@ protected String evaluate(final String exp, final long timeoutMillis0)
 
 		callEvaluateFunction(evalFunction);
 
-		String ret = postProcess(threadResult);
+		return processResult(threadResult);
+	}
+
+	/**
+	 * @param result raw output from Giac
+	 * @return result that GeoGebra can parse
+	 * @throws TimeoutException if Giac was interrupted because of timeout
+	 */
+	protected final String processResult(String result) {
+		String ret = postProcess(result);
 
 		// Log.debug("giac output: " + ret);
 		if (ret.contains("user interruption")) {
@@ -0,0 +1,23 @@
+package org.geogebra.common.cas.giac;
+
+/**
+ * Second level of the Giac result cache, e.g. a file that survives restarts.
+ * Keys and results are in the canonical form of {@link GiacResultCache}.
+ */
+public interface GiacCacheStorage {
+
+	/**
+	 * @param key
+	 *            canonical input
+	 * @return stored result or null
+	 */
+	String get(String key);
+
+	/**
+	 * @param key
+	 *            canonical input
+	 * @param result
+	 *            canonical result
+	 */
+	void put(String key, String result);
+}
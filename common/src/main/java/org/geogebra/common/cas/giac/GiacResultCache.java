@@ -0,0 +1,309 @@
+package org.geogebra.common.cas.giac;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+import org.geogebra.common.kernel.Kernel;
+import org.geogebra.common.util.MaxSizeHashMap;
+import org.geogebra.common.util.StringUtil;
+
+/**
+ * Cache of Giac results.
+ * <p>
+ * Inputs are stored in a canonical form: whitespace is removed and GeoGebra
+ * variables (ggbtmpvar...) are numbered in alphabetical order, so e.g.
+ * solve(ggbtmpvara^2=4,ggbtmpvara) and solve(ggbtmpvarx^2 = 4, ggbtmpvarx)
+ * share one entry. Variables in the result are numbered the same way and
+ * replaced by the names from the actual input on lookup. Numbering keeps the
+ * order of names, so the ordering of terms in results is not affected.
+ * <p>
+ * Entries that don't fit into memory any more can be kept by a
+ * {@link GiacCacheStorage}, except for timeouts and errors.
+ */
+public class GiacResultCache {
+
+	private static final char PLACEHOLDER = '\u0001';
+
+	private final MaxSizeHashMap<String, String> results;
+	private GiacCacheStorage storage;
+	private long hits = 0;
+	private long storageHits = 0;
+	private long misses = 0;
+
+	/**
+	 * @param maxSize
+	 *            maximal number of results kept in memory
+	 */
+	public GiacResultCache(int maxSize) {
+		results = new MaxSizeHashMap<>(maxSize);
+	}
+
+	/**
+	 * @param storage
+	 *            second level of the cache, may be null
+	 */
+	public synchronized void setStorage(GiacCacheStorage storage) {
+		this.storage = storage;
+	}
+
+	/**
+	 * @return second level of the cache, may be null
+	 */
+	public synchronized GiacCacheStorage getStorage() {
+		return storage;
+	}
+
+	/**
+	 * @param input
+	 *            Giac input
+	 * @return cached result or null
+	 */
+	public synchronized String get(String input) {
+		CanonicalInput canonical = new CanonicalInput(input);
+		String result = results.get(canonical.key);
+		if (result != null) {
+			hits++;
+		} else if (storage != null
+				&& (result = storage.get(canonical.key)) != null) {
+			storageHits++;
+			results.put(canonical.key, result);
+		} else {
+			misses++;
+			return null;
+		}
+		return canonical.restore(result);
+	}
+
+	/**
+	 * @param input
+	 *            Giac input
+	 * @param result
+	 *            Giac result
+	 */
+	public synchronized void put(String input, String result) {
+		CanonicalInput canonical = new CanonicalInput(input);
+		String canonicalResult = canonical.rename(result);
+		results.put(canonical.key, canonicalResult);
+		if (storage != null && isPersistent(result)) {
+			storage.put(canonical.key, canonicalResult);
+		}
+	}
+
+	/**
+	 * Timeouts and errors depend on the machine and the Giac version, so they
+	 * are only kept in memory.
+	 * 
+	 * @param result
+	 *            Giac result
+	 * @return whether the result may be kept in the storage
+	 */
+	public static boolean isPersistent(String result) {
+		return result != null && !result.isEmpty() && !"?".equals(result)
+				&& !CASgiac.FORCE_ERROR.equals(result)
+				&& !result.contains("user interruption")
+				&& !result.contains("GIAC_ERROR");
+	}
+
+	/**
+	 * @return number of results in memory
+	 */
+	public synchronized int size() {
+		return results.size();
+	}
+
+	/**
+	 * Removes all results from memory, the storage is not changed.
+	 */
+	public synchronized void clear() {
+		results.clear();
+	}
+
+	/**
+	 * @return number of lookups answered from memory
+	 */
+	public synchronized long getHitCount() {
+		return hits;
+	}
+
+	/**
+	 * @return number of lookups answered from the storage
+	 */
+	public synchronized long getStorageHitCount() {
+		return storageHits;
+	}
+
+	/**
+	 * @return number of lookups without result
+	 */
+	public synchronized long getMissCount() {
+		return misses;
+	}
+
+	/**
+	 * @return ratio of successful lookups (memory or storage), 0 if there
+	 *         were none
+	 */
+	public synchronized double getHitRate() {
+		long lookups = hits + storageHits + misses;
+		return lookups == 0 ? 0 : (hits + storageHits) / (double) lookups;
+	}
+
+	@Override
+	public synchronized String toString() {
+		return "size: " + results.size() + ", hits: " + hits
+				+ ", storage hits: " + storageHits + ", misses: " + misses;
+	}
+
+	/**
+	 * @param input
+	 *            Giac input
+	 * @return canonical form of the input
+	 */
+	static String canonicalForm(String input) {
+		return new CanonicalInput(input).key;
+	}
+
+	/**
+	 * Giac input with variables replaced by numbered placeholders.
+	 */
+	private static final class CanonicalInput {
+		private final Map<String, Integer> indices = new HashMap<>();
+		private final List<String> variables;
+		private final String key;
+
+		CanonicalInput(String input) {
+			TreeSet<String> names = new TreeSet<>();
+			collectVariables(input, names);
+			variables = new ArrayList<>(names);
+			for (int i = 0; i < variables.size(); i++) {
+				indices.put(variables.get(i), i);
+			}
+			key = replaceVariables(input, true);
+		}
+
+		/**
+		 * @param result
+		 *            result with the variables of the input
+		 * @return result with placeholders
+		 */
+		String rename(String result) {
+			return variables.isEmpty() ? result
+					: replaceVariables(result, false);
+		}
+
+		/**
+		 * @param result
+		 *            result with placeholders
+		 * @return result with the variables of the input
+		 */
+		String restore(String result) {
+			if (result.indexOf(PLACEHOLDER) < 0) {
+				return result;
+			}
+			StringBuilder sb = new StringBuilder(result.length());
+			int i = 0;
+			while (i < result.length()) {
+				char c = result.charAt(i);
+				if (c == PLACEHOLDER) {
+					int end = result.indexOf(PLACEHOLDER, i + 1);
+					int index = Integer.parseInt(result.substring(i + 1, end));
+					sb.append(variables.get(index));
+					i = end + 1;
+				} else {
+					sb.append(c);
+					i++;
+				}
+			}
+			return sb.toString();
+		}
+
+		private static void collectVariables(String text,
+				TreeSet<String> names) {
+			int i = 0;
+			while (i < text.length()) {
+				char c = text.charAt(i);
+				if (c == '"') {
+					i = stringEnd(text, i);
+				} else if (StringUtil.isLetterOrDigitOrUnderscore(c)) {
+					int end = wordEnd(text, i);
+					String word = text.substring(i, end);
+					if (word.startsWith(Kernel.TMP_VARIABLE_PREFIX)) {
+						names.add(word);
+					}
+					i = end;
+				} else {
+					i++;
+				}
+			}
+		}
+
+		private String replaceVariables(String text, boolean removeSpaces) {
+			StringBuilder sb = new StringBuilder(text.length());
+			boolean afterWord = false;
+			boolean space = false;
+			int i = 0;
+			while (i < text.length()) {
+				char c = text.charAt(i);
+				if (removeSpaces && StringUtil.isWhitespace(c)) {
+					space = true;
+					i++;
+					continue;
+				}
+				if (c == '"') {
+					int end = stringEnd(text, i);
+					sb.append(text, i, end);
+					afterWord = false;
+					i = end;
+				} else if (StringUtil.isLetterOrDigitOrUnderscore(c)) {
+					int end = wordEnd(text, i);
+					if (space && afterWord) {
+						// keep words apart
+						sb.append(' ');
+					}
+					String word = text.substring(i, end);
+					Integer index = indices.get(word);
+					if (index == null) {
+						sb.append(word);
+					} else {
+						sb.append(PLACEHOLDER).append(index).append(PLACEHOLDER);
+					}
+					afterWord = true;
+					i = end;
+				} else {
+					sb.append(c);
+					afterWord = false;
+					i++;
+				}
+				space = false;
+			}
+			return sb.toString();
+		}
+
+		private static int wordEnd(String text, int start) {
+			int end = start;
+			while (end < text.length()
+					&& StringUtil.isLetterOrDigitOrUnderscore(text.charAt(end))) {
+				end++;
+			}
+			return end;
+		}
+
+		private static int stringEnd(String text, int start) {
+			int end = start + 1;
+			while (end < text.length()) {
+				char c = text.charAt(end);
+				if (c == '\\') {
+					end += 2;
+				} else if (c == '"') {
+					return end + 1;
+				} else {
+					end++;
+				}
+			}
+			return text.length();
+		}
+	}
+}
@@ -132,6 +132,10 @@ public abstract class Drawable extends DrawableND {
 	private GeoElement geoForLabel;
 	private DrawDynamicCaption drawDynamicCaption;
 	private int labelMargin = DrawText.DEFAULT_MARGIN;
+	/** position in the view's {@link DrawableIndex}, -1 if not indexed */
+	int indexSlot = -1;
+	/** changed since the last repaint, see {@link DrawableLayerCache} */
+	boolean renderChanged;
 
 	/**
 	 * Create a default drawable. GeoElement and the view must be set
@@ -243,6 +247,22 @@ public void updateFontSize() {
 		return null;
 	}
 
+	/**
+	 * Returns a rectangle in screen coordinates such that
+	 * {@link #hit(int, int, int)} with threshold t can only be true for
+	 * points within distance t of the rectangle, and
+	 * {@link #intersectsRectangle(GRectangle)} and
+	 * {@link #isInside(GRectangle)} only for rectangles intersecting it. The
+	 * label is not included. Used by {@link DrawableIndex}, the rectangle only
+	 * has to change when this drawable is updated.
+	 * 
+	 * @return rectangle containing the hit area, null if this drawable has to
+	 *         be checked for every hit
+	 */
+	public @CheckForNull GRectangle getHitBounds() {
+		return null;
+	}
+
 	/**
 	 * Draws label of referenced geo
 	 * 
@@ -0,0 +1,430 @@
+package org.geogebra.common.euclidian;
+
+import java.util.Arrays;
+
+import org.geogebra.common.awt.GRectangle;
+
+import com.google.j2objc.annotations.Weak;
+
+/**
+ * Uniform grid over the screen bounds of the drawables of a view, used to find
+ * the drawables that may be hit at a point or intersect a rectangle without
+ * testing all of them.
+ * <p>
+ * Each drawable is indexed by its {@link Drawable#getHitBounds() hit bounds}
+ * together with its label rectangle; drawables without hit bounds are
+ * candidates for every query. Entries are refreshed when a drawable is updated
+ * or its label moves while drawing, the whole index is rebuilt lazily when
+ * drawables are added, removed or reordered, all drawables are updated, or the
+ * view is resized. Candidates are returned in drawing order, so hits are
+ * collected in the same order as by a scan of the drawable list.
+ */
+public class DrawableIndex {
+
+	/** width and height of grid cells in pixels */
+	static final int CELL_SIZE = 64;
+	/** drawables covering more cells are not stored in cells */
+	private static final int MAX_CELLS = 64;
+
+	private static final int UNBOUNDED = 0;
+	private static final int LARGE = 1;
+	private static final int OUTSIDE = 2;
+	private static final int IN_CELLS = 3;
+
+	@Weak
+	private final EuclidianView view;
+	private final DrawableList drawables;
+
+	private boolean valid;
+	private int size;
+	private Drawable[] slots = new Drawable[0];
+	// bounds of hit area and label, inclusive
+	private int[] minX = new int[0];
+	private int[] minY = new int[0];
+	private int[] maxX = new int[0];
+	private int[] maxY = new int[0];
+	private int[] placement = new int[0];
+	// label rectangle at the time the slot was indexed
+	private double[] labelBounds = new double[0];
+
+	private boolean[] dirty = new boolean[0];
+	private int[] dirtySlots = new int[0];
+	private int dirtyCount;
+
+	// grid covering the view with a margin of one cell
+	private int columns;
+	private int rows;
+	private int gridWidth = -1;
+	private int gridHeight = -1;
+	private SlotList[] cells = new SlotList[0];
+	private final SlotList unbounded = new SlotList();
+	private final SlotList large = new SlotList();
+	private final SlotList outside = new SlotList();
+
+	private int[] candidates = new int[16];
+	private int candidateCount;
+	private int[] seen = new int[0];
+	private int stamp;
+
+	private long queryCount;
+	private long totalCandidates;
+
+	/**
+	 * Slots stored in a grid cell or one of the lists of special slots.
+	 */
+	private static final class SlotList {
+		int[] items = new int[4];
+		int size;
+
+		void add(int slot) {
+			if (size == items.length) {
+				items = Arrays.copyOf(items, 2 * size);
+			}
+			items[size++] = slot;
+		}
+
+		void remove(int slot) {
+			for (int i = 0; i < size; i++) {
+				if (items[i] == slot) {
+					items[i] = items[--size];
+					return;
+				}
+			}
+		}
+	}
+
+	/**
+	 * @param view
+	 *            view
+	 * @param drawables
+	 *            drawables of the view, in drawing order
+	 */
+	public DrawableIndex(EuclidianView view, DrawableList drawables) {
+		this.view = view;
+		this.drawables = drawables;
+	}
+
+	/**
+	 * Marks the index outdated, it's rebuilt before the next query.
+	 */
+	public void invalidateAll() {
+		valid = false;
+	}
+
+	/**
+	 * Refreshes the entry of a drawable after it was updated.
+	 *
+	 * @param d
+	 *            drawable
+	 */
+	public void invalidate(Drawable d) {
+		int slot = getSlot(d);
+		if (slot >= 0 && !dirty[slot]) {
+			dirty[slot] = true;
+			dirtySlots[dirtyCount++] = slot;
+		}
+	}
+
+	/**
+	 * Called for each drawable of the list after drawing it.
+	 *
+	 * @param d
+	 *            drawable
+	 * @param updated
+	 *            whether the drawable was updated before drawing
+	 */
+	void afterDraw(Drawable d, boolean updated) {
+		int slot = getSlot(d);
+		if (slot >= 0 && (updated || labelMoved(slot, d.labelRectangle))) {
+			invalidate(d);
+		}
+	}
+
+	private int getSlot(Drawable d) {
+		int slot = d.indexSlot;
+		return valid && slot >= 0 && slot < size && slots[slot] == d ? slot
+				: -1;
+	}
+
+	private boolean labelMoved(int slot, GRectangle label) {
+		return labelBounds[4 * slot] != label.getX()
+				|| labelBounds[4 * slot + 1] != label.getY()
+				|| labelBounds[4 * slot + 2] != label.getWidth()
+				|| labelBounds[4 * slot + 3] != label.getHeight();
+	}
+
+	/**
+	 * Finds drawables that may be hit at a point.
+	 *
+	 * @param x
+	 *            x-coordinate in pixels
+	 * @param y
+	 *            y-coordinate in pixels
+	 * @param hitThreshold
+	 *            hit threshold in pixels
+	 * @return number of candidates, see {@link #getCandidate(int)}
+	 */
+	public int findCandidates(int x, int y, int hitThreshold) {
+		return findCandidates(x - hitThreshold, y - hitThreshold,
+				x + hitThreshold, y + hitThreshold);
+	}
+
+	/**
+	 * Finds drawables that may intersect a rectangle.
+	 *
+	 * @param rect
+	 *            rectangle in screen coordinates
+	 * @return number of candidates, see {@link #getCandidate(int)}
+	 */
+	public int findCandidates(GRectangle rect) {
+		return findCandidates((int) Math.floor(rect.getX()),
+				(int) Math.floor(rect.getY()),
+				(int) Math.ceil(rect.getX() + rect.getWidth()),
+				(int) Math.ceil(rect.getY() + rect.getHeight()));
+	}
+
+	private int findCandidates(int x0, int y0, int x1, int y1) {
+		validate();
+		candidateCount = 0;
+		if (++stamp == 0) {
+			Arrays.fill(seen, 0);
+			stamp = 1;
+		}
+		for (int i = 0; i < unbounded.size; i++) {
+			addCandidate(unbounded.items[i]);
+		}
+		addIntersecting(large, x0, y0, x1, y1);
+		int c0 = column(x0);
+		int c1 = column(x1);
+		int r0 = row(y0);
+		int r1 = row(y1);
+		if (c0 == 0 || r0 == 0 || c1 == columns - 1 || r1 == rows - 1) {
+			addIntersecting(outside, x0, y0, x1, y1);
+		}
+		for (int r = r0; r <= r1; r++) {
+			for (int c = c0; c <= c1; c++) {
+				SlotList cell = cells[r * columns + c];
+				if (cell != null) {
+					addIntersecting(cell, x0, y0, x1, y1);
+				}
+			}
+		}
+		Arrays.sort(candidates, 0, candidateCount);
+		queryCount++;
+		totalCandidates += candidateCount;
+		return candidateCount;
+	}
+
+	private void addIntersecting(SlotList list, int x0, int y0, int x1,
+			int y1) {
+		for (int i = 0; i < list.size; i++) {
+			int slot = list.items[i];
+			if (seen[slot] != stamp && minX[slot] <= x1 && maxX[slot] >= x0
+					&& minY[slot] <= y1 && maxY[slot] >= y0) {
+				addCandidate(slot);
+			}
+		}
+	}
+
+	private void addCandidate(int slot) {
+		seen[slot] = stamp;
+		if (candidateCount == candidates.length) {
+			candidates = Arrays.copyOf(candidates, 2 * candidateCount);
+		}
+		candidates[candidateCount++] = slot;
+	}
+
+	/**
+	 * @param i
+	 *            index, less than the result of the last query
+	 * @return candidate of the last query; candidates are sorted in drawing
+	 *         order
+	 */
+	public Drawable getCandidate(int i) {
+		return slots[candidates[i]];
+	}
+
+	/**
+	 * @return number of drawables in the index
+	 */
+	public int size() {
+		validate();
+		return size;
+	}
+
+	/**
+	 * @return number of queries so far
+	 */
+	public long getQueryCount() {
+		return queryCount;
+	}
+
+	/**
+	 * @return average number of candidates per query
+	 */
+	public double getAverageCandidateCount() {
+		return queryCount == 0 ? 0 : totalCandidates / (double) queryCount;
+	}
+
+	private void validate() {
+		if (!valid || gridWidth != view.getWidth()
+				|| gridHeight != view.getHeight()) {
+			rebuild();
+			return;
+		}
+		if (dirtyCount > size / 4) {
+			// cheaper than moving each slot
+			rebuild();
+			return;
+		}
+		for (int i = 0; i < dirtyCount; i++) {
+			int slot = dirtySlots[i];
+			unplace(slot);
+			computeBounds(slot);
+			place(slot);
+			dirty[slot] = false;
+		}
+		dirtyCount = 0;
+	}
+
+	private void rebuild() {
+		size = drawables.size();
+		if (slots.length < size) {
+			int capacity = Math.max(size, 2 * slots.length);
+			slots = new Drawable[capacity];
+			minX = new int[capacity];
+			minY = new int[capacity];
+			maxX = new int[capacity];
+			maxY = new int[capacity];
+			placement = new int[capacity];
+			labelBounds = new double[4 * capacity];
+			dirty = new boolean[capacity];
+			dirtySlots = new int[capacity];
+			seen = new int[capacity];
+		} else {
+			Arrays.fill(slots, size, slots.length, null);
+			Arrays.fill(dirty, false);
+		}
+		dirtyCount = 0;
+		gridWidth = view.getWidth();
+		gridHeight = view.getHeight();
+		columns = Math.max(gridWidth, 0) / CELL_SIZE + 3;
+		rows = Math.max(gridHeight, 0) / CELL_SIZE + 3;
+		if (cells.length < columns * rows) {
+			cells = new SlotList[columns * rows];
+		} else {
+			for (SlotList cell : cells) {
+				if (cell != null) {
+					cell.size = 0;
+				}
+			}
+		}
+		unbounded.size = 0;
+		large.size = 0;
+		outside.size = 0;
+		for (int slot = 0; slot < size; slot++) {
+			Drawable d = drawables.get(slot);
+			slots[slot] = d;
+			d.indexSlot = slot;
+			computeBounds(slot);
+			place(slot);
+		}
+		valid = true;
+	}
+
+	private void computeBounds(int slot) {
+		Drawable d = slots[slot];
+		GRectangle label = d.labelRectangle;
+		labelBounds[4 * slot] = label.getX();
+		labelBounds[4 * slot + 1] = label.getY();
+		labelBounds[4 * slot + 2] = label.getWidth();
+		labelBounds[4 * slot + 3] = label.getHeight();
+		GRectangle bounds = d.getHitBounds();
+		if (bounds == null) {
+			placement[slot] = UNBOUNDED;
+			return;
+		}
+		placement[slot] = IN_CELLS;
+		minX[slot] = (int) Math.floor(bounds.getX());
+		minY[slot] = (int) Math.floor(bounds.getY());
+		maxX[slot] = (int) Math.ceil(bounds.getX() + bounds.getWidth());
+		maxY[slot] = (int) Math.ceil(bounds.getY() + bounds.getHeight());
+		if (label.getWidth() > 0 && label.getHeight() > 0) {
+			minX[slot] = Math.min(minX[slot], (int) Math.floor(label.getX()));
+			minY[slot] = Math.min(minY[slot], (int) Math.floor(label.getY()));
+			maxX[slot] = Math.max(maxX[slot],
+					(int) Math.ceil(label.getX() + label.getWidth()));
+			maxY[slot] = Math.max(maxY[slot],
+					(int) Math.ceil(label.getY() + label.getHeight()));
+		}
+	}
+
+	private void place(int slot) {
+		if (placement[slot] == UNBOUNDED) {
+			unbounded.add(slot);
+			return;
+		}
+		int c0 = column(minX[slot]);
+		int c1 = column(maxX[slot]);
+		int r0 = row(minY[slot]);
+		int r1 = row(maxY[slot]);
+		if ((long) (c1 - c0 + 1) * (r1 - r0 + 1) > MAX_CELLS) {
+			placement[slot] = LARGE;
+			large.add(slot);
+		} else if (c0 == 0 || r0 == 0 || c1 == columns - 1
+				|| r1 == rows - 1) {
+			// may extend beyond the grid
+			placement[slot] = OUTSIDE;
+			outside.add(slot);
+		} else {
+			placement[slot] = IN_CELLS;
+			for (int r = r0; r <= r1; r++) {
+				for (int c = c0; c <= c1; c++) {
+					int cell = r * columns + c;
+					if (cells[cell] == null) {
+						cells[cell] = new SlotList();
+					}
+					cells[cell].add(slot);
+				}
+			}
+		}
+	}
+
+	private void unplace(int slot) {
+		switch (placement[slot]) {
+		case UNBOUNDED:
+			unbounded.remove(slot);
+			break;
+		case LARGE:
+			large.remove(slot);
+			break;
+		case OUTSIDE:
+			outside.remove(slot);
+			break;
+		default:
+			for (int r = row(minY[slot]); r <= row(maxY[slot]); r++) {
+				for (int c = column(minX[slot]); c <= column(maxX[slot]); c++) {
+					cells[r * columns + c].remove(slot);
+				}
+			}
+		}
+	}
+
+	/**
+	 * @return grid column, the first and last column also contain everything
+	 *         left or right of the view
+	 */
+	private int column(int x) {
+		if (x < 0) {
+			return 0;
+		}
+		return Math.min(x / CELL_SIZE + 1, columns - 1);
+	}
+
+	private int row(int y) {
+		if (y < 0) {
+			return 0;
+		}
+		return Math.min(y / CELL_SIZE + 1, rows - 1);
+	}
+}
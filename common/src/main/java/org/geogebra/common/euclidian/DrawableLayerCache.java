@@ -0,0 +1,181 @@
+package org.geogebra.common.euclidian;
+
+import org.geogebra.common.awt.GBufferedImage;
+import org.geogebra.common.awt.GGraphics2D;
+
+import com.google.j2objc.annotations.Weak;
+
+/**
+ * Caches the drawables of a view that don't change while dragging.
+ * <p>
+ * Drawables are drawn in the order of their layers (see {@link LayerManager}),
+ * so the drawables that change while dragging (the moved objects and their
+ * dependents) lie within a range of the drawable list. The drawables before
+ * that range are drawn into one image and the drawables after it into
+ * another one; each repaint then only draws the range between the two images.
+ * The cache is built once the same range changed in two consecutive repaints
+ * and is dropped when dragging stops, when any drawable outside of the range
+ * changes, or when the view is transformed or resized.
+ */
+public class DrawableLayerCache {
+
+	/** no caching if a larger part of the drawables changes */
+	private static final double MAX_CHANGED_FRACTION = 0.5;
+
+	@Weak
+	private final EuclidianView view;
+	private final DrawableList drawables;
+
+	private boolean enabled = true;
+	private boolean valid;
+	private GBufferedImage below;
+	private GBufferedImage above;
+	// range of drawables painted directly, inclusive
+	private int first;
+	private int last;
+	private int width;
+	private int height;
+	// range of drawables changed for the previous repaint
+	private int previousFirst = -1;
+	private int previousLast = -1;
+
+	/**
+	 * @param view
+	 *            view
+	 * @param drawables
+	 *            drawables of the view, in drawing order
+	 */
+	public DrawableLayerCache(EuclidianView view, DrawableList drawables) {
+		this.view = view;
+		this.drawables = drawables;
+	}
+
+	/**
+	 * @param enabled
+	 *            whether to cache drawables while dragging
+	 */
+	public void setEnabled(boolean enabled) {
+		this.enabled = enabled;
+		if (!enabled) {
+			release();
+		}
+	}
+
+	/**
+	 * @return whether drawables are cached while dragging
+	 */
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	/**
+	 * @return whether the next repaint may use cached images
+	 */
+	public boolean isValid() {
+		return valid;
+	}
+
+	/**
+	 * Drops the cached images, e.g. after the coordinate system or the
+	 * drawable list changed.
+	 */
+	public void invalidate() {
+		valid = false;
+	}
+
+	/**
+	 * Marks a drawable as changed since the last repaint.
+	 *
+	 * @param d
+	 *            drawable
+	 */
+	public void markChanged(Drawable d) {
+		d.renderChanged = true;
+	}
+
+	/**
+	 * Draws all drawables, using cached images for the unchanged ones if
+	 * possible.
+	 *
+	 * @param g2
+	 *            graphics of the view
+	 */
+	public void drawAll(GGraphics2D g2) {
+		int changedFirst = -1;
+		int changedLast = -1;
+		for (int i = 0; i < drawables.size(); i++) {
+			Drawable d = drawables.get(i);
+			if (d.renderChanged || d.needsUpdate()) {
+				if (changedFirst < 0) {
+					changedFirst = i;
+				}
+				changedLast = i;
+				d.renderChanged = false;
+			}
+		}
+		boolean repeated = changedFirst == previousFirst
+				&& changedLast == previousLast;
+		if (changedFirst >= 0) {
+			// repaints without changes don't break a sequence of drag steps
+			previousFirst = changedFirst;
+			previousLast = changedLast;
+		}
+
+		if (!enabled || !view.getEuclidianController()
+				.isDraggingOccuredBeyondThreshold()) {
+			release();
+			drawables.drawAll(g2);
+			return;
+		}
+		if (valid && (width != view.getWidth() || height != view.getHeight()
+				|| changedFirst >= 0
+						&& (changedFirst < first || changedLast > last))) {
+			valid = false;
+		}
+		if (!valid && changedFirst >= 0 && repeated
+				&& changedLast - changedFirst + 1 < MAX_CHANGED_FRACTION
+						* drawables.size()) {
+			build(changedFirst, changedLast);
+		}
+		if (valid) {
+			if (below != null) {
+				g2.drawImage(below, 0, 0);
+			}
+			drawables.drawRange(g2, first, last + 1);
+			if (above != null) {
+				g2.drawImage(above, 0, 0);
+			}
+		} else {
+			release();
+			drawables.drawAll(g2);
+		}
+	}
+
+	private void build(int from, int to) {
+		first = from;
+		last = to;
+		width = view.getWidth();
+		height = view.getHeight();
+		int size = drawables.size();
+		below = from > 0 ? drawLayer(0, from) : null;
+		above = to < size - 1 ? drawLayer(to + 1, size) : null;
+		valid = (from == 0 || below != null) && (to == size - 1 || above != null);
+	}
+
+	private GBufferedImage drawLayer(int from, int to) {
+		GBufferedImage image = view.createLayerImage();
+		if (image == null) {
+			return null;
+		}
+		GGraphics2D g2 = image.createGraphics();
+		g2.setAntialiasing();
+		drawables.drawRange(g2, from, to);
+		return image;
+	}
+
+	private void release() {
+		valid = false;
+		below = null;
+		above = null;
+	}
+}
@@ -27,6 +27,8 @@
 public class DrawableList extends ArrayList<Drawable> {
 
 	private Comparator<Drawable> comparator;
+	private DrawableIndex index;
+	private DrawableLayerCache layerCache;
 
 	/**
 	 * Create a DrawableList with the given GeoPriorityComparator
@@ -40,6 +42,31 @@ public int compare(Drawable a, Drawable b) {
 		};
 	}
 
+	/**
+	 * @param index
+	 *            spatial index to keep up to date with this list
+	 */
+	public void setIndex(DrawableIndex index) {
+		this.index = index;
+	}
+
+	/**
+	 * @param layerCache
+	 *            cache of drawn layers to drop when this list changes
+	 */
+	public void setLayerCache(DrawableLayerCache layerCache) {
+		this.layerCache = layerCache;
+	}
+
+	private void invalidateDerivedData() {
+		if (index != null) {
+			index.invalidateAll();
+		}
+		if (layerCache != null) {
+			layerCache.invalidate();
+		}
+	}
+
 	@Override
 	public final boolean add(Drawable d) {
 		if (d == null) {
@@ -52,9 +79,22 @@ public final boolean add(Drawable d) {
 		}
 
 		add(i, d);
+		invalidateDerivedData();
 		return true;
 	}
 
+	@Override
+	public boolean remove(Object d) {
+		invalidateDerivedData();
+		return super.remove(d);
+	}
+
+	@Override
+	public void clear() {
+		invalidateDerivedData();
+		super.clear();
+	}
+
 	/**
 	 * Draws all drawables in the list.
 	 * 
@@ -62,7 +102,22 @@ public final boolean add(Drawable d) {
 	 *            Graphic to be used
 	 */
 	public final void drawAll(GGraphics2D g2) {
-		for (Drawable d : this) {
+		drawRange(g2, 0, size());
+	}
+
+	/**
+	 * Draws the drawables at positions from (inclusive) to to (exclusive).
+	 * 
+	 * @param g2
+	 *            Graphic to be used
+	 * @param from
+	 *            first position
+	 * @param to
+	 *            end position
+	 */
+	public final void drawRange(GGraphics2D g2, int from, int to) {
+		for (int i = from; i < to; i++) {
+			Drawable d = get(i);
 			GeoElement geo = d.getGeoElement();
 			if (d.isInteractiveEditor()) {
 				d.updateIfNeeded();
@@ -70,8 +125,12 @@ public final void drawAll(GGraphics2D g2) {
 					&& !(geo.isGeoList() && ((GeoList) geo).drawAsComboBox())
 					&& !geo.isGeoInputBox() && !geo.isMask() && !geo.isMeasurementTool()
 					&& !geo.isSpotlight()) {
+				boolean updated = index != null && d.needsUpdate();
 				d.updateIfNeeded();
 				d.draw(g2);
+				if (index != null) {
+					index.afterDraw(d, updated);
+				}
 			}
 		}
 	}
@@ -83,10 +142,15 @@ public final void updateAll() {
 		for (Drawable d : this) {
 			d.update();
 		}
+		invalidateDerivedData();
 	}
 
+	/**
+	 * Sorts the drawables by drawing priority.
+	 */
 	public void sort() {
 		Collections.sort(this, comparator);
+		invalidateDerivedData();
 	}
 
 	@Override
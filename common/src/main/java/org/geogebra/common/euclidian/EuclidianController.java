@@ -19,7 +19,6 @@
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
-import java.util.TreeSet;
 
 import org.geogebra.common.awt.GColor;
 import org.geogebra.common.awt.GPoint;
@@ -5609,7 +5608,7 @@ protected final void rotateObject() {
 					((GeoPointND) pt).rotate(tempNum, rotationCenter);
 				}
 			}
-			GeoElement.updateCascade(pts, new TreeSet<>(), false);
+			GeoElement.updateCascade(pts, false);
 		}
 		rotationLastAngle = newAngle;
 	}
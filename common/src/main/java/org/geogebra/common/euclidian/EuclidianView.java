@@ -293,6 +293,8 @@ public abstract class EuclidianView implements EuclidianViewInterfaceCommon,
 	private final ArrayList<GeoPointND> stickyPointList = new ArrayList<>();
 
 	private DrawableList allDrawableList;
+	private DrawableIndex drawableIndex;
+	private DrawableLayerCache layerCache;
 
 	// on add: change resetLists()
 	/** list of background images */
@@ -615,6 +617,10 @@ protected void init(EuclidianController ec, int viewNo,
 		logToCrashlytics("EuclidianView.allDrawableList reinitialized at EuclidianView.init(",
 				"EuclidianController ec, int viewNo, EuclidianSettings settings)");
 		allDrawableList = new DrawableList(cmp);
+		drawableIndex = new DrawableIndex(this, allDrawableList);
+		allDrawableList.setIndex(drawableIndex);
+		layerCache = new DrawableLayerCache(this, allDrawableList);
+		allDrawableList.setLayerCache(layerCache);
 		bgImageList = new DrawableList(cmp);
 
 		initAxesValues();
@@ -1802,6 +1808,20 @@ public DrawableList getAllDrawableList() {
 		return allDrawableList;
 	}
 
+	/**
+	 * @return spatial index of the drawables for hit testing
+	 */
+	public DrawableIndex getDrawableIndex() {
+		return drawableIndex;
+	}
+
+	/**
+	 * @return cache of unchanged drawables while dragging
+	 */
+	public DrawableLayerCache getLayerCache() {
+		return layerCache;
+	}
+
 	/**
 	 * Called when the drawing priorities of the objects in the view have changed
 	 */
@@ -1827,6 +1847,7 @@ final public void updateAllDrawablesForView(boolean repaint) {
 		for (Drawable d : bgImageList) {
 			d.updateForView();
 		}
+		drawableIndex.invalidateAll();
 		isCrashlyticsLoggingEnabled = false;
 
 		GeoElement focused = app.getSelectionManager().getFocusedGroupElement();
@@ -1989,6 +2010,8 @@ public void rename(GeoElement geo) {
 		Object d = drawableMap.get(geo);
 		if (d != null) {
 			((Drawable) d).update();
+			drawableIndex.invalidate((Drawable) d);
+			layerCache.markChanged((Drawable) d);
 			repaint();
 		}
 	}
@@ -2002,6 +2025,9 @@ public void update(GeoElement geo) {
 				add(geo);
 				return;
 			}
+			if (d instanceof Drawable) {
+				layerCache.markChanged((Drawable) d);
+			}
 			if (d instanceof DrawImage) {
 				this.updateBackgroundOnNextRepaint = ((DrawImage) d)
 						.checkInBackground()
@@ -2010,6 +2036,9 @@ public void update(GeoElement geo) {
 				d.setNeedsUpdate(true);
 			} else {
 				d.update();
+				if (d instanceof Drawable) {
+					drawableIndex.invalidate((Drawable) d);
+				}
 			}
 			if (geo == app.getSelectionManager().getFocusedGroupElement()
 					&& focusedGroupGeoBoundingBox != null) {
@@ -2301,7 +2330,9 @@ public GeoElement getLabelHit(GPoint p, PointerEventType type) {
 		if (!getApplication().isLabelDragsEnabled()) {
 			return null;
 		}
-		for (Drawable d : allDrawableList) {
+		int candidates = drawableIndex.findCandidates(p.x, p.y, 0);
+		for (int i = 0; i < candidates; i++) {
+			Drawable d = drawableIndex.getCandidate(i);
 			if (d.hitLabel(p.x, p.y)) {
 				GeoElement geo = d.getGeoElement();
 				if (geo.isEuclidianVisible() && geo.isLabelVisible()) {
@@ -2478,7 +2509,13 @@ public void updateVisualStyle(GeoElement geo, GProperty prop) {
 
 	@Override
 	public void updateHighlight(GeoElementND geo) {
-		// nothing to do here
+		DrawableND d = drawableMap.get(geo);
+		if (d instanceof Drawable) {
+			layerCache.markChanged((Drawable) d);
+		} else {
+			// may be drawn by another drawable, e.g. a list
+			layerCache.invalidate();
+		}
 	}
 
 	@Override
@@ -2503,6 +2540,7 @@ protected void updateDrawableFontSize() {
 		for (Drawable d : allDrawableList) {
 			d.updateFontSize();
 		}
+		layerCache.invalidate();
 		repaint();
 	}
 
@@ -3551,9 +3589,14 @@ protected void updateSizeChange() {
 	 * @param g2
 	 *            graphics
 	 */
-	final private void drawGeometricObjects(GGraphics2D g2) {
+	final private void drawGeometricObjects(GGraphics2D g2,
+			boolean useLayerCache) {
 		// only draw drawables we need
-		allDrawableList.drawAll(g2);
+		if (useLayerCache) {
+			layerCache.drawAll(g2);
+		} else {
+			allDrawableList.drawAll(g2);
+		}
 
 		if (getEuclidianController().isMultiSelection()) {
 			getEuclidianController()
@@ -3568,7 +3611,20 @@ final private void drawGeometricObjects(GGraphics2D g2) {
 	 *            graphics
 	 */
 	public void drawObjects(GGraphics2D g2) {
-		drawGeometricObjects(g2);
+		drawObjects(g2, false);
+	}
+
+	/**
+	 * Draws all objects
+	 * 
+	 * @param g2
+	 *            graphics
+	 * @param useLayerCache
+	 *            whether unchanged objects may be drawn from cached images,
+	 *            only for painting the view itself
+	 */
+	public void drawObjects(GGraphics2D g2, boolean useLayerCache) {
+		drawGeometricObjects(g2, useLayerCache);
 		drawActionObjects(g2);
 
 		if (previewDrawable != null) {
@@ -6356,7 +6412,7 @@ public void drawStringWithOutline(GGraphics2D g2, String text, double x,
 	 * Invalidate cached graphics
 	 */
 	public void invalidateCache() {
-		// web only
+		layerCache.invalidate();
 	}
 
 	/**
@@ -6370,12 +6426,25 @@ protected GBufferedImage getCacheGraphics() {
 		return null;
 	}
 
+	/**
+	 * @return transparent image of the size of this view for
+	 *         {@link DrawableLayerCache}, null if not supported
+	 */
+	protected GBufferedImage createLayerImage() {
+		if (getWidth() <= 0 || getHeight() <= 0) {
+			return null;
+		}
+		return AwtFactory.getPrototype().createBufferedImage(getWidth(),
+				getHeight(), true);
+	}
+
 	/**
 	 * Reset background and cache bitmaps.
 	 */
 	protected void resetBackgroundAndCache() {
 		bgImage = null;
 		bgGraphics = null;
+		layerCache.invalidate();
 	}
 
 	/**
@@ -375,7 +375,7 @@ public void paint(GGraphics2D g2) {
 		g2.setAntialiasing();
 
 		// draw equations, checkboxes and all geo objects
-		view.drawObjects(g2);
+		view.drawObjects(g2, true);
 
 		if (view.selectionRectangle != null) {
 			view.drawZoomRectangle(g2);
@@ -42,7 +42,10 @@ private void setHits(GPoint p, int hitThreshold) {
 		}
 		boolean hitMask = false;
 
-		for (Drawable d : ev.getAllDrawableList()) {
+		DrawableIndex index = ev.getDrawableIndex();
+		int candidates = index.findCandidates(p.x, p.y, hitThreshold);
+		for (int i = 0; i < candidates; i++) {
+			Drawable d = index.getCandidate(i);
 			if (d.isEuclidianVisible()) {
 				if (d.hit(p.x, p.y, hitThreshold)) {
 					GeoElement geo = d.getGeoElement();
@@ -172,7 +175,10 @@ public void addIntersectionHits(GRectangle rect, TestGeo filter) {
 			return;
 		}
 
-		for (Drawable d : ev.getAllDrawableList()) {
+		DrawableIndex index = ev.getDrawableIndex();
+		int candidates = index.findCandidates(rect);
+		for (int i = 0; i < candidates; i++) {
+			Drawable d = index.getCandidate(i);
 			GeoElement geo = d.getGeoElement();
 			if (geo.isEuclidianVisible() && geo.isSelectionAllowed(ev)
 					&& filter.check(geo) && !hits.contains(geo)
@@ -203,7 +209,10 @@ public void setHits(GRectangle rect) {
 			return;
 		}
 
-		for (Drawable d : ev.getAllDrawableList()) {
+		DrawableIndex index = ev.getDrawableIndex();
+		int candidates = index.findCandidates(rect);
+		for (int i = 0; i < candidates; i++) {
+			Drawable d = index.getCandidate(i);
 			GeoElement geo = d.getGeoElement();
 			if (geo.isEuclidianVisible() && d.isInside(rect)) {
 				hits.add(geo);
@@ -27,6 +27,7 @@
 import org.geogebra.common.kernel.arithmetic.FunctionalNVar;
 import org.geogebra.common.kernel.geos.GeoElement;
 import org.geogebra.common.kernel.geos.GeoList;
+import org.geogebra.common.kernel.geos.GeoPoint;
 
 /**
  * Draw a GeoList containing drawable objects
@@ -39,6 +40,12 @@ public final class DrawList extends Drawable implements RemoveNeeded {
 	private DrawListArray drawables;
 	/** whether this is visible */
 	boolean isVisible;
+	/**
+	 * draws all points of a list with {@link GeoList#isPackedPoints()}, so
+	 * that they need neither elements nor drawables of their own
+	 */
+	private DrawPoint packedPoint;
+	private final double[] packedCoords = new double[2];
 
 	/**
 	 * Creates new drawable list
@@ -76,10 +83,16 @@ public void update() {
 
 		// go through list elements and create and/or update drawables
 		int size = geoList.size();
-		drawables.ensureCapacity(size);
 		int oldDrawableSize = drawables.size();
 
 		int drawablePos = 0;
+		if (geoList.isPackedPoints()) {
+			updatePackedPoint();
+			size = 0;
+		} else {
+			packedPoint = null;
+			drawables.ensureCapacity(size);
+		}
 		for (int i = 0; i < size; i++) {
 			GeoElement listElement = geoList.get(i);
 			if (!listElement.isDrawable()) {
@@ -118,6 +131,27 @@ public void update() {
 
 	}
 
+	private void updatePackedPoint() {
+		if (packedPoint == null) {
+			packedPoint = new DrawPoint(view,
+					new GeoPoint(geoList.getConstruction(), 0, 0, 1));
+			packedPoint.setCreatedByDrawList(this);
+		}
+		geoList.applyPackedPointStyle((GeoPoint) packedPoint.getGeoElement());
+	}
+
+	/**
+	 * Moves {@link #packedPoint} to a point of the list.
+	 *
+	 * @param index
+	 *            point position
+	 */
+	private void movePackedPoint(int index) {
+		packedCoords[0] = geoList.getPackedX(index);
+		packedCoords[1] = geoList.getPackedY(index);
+		packedPoint.update(packedCoords);
+	}
+
 	/**
 	 * This method is necessary, for example when we set another construction
 	 * step, and the sub-drawables of this list should be removed as well
@@ -138,7 +172,12 @@ protected void drawTrace(GGraphics2D g2) {
 
 		g2.setPaint(geo.getObjectColor());
 		g2.setStroke(objStroke);
-		if (isVisible) {
+		if (isVisible && packedPoint != null) {
+			for (int i = 0; i < geoList.size(); i++) {
+				movePackedPoint(i);
+				packedPoint.draw(g2);
+			}
+		} else if (isVisible) {
 			int size = drawables.size();
 			for (int i = 0; i < size; i++) {
 				Drawable d = (Drawable) drawables.get(i);
@@ -157,7 +196,13 @@ protected void drawTrace(GGraphics2D g2) {
 	@Override
 	public void draw(GGraphics2D g2) {
 
-		if (isVisible) {
+		if (isVisible && packedPoint != null) {
+			packedPoint.getGeoElement().setHighlighted(isHighlighted());
+			for (int i = 0; i < geoList.size(); i++) {
+				movePackedPoint(i);
+				packedPoint.draw(g2);
+			}
+		} else if (isVisible) {
 			boolean doHighlight = isHighlighted();
 
 			int size = drawables.size();
@@ -182,6 +227,15 @@ public void draw(GGraphics2D g2) {
 	 */
 	@Override
 	public boolean hit(int x, int y, int hitThreshold) {
+		if (packedPoint != null) {
+			for (int i = 0; i < geoList.size(); i++) {
+				movePackedPoint(i);
+				if (packedPoint.hit(x, y, hitThreshold)) {
+					return true;
+				}
+			}
+			return false;
+		}
 
 		int size = drawables.size();
 		for (int i = 0; i < size; i++) {
@@ -196,6 +250,15 @@ public boolean hit(int x, int y, int hitThreshold) {
 
 	@Override
 	public boolean isInside(GRectangle rect) {
+		if (packedPoint != null) {
+			for (int i = 0; i < geoList.size(); i++) {
+				movePackedPoint(i);
+				if (!packedPoint.isInside(rect)) {
+					return false;
+				}
+			}
+			return geoList.size() > 0;
+		}
 		int size = drawables.size();
 		for (int i = 0; i < size; i++) {
 			Drawable d = (Drawable) drawables.get(i);
@@ -209,6 +272,15 @@ public boolean isInside(GRectangle rect) {
 
 	@Override
 	public boolean intersectsRectangle(GRectangle rect) {
+		if (packedPoint != null) {
+			for (int i = 0; i < geoList.size(); i++) {
+				movePackedPoint(i);
+				if (packedPoint.intersectsRectangle(rect)) {
+					return true;
+				}
+			}
+			return false;
+		}
 		int size = drawables.size();
 		for (int i = 0; i < size; i++) {
 			Drawable d = (Drawable) drawables.get(i);
@@ -230,9 +302,16 @@ public GRectangle getBounds() {
 
 		GRectangle result = null;
 
-		int size = drawables.size();
+		boolean packed = packedPoint != null;
+		int size = packed ? geoList.size() : drawables.size();
 		for (int i = 0; i < size; i++) {
-			Drawable d = (Drawable) drawables.get(i);
+			Drawable d;
+			if (packed) {
+				movePackedPoint(i);
+				d = packedPoint;
+			} else {
+				d = (Drawable) drawables.get(i);
+			}
 			GRectangle bb = d.getBounds();
 			if (bb != null) {
 				if (result == null) {
@@ -536,6 +536,18 @@ public GRectangle getBounds() {
 				2 * selRadius, 2 * selRadius);
 	}
 
+	@Override
+	public GRectangle getHitBounds() {
+		if (isPreview || !Double.isFinite(coords[0])
+				|| !Double.isFinite(coords[1])) {
+			return null;
+		}
+		int r = Math.max(pointSize, SELECTION_RADIUS_MIN);
+		return AwtFactory.getPrototype().newRectangle(
+				(int) Math.floor(coords[0]) - r, (int) Math.floor(coords[1]) - r,
+				2 * r + 1, 2 * r + 1);
+	}
+
 	@Override
 	public void setGeoElement(GeoElement geo) {
 		this.geo = geo;
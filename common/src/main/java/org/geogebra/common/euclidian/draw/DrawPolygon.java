@@ -383,6 +383,20 @@ final public GRectangle getBounds() {
 		return gp.getBounds();
 	}
 
+	@Override
+	public GRectangle getHitBounds() {
+		GRectangle bounds = gp.getBounds();
+		if (geo.isInverseFill() || bounds == null) {
+			return null;
+		}
+		// filled polygons may use the mouse threshold, see hit()
+		int eps = view.getApplication()
+				.getCapturingThreshold(PointerEventType.MOUSE);
+		return AwtFactory.getPrototype().newRectangle((int) bounds.getX() - eps,
+				(int) bounds.getY() - eps, (int) bounds.getWidth() + 2 * eps + 1,
+				(int) bounds.getHeight() + 2 * eps + 1);
+	}
+
 	@Override
 	public GArea getShape() {
 		if (super.getShape() != null) {
@@ -626,6 +626,12 @@ final public GRectangle getBounds() {
 		return AwtFactory.getPrototype().newRectangle(line.getBounds());
 	}
 
+	@Override
+	public GRectangle getHitBounds() {
+		GShape decoratedShape = getDecoratedShape();
+		return decoratedShape == null ? null : decoratedShape.getBounds();
+	}
+
 	/**
 	 * set visible
 	 */
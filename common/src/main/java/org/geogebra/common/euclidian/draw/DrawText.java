@@ -371,6 +371,12 @@ public GRectangle getBounds() {
 		return labelRectangle;
 	}
 
+	@Override
+	public GRectangle getHitBounds() {
+		// hits are tested on the label rectangle
+		return labelRectangle;
+	}
+
 	/**
 	 * @return font size
 	 */
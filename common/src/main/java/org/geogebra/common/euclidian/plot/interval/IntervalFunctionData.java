@@ -58,15 +58,6 @@ public void append(Interval x, Interval y) {
 		tuples.add(new IntervalTuple(x, y));
 	}
 
-	/**
-	 * Adds (x, y) interval pair to the beginning of the list.
-	 * @param x {@link Interval}
-	 * @param y {@link Interval}
-	 */
-	public void prepend(Interval x, Interval y) {
-		tuples.prepend(new IntervalTuple(x, y));
-	}
-
 	/**
 	 * Clears the whole data.
 	 */
@@ -74,34 +65,6 @@ public void clear() {
 		tuples.clear();
 	}
 
-	/**
-	 * Adds (x, y) interval pair to the beginning of the list and removes the last one,
-	 * if it is offscreen (preserves list length)
-	 * @param x {@link Interval}
-	 * @param y {@link Interval}
-	 */
-	public void extendLeft(Interval x, Interval y) {
-		prepend(x, y);
-		double low = tuples.last().x().getLow();
-		if (low >= bounds.getXmax()) {
-			tuples.removeLast();
-		}
-	}
-
-	/**
-	 * Adds (x, y) interval pair to the end of the list and removes the first one,
-	 * if it is offscreen (preserves list length)
-	 * @param x {@link Interval}
-	 * @param y {@link Interval}
-	 */
-	public void extendRight(Interval x, Interval y) {
-		append(x, y);
-		IntervalTuple first = tuples.first();
-		if (first.x().getHigh() <= bounds.getXmin()) {
-			tuples.removeFirst();
-		}
-	}
-
 	/**
 	 *
 	 * @return {@link GeoFunction}
@@ -42,11 +42,16 @@ public void update() {
 	}
 
 	/**
-	 * Updates the entire model.
+	 * Updates the entire model. If the function has not changed since
+	 * the last update, only samples of the new parts of the view are evaluated.
 	 */
 	@Override
 	public void resample() {
-		sampler.resample(bounds.domain());
+		if (resampleNeeded) {
+			sampler.resample(bounds.domain());
+		} else {
+			sampler.update(bounds.domain());
+		}
 		updatePath();
 		resampleNeeded = false;
 	}
@@ -4870,8 +4870,10 @@ public void setExport3D(final Format format, boolean showDialog) {
 			ExportToPrinter3D exportToPrinter = new ExportToPrinter3D(this,
 					renderer.getGeometryManager());
 			StringBuilder export = exportToPrinter.export(format);
-			getApplication().exportStringToFile(format.getExtension(),
-					export.toString(), showDialog);
+			if (!format.isStreaming()) {
+				getApplication().exportStringToFile(format.getExtension(),
+						export.toString(), showDialog);
+			}
 		});
 	}
 
@@ -220,10 +220,13 @@ public StringBuilder export3D(final Format format,
 								ExportToPrinter3D exportToPrinter = new ExportToPrinter3D(this,
 										renderer.getGeometryManager());
 								getApplication().getKernel().detach(this);
-								getApplication().exportStringToFile(
-										format.getExtension(),
-										exportToPrinter.export(format)
-												.toString(), true);
+								StringBuilder export = exportToPrinter
+										.export(format);
+								if (!format.isStreaming()) {
+									getApplication().exportStringToFile(
+											format.getExtension(),
+											export.toString(), true);
+								}
 							});
 					return null;
 				}
@@ -0,0 +1,45 @@
+package org.geogebra.common.geogebra3D.euclidian3D.printer3D;
+
+import java.io.IOException;
+
+/**
+ * Destination for binary export data, e.g. a file. Unlike a plain stream it
+ * allows to overwrite data written before, which is needed for headers that
+ * depend on the whole content.
+ */
+public interface BinaryOutput {
+
+	/**
+	 * Appends data.
+	 * 
+	 * @param data
+	 *            data
+	 * @param offset
+	 *            start offset in data
+	 * @param length
+	 *            number of bytes to write
+	 * @throws IOException
+	 *             if writing fails
+	 */
+	void write(byte[] data, int offset, int length) throws IOException;
+
+	/**
+	 * Overwrites data that was written before.
+	 * 
+	 * @param position
+	 *            position from the start of the output
+	 * @param data
+	 *            data
+	 * @throws IOException
+	 *             if writing fails
+	 */
+	void writeAt(long position, byte[] data) throws IOException;
+
+	/**
+	 * Finishes the output.
+	 * 
+	 * @throws IOException
+	 *             if writing fails
+	 */
+	void close() throws IOException;
+}
@@ -265,6 +265,14 @@ abstract public boolean getFaces(StringBuilder sb, int v1, int v2, int v3,
 	 */
 	abstract public void setScale(double scale);
 
+	/**
+	 * @return true if the format writes the export to its own output, so the
+	 *         text returned by the export is not to be saved
+	 */
+	public boolean isStreaming() {
+		return false;
+	}
+
 	/**
 	 * 
 	 * @param newline
@@ -46,12 +46,23 @@ public void getScriptStart(StringBuilder sb) {
 
 	@Override
 	public void getScriptEnd(StringBuilder sb) {
+		getFilledSolids(sb);
+		appendNewline(sb);
+		sb.append("endsolid geogebra");
+	}
+
+	/**
+	 * Writes the triangles of filled solids, which are only known once all
+	 * polygons have been added.
+	 * 
+	 * @param sb
+	 *            output builder
+	 */
+	protected void getFilledSolids(StringBuilder sb) {
 		if (wantsFilledSolids()) {
 			polygonHandler.setOrientedNormals();
 			polygonHandler.getTriangles(sb, this);
 		}
-		appendNewline(sb);
-		sb.append("endsolid geogebra");
 	}
 
 	@Override
@@ -0,0 +1,182 @@
+package org.geogebra.common.geogebra3D.euclidian3D.printer3D;
+
+import java.io.IOException;
+
+import org.geogebra.common.util.AsyncOperation;
+import org.geogebra.common.util.debug.Log;
+
+/**
+ * Binary STL format, written directly to a {@link BinaryOutput}.
+ * 
+ * Triangles are collected in a buffer of fixed size which is written when
+ * full, so memory use doesn't depend on the size of the model. Within each
+ * polyhedron, vertices closer than {@value #WELD_TOLERANCE} mm are merged:
+ * shared vertices get exactly the same coordinates and triangles that
+ * collapse are dropped, which keeps the surfaces closed for slicers.
+ */
+public class FormatSTLBinary extends FormatSTL {
+
+	/** size of the header before the triangle count */
+	static final int HEADER_SIZE = 80;
+	/** normal, 3 vertices and attribute */
+	static final int TRIANGLE_SIZE = 50;
+	/** number of triangles written at once */
+	static final int BUFFER_TRIANGLES = 1024;
+	/** number of triangles between two progress reports */
+	static final int PROGRESS_STEP = 64 * BUFFER_TRIANGLES;
+	/** tolerance for merging vertices, in mm */
+	static final double WELD_TOLERANCE = 1E-4;
+
+	private final BinaryOutput output;
+	private final byte[] buffer = new byte[BUFFER_TRIANGLES * TRIANGLE_SIZE];
+	private int bufferPosition;
+	private int triangleCount;
+	private int reportedCount;
+	private final VertexWelder welder = new VertexWelder(WELD_TOLERANCE);
+	private AsyncOperation<Integer> progressListener;
+	private IOException error;
+
+	/**
+	 * @param output
+	 *            output, closed at the end of the export
+	 */
+	public FormatSTLBinary(BinaryOutput output) {
+		this.output = output;
+	}
+
+	/**
+	 * @param listener
+	 *            gets the number of triangles written so far, every
+	 *            {@value #PROGRESS_STEP} triangles and at the end
+	 */
+	public void setProgressListener(AsyncOperation<Integer> listener) {
+		this.progressListener = listener;
+	}
+
+	@Override
+	public boolean isStreaming() {
+		return true;
+	}
+
+	@Override
+	public void getScriptStart(StringBuilder sb) {
+		triangleCount = 0;
+		reportedCount = 0;
+		// the header must not start with "solid", the triangle count is
+		// written at the end
+		String title = "geogebra";
+		for (int i = 0; i < HEADER_SIZE + 4; i++) {
+			buffer[i] = i < title.length() ? (byte) title.charAt(i) : 0;
+		}
+		bufferPosition = HEADER_SIZE + 4;
+	}
+
+	@Override
+	public void getScriptEnd(StringBuilder sb) {
+		getFilledSolids(sb);
+		flush();
+		byte[] count = new byte[4];
+		putInt(count, 0, triangleCount);
+		try {
+			if (error == null) {
+				output.writeAt(HEADER_SIZE, count);
+			}
+			output.close();
+		} catch (IOException e) {
+			setError(e);
+		}
+		if (progressListener != null) {
+			progressListener.callback(triangleCount);
+		}
+	}
+
+	@Override
+	public void getPolyhedronStart(StringBuilder sb, boolean isFlat,
+			boolean isCurve) {
+		super.getPolyhedronStart(sb, isFlat, isCurve);
+		welder.clear();
+	}
+
+	@Override
+	public void getTriangle(StringBuilder sb, double nx, double ny, double nz,
+			double v1x, double v1y, double v1z, double v2x, double v2y,
+			double v2z, double v3x, double v3y, double v3z) {
+		int v1 = welder.add(v1x, v1y, v1z);
+		int v2 = welder.add(v2x, v2y, v2z);
+		int v3 = welder.add(v3x, v3y, v3z);
+		if (v1 == v2 || v2 == v3 || v3 == v1) {
+			return;
+		}
+		if (bufferPosition + TRIANGLE_SIZE > buffer.length) {
+			flush();
+		}
+		putFloat(nx);
+		putFloat(ny);
+		putFloat(nz);
+		putVertex(v1);
+		putVertex(v2);
+		putVertex(v3);
+		// attribute byte count
+		buffer[bufferPosition++] = 0;
+		buffer[bufferPosition++] = 0;
+		triangleCount++;
+	}
+
+	private void putVertex(int vertex) {
+		for (int i = 0; i < 3; i++) {
+			putFloat(welder.get(vertex, i));
+		}
+	}
+
+	private void putFloat(double value) {
+		putInt(buffer, bufferPosition, Float.floatToIntBits((float) value));
+		bufferPosition += 4;
+	}
+
+	/**
+	 * Writes an int in little endian byte order.
+	 */
+	private static void putInt(byte[] data, int position, int value) {
+		data[position] = (byte) value;
+		data[position + 1] = (byte) (value >> 8);
+		data[position + 2] = (byte) (value >> 16);
+		data[position + 3] = (byte) (value >> 24);
+	}
+
+	private void flush() {
+		if (bufferPosition > 0 && error == null) {
+			try {
+				output.write(buffer, 0, bufferPosition);
+			} catch (IOException e) {
+				setError(e);
+			}
+		}
+		bufferPosition = 0;
+		if (progressListener != null
+				&& triangleCount - reportedCount >= PROGRESS_STEP) {
+			reportedCount = triangleCount;
+			progressListener.callback(triangleCount);
+		}
+	}
+
+	private void setError(IOException e) {
+		if (error == null) {
+			Log.debug(e);
+			error = e;
+		}
+	}
+
+	/**
+	 * @return number of triangles written
+	 */
+	public int getTriangleCount() {
+		return triangleCount;
+	}
+
+	/**
+	 * @return first error while writing the output, null if there was none
+	 */
+	public IOException getError() {
+		return error;
+	}
+}
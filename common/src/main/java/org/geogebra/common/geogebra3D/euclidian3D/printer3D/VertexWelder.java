@@ -0,0 +1,134 @@
+package org.geogebra.common.geogebra3D.euclidian3D.printer3D;
+
+import java.util.Arrays;
+
+/**
+ * Merges vertices that are closer than a tolerance in each coordinate.
+ * 
+ * Vertices are kept in a spatial hash: space is divided into cubes with edge
+ * twice the tolerance, so only the vertices of at most 8 cubes need to be
+ * compared with a new vertex. The vertices of each hash bucket are chained
+ * through an index array.
+ */
+final class VertexWelder {
+	private final double tolerance;
+	private final double cellSize;
+	private int size;
+	private double[] coords = new double[3 * 16];
+	/** next vertex in the same bucket or -1 */
+	private int[] next = new int[16];
+	/** first vertex in each bucket or -1 */
+	private int[] buckets = new int[32];
+
+	/**
+	 * @param tolerance
+	 *            maximal difference of coordinates for merged vertices
+	 */
+	VertexWelder(double tolerance) {
+		this.tolerance = tolerance;
+		this.cellSize = 2 * tolerance;
+		Arrays.fill(buckets, -1);
+	}
+
+	/**
+	 * @param x
+	 *            x coordinate
+	 * @param y
+	 *            y coordinate
+	 * @param z
+	 *            z coordinate
+	 * @return index of an existing vertex close to (x, y, z) or of the new
+	 *         vertex (x, y, z)
+	 */
+	int add(double x, double y, double z) {
+		int vertex = find(x, y, z);
+		if (vertex >= 0) {
+			return vertex;
+		}
+		if (size == next.length) {
+			coords = Arrays.copyOf(coords, 6 * size);
+			next = Arrays.copyOf(next, 2 * size);
+		}
+		coords[3 * size] = x;
+		coords[3 * size + 1] = y;
+		coords[3 * size + 2] = z;
+		if (2 * size >= buckets.length) {
+			buckets = new int[2 * buckets.length];
+			Arrays.fill(buckets, -1);
+			for (int v = 0; v < size; v++) {
+				link(v);
+			}
+		}
+		link(size);
+		return size++;
+	}
+
+	private int find(double x, double y, double z) {
+		long xMax = cell(x + tolerance);
+		long yMax = cell(y + tolerance);
+		long zMax = cell(z + tolerance);
+		for (long cx = cell(x - tolerance); cx <= xMax; cx++) {
+			for (long cy = cell(y - tolerance); cy <= yMax; cy++) {
+				for (long cz = cell(z - tolerance); cz <= zMax; cz++) {
+					for (int v = buckets[bucket(cx, cy, cz)]; v >= 0; v = next[v]) {
+						if (Math.abs(coords[3 * v] - x) <= tolerance
+								&& Math.abs(coords[3 * v + 1] - y) <= tolerance
+								&& Math.abs(coords[3 * v + 2] - z) <= tolerance) {
+							return v;
+						}
+					}
+				}
+			}
+		}
+		return -1;
+	}
+
+	private void link(int vertex) {
+		int bucket = bucketOf(vertex);
+		next[vertex] = buckets[bucket];
+		buckets[bucket] = vertex;
+	}
+
+	private int bucketOf(int vertex) {
+		return bucket(cell(coords[3 * vertex]), cell(coords[3 * vertex + 1]),
+				cell(coords[3 * vertex + 2]));
+	}
+
+	private long cell(double value) {
+		return (long) Math.floor(value / cellSize);
+	}
+
+	private int bucket(long cx, long cy, long cz) {
+		long hash = cx * 73856093L ^ cy * 19349663L ^ cz * 83492791L;
+		int h = (int) (hash ^ (hash >>> 32)) * 0x9E3779B9;
+		return (h ^ (h >>> 16)) & (buckets.length - 1);
+	}
+
+	/**
+	 * @param vertex
+	 *            vertex index
+	 * @param coord
+	 *            0, 1, 2 for x, y, z
+	 * @return coordinate of the vertex
+	 */
+	double get(int vertex, int coord) {
+		return coords[3 * vertex + coord];
+	}
+
+	/**
+	 * @return number of vertices
+	 */
+	int size() {
+		return size;
+	}
+
+	/**
+	 * Removes all vertices, in time proportional to their number.
+	 */
+	void clear() {
+		for (int v = 0; v < size; v++) {
+			buckets[bucketOf(v)] = -1;
+		}
+		size = 0;
+	}
+}
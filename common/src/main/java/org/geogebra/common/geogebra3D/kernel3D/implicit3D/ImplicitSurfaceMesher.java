@@ -0,0 +1,623 @@
+package org.geogebra.common.geogebra3D.kernel3D.implicit3D;
+
+import java.util.Arrays;
+
+import org.geogebra.common.geogebra3D.kernel3D.geos.GeoTriangulatedSurface3D;
+import org.geogebra.common.kernel.arithmetic.MyDouble;
+import org.geogebra.common.kernel.matrix.Coords;
+
+	// Here is vertices and edges numbering convention used throughout the
+	// marching cube. Thus we can see vertices 7 and 1 map to (x1, y1, z1) and
+	// (x2, y2, z2) respectively
+	// ...........0___________0____________1
+	// ........../|......................./|
+	// ........./.|....................../.|
+	// ......../..|...................../..|
+	// .......4...|....................5...|
+	// ....../....|.................../....|
+	// ...../.....3................../.....1
+	// ..../......|................./......|
+	// ...4_______|____8___________5.......|
+	// ...|.......|................|.......|
+	// ...|.......|................|.......|
+	// ...|.......3__________2_____|_______2
+	// ...|....../.................|....../
+	// ..11...../..................9...../
+	// ...|..../...................|..../
+	// ...|...7....................|...6
+	// ...|../.....................|../
+	// ...|./......................|./
+	// ...7/___________10__________6/
+	//
+/**
+ * Marching cubes for implicit surfaces. The function is evaluated once per
+ * grid vertex: first on a coarse grid, then on a grid {@value #REFINE} times
+ * finer, but only in coarse cells where the surface may be (cells with a sign
+ * change and their neighbours). The values are computed in bulk, so large
+ * grids are split among the threads of the construction's executor.
+ *
+ * Vertices on grid edges are shared by all cells containing the edge; their
+ * positions and normals are computed once and the triangles refer to them by
+ * index. All arrays are kept for the next update of the same surface.
+ */
+final class ImplicitSurfaceMesher {
+	private static final int AVE_PXL = 40;
+	private static final int MAX_SUB_DIV = 25;
+	/** number of fine cells per coarse cell in each direction */
+	static final int REFINE = 2;
+	private static final int EMPTY_OR_INVALID = 0x1ff;
+
+	private static final int[][] EDGE_TABLE = new int[][] { {}, // 0x00, 0xff
+			{ 0, 4, 3 }, // 0x01, 00000001
+			{ 0, 5, 1 }, // 0x02, 00000010
+			{ 1, 3, 4, 4, 5, 1 }, // 0x03, 00000011
+			{ 1, 2, 6 }, // 0x04, 00000100
+			{ 0, 4, 3, 1, 2, 6 }, // 0x05, 00000101
+			{ 6, 5, 0, 0, 2, 6 }, // 0x06, 00000110
+			{ 6, 5, 4, 6, 4, 3, 3, 2, 6 }, // 0x07, 0x00000111
+			{ 2, 3, 7 }, // 0x08, 00001000
+			{ 0, 4, 7, 7, 2, 0 }, // 0x09, 00001001
+			{ 2, 3, 7, 0, 5, 1 }, // 0x0A, 00001010
+			{ 5, 4, 7, 7, 2, 1, 1, 5, 7 }, // 0x0B, 00001011
+			{ 1, 3, 7, 7, 6, 1 }, // 0x0C, 0x00001100
+			{ 4, 7, 6, 6, 1, 0, 0, 4, 6 }, // 0x0D, 0x00001101
+			{ 7, 6, 5, 5, 0, 3, 3, 7, 5 }, // 0x0E, 0x00001110
+			{ 5, 4, 7, 7, 6, 5 }, // 0x0F, 00001111
+			{ 4, 8, 11 }, // 0x10, 00010000
+			{ 0, 8, 11, 0, 3, 11 }, // 0x11, 00010001
+			{ 4, 8, 11, 0, 1, 5 }, // 0x12, 00010010
+			{ 1, 3, 11, 1, 8, 11, 1, 8, 5 }, // 0x13, 00010011
+			{ 4, 8, 11, 1, 2, 6 }, // 0x14, 00010100
+			{ 0, 8, 11, 0, 3, 11, 1, 2, 6 }, // 0x15, 00010101
+			{ 4, 8, 11, 2, 6, 5, 5, 0, 2 }, // 0x16, 00010110
+			{ 8, 5, 11, 8, 10, 11, 5, 2, 3, 5, 2, 6 }, // 0x17, 000010111
+			{ 4, 8, 11, 2, 3, 7 }, // 0x18, 00011000
+			{ 0, 2, 8, 2, 8, 11, 11, 2, 7 }, // 0x19, 00011001
+			{ 4, 8, 11, 2, 3, 7, 0, 1, 5 }, // 0x1A, 00011010
+			{ 1, 5, 8, 1, 2, 8, 2, 8, 11, 2, 7, 11 }, // 0x1B, 00011011
+			{ 4, 8, 11, 1, 3, 6, 3, 6, 7 }, // 0x1C, 00011100
+			{ 0, 1, 8, 1, 6, 7, 1, 7, 8, 7, 8, 11 }, // 0x1D, 00011101
+			{ 5, 6, 7, 0, 5, 7, 3, 7, 0, 4, 8, 11 }, // 0x1E, 00011110
+			{ 5, 6, 7, 5, 8, 11, 5, 11, 7 }, // 0x1F, 00011111
+			{ 5, 8, 9 }, // 0x20, 00100000
+			{ 5, 8, 9, 0, 3, 4 }, // 0x21, 00100001
+			{ 1, 8, 9, 1, 0, 8 }, // 0x22, 00100010
+			{ 1, 3, 9, 9, 3, 8, 3, 8, 4 }, // 0x23, 00100011
+			{ 5, 8, 9, 1, 2, 6 }, // 0x24, 00100100
+			{ 5, 8, 9, 1, 2, 6, 0, 3, 4 }, // 0x25, 00100101
+			{ 0, 2, 8, 8, 9, 2, 9, 2, 6 }, // 0x26, 00100110
+			{ 4, 8, 9, 3, 4, 9, 2, 3, 6, 3, 6, 9 }, // 0x27, 00100111
+			{ 5, 8, 9, 2, 3, 7 }, // 0x28, 00101000
+			{ 5, 8, 9, 0, 4, 7, 0, 2, 7 }, // 0x29, 00101001
+			{ 1, 8, 9, 1, 0, 8, 2, 3, 7 }, // 0x2A, 00101010
+			{ 2, 4, 7, 2, 4, 8, 1, 2, 8, 1, 8, 9 }, // 0x2B, 00101011
+			{ 5, 8, 9, 1, 3, 6, 3, 6, 7 }, // 0x2C, 00101100
+			{ 4, 6, 7, 4, 6, 1, 4, 1, 0, 5, 8, 9 }, // 0x2D, 00101101
+			{ 0, 3, 8, 3, 8, 9, 3, 7, 9, 6, 7, 9 }, // 0x2E, 00101110
+			{ 4, 6, 7, 4, 8, 9, 4, 9, 6 }, // 0x2F, 00101111
+			{ 4, 5, 9, 4, 9, 11 }, // 0x30, 00110000
+			{ 3, 9, 11, 0, 3, 9, 0, 5, 9 }, // 0x31, 00110001
+			{ 1, 9, 11, 0, 1, 11, 0, 4, 11 }, // 0x32, 00110010
+			{ 1, 9, 11, 11, 3, 1 }, // 0x33, 00110011
+			{ 4, 5, 9, 4, 9, 11, 1, 2, 6 }, // 0x34, 00110100
+			{ 3, 9, 11, 0, 3, 9, 0, 5, 9, 1, 2, 6 }, // 0x35, 00110101
+			{ 6, 8, 10, 4, 6, 8, 1, 4, 6, 1, 3, 4 }, // 0x36, 00110110
+			{ 3, 9, 11, 3, 6, 9, 6, 2, 3 }, // 0x37, 00110111
+			{ 4, 5, 9, 4, 9, 11, 2, 3, 7 }, // 0x38, 00111000
+			{ 6, 9, 11, 4, 6, 9, 0, 2, 4, 2, 4, 6 }, // 0x39, 00111001
+			{ 1, 9, 11, 0, 1, 11, 0, 4, 11, 2, 3, 7 }, // 0x3A, 00111010
+			{ 1, 9, 11, 1, 2, 7, 1, 7, 11 }, // 0x3B, 00111011
+			{ 4, 5, 9, 4, 9, 11, 1, 3, 6, 3, 6, 7 }, // 0x3C, 00111100
+			{ 7, 9, 11, 6, 7, 9, 0, 1, 5 }, // 0x3D, 00111101
+			{ 7, 9, 11, 6, 7, 9, 0, 3, 4 }, // 0x3E, 00111110
+			{ 7, 9, 11, 6, 7, 9 }, // 0x3F, 00111111
+			{ 6, 9, 10 }, // 0x40, 01000000
+			{ 6, 9, 10, 0, 3, 4 }, // 0x41, 01000001
+			{ 6, 9, 10, 0, 1, 5 }, // 0x42, 01000010
+			{ 6, 9, 10, 1, 3, 4, 1, 4, 5 }, // 0x43, 01000011
+			{ 1, 2, 9, 2, 9, 10 }, // 0x44, 01000100
+			{ 1, 2, 9, 2, 9, 10, 0, 3, 4 }, // 0x45, 01000101
+			{ 0, 2, 10, 0, 5, 10, 5, 9, 10 }, // 0x46, 01000110
+			{ 4, 5, 9, 3, 4, 9, 2, 3, 10, 3, 9, 10 }, // 0x47, 01000111
+			{ 6, 9, 10, 2, 3, 7 }, // 0x48, 01001000
+			{ 6, 9, 10, 0, 4, 7, 0, 2, 7 }, // 0x49, 01001001
+			{ 6, 9, 10, 2, 3, 7, 0, 1, 5 }, // 0x4A, 01001010
+			{ 4, 5, 7, 2, 5, 7, 1, 2, 5, 6, 9, 10 }, // 0x4B, 01001011
+			{ 1, 9, 3, 3, 9, 10, 3, 10, 7 }, // 0x4C, 01001100
+			{ 4, 7, 10, 0, 4, 10, 0, 1, 9, 0, 9, 10 }, // 0x4D, 01001101
+			{ 0, 3, 5, 3, 5, 9, 3, 7, 9, 7, 9, 10 }, // 0x4E, 01001110
+			{ 4, 5, 7, 9, 10, 7, 9, 7, 5 }, // 0x4F, 01001111
+			{ 6, 9, 10, 4, 8, 11 }, // 0x50, 01010000
+			{ 6, 9, 10, 0, 8, 11, 0, 3, 11 }, // 0x51, 01010001
+			{ 6, 9, 10, 4, 8, 11, 0, 1, 5 }, // 0x52, 01010010
+			{ 1, 3, 11, 1, 8, 11, 1, 8, 5, 6, 9, 10 }, // 0x53, 01010011
+			{ 1, 9, 10, 1, 2, 10, 3, 4, 11 }, // 0x54, 01010100
+			{ 0, 8, 11, 0, 3, 11, 1, 9, 10, 1, 2, 10 }, // 0x55, 01010101
+			{ 0, 2, 10, 0, 5, 10, 5, 9, 10, 4, 8, 11 }, // 0x56, 01010110
+			{ 2, 3, 11, 2, 10, 11, 5, 8, 9 }, // 0x57, 01010111
+			{ 2, 3, 7, 6, 9, 10, 4, 8, 11 }, // 0x58, 01011000
+			{ 0, 2, 8, 2, 8, 11, 11, 2, 7, 6, 9, 10 }, // 0x59, 01011001
+			{ 0, 1, 5, 2, 3, 7, 4, 8, 11, 6, 9, 10 }, // 0x5A, 01011010
+			{ 1, 2, 6, 5, 8, 9, 7, 11, 10 }, // 0x5B, 01011011
+			{ 1, 9, 3, 3, 9, 10, 3, 10, 7, 4, 8, 11 }, // 0x5C, 01011100
+			{ 0, 1, 8, 1, 8, 9, 7, 10, 11 }, // 0x5D, 01011101
+			{ 0, 3, 4, 5, 8, 9, 7, 10, 11 }, // 0x5E, 01011110
+			{ 5, 8, 9, 7, 10, 11 }, // 0x5F, 01011111
+			{ 5, 6, 10, 5, 8, 10 }, // 0x60, 01100000
+			{ 5, 6, 10, 5, 8, 10, 0, 3, 4 }, // 0x61, 01100001
+			{ 0, 8, 10, 0, 1, 6, 0, 6, 10 }, // 0x62, 01100010
+			{ 6, 8, 10, 4, 6, 8, 1, 3, 4, 1, 4, 6 }, // 0x63, 01100011
+			{ 2, 8, 10, 1, 2, 8, 1, 5, 8 }, // 0x64, 01100100
+			{ 2, 8, 10, 1, 2, 8, 1, 5, 8, 0, 3, 4 }, // 0x65, 01100101
+			{ 0, 2, 10, 0, 10, 8 }, // 0x66, 01100110
+			{ 2, 8, 10, 2, 3, 4, 2, 4, 8 }, // 0x67, 01100111
+			{ 5, 6, 10, 5, 8, 10, 2, 3, 7 }, // 0x68, 01101000
+			{ 0, 4, 7, 0, 2, 7, 5, 6, 10, 5, 8, 10 }, // 0x69, 01101001
+			{ 0, 8, 10, 0, 1, 6, 0, 6, 10, 2, 3, 7 }, // 0x6A, 01101010
+			{ 4, 8, 10, 10, 7, 4, 1, 2, 6 }, // 0x6B, 01101011
+			{ 7, 8, 10, 5, 7, 8, 1, 3, 5, 3, 5, 7 }, // 0x6C, 01101100
+			{ 4, 8, 10, 10, 7, 4, 0, 1, 5 }, // 0x6D, 01101101
+			{ 0, 8, 10, 0, 3, 10, 3, 7, 10 }, // 0x6E, 01101110
+			{ 4, 8, 10, 10, 7, 4 }, // 0x6F, 01101111
+			{ 4, 5, 6, 4, 6, 10, 4, 10, 11 }, // 0x70, 01110000
+			{ 3, 10, 11, 0, 3, 10, 0, 6, 10, 0, 5, 6 }, // 0x71, 01110001
+			{ 0, 1, 4, 1, 4, 6, 4, 6, 11, 6, 10, 11 }, // 0x72, 01110010
+			{ 1, 3, 11, 1, 6, 10, 1, 10, 11 }, // 0x73, 01110011
+			{ 1, 2, 10, 1, 10, 11, 1, 5, 11, 4, 5, 11 }, // 0x74, 01110100
+			{ 3, 10, 11, 2, 3, 10, 0, 1, 5 }, // 0x75, 01110101
+			{ 0, 2, 10, 0, 4, 10, 4, 10, 11 }, // 0x76, 01110110
+			{ 3, 10, 11, 2, 3, 10 }, // 0x77, 01110111
+			{ 4, 5, 6, 4, 6, 10, 4, 10, 11, 2, 3, 7 }, // 0x78, 01111000
+			{ 7, 10, 11, 0, 5, 6, 0, 2, 6 }, // 0x79, 01111001
+			{ 7, 10, 11, 0, 3, 4, 1, 2, 6 }, // 0x7A, 01111010
+			{ 7, 10, 11, 1, 2, 6 }, // 0x7B, 01111011
+			{ 7, 10, 11, 1, 5, 4, 4, 3, 1 }, // 0x7C, 01111100
+			{ 7, 10, 11, 0, 1, 5 }, // 0x7D, 01111101
+			{ 7, 10, 11, 0, 3, 4 }, // 0x7E, 01111110
+			{ 7, 10, 11 }, // 0x7F, 01111111
+	};
+
+	/** offsets of the cube vertices V0, ..., V7 in x, y, z direction */
+	private static final int[][] VERTEX_OFFSETS = { { 0, 1, 1 }, { 1, 1, 1 },
+			{ 1, 1, 0 }, { 0, 1, 0 }, { 0, 0, 1 }, { 1, 0, 1 }, { 1, 0, 0 },
+			{ 0, 0, 0 } };
+
+	private static final int[][] EDGES = { { 0, 1 }, { 1, 2 }, { 2, 3 },
+			{ 3, 0 }, { 0, 4 }, { 1, 5 }, { 2, 6 }, { 3, 7 }, { 4, 5 },
+			{ 5, 6 }, { 6, 7 }, { 7, 4 } };
+
+	private final GeoImplicitSurface s;
+
+	// fine grid: origin, steps and number of cells
+	private double x1;
+	private double y1;
+	private double z1;
+	private double stepX;
+	private double stepY;
+	private double stepZ;
+	private int cellsX;
+	private int cellsY;
+	private int cellsZ;
+
+	/** values at the vertices of the coarse grid */
+	private double[] coarseValues = new double[0];
+	/** coarse cells which need to be refined */
+	private boolean[] refined = new boolean[0];
+	private boolean[] crossing = new boolean[0];
+	/** values at the vertices of the fine grid, valid where needed is set */
+	private double[] fineValues = new double[0];
+	private boolean[] needed = new boolean[0];
+	/** fine grid vertices to evaluate */
+	private int[] pending = new int[0];
+	/** evaluation points, 3 coordinates per point, and their values */
+	private double[] points = new double[0];
+	private double[] values = new double[0];
+	/** surface vertex on each fine grid edge or -1 */
+	private int[] edgeVertex = new int[0];
+
+	// indexed mesh
+	private int vertexCount;
+	private double[] vertices = new double[0];
+	private double[] normals = new double[0];
+	/** vertex indices, 3 per triangle */
+	private int indexCount;
+	private int[] triangles = new int[0];
+	private final int[] cubeVertices = new int[8];
+	private final double[] cubeValues = new double[8];
+
+	private final Coords p1 = new Coords(0, 0, 0);
+	private final Coords p2 = new Coords(0, 0, 0);
+	private final Coords p3 = new Coords(0, 0, 0);
+	private final Coords p4 = new Coords(0, 0, 0);
+	private final Coords p5 = new Coords(0, 0, 0);
+	private final Coords n1 = new Coords(0, 0, 0);
+	private final Coords n2 = new Coords(0, 0, 0);
+	private final Coords n3 = new Coords(0, 0, 0);
+
+	/**
+	 * @param s
+	 *            implicit surface
+	 */
+	ImplicitSurfaceMesher(GeoImplicitSurface s) {
+		this.s = s;
+	}
+
+	/**
+	 * Computes the triangles of the surface.
+	 * 
+	 * @param bounds
+	 *            {xmin, xmax, ymin, ymax, zmin, zmax, xscale, yscale, zscale}
+	 * @param surf
+	 *            output surface
+	 */
+	void update(double[] bounds, GeoTriangulatedSurface3D surf) {
+		int sizeX = Math.min(MAX_SUB_DIV,
+				pixels(bounds[0], bounds[1], bounds[6]) / AVE_PXL + 1);
+		int sizeY = Math.min(MAX_SUB_DIV,
+				pixels(bounds[2], bounds[3], bounds[7]) / AVE_PXL + 1);
+		int sizeZ = Math.min(MAX_SUB_DIV,
+				pixels(bounds[4], bounds[5], bounds[8]) / AVE_PXL + 1);
+		GeoImplicitSurface.debug(
+				"{x:" + sizeX + ";y:" + sizeY + ";z:" + sizeZ + "}");
+		x1 = bounds[0];
+		y1 = bounds[2];
+		z1 = bounds[4];
+		cellsX = REFINE * sizeX;
+		cellsY = REFINE * sizeY;
+		cellsZ = REFINE * sizeZ;
+		stepX = (bounds[1] - x1) / cellsX;
+		stepY = (bounds[3] - y1) / cellsY;
+		stepZ = (bounds[5] - z1) / cellsZ;
+
+		evaluateCoarseGrid(sizeX, sizeY, sizeZ);
+		markRefinedCells(sizeX, sizeY, sizeZ);
+		evaluateFineGrid(sizeX, sizeY, sizeZ);
+
+		vertexCount = 0;
+		indexCount = 0;
+		for (int k = 0; k < sizeZ; k++) {
+			for (int j = 0; j < sizeY; j++) {
+				for (int i = 0; i < sizeX; i++) {
+					if (refined[(k * sizeY + j) * sizeX + i]) {
+						polygonizeCoarseCell(i, j, k);
+					}
+				}
+			}
+		}
+		normals = ensureCapacity(normals, 3 * vertexCount);
+		s.evaluateNormalsAt(vertices, normals, vertexCount);
+		write(surf);
+	}
+
+	private static int pixels(double c1, double c2, double scale) {
+		return (int) Math.ceil(Math.abs(c1 - c2) * scale);
+	}
+
+	private void evaluateCoarseGrid(int sizeX, int sizeY, int sizeZ) {
+		int count = (sizeX + 1) * (sizeY + 1) * (sizeZ + 1);
+		coarseValues = ensureCapacity(coarseValues, count);
+		points = ensureCapacity(points, 3 * count);
+		int n = 0;
+		for (int k = 0; k <= sizeZ; k++) {
+			for (int j = 0; j <= sizeY; j++) {
+				for (int i = 0; i <= sizeX; i++) {
+					points[n++] = x1 + REFINE * i * stepX;
+					points[n++] = y1 + REFINE * j * stepY;
+					points[n++] = z1 + REFINE * k * stepZ;
+				}
+			}
+		}
+		s.evaluateAt(points, coarseValues, count);
+	}
+
+	/**
+	 * Marks coarse cells where the function has both signs at the corners,
+	 * then extends the marking to their neighbours.
+	 */
+	private void markRefinedCells(int sizeX, int sizeY, int sizeZ) {
+		int count = sizeX * sizeY * sizeZ;
+		if (refined.length < count) {
+			refined = new boolean[count];
+			crossing = new boolean[count];
+		}
+		Arrays.fill(refined, 0, count, false);
+		for (int k = 0; k < sizeZ; k++) {
+			for (int j = 0; j < sizeY; j++) {
+				for (int i = 0; i < sizeX; i++) {
+					boolean positive = false;
+					boolean negative = false;
+					for (int[] offset : VERTEX_OFFSETS) {
+						double v = coarseValues[((k + offset[2]) * (sizeY + 1)
+								+ j + offset[1]) * (sizeX + 1) + i
+								+ offset[0]];
+						if (MyDouble.isFinite(v)) {
+							positive |= v > 0;
+							negative |= v <= 0;
+						}
+					}
+					crossing[(k * sizeY + j) * sizeX + i] = positive
+							&& negative;
+				}
+			}
+		}
+		for (int k = 0; k < sizeZ; k++) {
+			for (int j = 0; j < sizeY; j++) {
+				for (int i = 0; i < sizeX; i++) {
+					if (!crossing[(k * sizeY + j) * sizeX + i]) {
+						continue;
+					}
+					for (int c = Math.max(k - 1, 0); c <= Math.min(k + 1,
+							sizeZ - 1); c++) {
+						for (int b = Math.max(j - 1, 0); b <= Math.min(j + 1,
+								sizeY - 1); b++) {
+							for (int a = Math.max(i - 1, 0); a <= Math
+									.min(i + 1, sizeX - 1); a++) {
+								refined[(c * sizeY + b) * sizeX + a] = true;
+							}
+						}
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * Evaluates the function at the fine grid vertices of all refined cells,
+	 * values at coarse grid vertices are copied.
+	 */
+	private void evaluateFineGrid(int sizeX, int sizeY, int sizeZ) {
+		int count = (cellsX + 1) * (cellsY + 1) * (cellsZ + 1);
+		if (needed.length < count) {
+			needed = new boolean[count];
+			fineValues = new double[count];
+			pending = new int[count];
+			edgeVertex = new int[3 * count];
+		}
+		Arrays.fill(needed, 0, count, false);
+		Arrays.fill(edgeVertex, 0, 3 * count, -1);
+		int pendingCount = 0;
+		for (int k = 0; k < sizeZ; k++) {
+			for (int j = 0; j < sizeY; j++) {
+				for (int i = 0; i < sizeX; i++) {
+					if (!refined[(k * sizeY + j) * sizeX + i]) {
+						continue;
+					}
+					for (int c = REFINE * k; c <= REFINE * (k + 1); c++) {
+						for (int b = REFINE * j; b <= REFINE * (j + 1); b++) {
+							for (int a = REFINE * i; a <= REFINE
+									* (i + 1); a++) {
+								int v = fineIndex(a, b, c);
+								if (needed[v]) {
+									continue;
+								}
+								needed[v] = true;
+								if (a % REFINE == 0 && b % REFINE == 0
+										&& c % REFINE == 0) {
+									fineValues[v] = coarseValues[((c / REFINE)
+											* (sizeY + 1) + b / REFINE)
+											* (sizeX + 1) + a / REFINE];
+								} else {
+									pending[pendingCount++] = v;
+								}
+							}
+						}
+					}
+				}
+			}
+		}
+		points = ensureCapacity(points, 3 * pendingCount);
+		values = ensureCapacity(values, pendingCount);
+		for (int p = 0; p < pendingCount; p++) {
+			int v = pending[p];
+			int a = v % (cellsX + 1);
+			int b = (v / (cellsX + 1)) % (cellsY + 1);
+			int c = v / ((cellsX + 1) * (cellsY + 1));
+			points[3 * p] = x1 + a * stepX;
+			points[3 * p + 1] = y1 + b * stepY;
+			points[3 * p + 2] = z1 + c * stepZ;
+		}
+		s.evaluateAt(points, values, pendingCount);
+		for (int p = 0; p < pendingCount; p++) {
+			fineValues[pending[p]] = values[p];
+		}
+	}
+
+	private int fineIndex(int a, int b, int c) {
+		return (c * (cellsY + 1) + b) * (cellsX + 1) + a;
+	}
+
+	private void polygonizeCoarseCell(int i, int j, int k) {
+		for (int c = REFINE * k; c < REFINE * (k + 1); c++) {
+			for (int b = REFINE * j; b < REFINE * (j + 1); b++) {
+				for (int a = REFINE * i; a < REFINE * (i + 1); a++) {
+					polygonizeCell(a, b, c);
+				}
+			}
+		}
+	}
+
+	private void polygonizeCell(int a, int b, int c) {
+		for (int v = 0; v < 8; v++) {
+			int[] offset = VERTEX_OFFSETS[v];
+			cubeVertices[v] = fineIndex(a + offset[0], b + offset[1],
+					c + offset[2]);
+			cubeValues[v] = fineValues[cubeVertices[v]];
+		}
+		int config = config();
+		if (config == EMPTY_OR_INVALID) {
+			return;
+		}
+		int[] edges = EDGE_TABLE[config];
+		triangles = ensureCapacity(triangles, indexCount + edges.length);
+		for (int edge : edges) {
+			triangles[indexCount++] = getEdgeVertex(edge);
+		}
+	}
+
+	/**
+	 * @param edge
+	 *            edge of the current cube
+	 * @return index of the surface vertex on the edge, created if necessary
+	 */
+	private int getEdgeVertex(int edge) {
+		int start = cubeVertices[EDGES[edge][0]];
+		int end = cubeVertices[EDGES[edge][1]];
+		double fStart = cubeValues[EDGES[edge][0]];
+		double fEnd = cubeValues[EDGES[edge][1]];
+		if (start > end) {
+			int swap = start;
+			start = end;
+			end = swap;
+			double fSwap = fStart;
+			fStart = fEnd;
+			fEnd = fSwap;
+		}
+		// grid edges are numbered by their lower vertex and direction
+		int axis;
+		if (end - start == 1) {
+			axis = 0;
+		} else if (end - start == cellsX + 1) {
+			axis = 1;
+		} else {
+			axis = 2;
+		}
+		int key = 3 * start + axis;
+		if (edgeVertex[key] >= 0) {
+			return edgeVertex[key];
+		}
+		vertices = ensureCapacity(vertices, 3 * vertexCount + 3);
+		int a = start % (cellsX + 1);
+		int b = (start / (cellsX + 1)) % (cellsY + 1);
+		int c = start / ((cellsX + 1) * (cellsY + 1));
+		int pos = 3 * vertexCount;
+		vertices[pos] = x1 + a * stepX;
+		vertices[pos + 1] = y1 + b * stepY;
+		vertices[pos + 2] = z1 + c * stepZ;
+		double step = axis == 0 ? stepX : axis == 1 ? stepY : stepZ;
+		vertices[pos + axis] = interpolate(fStart, fEnd,
+				vertices[pos + axis], vertices[pos + axis] + step);
+		edgeVertex[key] = vertexCount;
+		return vertexCount++;
+	}
+
+	/**
+	 * @param fa
+	 *            value at p1
+	 * @param fb
+	 *            value at p2
+	 * @param p1
+	 *            first coordinate
+	 * @param p2
+	 *            second coordinate
+	 * @return coordinate of the zero, linearly interpolated
+	 */
+	static double interpolate(double fa, double fb, double p1, double p2) {
+		double r = -fb / (fa - fb);
+		if (r <= 1.0 && r >= 0.0) {
+			return r * (p1 - p2) + p2;
+		}
+		return p2 + (p1 - p2) * 0.5;
+	}
+
+	/**
+	 * Writes the triangles to the surface; they are oriented consistently
+	 * with the normal at their first vertex.
+	 */
+	private void write(GeoTriangulatedSurface3D surf) {
+		for (int i = 0; i < indexCount; i += 3) {
+			load(triangles[i], p1, n1);
+			load(triangles[i + 1], p2, n2);
+			load(triangles[i + 2], p3, n3);
+			p2.sub(p1, p4);
+			p3.sub(p1, p5);
+			surf.beginTriangulation();
+			if (p4.dotCrossProduct(n1, p5) < 0) {
+				surf.insertPoint(p1.val, n1.val);
+				surf.insertPoint(p2.val, n2.val);
+				surf.insertPoint(p3.val, n3.val);
+			} else {
+				surf.insertPoint(p1.val, n1.val);
+				surf.insertPoint(p3.val, n3.val);
+				surf.insertPoint(p2.val, n2.val);
+			}
+			surf.endTriangulation();
+		}
+	}
+
+	private void load(int vertex, Coords point, Coords normal) {
+		for (int i = 0; i < 3; i++) {
+			point.val[i] = vertices[3 * vertex + i];
+			normal.val[i] = normals[3 * vertex + i];
+		}
+	}
+
+	/**
+	 * @return number of vertices of the last mesh
+	 */
+	int getVertexCount() {
+		return vertexCount;
+	}
+
+	/**
+	 * @return number of triangles of the last mesh
+	 */
+	int getTriangleCount() {
+		return indexCount / 3;
+	}
+
+	/**
+	 * @param vertex
+	 *            vertex index
+	 * @param coord
+	 *            0, 1 or 2 for x, y or z
+	 * @return coordinate of the vertex in the last mesh
+	 */
+	double getVertexCoord(int vertex, int coord) {
+		return vertices[3 * vertex + coord];
+	}
+
+	/**
+	 * @param triangle
+	 *            triangle index
+	 * @param corner
+	 *            0, 1 or 2
+	 * @return index of the triangle's vertex in the last mesh
+	 */
+	int getTriangleVertex(int triangle, int corner) {
+		return triangles[3 * triangle + corner];
+	}
+
+	private static double[] ensureCapacity(double[] array, int size) {
+		return array.length >= size ? array
+				: Arrays.copyOf(array, Math.max(size, 2 * array.length));
+	}
+
+	private static int[] ensureCapacity(int[] array, int size) {
+		return array.length >= size ? array
+				: Arrays.copyOf(array, Math.max(size, 2 * array.length));
+	}
+
+	/**
+	 * @return index of the cube configuration in the edge table
+	 */
+	private int config() {
+		int config = 0;
+		for (int v = 7; v >= 0; v--) {
+			config = (config << 1) | sign(cubeValues[v]);
+		}
+		if (config <= 0 || config == 0xff) {
+			return EMPTY_OR_INVALID;
+		}
+		return config > 0x7f ? (config ^ 0xff) : config;
+	}
+
+	/**
+	 * @return isFinite(v) ? ((v &lt;= 0) ? 0 : 1) : -1
+	 */
+	private static int sign(double v) {
+		if (MyDouble.isFinite(v)) {
+			return v <= 0.0 ? 0 : 1;
+		}
+		return -1;
+	}
+}
@@ -341,8 +341,10 @@ public void setExport3D(Format format, boolean showDialog) {
 			} else {
 				StringBuilder export = exportView3D.export3D(format);
 				app.getKernel().detach(exportView3D);
-				app.exportStringToFile(format.getExtension(),
-						export.toString(), showDialog);
+				if (!format.isStreaming()) {
+					app.exportStringToFile(format.getExtension(),
+							export.toString(), showDialog);
+				}
 			}
 		} else {
 			if (app.isEuclidianView3Dinited()) {
@@ -358,7 +360,10 @@ public void setExport3D(Format format, boolean showDialog) {
 					app.getSettings().getEuclidian(3));
 			StringBuilder export = exportView3D.export3D(format);
 			app.getKernel().detach(exportView3D);
-			app.exportStringToFile(format.getExtension(), export.toString(), showDialog);
+			if (!format.isStreaming()) {
+				app.exportStringToFile(format.getExtension(),
+						export.toString(), showDialog);
+			}
 		}
 	}
 
@@ -1,7 +1,6 @@
 package org.geogebra.common.gui.view.probcalculator;
 
 import java.util.ArrayList;
-import java.util.TreeSet;
 
 import org.geogebra.common.awt.GColor;
 import org.geogebra.common.euclidian.EuclidianView;
@@ -186,7 +185,6 @@
 
 	protected ProbabilityManager probManager;
 	protected GeoFunction pdfCurve;
-	private TreeSet<AlgoElement> tempSet;
 	private GeoElement integralLeft;
 	private GeoElement integralRight;
 	private DiscreteTwoTailedGraph discreteTwoTailedGraph;
@@ -1109,8 +1107,7 @@ public void setXAxisPoints() {
 		xAxis.lowPoint().setCoords(getLow(), 0.0, 1.0);
 		xAxis.highPoint().setCoords(getHigh(), 0.0, 1.0);
 		getPlotPanel().repaint();
-		GeoElement.updateCascade(pointList, getTempSet(), false);
-		tempSet.clear();
+		GeoElement.updateCascade(pointList, false);
 
 		if (probManager.isDiscrete(selectedDist)) {
 			selectProbabilityTableRows();
@@ -1168,13 +1165,6 @@ private void clearPlotGeoList() {
 		plotGeoList.clear();
 	}
 
-	private TreeSet<AlgoElement> getTempSet() {
-		if (tempSet == null) {
-			tempSet = new TreeSet<>();
-		}
-		return tempSet;
-	}
-
 	/**
 	 * Exports all GeoElements that are currently displayed in this panel to a
 	 * target EuclidianView.
@@ -3,6 +3,7 @@
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.List;
 
 import org.geogebra.common.gui.view.table.TableValuesCell;
 import org.geogebra.common.gui.view.table.TableValuesModel;
@@ -35,12 +36,22 @@ public double getDoubleValue(int row) {
 		}
 		Double value = doubleValues.get(row);
 		if (value == null) {
-			value = calculateValue(row);
-			doubleValues.set(row, value);
+			calculateValues(doubleValues, row);
+			value = doubleValues.get(row);
 		}
 		return value;
 	}
 
+	/**
+	 * Calculates missing values of the column, at least the value at the row
+	 * index. By default only calculates the value at row.
+	 * @param values cached values, null for values that are not calculated yet
+	 * @param row index
+	 */
+	protected void calculateValues(List<Double> values, int row) {
+		values.set(row, calculateValue(row));
+	}
+
 	@Override
 	public TableValuesCell getCellValue(int row) {
 		if (cells == null || cells.size() <= row) {
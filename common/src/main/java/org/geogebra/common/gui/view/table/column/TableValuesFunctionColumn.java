@@ -1,5 +1,7 @@
 package org.geogebra.common.gui.view.table.column;
 
+import java.util.List;
+
 import org.geogebra.common.kernel.geos.GeoList;
 import org.geogebra.common.kernel.kernelND.GeoEvaluatable;
 import org.geogebra.common.util.DoubleUtil;
@@ -8,6 +10,9 @@ public class TableValuesFunctionColumn extends AbstractTableValuesColumn {
 
 	private final GeoEvaluatable evaluatable;
 	private final GeoList values;
+	private double[] xs = new double[0];
+	private double[] ys = new double[0];
+	private int[] rows = new int[0];
 
 	/**
 	 * Creates a function column
@@ -29,6 +34,37 @@ protected double calculateValue(int row) {
 		return evaluatable.value(xValue);
 	}
 
+	/**
+	 * Calculates all missing values at once, functions can evaluate many
+	 * points faster than single points.
+	 */
+	@Override
+	protected void calculateValues(List<Double> cache, int row) {
+		int size = cache.size();
+		if (xs.length < size) {
+			xs = new double[size];
+			ys = new double[size];
+			rows = new int[size];
+		}
+		int count = 0;
+		for (int i = 0; i < size; i++) {
+			if (cache.get(i) != null) {
+				continue;
+			}
+			if (values.size() <= i) {
+				cache.set(i, Double.NaN);
+				continue;
+			}
+			xs[count] = DoubleUtil.checkDecimalFraction(values.get(i).evaluateDouble());
+			rows[count] = i;
+			count++;
+		}
+		evaluatable.evaluate(xs, ys, 0, count);
+		for (int i = 0; i < count; i++) {
+			cache.set(rows[i], ys[i]);
+		}
+	}
+
 	@Override
 	protected String getHeaderName() {
 		return evaluatable.getLabelSimple() + "(x)";
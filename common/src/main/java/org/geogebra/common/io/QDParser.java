@@ -28,8 +28,21 @@
 /**
  * Quick and Dirty xml parser. This parser is, like the SAX parser, an event
  * based parser, but with much less functionality.
+ * <p>
+ * The input is read in blocks of {@link #BUFFER_SIZE} characters, so the
+ * reader does not need to be buffered and the document does not need to be
+ * in memory. Tag names, attribute names and short attribute values repeat a
+ * lot in construction files, they are taken from a small cache instead of
+ * creating new strings for every occurrence.
  */
 public class QDParser {
+	/** number of characters read from the reader at once */
+	public static final int BUFFER_SIZE = 8192;
+	/** longer attribute values are not cached */
+	private static final int MAX_CACHED_LENGTH = 32;
+	/** size of the string cache, must be power of 2 */
+	private static final int CACHE_SIZE = 1024;
+
 	private final static int TEXT = 1;
 	private final static int ENTITY = 2;
 	private final static int OPEN_TAG = 3;
@@ -51,6 +64,8 @@ public class QDParser {
 	private Stack<Integer> stack;
 	private StringBuilder sb;
 	private StringBuilder etag;
+	private final char[] buffer = new char[BUFFER_SIZE];
+	private final String[] stringCache = new String[CACHE_SIZE];
 
 	/**
 	 * Creates new parser
@@ -72,6 +87,41 @@ public void reset() {
 		etag = new StringBuilder();
 	}
 
+	/**
+	 * Returns content of the builder, reusing a cached instance if the same
+	 * string was seen before.
+	 */
+	private String cachedString(StringBuilder str) {
+		int length = str.length();
+		if (length > MAX_CACHED_LENGTH) {
+			return str.toString();
+		}
+		int hash = 0;
+		for (int i = 0; i < length; i++) {
+			hash = 31 * hash + str.charAt(i);
+		}
+		int slot = (hash ^ (hash >>> 16)) & (CACHE_SIZE - 1);
+		String cached = stringCache[slot];
+		if (cached != null && cached.length() == length) {
+			boolean equal = true;
+			for (int i = 0; i < length && equal; i++) {
+				equal = cached.charAt(i) == str.charAt(i);
+			}
+			if (equal) {
+				return cached;
+			}
+		}
+		cached = str.toString();
+		stringCache[slot] = cached;
+		return cached;
+	}
+
+	private static boolean endsWithTwice(StringBuilder str, char c) {
+		int length = str.length();
+		return length >= 2 && str.charAt(length - 1) == c
+				&& str.charAt(length - 2) == c;
+	}
+
 	private static int popMode(Stack<Integer> st) {
 		if (!st.empty()) {
 			return st.pop().intValue();
@@ -110,7 +160,18 @@ final public void parse(DocHandler doc, Reader r) throws Exception {
 		doc.startDocument();
 		int line = 1, col = 0;
 		boolean eol = false;
-		while ((c = r.read()) != -1) {
+		int length = 0;
+		int pos = 0;
+		while (true) {
+			if (pos == length) {
+				length = r.read(buffer, 0, BUFFER_SIZE);
+				pos = 0;
+				if (length < 0) {
+					break;
+				}
+				continue;
+			}
+			c = buffer[pos++];
 
 			// We need to map \r, \r\n, and \n to \n
 			// See XML spec section 2.11
@@ -162,7 +223,7 @@ final public void parse(DocHandler doc, Reader r) throws Exception {
 				switch (c) {
 				case '>':
 					mode = popMode(stack);
-					tagName = sb.toString();
+					tagName = cachedString(sb);
 					sb.setLength(0);
 					depth--;
 					if (depth == 0) {
@@ -177,7 +238,7 @@ final public void parse(DocHandler doc, Reader r) throws Exception {
 
 			// we are processing CDATA
 			case CDATA:
-				if (c == '>' && sb.toString().endsWith("]]")) {
+				if (c == '>' && endsWithTwice(sb, ']')) {
 					sb.setLength(sb.length() - 2);
 					doc.text(sb.toString());
 					sb.setLength(0);
@@ -190,7 +251,7 @@ final public void parse(DocHandler doc, Reader r) throws Exception {
 			// we are processing a comment. We are inside
 			// the <!-- .... --> looking for the -->.
 			case COMMENT:
-				if (c == '>' && sb.toString().endsWith("--")) {
+				if (c == '>' && endsWithTwice(sb, '-')) {
 					sb.setLength(0);
 					mode = popMode(stack);
 				} else {
@@ -276,7 +337,7 @@ final public void parse(DocHandler doc, Reader r) throws Exception {
 			// and are looking for the final >.
 			case SINGLE_TAG:
 				if (tagName == null) {
-					tagName = sb.toString();
+					tagName = cachedString(sb);
 				}
 				if (c != '>') {
 					exc("Expected > for tag: <" + tagName + "/>", line, col);
@@ -301,7 +362,7 @@ final public void parse(DocHandler doc, Reader r) throws Exception {
 				switch (c) {
 				case '>':
 					if (tagName == null) {
-						tagName = sb.toString();
+						tagName = cachedString(sb);
 					}
 					sb.setLength(0);
 					depth++;
@@ -340,7 +401,7 @@ final public void parse(DocHandler doc, Reader r) throws Exception {
 
 				default:
 					if (StringUtil.isWhitespace((char) c)) {
-						tagName = sb.toString();
+						tagName = cachedString(sb);
 						sb.setLength(0);
 						mode = IN_TAG;
 					} else {
@@ -353,7 +414,7 @@ final public void parse(DocHandler doc, Reader r) throws Exception {
 			// of an element's attribute.
 			case QUOTE:
 				if (c == quotec) {
-					rvalue = sb.toString();
+					rvalue = cachedString(sb);
 					sb.setLength(0);
 					attrs.put(lvalue, rvalue);
 					mode = IN_TAG;
@@ -389,11 +450,11 @@ else if (c == '&') {
 
 			case ATTRIBUTE_LVALUE:
 				if (StringUtil.isWhitespace((char) c)) {
-					lvalue = sb.toString();
+					lvalue = cachedString(sb);
 					sb.setLength(0);
 					mode = ATTRIBUTE_EQUAL;
 				} else if (c == '=') {
-					lvalue = sb.toString();
+					lvalue = cachedString(sb);
 					sb.setLength(0);
 					mode = ATTRIBUTE_RVALUE;
 				} else {
@@ -1,9 +1,7 @@
 package org.geogebra.common.kernel;
 
 import java.util.ArrayList;
-import java.util.TreeSet;
 
-import org.geogebra.common.kernel.algos.AlgoElement;
 import org.geogebra.common.kernel.geos.Animatable;
 import org.geogebra.common.kernel.geos.GeoElement;
 import org.geogebra.common.kernel.kernelND.GeoElementND;
@@ -36,7 +34,6 @@ public class AnimationManager implements GTimerListener {
 
 	private final GTimer timer;
 
-	private TreeSet<AlgoElement> tempSet;
 	private long lastStart = 0;
 
 	/**
@@ -190,13 +187,6 @@ else if (frameRate < MAX_ANIMATION_FRAME_RATE) {
 
 	}
 
-	private TreeSet<AlgoElement> getTempSet() {
-		if (tempSet == null) {
-			tempSet = new TreeSet<>();
-		}
-		return tempSet;
-	}
-
 	/**
 	 * Perform one step
 	 */
@@ -233,7 +223,7 @@ protected void sliderStep() {
 		// do we need to update anything?
 		if (changedGeos.size() > 0) {
 			// efficiently update all changed GeoElements
-			GeoElement.updateCascade(changedGeos, getTempSet(), false);
+			GeoElement.updateCascade(changedGeos, false);
 			// repaint views
 			kernel.notifyRepaint();
 			// check frame rate
@@ -23,6 +23,7 @@
 import org.geogebra.common.kernel.algos.AlgoDistancePoints;
 import org.geogebra.common.kernel.algos.AlgoElement;
 import org.geogebra.common.kernel.algos.AlgoJoinPointsSegment;
+import org.geogebra.common.kernel.algos.AlgoUpdateScheduler;
 import org.geogebra.common.kernel.algos.AlgorithmSet;
 import org.geogebra.common.kernel.algos.ConstructionElement;
 import org.geogebra.common.kernel.arithmetic.Equation;
@@ -127,7 +128,7 @@ public class Construction {
 	private HashMap<GeoClass, TreeSet<GeoElement>> geoSetsTypeMap;
 
 	// ConstructionElement List (for objects of type ConstructionElement)
-	private final ArrayList<ConstructionElement> ceList;
+	private final ConstructionList ceList;
 
 	// AlgoElement List (for objects of type AlgoElement)
 	private ArrayList<AlgoElement> algoList; // used in updateConstruction()
@@ -156,6 +157,8 @@ public class Construction {
 	private TreeSet<GeoElement> randomElements;
 	/** algo set currently updated by GeoElement.updateDependentObjects() */
 	private AlgorithmSet algoSetCurrentlyUpdated;
+	private final AlgoUpdateScheduler updateScheduler = new AlgoUpdateScheduler();
+	private ParallelUpdateExecutor parallelUpdateExecutor;
 
 	private final TreeSet<String> casDummies = new TreeSet<>();
 
@@ -230,7 +233,7 @@ protected Construction(Kernel k, Construction parentConstruction) {
 
 		companion = kernel.createConstructionCompanion(this);
 
-		ceList = new ArrayList<>();
+		ceList = new ConstructionList();
 		algoList = new ArrayList<>();
 		step = -1;
 
@@ -412,6 +415,7 @@ final public void updateLocalAxesNames() {
 		geoTable.put(yAxisLocalName, yAxis);
 
 		companion.updateLocalAxesNames();
+		resetLabelSearch();
 	}
 
 	/**
@@ -754,10 +758,10 @@ public GeoElement geoTableVarLookup(String label) {
 	 * @return returns the equation defined by label in CAS
 	 */
 	public ValidExpression geoCeListLookup(String label) {
-		for (int i = 0; i < ceList.size(); i++) {
-			if (ceList.get(i) instanceof GeoCasCell) {
+		for (ConstructionElement ce : ceList) {
+			if (ce instanceof GeoCasCell) {
 				// get current cell
-				GeoCasCell currCell = (GeoCasCell) ceList.get(i);
+				GeoCasCell currCell = (GeoCasCell) ce;
 				// we found the equation
 				if (currCell.getInput(StringTemplate.defaultTemplate)
 						.startsWith(label + "=")
@@ -791,20 +795,6 @@ final public boolean showOnlyBreakpoints() {
 		return showOnlyBreakpoints;
 	}
 
-	/**
-	 * @param pos
-	 *            position
-	 */
-	private void updateConstructionIndex(int pos) {
-		if (pos < 0) {
-			return;
-		}
-		int size = ceList.size();
-		for (int i = pos; i < size; ++i) {
-			ceList.get(i).setConstructionIndex(i);
-		}
-	}
-
 	/**
 	 * Updates all algos
 	 * 
@@ -853,7 +843,6 @@ private final boolean updateAllConstructionProtocolAlgorithms() {
 	public void addToConstructionList(ConstructionElement ce, int index) {
 		++step;
 		ceList.add(index, ce);
-		updateConstructionIndex(index);
 
 		// update cas row references
 		if (ce instanceof GeoCasCell) {
@@ -911,9 +900,6 @@ public boolean moveInConstructionList(int fromIndex, int toIndex) {
 			ceList.remove(fromIndex);
 			ceList.add(toIndex, ce);
 
-			// update construction indices
-			updateConstructionIndex(Math.min(toIndex, fromIndex));
-
 			// update construction step
 			if (fromIndex <= step && step < toIndex) {
 				--step;
@@ -970,17 +956,12 @@ public void removeFromConstructionList(ConstructionElement ce) {
 		if (pos == -1) {
 			return;
 		}
+		ceList.remove(pos);
+		ce.setConstructionIndex(-1);
 		if (pos <= step) {
-			ceList.remove(ce);
-			ce.setConstructionIndex(-1);
 			--step;
-		} else { // pos > step
-			ceList.remove(ce);
-			ce.setConstructionIndex(-1);
 		}
 
-		updateConstructionIndex(pos);
-
 		// update cas row references
 		if (ce instanceof GeoCasCell || (ce instanceof AlgoCasCellInterface)) {
 			// needed for GGB-808
@@ -1071,11 +1052,25 @@ public boolean isInConstructionList(GeoElement geo) {
 	 * Updates all algorithms in this construction
 	 */
 	public final void updateAllAlgorithms() {
+		// independent parts of the construction may be updated
+		// concurrently first
+		ArrayList<AlgoElement> concurrent = null;
+		boolean[] updated = null;
+		ParallelUpdateExecutor executor = getParallelUpdateExecutor();
+		if (executor != null) {
+			concurrent = new ArrayList<>(algoList);
+			updated = ParallelAlgoUpdater.update(concurrent, kernel, executor);
+		}
+
 		// update all algorithms
 
 		// *** algoList.size() can change during the loop
 		for (int i = 0; i < algoList.size(); ++i) {
 			AlgoElement algo = algoList.get(i);
+			if (updated != null && i < updated.length && updated[i]
+					&& concurrent.get(i) == algo) {
+				continue;
+			}
 			algo.update();
 			// AbstractApplication.debug("#"+i+" : "+algo);
 		}
@@ -1248,9 +1243,7 @@ final public void updateConstruction(boolean randomize) {
 		updateConstructionRunning = true;
 		try {
 			// update all independent GeoElements
-			int size = ceList.size();
-			for (int i = 0; i < size; ++i) {
-				ConstructionElement ce = ceList.get(i);
+			for (ConstructionElement ce : ceList) {
 				if (ce.isIndependent()) {
 					ce.update();
 				}
@@ -1268,7 +1261,7 @@ final public void updateConstruction(boolean randomize) {
 			// for all algorithms because algo.update() could have
 			// the side-effect to call updateCascade() for points
 			// that have locateables (see GeoPoint.update())
-			size = algoList.size();
+			int size = algoList.size();
 
 			// init near to relationship for all algorithms:
 			// this makes sure intersection points stay at their saved positions
@@ -1284,8 +1277,17 @@ final public void updateConstruction(boolean randomize) {
 			ArrayList<AlgoElement> tempList = new ArrayList<>(
 					algoList);
 
+			// independent parts of the construction may be updated
+			// concurrently first
+			ParallelUpdateExecutor executor = getParallelUpdateExecutor();
+			boolean[] updated = executor == null ? null
+					: ParallelAlgoUpdater.update(tempList, kernel, executor);
+
 			// update all algorithms
 			for (int i = 0; i < size; ++i) {
+				if (updated != null && updated[i]) {
+					continue;
+				}
 				AlgoElement algo = tempList.get(i);
 
 				// reinit near to relationship to make sure points stay at their
@@ -1316,9 +1318,8 @@ final public void updateCasCells() {
 		updateConstructionRunning = true;
 		try {
 			// update all independent GeoElements
-			// check the size every time as Delete may change it
-			for (int i = 0; i < ceList.size(); ++i) {
-				ConstructionElement ce = ceList.get(i);
+			// the iterator continues correctly if Delete removes elements
+			for (ConstructionElement ce : ceList) {
 				if ((ce.isGeoElement() && ((GeoElement) ce).isGeoCasCell())
 						|| ((ce instanceof AlgoElement)
 								&& ce instanceof AlgoCasCellInterface)) {
@@ -1387,10 +1388,7 @@ private void getGroupsXML(StringBuilder sb) {
 	public void getConstructionElementsXML(StringBuilder sb,
 			boolean getListenersToo) {
 
-		ConstructionElement ce;
-		int size = ceList.size();
-		for (int i = 0; i < size; ++i) {
-			ce = ceList.get(i);
+		for (ConstructionElement ce : ceList) {
 			ce.getXML(getListenersToo, sb);
 		}
 	}
@@ -1407,10 +1405,7 @@ public void getConstructionElementsXML(StringBuilder sb,
 	public void getConstructionElementsXML_OGP(StringBuilder sb,
 			GeoElement statement) {
 
-		ConstructionElement ce;
-		int size = ceList.size();
-		for (int i = 0; i < size; ++i) {
-			ce = ceList.get(i);
+		for (ConstructionElement ce : ceList) {
 			if (!(ce instanceof AlgoProve)
 					&& !(ce instanceof AlgoProveDetails)) {
 				// Collecting non-Prove* elements:
@@ -1459,21 +1454,12 @@ public ConstructionElement getConstructionElement(int index) {
 	 * @return first geo if exists
 	 */
 	public GeoElement getFirstGeo() {
-
-		ConstructionElement ce = null;
-		GeoElement geo = null;
-		int index = 0;
-
-		while (index < ceList.size() && geo == null) {
-			ce = ceList.get(index);
+		for (ConstructionElement ce : ceList) {
 			if (ce instanceof GeoElement) {
-				geo = (GeoElement) ce;
+				return (GeoElement) ce;
 			}
-			index++;
 		}
-
-		return geo;
-
+		return null;
 	}
 
 	/**
@@ -2000,13 +1986,14 @@ public void setStep(int s) {
 			// we must go from high to low there as otherwise the CAS cells
 			// would
 			// rearrange their numbers meanwhile
+			Iterator<ConstructionElement> it = ceList.descendingIterator(step);
 			for (int i = step; i >= s + 1; i--) {
-				ceList.get(i).notifyRemove();
+				it.next().notifyRemove();
 			}
 		} else {
+			Iterator<ConstructionElement> it = ceList.iterator(step + 1);
 			for (int i = step + 1; i <= s; ++i) {
-				// Application.debug(i+"");
-				ceList.get(i).notifyAdd();
+				it.next().notifyAdd();
 			}
 		}
 
@@ -2059,6 +2046,13 @@ public void putLabel(GeoElement geo) {
 	public void removeLabel(GeoElement geo) {
 		geoTable.remove(geo.getLabelSimple());
 		removeFromGeoSets(geo);
+		resetLabelSearch();
+	}
+
+	private void resetLabelSearch() {
+		if (labelManager != null) {
+			labelManager.resetLabelSearch();
+		}
 	}
 
 	private void addToGeoSets(GeoElement geo) {
@@ -2169,6 +2163,7 @@ public void putCasCellLabel(GeoCasCell geoCasCell, String label) {
 	public void removeCasCellLabel(String variable) {
 		if (geoCasCellTable != null) {
 			geoCasCellTable.remove(variable);
+			resetLabelSearch();
 		}
 	}
 
@@ -2758,20 +2753,7 @@ public String getIndexLabel(String prefix, boolean includeDummies) {
 	 * @return indexed label, e.g. "y_{2}"
 	 */
 	public String buildIndexedLabel(String pref, boolean includeDummies) {
-		String longIndexLabel;
-		boolean freeLabelFound;
-		int n = 0;
-
-		do {
-			n++;
-
-			longIndexLabel = pref + "_{" + n + '}';
-			String indexLabel = pref + '_' + n;
-			freeLabelFound = isFreeLabel(longIndexLabel, true, includeDummies)
-					&& ((n >= 10) || isFreeLabel(indexLabel, true, includeDummies));
-		} while (!freeLabelFound);
-
-		return longIndexLabel;
+		return getLabelManager().buildIndexedLabel(pref, includeDummies);
 	}
 
 	/**
@@ -2883,6 +2865,7 @@ final private void initGeoTables() {
 		}
 
 		companion.initGeoTables();
+		resetLabelSearch();
 	}
 
 	/**
@@ -3291,6 +3274,7 @@ public String getRegisteredFunctionVariable() {
 	 */
 	public void setFileLoading(boolean b) {
 		fileLoading = b;
+		resetLabelSearch();
 	}
 
 	/**
@@ -3398,6 +3382,36 @@ public AlgorithmSet getAlgoSetCurrentlyUpdated() {
 		return algoSetCurrentlyUpdated;
 	}
 
+	/**
+	 * @return scheduler for updating dependent algorithms of several elements
+	 */
+	public AlgoUpdateScheduler getUpdateScheduler() {
+		return updateScheduler;
+	}
+
+	/**
+	 * Enables concurrent update of independent parts of the construction in
+	 * {@link #updateConstruction(boolean)} and
+	 * {@link #updateAllAlgorithms()}. Only algorithms that are
+	 * {@link AlgoElement#isThreadSafe() thread safe} and whose outputs have
+	 * no side effects on update are updated concurrently, views are notified
+	 * afterwards on the calling thread.
+	 * 
+	 * @param executor
+	 *            executor for the update tasks, null to update sequentially
+	 */
+	public void setParallelUpdateExecutor(ParallelUpdateExecutor executor) {
+		this.parallelUpdateExecutor = executor;
+	}
+
+	/**
+	 * @return executor for concurrent updates and evaluations, null if
+	 *         everything runs sequentially
+	 */
+	public ParallelUpdateExecutor getParallelUpdateExecutor() {
+		return parallelUpdateExecutor;
+	}
+
 	/**
 	 * @param b
 	 *            new value of update construction flag
@@ -3469,9 +3483,7 @@ public void updateConstructionLanguage() {
 			// kernel.app.getGuiManager().startCollectingSpreadsheetTraces();
 
 			// update all independent GeoElements
-			int size = ceList.size();
-			for (int i = 0; i < size; ++i) {
-				ConstructionElement ce = ceList.get(i);
+			for (ConstructionElement ce : ceList) {
 				if (ce.isGeoElement()) {
 					if (((GeoElement) ce).isGeoText()
 							&& ((GeoElement) ce).getParentAlgorithm() != null) {
@@ -3492,8 +3504,7 @@ public void updateConstructionLaTeX() {
 		this.kernel.getApplication().setBlockUpdateScripts(true);
 		// TODO we do not need the whole construction update here
 		if (latexGeos != null) {
-			GeoElement.updateCascade(latexGeos, new TreeSet<AlgoElement>(),
-					true);
+			GeoElement.updateCascade(latexGeos, true);
 		}
 		this.latexGeos = null;
 		this.kernel.getApplication().setBlockUpdateScripts(oldFlag);
@@ -3645,9 +3656,11 @@ public GeoElementND getPrevious(GeoElementND ce1, Inspecting check) {
 		if (idx < 0) {
 			idx = ceList.size();
 		}
-		for (int i = idx - 1; i >= 0; i--) {
-			if (check.check(ceList.get(i).getGeoElements()[0])) {
-				return ceList.get(i).getGeoElements()[0];
+		Iterator<ConstructionElement> it = ceList.descendingIterator(idx - 1);
+		while (it.hasNext()) {
+			GeoElementND geo = it.next().getGeoElements()[0];
+			if (check.check(geo)) {
+				return geo;
 			}
 		}
 		return null;
@@ -3667,9 +3680,11 @@ public GeoElementND getNext(GeoElementND ce1, Inspecting check) {
 		if (idx < 0) {
 			return null;
 		}
-		for (int i = idx + 1; i < ceList.size(); i++) {
-			if (check.check(ceList.get(i).getGeoElements()[0])) {
-				return ceList.get(i).getGeoElements()[0];
+		Iterator<ConstructionElement> it = ceList.iterator(idx + 1);
+		while (it.hasNext()) {
+			GeoElementND geo = it.next().getGeoElements()[0];
+			if (check.check(geo)) {
+				return geo;
 			}
 		}
 		return null;
@@ -0,0 +1,410 @@
+package org.geogebra.common.kernel;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import org.geogebra.common.kernel.algos.ConstructionElement;
+
+/**
+ * Construction elements in construction order.
+ * <p>
+ * The elements are kept in a treap, a binary search tree ordered by
+ * construction index and balanced by random node priorities. Every node
+ * stores the size of its subtree, so an element is found by its construction
+ * index and the construction index of an element is computed from its node
+ * in expected logarithmic time. Inserting, removing and moving an element
+ * take expected logarithmic time as well and never renumber other elements.
+ * <p>
+ * The nodes are stored in parallel arrays; the node of an element is its slot
+ * (see {@link ConstructionElement#getConstructionSlot(ConstructionList)}).
+ * Slots of removed elements are reused.
+ */
+public final class ConstructionList implements Iterable<ConstructionElement> {
+
+	private static final int NONE = -1;
+
+	private ConstructionElement[] elements = new ConstructionElement[16];
+	private int[] left = new int[elements.length];
+	private int[] right = new int[elements.length];
+	private int[] parent = new int[elements.length];
+	/** number of nodes in the subtree of each node */
+	private int[] count = new int[elements.length];
+	private int[] priority = new int[elements.length];
+	private int root = NONE;
+	/** number of slots that were ever used */
+	private int slotCount;
+	/** first free slot below slotCount, further ones are chained by parent */
+	private int freeSlot = NONE;
+	private int size;
+	private int seed = 0x2545F491;
+
+	/**
+	 * @return number of elements
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * @return whether there are no elements
+	 */
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	/**
+	 * @param index
+	 *            construction index
+	 * @return element at given construction index
+	 */
+	public ConstructionElement get(int index) {
+		checkIndex(index, 0, size - 1);
+		return elements[findSlot(index)];
+	}
+
+	/**
+	 * @param ce
+	 *            element
+	 * @return construction index of the element, -1 if it's not in this list
+	 */
+	public int indexOf(ConstructionElement ce) {
+		int slot = ce.getConstructionSlot(this);
+		return slot < 0 ? -1 : getIndex(slot);
+	}
+
+	/**
+	 * @param slot
+	 *            slot of an element in this list
+	 * @return construction index of the element
+	 */
+	public int getIndex(int slot) {
+		int index = count(left[slot]);
+		for (int node = slot; parent[node] != NONE; node = parent[node]) {
+			if (right[parent[node]] == node) {
+				index += count(left[parent[node]]) + 1;
+			}
+		}
+		return index;
+	}
+
+	/**
+	 * Inserts an element, the elements from given index on move one position
+	 * back.
+	 *
+	 * @param index
+	 *            construction index for the new element
+	 * @param ce
+	 *            element
+	 */
+	public void add(int index, ConstructionElement ce) {
+		checkIndex(index, 0, size);
+		int slot = allocate(ce);
+		if (root == NONE) {
+			root = slot;
+		} else {
+			// descend to the empty leaf position for the index
+			int node = root;
+			int remaining = index;
+			while (true) {
+				count[node]++;
+				int leftCount = count(left[node]);
+				if (remaining <= leftCount) {
+					if (left[node] == NONE) {
+						left[node] = slot;
+						break;
+					}
+					node = left[node];
+				} else {
+					remaining -= leftCount + 1;
+					if (right[node] == NONE) {
+						right[node] = slot;
+						break;
+					}
+					node = right[node];
+				}
+			}
+			parent[slot] = node;
+			while (parent[slot] != NONE
+					&& priority[parent[slot]] < priority[slot]) {
+				rotateUp(slot);
+			}
+		}
+		ce.setConstructionSlot(this, slot);
+		size++;
+	}
+
+	/**
+	 * @param index
+	 *            construction index
+	 * @return removed element
+	 */
+	public ConstructionElement remove(int index) {
+		checkIndex(index, 0, size - 1);
+		return removeSlot(findSlot(index));
+	}
+
+	/**
+	 * @param ce
+	 *            element
+	 * @return whether the element was in this list
+	 */
+	public boolean remove(ConstructionElement ce) {
+		int slot = ce.getConstructionSlot(this);
+		if (slot < 0) {
+			return false;
+		}
+		removeSlot(slot);
+		return true;
+	}
+
+	private ConstructionElement removeSlot(int slot) {
+		// rotate the node down until it is a leaf
+		while (left[slot] != NONE || right[slot] != NONE) {
+			if (right[slot] == NONE || (left[slot] != NONE
+					&& priority[left[slot]] > priority[right[slot]])) {
+				rotateUp(left[slot]);
+			} else {
+				rotateUp(right[slot]);
+			}
+		}
+		int node = parent[slot];
+		if (node == NONE) {
+			root = NONE;
+		} else if (left[node] == slot) {
+			left[node] = NONE;
+		} else {
+			right[node] = NONE;
+		}
+		for (; node != NONE; node = parent[node]) {
+			count[node]--;
+		}
+		ConstructionElement ce = elements[slot];
+		ce.setConstructionSlot(null, -1);
+		elements[slot] = null;
+		parent[slot] = freeSlot;
+		freeSlot = slot;
+		size--;
+		return ce;
+	}
+
+	/**
+	 * Removes all elements, they keep their last construction index.
+	 */
+	public void clear() {
+		int index = 0;
+		for (ConstructionElement ce : this) {
+			ce.setConstructionIndex(index++);
+		}
+		for (int slot = 0; slot < slotCount; slot++) {
+			if (elements[slot] != null) {
+				elements[slot].setConstructionSlot(null, -1);
+			}
+		}
+		Arrays.fill(elements, 0, slotCount, null);
+		root = NONE;
+		slotCount = 0;
+		freeSlot = NONE;
+		size = 0;
+	}
+
+	/**
+	 * Iterates over all elements in construction order. The iteration
+	 * continues after the last returned element even if elements are added or
+	 * removed meanwhile; if the last returned element itself was removed, it
+	 * continues at its former construction index.
+	 */
+	@Override
+	public Iterator<ConstructionElement> iterator() {
+		return iterator(0);
+	}
+
+	/**
+	 * @param index
+	 *            construction index of the first element, may be size()
+	 * @return iterator over the elements from given construction index on, in
+	 *         construction order, see {@link #iterator()}
+	 */
+	public Iterator<ConstructionElement> iterator(int index) {
+		checkIndex(index, 0, size);
+		return new ElementIterator(index, true);
+	}
+
+	/**
+	 * @param index
+	 *            construction index of the first element, may be -1
+	 * @return iterator over the elements from given construction index down to
+	 *         the first element, see {@link #iterator()}
+	 */
+	public Iterator<ConstructionElement> descendingIterator(int index) {
+		checkIndex(index, -1, size - 1);
+		return new ElementIterator(index, false);
+	}
+
+	private final class ElementIterator implements Iterator<ConstructionElement> {
+		private final boolean forward;
+		private ConstructionElement last;
+		/** construction index of the last element, when it was returned */
+		private int lastIndex;
+		private int nextIndex;
+
+		ElementIterator(int index, boolean forward) {
+			this.forward = forward;
+			lastIndex = forward ? index - 1 : index + 1;
+		}
+
+		@Override
+		public boolean hasNext() {
+			return nextSlot() != NONE;
+		}
+
+		@Override
+		public ConstructionElement next() {
+			int slot = nextSlot();
+			if (slot == NONE) {
+				throw new NoSuchElementException();
+			}
+			last = elements[slot];
+			lastIndex = nextIndex;
+			return last;
+		}
+
+		private int nextSlot() {
+			nextIndex = forward ? lastIndex + 1 : lastIndex - 1;
+			if (last != null) {
+				int slot = last.getConstructionSlot(ConstructionList.this);
+				if (slot >= 0) {
+					return forward ? successor(slot) : predecessor(slot);
+				}
+				// the following elements moved into the removed position
+				if (forward) {
+					nextIndex = lastIndex;
+				}
+			}
+			return nextIndex >= 0 && nextIndex < size ? findSlot(nextIndex)
+					: NONE;
+		}
+	}
+
+	private int successor(int slot) {
+		int node = right[slot];
+		if (node != NONE) {
+			while (left[node] != NONE) {
+				node = left[node];
+			}
+			return node;
+		}
+		node = slot;
+		while (parent[node] != NONE && right[parent[node]] == node) {
+			node = parent[node];
+		}
+		return parent[node];
+	}
+
+	private int predecessor(int slot) {
+		int node = left[slot];
+		if (node != NONE) {
+			while (right[node] != NONE) {
+				node = right[node];
+			}
+			return node;
+		}
+		node = slot;
+		while (parent[node] != NONE && left[parent[node]] == node) {
+			node = parent[node];
+		}
+		return parent[node];
+	}
+
+	/**
+	 * @return slot of the element at given construction index
+	 */
+	private int findSlot(int index) {
+		int node = root;
+		int remaining = index;
+		while (true) {
+			int leftCount = count(left[node]);
+			if (remaining < leftCount) {
+				node = left[node];
+			} else if (remaining == leftCount) {
+				return node;
+			} else {
+				remaining -= leftCount + 1;
+				node = right[node];
+			}
+		}
+	}
+
+	/**
+	 * Makes the node the parent of its current parent, keeping the order.
+	 */
+	private void rotateUp(int node) {
+		int oldParent = parent[node];
+		int grandParent = parent[oldParent];
+		if (left[oldParent] == node) {
+			left[oldParent] = right[node];
+			if (right[node] != NONE) {
+				parent[right[node]] = oldParent;
+			}
+			right[node] = oldParent;
+		} else {
+			right[oldParent] = left[node];
+			if (left[node] != NONE) {
+				parent[left[node]] = oldParent;
+			}
+			left[node] = oldParent;
+		}
+		parent[oldParent] = node;
+		parent[node] = grandParent;
+		if (grandParent == NONE) {
+			root = node;
+		} else if (left[grandParent] == oldParent) {
+			left[grandParent] = node;
+		} else {
+			right[grandParent] = node;
+		}
+		count[node] = count[oldParent];
+		count[oldParent] = count(left[oldParent]) + count(right[oldParent])
+				+ 1;
+	}
+
+	private int count(int node) {
+		return node == NONE ? 0 : count[node];
+	}
+
+	private int allocate(ConstructionElement ce) {
+		int slot;
+		if (freeSlot != NONE) {
+			slot = freeSlot;
+			freeSlot = parent[slot];
+		} else {
+			slot = slotCount++;
+			if (slot == elements.length) {
+				int capacity = 2 * elements.length;
+				elements = Arrays.copyOf(elements, capacity);
+				left = Arrays.copyOf(left, capacity);
+				right = Arrays.copyOf(right, capacity);
+				parent = Arrays.copyOf(parent, capacity);
+				count = Arrays.copyOf(count, capacity);
+				priority = Arrays.copyOf(priority, capacity);
+			}
+		}
+		elements[slot] = ce;
+		left[slot] = NONE;
+		right[slot] = NONE;
+		parent[slot] = NONE;
+		count[slot] = 1;
+		// xorshift, so that the shape of the tree is reproducible
+		seed ^= seed << 13;
+		seed ^= seed >>> 17;
+		seed ^= seed << 5;
+		priority[slot] = seed;
+		return slot;
+	}
+
+	private static void checkIndex(int index, int min, int max) {
+		if (index < min || index > max) {
+			throw new IndexOutOfBoundsException("Index: " + index);
+		}
+	}
+}
@@ -389,6 +389,8 @@ public class Kernel implements SpecialPointsListener, ConstructionStepper {
 	private boolean notifyRepaint = true;
 	private EuclidianView lastAttachedEV = null;
 	private boolean notifyViewsActive = true;
+	/** true while algos are updated on worker threads */
+	private boolean viewUpdatesDeferred = false;
 
 	// MOB-1304 cache axes numbers
 	private final HashMap<StringTemplate, LRUMap<Double, String>> formatterMaps = new HashMap<>();
@@ -3896,7 +3898,7 @@ public final void movedGeoSet(ArrayList<GeoElement> elmSet) {
 	 */
 	public final void notifyUpdate(GeoElement geo) {
 		// event dispatcher should not collect calls to stay compatible with 4.0
-		if (notifyViewsActive) {
+		if (notifyViewsActive && !viewUpdatesDeferred) {
 			for (View view : views) {
 				view.update(geo);
 			}
@@ -4028,6 +4030,18 @@ public void notifyPasteComplete(ArrayList<GeoElement> pastedGeos) {
 		}
 	}
 
+	/**
+	 * While view updates are deferred, {@link #notifyUpdate(GeoElement)} does
+	 * nothing; the caller has to notify views about all updated elements
+	 * afterwards.
+	 * 
+	 * @param deferred
+	 *            whether to skip view updates
+	 */
+	public void setViewUpdatesDeferred(boolean deferred) {
+		viewUpdatesDeferred = deferred;
+	}
+
 	public boolean isNotifyViewsActive() {
 		return notifyViewsActive && !viewReiniting;
 	}
@@ -4783,7 +4797,7 @@ public void refreshCASCommands() {
 			}
 		}
 		cons.setUpdateConstructionRunning(true);
-		GeoElement.updateCascade(geosToUpdate, new TreeSet<AlgoElement>(), true);
+		GeoElement.updateCascade(geosToUpdate, true);
 		cons.setUpdateConstructionRunning(false);
 	}
 
@@ -43,6 +43,11 @@ public MacroConstruction(MacroKernel kernel) {
 		super.setFileLoading(true);
 	}
 
+	@Override
+	public ParallelUpdateExecutor getParallelUpdateExecutor() {
+		return parentCons.getParallelUpdateExecutor();
+	}
+
 	/**
 	 * Set construction via XML string.
 	 * 
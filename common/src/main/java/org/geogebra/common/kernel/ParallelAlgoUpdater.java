@@ -0,0 +1,180 @@
+package org.geogebra.common.kernel;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+
+import org.geogebra.common.kernel.algos.AlgoElement;
+import org.geogebra.common.kernel.geos.GeoElement;
+
+/**
+ * Splits the algorithms of a construction into weakly connected components
+ * (algorithms sharing an input or depending on each other end up in the same
+ * component) and updates components that consist of thread safe algorithms
+ * concurrently.
+ */
+final class ParallelAlgoUpdater {
+
+	/** do not bother with threads for small constructions */
+	static final int MIN_PARALLEL_ALGOS = 64;
+	/** minimal number of algorithms per task */
+	private static final int MIN_TASK_SIZE = 16;
+
+	private final int[] parent;
+
+	private ParallelAlgoUpdater(int size) {
+		parent = new int[size];
+		for (int i = 0; i < size; i++) {
+			parent[i] = i;
+		}
+	}
+
+	/**
+	 * Updates all algorithms in components that may be updated on worker
+	 * threads. Views are notified about the updated elements afterwards, in
+	 * construction order.
+	 * 
+	 * @param algos
+	 *            algorithms in construction order
+	 * @param kernel
+	 *            kernel
+	 * @param executor
+	 *            executor
+	 * @return flags of updated algorithms (same indices as algos) or null if
+	 *         no algorithm was updated
+	 */
+	static boolean[] update(List<AlgoElement> algos, Kernel kernel,
+			ParallelUpdateExecutor executor) {
+		int size = algos.size();
+		if (size < MIN_PARALLEL_ALGOS) {
+			return null;
+		}
+		ParallelAlgoUpdater components = new ParallelAlgoUpdater(size);
+		HashMap<AlgoElement, Integer> algoIndex = new HashMap<>();
+		for (int i = 0; i < size; i++) {
+			algoIndex.put(algos.get(i), i);
+		}
+		HashMap<GeoElement, Integer> firstUser = new HashMap<>();
+		for (int i = 0; i < size; i++) {
+			AlgoElement algo = algos.get(i);
+			GeoElement[] input = algo.getInput();
+			for (int j = 0; input != null && j < input.length; j++) {
+				AlgoElement inputAlgo = input[j].getParentAlgorithm();
+				Integer other = inputAlgo == null ? null
+						: algoIndex.get(inputAlgo);
+				if (other == null) {
+					// free input or output of a helper algo
+					other = firstUser.get(input[j]);
+					if (other == null) {
+						firstUser.put(input[j], i);
+						continue;
+					}
+				}
+				components.union(i, other);
+			}
+			Integer updateAfter = algoIndex.get(algo.getUpdateAfterAlgo());
+			if (updateAfter != null) {
+				components.union(i, updateAfter);
+			}
+		}
+
+		boolean[] unsafe = new boolean[size];
+		for (int i = 0; i < size; i++) {
+			if (!isThreadSafe(algos.get(i))) {
+				unsafe[components.find(i)] = true;
+			}
+		}
+
+		// group components into tasks, keeping construction order in each
+		// component
+		int[] componentTask = new int[size];
+		ArrayList<ArrayList<AlgoElement>> tasks = new ArrayList<>();
+		boolean[] updated = new boolean[size];
+		int count = 0;
+		for (int i = 0; i < size; i++) {
+			int root = components.find(i);
+			if (unsafe[root]) {
+				continue;
+			}
+			if (root == i) {
+				if (tasks.isEmpty() || tasks.get(tasks.size() - 1)
+						.size() >= MIN_TASK_SIZE) {
+					tasks.add(new ArrayList<AlgoElement>());
+				}
+				componentTask[root] = tasks.size() - 1;
+			}
+			tasks.get(componentTask[root]).add(algos.get(i));
+			updated[i] = true;
+			count++;
+		}
+		if (count < MIN_PARALLEL_ALGOS || tasks.size() < 2) {
+			return null;
+		}
+
+		ArrayList<Runnable> runnables = new ArrayList<>(tasks.size());
+		for (final ArrayList<AlgoElement> task : tasks) {
+			runnables.add(() -> {
+				for (AlgoElement algo : task) {
+					algo.initForNearToRelationship();
+					algo.update();
+				}
+			});
+		}
+		kernel.setViewUpdatesDeferred(true);
+		try {
+			executor.runAll(runnables);
+		} finally {
+			kernel.setViewUpdatesDeferred(false);
+		}
+
+		for (int i = 0; i < size; i++) {
+			if (updated[i]) {
+				AlgoElement algo = algos.get(i);
+				for (int j = 0; j < algo.getOutputLength(); j++) {
+					kernel.notifyUpdate(algo.getOutput(j));
+				}
+			}
+		}
+		return updated;
+	}
+
+	private static boolean isThreadSafe(AlgoElement algo) {
+		if (!algo.isThreadSafe()) {
+			return false;
+		}
+		for (int j = 0; j < algo.getOutputLength(); j++) {
+			GeoElement geo = algo.getOutput(j);
+			if (geo.isRandomGeo() || geo.hasUpdateSideEffects()) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private int find(int i) {
+		int root = i;
+		while (parent[root] != root) {
+			root = parent[root];
+		}
+		// path compression
+		int current = i;
+		while (parent[current] != root) {
+			int next = parent[current];
+			parent[current] = root;
+			current = next;
+		}
+		return root;
+	}
+
+	private void union(int i, int j) {
+		int rootI = find(i);
+		int rootJ = find(j);
+		// keep the smallest index as root so that the root is the first
+		// algorithm of the component
+		if (rootI < rootJ) {
+			parent[rootJ] = rootI;
+		} else if (rootJ < rootI) {
+			parent[rootI] = rootJ;
+		}
+	}
+}
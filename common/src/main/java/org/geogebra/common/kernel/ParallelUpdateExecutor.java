@@ -0,0 +1,20 @@
+package org.geogebra.common.kernel;
+
+import java.util.List;
+
+/**
+ * Runs independent parts of a construction update concurrently. Only
+ * available on platforms with threads, see
+ * {@link Construction#setParallelUpdateExecutor(ParallelUpdateExecutor)}.
+ */
+public interface ParallelUpdateExecutor {
+
+	/**
+	 * Runs all tasks and waits until they are finished. Exceptions thrown by
+	 * the tasks are rethrown to the caller.
+	 * 
+	 * @param tasks
+	 *            tasks that do not share any data
+	 */
+	void runAll(List<Runnable> tasks);
+}
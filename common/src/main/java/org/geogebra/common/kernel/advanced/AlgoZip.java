@@ -14,6 +14,7 @@
 
 import org.geogebra.common.kernel.Construction;
 import org.geogebra.common.kernel.algos.AlgoElement;
+import org.geogebra.common.kernel.algos.BulkListEvaluator;
 import org.geogebra.common.kernel.algos.DrawInformationAlgo;
 import org.geogebra.common.kernel.arithmetic.ReplaceChildrenByValues;
 import org.geogebra.common.kernel.commands.Commands;
@@ -41,6 +42,9 @@ public class AlgoZip extends AlgoElement {
 	private boolean expIsFunctionOrCurve;
 	private boolean isEmpty;
 	private AlgoElement expressionParentAlgo;
+	private BulkListEvaluator bulkEvaluator;
+	private boolean bulkEvaluatorChecked;
+	private double[] varValues = new double[0];
 
 	// we need to check that some Object[] reference didn't cause infinite
 	// update cycle
@@ -168,6 +172,11 @@ public final void compute() {
 
 		isEmpty = minOverSize() == 0;
 
+		if (computeInBulk()) {
+			updateRunning = false;
+			return;
+		}
+
 		// an update may be necessary because another variable in expression
 		// has changed. However, the range (from, to, step) may not have
 		// changed:
@@ -194,6 +203,74 @@ public final void compute() {
 		updateRunning = false;
 	}
 
+	/**
+	 * Computes all elements at once for long lists of numbers or points, see
+	 * {@link BulkListEvaluator}.
+	 *
+	 * @return whether the list was computed
+	 */
+	private boolean computeInBulk() {
+		int size = minOverSize();
+		if (size < GeoList.MIN_PACKED_SIZE) {
+			return false;
+		}
+		if (!bulkEvaluatorChecked) {
+			bulkEvaluator = BulkListEvaluator.create(expression, vars);
+			bulkEvaluatorChecked = true;
+		}
+		if (bulkEvaluator == null) {
+			return false;
+		}
+		if (varValues.length < varCount * size) {
+			varValues = new double[varCount * size];
+		}
+		for (int i = 0; i < listCount; i++) {
+			if (!getNumbers(over[i], i, size)) {
+				return false;
+			}
+		}
+		if (varCount > listCount) {
+			// index variable
+			for (int j = 0; j < size; j++) {
+				varValues[varCount * j + varCount - 1] = j + 1;
+			}
+		}
+		// elements of packed lists aren't updated by updateListItems
+		last_length = -1;
+		if (kernel.getApplication().freeMemoryIsCritical()) {
+			long mem = kernel.getApplication().freeMemory();
+			list.clearCache();
+			kernel.initUndoInfo(); // clear all undo info
+			Log.debug("AlgoZip aborted: free memory reached " + mem);
+			return true;
+		}
+		bulkEvaluator.evaluate(varValues, size, list);
+		return true;
+	}
+
+	/**
+	 * Copies the values of a list of numbers to the values of a variable.
+	 *
+	 * @return false if the list contains anything else
+	 */
+	private boolean getNumbers(GeoList source, int var, int size) {
+		boolean packed = source.isPackedNumbers();
+		for (int j = 0; j < size; j++) {
+			double value;
+			if (packed) {
+				value = source.getPackedX(j);
+			} else {
+				GeoElement element = source.get(j);
+				if (!(element instanceof GeoNumeric)) {
+					return false;
+				}
+				value = ((GeoNumeric) element).getDouble();
+			}
+			varValues[varCount * j + var] = value;
+		}
+		return true;
+	}
+
 	private void createNewList() {
 		// clear list if defined
 		int i = 0;
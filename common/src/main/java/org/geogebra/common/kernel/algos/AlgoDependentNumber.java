@@ -23,6 +23,7 @@
 import org.geogebra.common.kernel.StringTemplate;
 import org.geogebra.common.kernel.arithmetic.ExpressionNode;
 import org.geogebra.common.kernel.arithmetic.ExpressionValue;
+import org.geogebra.common.kernel.arithmetic.Inspecting;
 import org.geogebra.common.kernel.arithmetic.NumberValue;
 import org.geogebra.common.kernel.geos.GeoAngle;
 import org.geogebra.common.kernel.geos.GeoAngle.AngleStyle;
@@ -180,6 +181,13 @@ public ExpressionNode getExpression() {
 		return number.getDefinition();
 	}
 
+	@Override
+	public boolean isThreadSafe() {
+		// other numbers would create new elements in compute()
+		return number instanceof GeoNumeric && !number.getDefinition()
+				.inspect(Inspecting.RandomFinder.INSTANCE);
+	}
+
 	// calc the current value of the arithmetic tree
 	@Override
 	public final void compute() {
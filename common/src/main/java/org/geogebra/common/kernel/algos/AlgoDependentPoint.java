@@ -22,6 +22,7 @@
 import org.geogebra.common.kernel.Kernel;
 import org.geogebra.common.kernel.StringTemplate;
 import org.geogebra.common.kernel.arithmetic.ExpressionNode;
+import org.geogebra.common.kernel.arithmetic.Inspecting;
 import org.geogebra.common.kernel.arithmetic.VectorValue;
 import org.geogebra.common.kernel.geos.GeoElement;
 import org.geogebra.common.kernel.geos.GeoPoint;
@@ -115,6 +116,11 @@ public ExpressionNode getExpression() {
 		return P.getDefinition();
 	}
 
+	@Override
+	public boolean isThreadSafe() {
+		return !P.getDefinition().inspect(Inspecting.RandomFinder.INSTANCE);
+	}
+
 	// calc the current value of the arithmetic tree
 	@Override
 	public final void compute() {
@@ -21,6 +21,7 @@
 import org.geogebra.common.kernel.Construction;
 import org.geogebra.common.kernel.StringTemplate;
 import org.geogebra.common.kernel.arithmetic.ExpressionNode;
+import org.geogebra.common.kernel.arithmetic.Inspecting;
 import org.geogebra.common.kernel.arithmetic.VectorValue;
 import org.geogebra.common.kernel.geos.GeoVec2D;
 import org.geogebra.common.kernel.geos.GeoVector;
@@ -89,6 +90,11 @@ public GeoVector getVector() {
 		return v;
 	}
 
+	@Override
+	public boolean isThreadSafe() {
+		return !v.getDefinition().inspect(Inspecting.RandomFinder.INSTANCE);
+	}
+
 	// calc the current value of the arithmetic tree
 	@Override
 	public final void compute() {
@@ -94,6 +94,11 @@ public GeoNumeric getDistance() {
 	 * GeoPoint getP() { return P; } GeoPoint getQ() { return Q; }
 	 */
 
+	@Override
+	public boolean isThreadSafe() {
+		return true;
+	}
+
 	// calc length of vector v
 	@Override
 	public final void compute() {
@@ -57,8 +57,6 @@
  */
 public abstract class AlgoElement extends ConstructionElement
 		implements EuclidianViewCE {
-	private static boolean tempSetLock = false;
-	private static TreeSet<AlgoElement> tempSet;
 	/** input elements */
 	public GeoElement[] input;
 	private ArrayList<GeoElementND> freeInputPoints;
@@ -83,6 +81,8 @@ public abstract class AlgoElement extends ConstructionElement
 	 */
 	private List<OutputHandler<?>> outputHandler;
 	private boolean mayHaveRandomAncestors = true;
+	/** last batch of {@link AlgoUpdateScheduler} that contained this algo */
+	int updateStamp = 0;
 	/** string builder */
 	protected StringBuilder sbAE = new StringBuilder();
 	/** flag stating whether remove() on this algo was already called */
@@ -579,6 +579,17 @@ public void initForNearToRelationship() {
 		// overriden in subclasses
 	}
 
+	/**
+	 * Algorithms that return true may be updated on a worker thread together
+	 * with other algorithms that do not share any input, see
+	 * {@link org.geogebra.common.kernel.Construction#setParallelUpdateExecutor}
+	 * 
+	 * @return whether update() only reads the input and writes the output
+	 */
+	public boolean isThreadSafe() {
+		return false;
+	}
+
 	/**
 	 * @return whether this algo has NEAR-TO relations (ie ambiguous output
 	 *         =&gt; we pick the nearest possibility to last output)
@@ -690,16 +701,7 @@ public static void updateCascadeAlgos(ArrayList<AlgoElement> algos) {
 		}
 
 		// update all geos
-		tempSetLock = true;
-		GeoElement.updateCascade(geos, getTempSet(), true);
-		tempSetLock = false;
-	}
-
-	private static TreeSet<AlgoElement> getTempSet() {
-		if (tempSet == null || tempSetLock) {
-			tempSet = new TreeSet<>();
-		}
-		return tempSet;
+		GeoElement.updateCascade(geos, true);
 	}
 
 	// public part
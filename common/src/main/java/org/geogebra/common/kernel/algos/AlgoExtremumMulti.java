@@ -225,17 +225,15 @@ public final void compute() {
 	 */
 	public static double[] findExtremums(UnivariateFunction rrfunc,
 			double l, double r, int samples, ExtremumFinderI extrfinder) {
-		double[] y = new double[samples + 1]; // n+1 y-values
+		double deltax = (r - l) / samples; // x[i]=l+i*deltax, don't need
+											// x-array
+		double[] y = sampleValues(rrfunc, l, deltax, samples); // n+1 y-values
 		boolean[] grad = new boolean[samples]; // n gradients, true: f'>=0,
 												// false: f'<0
 		ArrayList<Double> xlist = new ArrayList<>();
 
-		double deltax = (r - l) / samples; // x[i]=l+i*deltax, don't need
-											// x-array
-
 		for (int i = 0; i <= samples; i++) { // debug("iteration: "+i);
 
-			y[i] = rrfunc.value(l + i * deltax);
 			if (i > 0) { // grad only from 1 to n-1
 				if (y[i] >= y[i - 1]) { // grad positive or zero
 					grad[i - 1] = true;
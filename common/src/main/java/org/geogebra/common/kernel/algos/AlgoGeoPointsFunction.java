@@ -18,6 +18,7 @@
 import org.geogebra.common.euclidian.EuclidianViewInterfaceCommon;
 import org.geogebra.common.kernel.Construction;
 import org.geogebra.common.kernel.Kernel;
+import org.geogebra.common.kernel.arithmetic.Function;
 import org.geogebra.common.kernel.geos.GeoElement;
 import org.geogebra.common.kernel.geos.GeoNumberValue;
 import org.geogebra.common.kernel.geos.GeoPoint;
@@ -313,9 +314,43 @@ public final int findNumberOfSamples(double l, double r) {
 	 */
 	protected double[] getYs(UnivariateFunction evaluatable, double[] xs) {
 		double[] ys = new double[xs.length];
+		if (evaluatable instanceof Function) {
+			((Function) evaluatable).evaluate(xs, ys, 0, xs.length);
+			return ys;
+		}
 		for (int i = 0; i < xs.length; i++) {
 			ys[i] = evaluatable.value(xs[i]);
 		}
 		return ys;
 	}
+
+	/**
+	 * Evaluates the function at equidistant points l + i * deltax for i = 0,
+	 * ..., samples.
+	 * 
+	 * @param evaluatable
+	 *            function
+	 * @param l
+	 *            left bound
+	 * @param deltax
+	 *            distance of the points
+	 * @param samples
+	 *            number of intervals
+	 * @return samples + 1 function values
+	 */
+	protected static double[] sampleValues(UnivariateFunction evaluatable,
+			double l, double deltax, int samples) {
+		double[] y = new double[samples + 1];
+		if (evaluatable instanceof Function) {
+			for (int i = 0; i <= samples; i++) {
+				y[i] = l + i * deltax;
+			}
+			((Function) evaluatable).evaluate(y, y, 0, y.length);
+			return y;
+		}
+		for (int i = 0; i <= samples; i++) {
+			y[i] = evaluatable.value(l + i * deltax);
+		}
+		return y;
+	}
 }
@@ -115,6 +115,11 @@ public GeoLine getg() {
 		return h;
 	}
 
+	@Override
+	public boolean isThreadSafe() {
+		return true;
+	}
+
 	// calc intersection S of lines g, h
 	@Override
 	public final void compute() {
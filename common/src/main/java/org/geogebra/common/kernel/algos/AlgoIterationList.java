@@ -54,6 +54,9 @@ public class AlgoIterationList extends AlgoElement {
 	private boolean expIsFunctionOrCurve;
 	private boolean isEmpty;
 	private AlgoElement expressionParentAlgo;
+	private BulkListEvaluator bulkEvaluator;
+	private boolean bulkEvaluatorChecked;
+	private double[] values = new double[0];
 
 	enum Type {
 		/** u(n+1)=f(u(n)) */
@@ -282,6 +285,13 @@ public final void compute() {
 
 		isEmpty = over[0].size() == 0;
 
+		if (computeInBulk(iterations)) {
+			// elements of packed lists aren't updated by updateListItems
+			iterationsOld = -1;
+			updateRunning = false;
+			return;
+		}
+
 		boolean setValuesOnly = iterations == iterationsOld;
 		setValuesOnly = setValuesOnly && !expIsFunctionOrCurve;
 
@@ -301,6 +311,58 @@ public final void compute() {
 		updateRunning = false;
 	}
 
+	/**
+	 * Computes all elements of a long list of numbers at once, see
+	 * {@link BulkListEvaluator}.
+	 *
+	 * @param iterations
+	 *            number of iterations
+	 * @return whether the list was computed
+	 */
+	private boolean computeInBulk(int iterations) {
+		int size = iterations + 1;
+		if (isEmpty || size < GeoList.MIN_PACKED_SIZE) {
+			return false;
+		}
+		if (!bulkEvaluatorChecked) {
+			bulkEvaluator = BulkListEvaluator.create(expression, vars);
+			bulkEvaluatorChecked = true;
+		}
+		if (bulkEvaluator == null || bulkEvaluator.isPoints()) {
+			return false;
+		}
+		int start = Math.min(over[0].size(), size);
+		if (start < varCount) {
+			return false;
+		}
+		if (kernel.getApplication().freeMemoryIsCritical()) {
+			long mem = kernel.getApplication().freeMemory();
+			list.clearCache();
+			kernel.initUndoInfo(); // clear all undo info
+			Log.debug("AlgoIterationList aborted: free memory reached " + mem);
+			return true;
+		}
+		double[] result = bulkEvaluator.getBuffer(size);
+		boolean packed = over[0].isPackedNumbers();
+		for (int j = 0; j < start; j++) {
+			if (packed) {
+				result[j] = over[0].getPackedX(j);
+			} else if (over[0].get(j) instanceof GeoNumeric) {
+				result[j] = ((GeoNumeric) over[0].get(j)).getDouble();
+			} else {
+				return false;
+			}
+		}
+		// the variables are the last varCount values, oldest first
+		double[] args = new double[varCount];
+		for (int i = start; i < size; i++) {
+			System.arraycopy(result, i - varCount, args, 0, varCount);
+			result[i] = bulkEvaluator.evaluate(args);
+		}
+		bulkEvaluator.setValues(list);
+		return true;
+	}
+
 	private void createNewList() {
 		int iterations = (int) Math.round(n.getDouble());
 		int i = Math.min(over[0].size(), iterations);
@@ -538,6 +600,16 @@ private void computeSimple() {
 		// perform iteration f(f(f(...(startValue))))
 		// and fill list with all intermediate results
 		double val = startValue.getDouble();
+		if (iterations + 1 >= GeoList.MIN_PACKED_SIZE) {
+			double[] result = getValuesBuffer(iterations + 1);
+			result[0] = val;
+			for (int i = 0; i < iterations; i++) {
+				val = f.value(val);
+				result[i + 1] = val;
+			}
+			list.setNumbers(result);
+			return;
+		}
 		setListElement(0, val);
 		for (int i = 0; i < iterations; i++) {
 			val = f.value(val);
@@ -586,6 +658,17 @@ private void computeDouble() {
 
 		// perform iterations u(n+1)=f(n,u(n))
 		list.clear();
+		if (iterations + 1 >= GeoList.MIN_PACKED_SIZE) {
+			double[] result = getValuesBuffer(iterations + 1);
+			result[0] = u;
+			for (int i = 0; i < iterations; i++) {
+				u = fNVar.evaluate(nU, u);
+				result[i + 1] = u;
+				nU++;
+			}
+			list.setNumbers(result);
+			return;
+		}
 		setListElement(0, u);
 		for (int i = 0; i < iterations; i++) {
 			u = fNVar.evaluate(nU, u);
@@ -594,6 +677,18 @@ private void computeDouble() {
 		}
 	}
 
+	/**
+	 * @param size
+	 *            number of elements
+	 * @return buffer for the list values, reused while the size doesn't change
+	 */
+	private double[] getValuesBuffer(int size) {
+		if (values.length != size) {
+			values = new double[size];
+		}
+		return values;
+	}
+
 	private void setListElement(int index, double value) {
 		GeoNumeric listElement;
 		if (index < list.getCacheSize()) {
@@ -130,6 +130,11 @@ public GeoPoint getQ() {
 		return Q;
 	}
 
+	@Override
+	public boolean isThreadSafe() {
+		return true;
+	}
+
 	// calc the line g through P and Q
 	@Override
 	public final void compute() {
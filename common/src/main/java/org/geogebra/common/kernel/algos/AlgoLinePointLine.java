@@ -115,6 +115,11 @@ public GeoLine getl() {
 		return l instanceof GeoLine ? (GeoLine) l : null;
 	}
 
+	@Override
+	public boolean isThreadSafe() {
+		return true;
+	}
+
 	// calc the line g through P and parallel to l
 	@Override
 	public final void compute() {
@@ -15,7 +15,6 @@
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Map.Entry;
-import java.util.TreeSet;
 
 import org.geogebra.common.euclidian.EuclidianConstants;
 import org.geogebra.common.kernel.Construction;
@@ -645,7 +644,7 @@ public void setCoords(GeoPoint geoPoint, double x, double y, double z) {
 		for (int i = 0; i < getOutputLength(); i++) {
 			outputList.add(getOutput(i));
 		}
-		GeoElement.updateCascade(outputList, new TreeSet<AlgoElement>(), true);
+		GeoElement.updateCascade(outputList, true);
 		kernel.notifyRepaint();
 
 	}
@@ -135,6 +135,11 @@ public GeoLine getl() {
 		return l instanceof GeoLine ? (GeoLine) l : null;
 	}
 
+	@Override
+	public boolean isThreadSafe() {
+		return true;
+	}
+
 	// calc the line g through P and normal to l
 	@Override
 	public final void compute() {
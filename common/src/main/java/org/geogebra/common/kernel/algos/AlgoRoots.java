@@ -335,14 +335,13 @@ public static final double[] findRoots(Function f, double l, double r,
 			return DoubleUtil.isZero(f.value(l)) ? new double[] { l }
 					: new double[0];
 		}
-		double[] y = new double[samples + 1]; //
 		ArrayList<Double> xlist = new ArrayList<>();
 		double x, xval;
 		double deltax = (r - l) / samples;
+		double[] y = sampleValues(f, l, deltax, samples);
 		double lastRoot = Double.NEGATIVE_INFINITY;
 		for (int i = 0; i <= samples; i++) {
 			x = l + i * deltax;
-			y[i] = f.value(x);
 			if (i > 0 && oppositeSign(y[i], y[i - 1])) {
 				xval = calcSingleRoot(f, x - deltax, x);
 				// =1E-5: Quite large, but less doesn't work in Apache lib...
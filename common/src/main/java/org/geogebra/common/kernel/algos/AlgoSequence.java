@@ -52,6 +52,9 @@ public class AlgoSequence extends AlgoElement implements SetRandomValue {
 	private boolean expIsFunctionOrCurve;
 	private boolean isEmpty;
 	private AlgoElement expressionParentAlgo;
+	private BulkListEvaluator bulkEvaluator;
+	private boolean bulkEvaluatorChecked;
+	private double[] varValues = new double[0];
 
 	// we need to check that some Object[] reference didn't cause infinite
 	// update cycle
@@ -213,6 +216,11 @@ public final void compute() {
 
 		isEmpty = (to - from) * step <= -Kernel.MIN_PRECISION;
 
+		if (computeInBulk(from, to, step)) {
+			updateRunning = false;
+			return;
+		}
+
 		// an update may be necessary because another variable in expression
 		// has changed. However, the range (from, to, step) may not have
 		// changed:
@@ -240,6 +248,53 @@ public final void compute() {
 		updateRunning = false;
 	}
 
+	/**
+	 * Computes all elements at once for long sequences of numbers or points,
+	 * see {@link BulkListEvaluator}.
+	 *
+	 * @return whether the list was computed
+	 */
+	private boolean computeInBulk(double from, double to, double step) {
+		if (isEmpty || Double.isInfinite((to - from) / step)
+				|| Math.ceil((to - from) / step) + 1 < GeoList.MIN_PACKED_SIZE) {
+			return false;
+		}
+		if (!bulkEvaluatorChecked) {
+			bulkEvaluator = BulkListEvaluator.create(expression, var);
+			bulkEvaluatorChecked = true;
+		}
+		if (bulkEvaluator == null) {
+			return false;
+		}
+		// elements of packed lists aren't updated by updateListItems
+		last_from = Double.NaN;
+		if (kernel.getApplication().freeMemoryIsCritical()) {
+			long mem = kernel.getApplication().freeMemory();
+			list.clearCache();
+			kernel.initUndoInfo(); // clear all undo info
+			Log.debug("AlgoSequence aborted: free memory reached " + mem);
+			return true;
+		}
+
+		int n = (int) Math.ceil((to - from) / step) + 1;
+		if (varValues.length < n) {
+			varValues = new double[n];
+		}
+		// same values of the local variable as in createNewList
+		int count = 0;
+		double currentVal = from;
+		while (count < n && ((step > 0 && currentVal <= to + Kernel.MIN_PRECISION)
+				|| (step < 0 && currentVal >= to - Kernel.MIN_PRECISION))) {
+			varValues[count++] = currentVal;
+			currentVal += step;
+			if (DoubleUtil.isInteger(currentVal)) {
+				currentVal = Math.round(currentVal);
+			}
+		}
+		bulkEvaluator.evaluate(varValues, count, list);
+		return true;
+	}
+
 	private void createNewList(double from, double to, double step) {
 		// clear list if defined
 		int i = 0;
@@ -191,20 +191,26 @@ public final void compute() {
 		boolean useMidpoint = false;
 		double n = 0;
 
+		// numbers stored as values, no need to check element types
+		boolean packed = geoList.isPackedNumbers();
+
 		// list of numbers only, no frequencies
 		if (geoList2 == null) {
 			double val;
 			for (int i = 0; i < size; i++) {
-				geo = geoList.get(i);
-				if (geo instanceof NumberValue) {
-					val = geo.evaluateDouble();
-					sumVal += val;
-					sumSquares += val * val;
-					product *= val;
+				if (packed) {
+					val = geoList.getPackedX(i);
 				} else {
-					result.setUndefined();
-					return;
+					geo = geoList.get(i);
+					if (!(geo instanceof NumberValue)) {
+						result.setUndefined();
+						return;
+					}
+					val = geo.evaluateDouble();
 				}
+				sumVal += val;
+				sumSquares += val * val;
+				product *= val;
 			}
 
 			n = size;
@@ -271,8 +277,8 @@ public final void compute() {
 			if (geoList2 == null) {
 				double val;
 				for (int i = 0; i < size; i++) {
-					geo = geoList.get(i);
-					val = geo.evaluateDouble();
+					val = packed ? geoList.getPackedX(i)
+							: geoList.get(i).evaluateDouble();
 					sumAbsoluteDeviation += Math.abs(mu - val);
 				}
 			}
@@ -0,0 +1,256 @@
+package org.geogebra.common.kernel.algos;
+
+import java.util.ArrayList;
+
+import org.geogebra.common.util.debug.Log;
+
+/**
+ * Collects the algorithms that depend on a group of changed elements and
+ * updates them in construction order.
+ * <p>
+ * Construction order is a topological order of the algorithms, so the batch
+ * is sorted by construction index (and by ID for help algorithms sharing an
+ * index), which gives the same order as a TreeSet of the algorithms. The
+ * construction index of each algorithm is read only once per batch,
+ * duplicates are skipped using a stamp stored in the algorithm and the
+ * buffers are reused between batches. Update sets of single elements are
+ * usually already sorted, so merging them is linear in most cases.
+ * <p>
+ * Updating an algorithm may start another batch (e.g. from scripts), nested
+ * batches get their own buffers.
+ */
+public class AlgoUpdateScheduler {
+
+	private static int nextStamp = 1;
+
+	private final ArrayList<Batch> batches = new ArrayList<>();
+	private int depth = 0;
+
+	/**
+	 * Starts collecting algorithms; the batch has to be finished by
+	 * {@link #end(Batch)}.
+	 *
+	 * @return empty batch
+	 */
+	public Batch begin() {
+		if (depth == batches.size()) {
+			batches.add(new Batch());
+		}
+		Batch batch = batches.get(depth);
+		depth++;
+		batch.reset();
+		return batch;
+	}
+
+	/**
+	 * Releases the batch and its buffers for reuse.
+	 *
+	 * @param batch
+	 *            batch obtained from {@link #begin()}
+	 */
+	public void end(Batch batch) {
+		batch.clearReferences();
+		depth--;
+	}
+
+	/**
+	 * Algorithms that need to be updated together.
+	 */
+	public static final class Batch {
+		private static final int INITIAL_CAPACITY = 16;
+
+		private AlgoElement[] algos = new AlgoElement[INITIAL_CAPACITY];
+		private int[] keys = new int[INITIAL_CAPACITY];
+		private AlgoElement[] algoBuffer;
+		private int[] keyBuffer;
+		private int[] runEnds = new int[INITIAL_CAPACITY];
+		private int size;
+		private int stamp;
+
+		private Batch() {
+			// created by scheduler only
+		}
+
+		private void reset() {
+			size = 0;
+			stamp = nextStamp++;
+		}
+
+		private void clearReferences() {
+			for (int i = 0; i < size; i++) {
+				algos[i] = null;
+			}
+			size = 0;
+		}
+
+		/**
+		 * @return number of algorithms in this batch
+		 */
+		public int size() {
+			return size;
+		}
+
+		/**
+		 * Adds all algorithms of the set that are not in the batch yet.
+		 *
+		 * @param set
+		 *            update set of an element
+		 */
+		public void addAll(AlgorithmSet set) {
+			set.addAllToBatch(this);
+		}
+
+		/**
+		 * @param algo
+		 *            algorithm to be updated
+		 */
+		public void add(AlgoElement algo) {
+			if (algo.updateStamp == stamp) {
+				return;
+			}
+			algo.updateStamp = stamp;
+			if (size == algos.length) {
+				int capacity = 2 * size;
+				AlgoElement[] newAlgos = new AlgoElement[capacity];
+				System.arraycopy(algos, 0, newAlgos, 0, size);
+				algos = newAlgos;
+				int[] newKeys = new int[capacity];
+				System.arraycopy(keys, 0, newKeys, 0, size);
+				keys = newKeys;
+			}
+			algos[size] = algo;
+			keys[size] = algo.getConstructionIndex();
+			size++;
+		}
+
+		/**
+		 * Removes all algorithms of the set from the batch.
+		 *
+		 * @param set
+		 *            algorithms to be skipped
+		 */
+		public void removeAll(AlgorithmSet set) {
+			int removedStamp = -stamp;
+			boolean removed = false;
+			for (AlgoElement algo : set) {
+				if (algo.updateStamp == stamp) {
+					algo.updateStamp = removedStamp;
+					removed = true;
+				}
+			}
+			if (!removed) {
+				return;
+			}
+			int kept = 0;
+			for (int i = 0; i < size; i++) {
+				if (algos[i].updateStamp != removedStamp) {
+					algos[kept] = algos[i];
+					keys[kept] = keys[i];
+					kept++;
+				}
+			}
+			for (int i = kept; i < size; i++) {
+				algos[i] = null;
+			}
+			size = kept;
+		}
+
+		/**
+		 * Updates all algorithms in construction order.
+		 *
+		 * @param catchExceptions
+		 *            whether to log exceptions and continue with the next
+		 *            algorithm
+		 */
+		public void updateAll(boolean catchExceptions) {
+			sort();
+			int count = size;
+			AlgoElement previous = null;
+			for (int i = 0; i < count; i++) {
+				AlgoElement algo = algos[i];
+				// an algo may be added twice if a nested batch changed its
+				// stamp while this batch was collecting
+				if (algo == previous) {
+					continue;
+				}
+				previous = algo;
+				if (catchExceptions) {
+					try {
+						algo.update();
+					} catch (Exception e) {
+						Log.debug(e);
+					}
+				} else {
+					algo.update();
+				}
+			}
+		}
+
+		private static boolean less(AlgoElement algo1, int key1,
+				AlgoElement algo2, int key2) {
+			return key1 < key2
+					|| (key1 == key2 && algo1.getID() < algo2.getID());
+		}
+
+		/**
+		 * Natural merge sort: finds sorted runs and merges neighbouring runs
+		 * until one run is left.
+		 */
+		private void sort() {
+			int runs = 0;
+			for (int i = 1; i <= size; i++) {
+				if (i == size || less(algos[i], keys[i], algos[i - 1],
+						keys[i - 1])) {
+					if (runs == runEnds.length) {
+						int[] newRunEnds = new int[2 * runs];
+						System.arraycopy(runEnds, 0, newRunEnds, 0, runs);
+						runEnds = newRunEnds;
+					}
+					runEnds[runs++] = i;
+				}
+			}
+			while (runs > 1) {
+				int merged = 0;
+				int start = 0;
+				for (int r = 0; r < runs; r += 2) {
+					if (r + 1 < runs) {
+						merge(start, runEnds[r], runEnds[r + 1]);
+					}
+					int end = runEnds[Math.min(r + 1, runs - 1)];
+					runEnds[merged++] = end;
+					start = end;
+				}
+				runs = merged;
+			}
+		}
+
+		private void merge(int from, int middle, int to) {
+			int leftLength = middle - from;
+			if (algoBuffer == null || algoBuffer.length < leftLength) {
+				algoBuffer = new AlgoElement[Math.max(leftLength,
+						INITIAL_CAPACITY)];
+				keyBuffer = new int[algoBuffer.length];
+			}
+			System.arraycopy(algos, from, algoBuffer, 0, leftLength);
+			System.arraycopy(keys, from, keyBuffer, 0, leftLength);
+			int left = 0;
+			int right = middle;
+			int write = from;
+			while (left < leftLength && right < to) {
+				if (less(algos[right], keys[right], algoBuffer[left],
+						keyBuffer[left])) {
+					algos[write] = algos[right];
+					keys[write++] = keys[right++];
+				} else {
+					algos[write] = algoBuffer[left];
+					keys[write++] = keyBuffer[left++];
+				}
+			}
+			System.arraycopy(algoBuffer, 0, algos, write, leftLength - left);
+			System.arraycopy(keyBuffer, 0, keys, write, leftLength - left);
+			for (int i = 0; i < leftLength; i++) {
+				algoBuffer[i] = null;
+			}
+		}
+	}
+}
@@ -302,6 +302,20 @@ final public void addAllToCollection(Collection<AlgoElement> collection) {
 		}
 	}
 
+	/**
+	 * Adds all algorithms in this set to the given update batch
+	 * 
+	 * @param batch
+	 *            update batch
+	 */
+	final void addAllToBatch(AlgoUpdateScheduler.Batch batch) {
+		Link cur = getHead();
+		while (cur != null) {
+			batch.add(cur.algo);
+			cur = cur.next;
+		}
+	}
+
 	/**
 	 * Removes all algorithms in this set from the given collection
 	 * 
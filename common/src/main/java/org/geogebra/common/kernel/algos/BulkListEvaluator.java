@@ -0,0 +1,191 @@
+package org.geogebra.common.kernel.algos;
+
+import org.geogebra.common.kernel.Kernel;
+import org.geogebra.common.kernel.arithmetic.ExpressionNode;
+import org.geogebra.common.kernel.arithmetic.ExpressionValue;
+import org.geogebra.common.kernel.arithmetic.FunctionNVar;
+import org.geogebra.common.kernel.arithmetic.FunctionVariable;
+import org.geogebra.common.kernel.arithmetic.MyVecNode;
+import org.geogebra.common.kernel.geos.GeoElement;
+import org.geogebra.common.kernel.geos.GeoList;
+import org.geogebra.common.kernel.geos.GeoNumeric;
+import org.geogebra.common.kernel.geos.GeoPoint;
+import org.geogebra.common.kernel.kernelND.GeoElementND;
+import org.geogebra.common.plugin.GeoClass;
+
+/**
+ * Evaluates the expression of a list command (Sequence, Zip, IterationList)
+ * for many values of its local variables at once.
+ * <p>
+ * This only works for numbers and cartesian points defined by an expression
+ * that depends on the local variables directly, e.g. Sequence(k^2, k, 1, n)
+ * or Sequence((k, sin(k)), k, 1, n). The expression is turned into a function
+ * of the variables, so all values are computed in one pass over double arrays
+ * instead of updating the variables' dependent algorithms for each element.
+ * The result is stored as plain values (see
+ * {@link GeoList#setNumbers(double[])}), elements are only created when they
+ * are accessed.
+ */
+public final class BulkListEvaluator {
+
+	private final FunctionNVar xFunction;
+	/** null for numbers */
+	private final FunctionNVar yFunction;
+	private double[] xs = new double[0];
+	private double[] ys = new double[0];
+
+	private BulkListEvaluator(FunctionNVar xFunction, FunctionNVar yFunction) {
+		this.xFunction = xFunction;
+		this.yFunction = yFunction;
+	}
+
+	/**
+	 * @param expression
+	 *            expression of the list command
+	 * @param vars
+	 *            local variables
+	 * @return evaluator, null if the expression is no number or point or its
+	 *         value isn't given by a formula of the variables
+	 */
+	public static BulkListEvaluator create(GeoElementND expression,
+			GeoElementND... vars) {
+		AlgoElement algo = expression.getParentAlgorithm();
+		for (GeoElementND var : vars) {
+			if (!(var instanceof GeoNumeric)) {
+				return null;
+			}
+			// other algos would need to be updated for each value
+			for (AlgoElement dependent : ((GeoElement) var)
+					.getAlgoUpdateSet()) {
+				if (dependent != algo) {
+					return null;
+				}
+			}
+		}
+		if (expression.getDrawAlgorithm() instanceof DrawInformationAlgo) {
+			return null;
+		}
+		Kernel kernel = expression.getKernel();
+		if (expression.getGeoClassType() == GeoClass.NUMERIC) {
+			ExpressionNode definition = null;
+			if (algo instanceof AlgoDependentNumber) {
+				definition = ((AlgoDependentNumber) algo).getExpression();
+			} else if (algo == null && contains(vars, expression)) {
+				definition = expression.wrap();
+			}
+			return definition == null ? null
+					: new BulkListEvaluator(
+							createFunction(kernel, definition, vars), null);
+		}
+		if (expression.getGeoClassType() == GeoClass.POINT
+				&& expression instanceof GeoPoint
+				&& ((GeoPoint) expression)
+						.getToStringMode() == Kernel.COORD_CARTESIAN
+				&& algo instanceof AlgoDependentPoint) {
+			ExpressionValue definition = ((AlgoDependentPoint) algo)
+					.getExpression().unwrap();
+			if (definition instanceof MyVecNode) {
+				MyVecNode vec = (MyVecNode) definition;
+				if (vec.getToStringMode() == Kernel.COORD_CARTESIAN
+						&& !vec.hasPolarCoords() && !vec.isCASVector()) {
+					return new BulkListEvaluator(
+							createFunction(kernel, vec.getX().wrap(), vars),
+							createFunction(kernel, vec.getY().wrap(), vars));
+				}
+			}
+		}
+		return null;
+	}
+
+	private static boolean contains(GeoElementND[] vars, GeoElementND geo) {
+		for (GeoElementND var : vars) {
+			if (var == geo) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private static FunctionNVar createFunction(Kernel kernel,
+			ExpressionNode definition, GeoElementND[] vars) {
+		FunctionVariable[] fVars = new FunctionVariable[vars.length];
+		ExpressionNode copy = definition.deepCopy(kernel);
+		for (int i = 0; i < vars.length; i++) {
+			String name = vars[i].getLabelSimple();
+			fVars[i] = new FunctionVariable(kernel,
+					name == null ? "x" + i : name);
+			copy = copy.replace(vars[i], fVars[i]).wrap();
+		}
+		return new FunctionNVar(copy, fVars);
+	}
+
+	/**
+	 * @return whether the expression is a point
+	 */
+	public boolean isPoints() {
+		return yFunction != null;
+	}
+
+	/**
+	 * Evaluates the expression for given values of the variables and stores
+	 * the results in a list.
+	 *
+	 * @param args
+	 *            values of the variables: for n variables the values for
+	 *            element i are args[n * i], ..., args[n * i + n - 1]
+	 * @param count
+	 *            number of elements
+	 * @param list
+	 *            output list
+	 */
+	public void evaluate(double[] args, int count, GeoList list) {
+		getBuffer(count);
+		if (isPoints() && ys.length != count) {
+			ys = new double[count];
+		}
+		xFunction.evaluate(args, xs, 0, count);
+		if (isPoints()) {
+			yFunction.evaluate(args, ys, 0, count);
+		}
+		setValues(list);
+	}
+
+	/**
+	 * Evaluates a numeric expression for one element.
+	 *
+	 * @param args
+	 *            values of the variables
+	 * @return value of the expression
+	 */
+	public double evaluate(double[] args) {
+		return xFunction.evaluate(args);
+	}
+
+	/**
+	 * @param size
+	 *            number of elements
+	 * @return buffer for the values of a numeric expression, reused while the
+	 *         size doesn't change; use {@link #setValues(GeoList)} to copy them
+	 *         to a list
+	 */
+	public double[] getBuffer(int size) {
+		if (xs.length != size) {
+			xs = new double[size];
+		}
+		return xs;
+	}
+
+	/**
+	 * Stores the computed values in a list.
+	 *
+	 * @param list
+	 *            output list
+	 */
+	public void setValues(GeoList list) {
+		if (isPoints()) {
+			list.setPoints(xs, ys);
+		} else {
+			list.setNumbers(xs);
+		}
+	}
+}
@@ -15,6 +15,7 @@
 import java.util.TreeSet;
 
 import org.geogebra.common.kernel.Construction;
+import org.geogebra.common.kernel.ConstructionList;
 import org.geogebra.common.kernel.GTemplate;
 import org.geogebra.common.kernel.Kernel;
 import org.geogebra.common.kernel.StringTemplate;
@@ -39,7 +40,10 @@
 	@Weak
 	public transient Kernel kernel;
 
-	private int constIndex = -1; // index in construction list
+	// index of an element that is not in the construction list
+	private int constIndex = -1;
+	private ConstructionList constructionList;
+	private int constructionSlot = -1;
 
 	private long ceID; // creation ID of this ConstructionElement, used for
 						// sorting
@@ -100,12 +104,15 @@ public final Kernel getKernel() {
 	 * @return construction index in current construction.
 	 */
 	public int getConstructionIndex() {
+		if (constructionList != null) {
+			return constructionList.getIndex(constructionSlot);
+		}
 		return constIndex;
 	}
 
 	/**
-	 * Sets construction index in current construction. This method should only
-	 * be called from Construction.
+	 * Sets construction index of an element that is not in the construction
+	 * list. This method should only be called from Construction.
 	 * 
 	 * @param index
 	 *            new construction index
@@ -114,6 +121,29 @@ public void setConstructionIndex(int index) {
 		constIndex = index;
 	}
 
+	/**
+	 * Sets the position in the construction list. This method should only be
+	 * called from ConstructionList.
+	 * 
+	 * @param list
+	 *            construction list, null if removed
+	 * @param slot
+	 *            slot in the list
+	 */
+	public void setConstructionSlot(ConstructionList list, int slot) {
+		constructionList = list;
+		constructionSlot = slot;
+	}
+
+	/**
+	 * @param list
+	 *            construction list
+	 * @return slot in given list, -1 if not contained
+	 */
+	public int getConstructionSlot(ConstructionList list) {
+		return constructionList == list ? constructionSlot : -1;
+	}
+
 	/**
 	 * Returns whether this construction element is in the construction list of
 	 * its construction.
@@ -121,7 +151,7 @@ public void setConstructionIndex(int index) {
 	 * @return true for elements in construction list
 	 */
 	final public boolean isInConstructionList() {
-		return constIndex > -1;
+		return constructionList != null || constIndex > -1;
 	}
 
 	/**
@@ -0,0 +1,537 @@
+package org.geogebra.common.kernel.arithmetic;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import org.geogebra.common.kernel.StringTemplate;
+import org.geogebra.common.kernel.geos.GeoDummyVariable;
+import org.geogebra.common.kernel.geos.GeoNumeric;
+import org.geogebra.common.plugin.Operation;
+import org.geogebra.common.util.MyMath;
+
+/**
+ * Real valued expression compiled to postfix code over a double stack, so that
+ * it can be evaluated repeatedly without allocating intermediate
+ * {@link MyDouble} objects.
+ *
+ * Evaluation gives the same result as {@link ExpressionNode#evaluateDouble()}
+ * on the source tree: operations that have a fast path in
+ * {@link ExpressionNode#evaluateDouble()} are compiled with the same double
+ * arithmetic, simple functions of numbers are compiled with the arithmetic of
+ * {@link MyDouble}, and all other subtrees are evaluated by the tree at
+ * runtime. Function variables and other leaves are read when the code runs, so
+ * the compiled expression stays valid when variables or free numbers change;
+ * structural changes of the tree are detected by {@link #isCompiledFrom}.
+ */
+public final class CompiledExpression {
+
+	private static final int LOAD = 0;
+	private static final int EVAL = 1;
+	private static final int EVAL_FULL = 2;
+	private static final int PLUS = 3;
+	private static final int MINUS = 4;
+	private static final int MULTIPLY = 5;
+	private static final int MULTIPLY_FAST = 6;
+	private static final int DIVIDE = 7;
+	private static final int POWER = 8;
+	private static final int POWER_FAST = 9;
+	private static final int SIN = 10;
+	private static final int SIN_FAST = 11;
+	private static final int COS = 12;
+	private static final int COS_FAST = 13;
+	private static final int TAN = 14;
+	private static final int SQRT = 15;
+	private static final int EXP = 16;
+	private static final int LOG = 17;
+	private static final int ABS = 18;
+	private static final int SINH = 19;
+	private static final int COSH = 20;
+	private static final int TANH = 21;
+
+	private final ExpressionNode root;
+	private final int[] code;
+	private final ExpressionValue[] values;
+	private final ExpressionNode[] nodes;
+	private final ExpressionValue[] lefts;
+	private final ExpressionValue[] rights;
+	private final Operation[] operations;
+	private final boolean[] leaves;
+	private final double[] stack;
+
+	private CompiledExpression(Compiler compiler) {
+		root = compiler.root;
+		code = Arrays.copyOf(compiler.code, compiler.codeLength);
+		values = compiler.values.toArray(new ExpressionValue[0]);
+		int n = compiler.nodes.size();
+		nodes = compiler.nodes.toArray(new ExpressionNode[0]);
+		lefts = new ExpressionValue[n];
+		rights = new ExpressionValue[n];
+		operations = new Operation[n];
+		leaves = new boolean[n];
+		for (int i = 0; i < n; i++) {
+			lefts[i] = nodes[i].getLeft();
+			rights[i] = nodes[i].getRight();
+			operations[i] = nodes[i].getOperation();
+			leaves[i] = nodes[i].isLeaf();
+		}
+		stack = new double[Math.max(compiler.maxDepth, 1)];
+	}
+
+	/**
+	 * @param expression
+	 *            expression
+	 * @return compiled expression
+	 */
+	public static CompiledExpression compile(ExpressionNode expression) {
+		Compiler compiler = new Compiler(expression);
+		compiler.compileFast(expression);
+		return new CompiledExpression(compiler);
+	}
+
+	/**
+	 * Checks that the expression was compiled from given tree and that the
+	 * compiled part of the tree was not modified since. Does not allocate.
+	 *
+	 * @param expression
+	 *            expression
+	 * @return whether this can be used to evaluate the expression
+	 */
+	public boolean isCompiledFrom(ExpressionNode expression) {
+		if (expression != root) {
+			return false;
+		}
+		for (int i = 0; i < nodes.length; i++) {
+			ExpressionNode node = nodes[i];
+			if (node.getLeft() != lefts[i] || node.getRight() != rights[i]
+					|| node.getOperation() != operations[i]
+					|| node.isLeaf() != leaves[i]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Evaluates the expression for current values of its variables, same as
+	 * {@link ExpressionNode#evaluateDouble()}. Not thread safe.
+	 *
+	 * @return value of the expression
+	 */
+	public double evaluate() {
+		final double[] s = stack;
+		int top = -1;
+		int pc = 0;
+		while (pc < code.length) {
+			switch (code[pc++]) {
+			case LOAD:
+				s[++top] = values[code[pc++]].evaluateDouble();
+				break;
+			case EVAL:
+				s[++top] = nodes[code[pc++]].evaluateDouble();
+				break;
+			case EVAL_FULL:
+				s[++top] = evaluateFull(nodes[code[pc++]]);
+				break;
+			case PLUS:
+				top--;
+				s[top] = s[top] + s[top + 1];
+				break;
+			case MINUS:
+				top--;
+				s[top] = s[top] - s[top + 1];
+				break;
+			case MULTIPLY:
+				top--;
+				s[top] = s[top] * s[top + 1];
+				break;
+			case MULTIPLY_FAST:
+				top--;
+				s[top] = multiplyFast(s[top], s[top + 1], code[pc++]);
+				break;
+			case DIVIDE:
+				top--;
+				s[top] = s[top] / s[top + 1];
+				break;
+			case POWER:
+				top--;
+				s[top] = power(s[top], s[top + 1], code[pc++]);
+				break;
+			case POWER_FAST:
+				top--;
+				s[top] = powerFast(s[top], s[top + 1], code[pc++]);
+				break;
+			case SIN:
+				s[top] = MyDouble.sin(s[top]);
+				break;
+			case SIN_FAST:
+				s[top] = Math.sin(s[top]);
+				break;
+			case COS:
+				s[top] = MyDouble.cos(s[top]);
+				break;
+			case COS_FAST:
+				s[top] = Math.cos(s[top]);
+				break;
+			case TAN:
+				s[top] = MyDouble.tan(s[top]);
+				break;
+			case SQRT:
+				s[top] = Math.sqrt(s[top]);
+				break;
+			case EXP:
+				s[top] = Math.exp(s[top]);
+				break;
+			case LOG:
+				s[top] = Math.log(s[top]);
+				break;
+			case ABS:
+				s[top] = Math.abs(s[top]);
+				break;
+			case SINH:
+				s[top] = MyMath.sinh(s[top]);
+				break;
+			case COSH:
+				s[top] = MyMath.cosh(s[top]);
+				break;
+			case TANH:
+				s[top] = MyMath.tanh(s[top]);
+				break;
+			default:
+				throw new IllegalStateException("unknown opcode");
+			}
+		}
+		return s[0];
+	}
+
+	/**
+	 * @return number of tree nodes evaluated by the tree at runtime
+	 */
+	public int getFallbackCount() {
+		int count = 0;
+		for (int pc = 0; pc < code.length; pc++) {
+			int op = code[pc];
+			if (op == EVAL || op == EVAL_FULL) {
+				count++;
+			}
+			if (hasArgument(op)) {
+				pc++;
+			}
+		}
+		return count;
+	}
+
+	private static boolean hasArgument(int op) {
+		return op == LOAD || op == EVAL || op == EVAL_FULL
+				|| op == MULTIPLY_FAST || op == POWER || op == POWER_FAST;
+	}
+
+	/**
+	 * Same as ExpressionNode.evaluateMultiplyDouble
+	 */
+	private double multiplyFast(double lt, double rt, int node) {
+		double result = lt * rt;
+		return Double.isNaN(result) ? evaluateFull(nodes[node]) : result;
+	}
+
+	/**
+	 * Same as ExpressionNode.evaluatePowerDouble, argument is index of the
+	 * exponent node for negative base or -1
+	 */
+	private double powerFast(double base, double exponent, int exponentNode) {
+		if (base < 0 && exponentNode >= 0) {
+			Double negPower = nodes[exponentNode].calculateNegPower(base);
+			if (negPower != null) {
+				return negPower;
+			}
+		}
+		return Math.pow(base, exponent);
+	}
+
+	/**
+	 * Same as ExpressionNodeEvaluator.handlePower for numbers
+	 */
+	private double power(double base, double exponent, int exponentNode) {
+		if (MyDouble.exactEqual(base, Math.E)) {
+			return Math.exp(exponent);
+		}
+		if (base < 0 && exponentNode >= 0) {
+			Double negPower = nodes[exponentNode].calculateNegPower(base);
+			if (negPower != null) {
+				return negPower;
+			}
+		}
+		return MyDouble.pow(base, exponent);
+	}
+
+	/**
+	 * Same as ValidExpression.evaluateDouble
+	 */
+	private static double evaluateFull(ExpressionNode node) {
+		ExpressionValue ev;
+		try {
+			ev = node.evaluate(StringTemplate.defaultTemplate);
+		} catch (Error | Exception e) {
+			return Double.NaN;
+		}
+		if (ev instanceof NumberValue) {
+			return ((NumberValue) ev).getDouble();
+		}
+		return Double.NaN;
+	}
+
+	/**
+	 * Translates expression trees to postfix code. Subtrees evaluated by
+	 * {@link ExpressionNode#evaluateDouble()} are compiled in fast mode,
+	 * subtrees evaluated by {@link ExpressionNodeEvaluator} in full mode.
+	 */
+	private static class Compiler {
+		private final ExpressionNode root;
+		private int[] code = new int[16];
+		private int codeLength = 0;
+		private final ArrayList<ExpressionValue> values = new ArrayList<>();
+		private final ArrayList<ExpressionNode> nodes = new ArrayList<>();
+		private int depth = 0;
+		private int maxDepth = 0;
+
+		protected Compiler(ExpressionNode root) {
+			this.root = root;
+		}
+
+		/**
+		 * Compiles an expression evaluated by evaluateDouble(), never fails.
+		 */
+		protected void compileFast(ExpressionValue ev) {
+			if (!(ev instanceof ExpressionNode)) {
+				emitLoad(ev);
+				return;
+			}
+			ExpressionNode node = (ExpressionNode) ev;
+			if (node.isLeaf()) {
+				addNode(node);
+				compileFast(node.getLeft());
+				return;
+			}
+			switch (node.getOperation()) {
+			case PLUS:
+				compileFastBinary(node, PLUS);
+				return;
+			case MINUS:
+				compileFastBinary(node, MINUS);
+				return;
+			case DIVIDE:
+				compileFastBinary(node, DIVIDE);
+				return;
+			case MULTIPLY:
+				emit(compileFastBinary(node, MULTIPLY_FAST));
+				return;
+			case POWER:
+				if (node.getLeft().evaluatesToNumber(false)) {
+					compileFastBinary(node, POWER_FAST);
+					emit(exponentNode(node));
+					return;
+				}
+				break;
+			case SIN:
+				compileFastUnary(node, SIN_FAST);
+				return;
+			case COS:
+				compileFastUnary(node, COS_FAST);
+				return;
+			case SQRT:
+				compileFastUnary(node, SQRT);
+				return;
+			default:
+				// full evaluation
+				int start = codeLength;
+				int nodeCount = nodes.size();
+				int valueCount = values.size();
+				int oldDepth = depth;
+				if (compileFull(node) != null) {
+					return;
+				}
+				rollback(start, nodeCount, valueCount, oldDepth);
+			}
+			emit(EVAL, addNode(node));
+		}
+
+		private void compileFastUnary(ExpressionNode node, int op) {
+			addNode(node);
+			compileFast(node.getLeft());
+			emit(op);
+		}
+
+		private int compileFastBinary(ExpressionNode node, int op) {
+			int index = addNode(node);
+			compileFast(node.getLeft());
+			compileFast(node.getRight());
+			emitBinary(op);
+			return index;
+		}
+
+		/**
+		 * Compiles expression evaluated by ExpressionNodeEvaluator, only
+		 * succeeds if the expression is known to be a number.
+		 *
+		 * @return whether the result may carry a decimal representation
+		 *         (see MyDouble.mult) or null if not compiled
+		 */
+		private Boolean compileFull(ExpressionValue ev) {
+			if (!(ev instanceof ExpressionNode)) {
+				return compileFullLeaf(ev);
+			}
+			ExpressionNode node = (ExpressionNode) ev;
+			if (node.isLeaf()) {
+				addNode(node);
+				return compileFull(node.getLeft());
+			}
+			switch (node.getOperation()) {
+			case PLUS:
+				return compileFullBinary(node, PLUS);
+			case MINUS:
+				return compileFullBinary(node, MINUS);
+			case DIVIDE:
+				return compileFullBinary(node, DIVIDE);
+			case MULTIPLY:
+				return compileFullMultiply(node);
+			case POWER:
+				return compileFullPower(node);
+			case SIN:
+				return compileFullUnary(node, SIN);
+			case COS:
+				return compileFullUnary(node, COS);
+			case TAN:
+				return compileFullUnary(node, TAN);
+			case SQRT:
+				return compileFullUnary(node, SQRT);
+			case EXP:
+				return compileFullUnary(node, EXP);
+			case LOG:
+				return compileFullUnary(node, LOG);
+			case ABS:
+				return compileFullUnary(node, ABS);
+			case SINH:
+				return compileFullUnary(node, SINH);
+			case COSH:
+				return compileFullUnary(node, COSH);
+			case TANH:
+				return compileFullUnary(node, TANH);
+			default:
+				return null;
+			}
+		}
+
+		private Boolean compileFullLeaf(ExpressionValue ev) {
+			if (ev instanceof MyDouble) {
+				emitLoad(ev);
+				return ev instanceof MySpecialDouble;
+			}
+			if (ev instanceof GeoNumeric && !(ev instanceof GeoDummyVariable)) {
+				emitLoad(ev);
+				return Boolean.TRUE;
+			}
+			return null;
+		}
+
+		private Boolean compileFullUnary(ExpressionNode node, int op) {
+			addNode(node);
+			Boolean decimal = compileFull(node.getLeft());
+			if (decimal != null) {
+				emit(op);
+			}
+			return decimal;
+		}
+
+		private Boolean compileFullBinary(ExpressionNode node, int op) {
+			addNode(node);
+			Boolean decimalLeft = compileFull(node.getLeft());
+			if (decimalLeft == null || compileFull(node.getRight()) == null) {
+				return null;
+			}
+			emitBinary(op);
+			return decimalLeft;
+		}
+
+		private Boolean compileFullMultiply(ExpressionNode node) {
+			int start = codeLength;
+			int nodeCount = nodes.size();
+			int valueCount = values.size();
+			int oldDepth = depth;
+			addNode(node);
+			Boolean decimalLeft = compileFull(node.getLeft());
+			Boolean decimalRight = decimalLeft == null ? null
+					: compileFull(node.getRight());
+			if (decimalRight == null) {
+				return null;
+			}
+			if (decimalLeft && decimalRight) {
+				// product may be computed with BigDecimal, let the tree do it
+				rollback(start, nodeCount, valueCount, oldDepth);
+				emit(EVAL_FULL, addNode(node));
+				return Boolean.TRUE;
+			}
+			emitBinary(MULTIPLY);
+			return decimalLeft;
+		}
+
+		private Boolean compileFullPower(ExpressionNode node) {
+			addNode(node);
+			Boolean decimalLeft = compileFull(node.getLeft());
+			Boolean decimalRight = decimalLeft == null ? null
+					: compileFull(node.getRight());
+			if (decimalRight == null) {
+				return null;
+			}
+			emitBinary(POWER);
+			emit(exponentNode(node));
+			return decimalLeft || decimalRight;
+		}
+
+		private int exponentNode(ExpressionNode node) {
+			if (node.getRight() instanceof ExpressionNode) {
+				return addNode((ExpressionNode) node.getRight());
+			}
+			return -1;
+		}
+
+		private int addNode(ExpressionNode node) {
+			nodes.add(node);
+			return nodes.size() - 1;
+		}
+
+		private void emitLoad(ExpressionValue ev) {
+			values.add(ev);
+			emit(LOAD, values.size() - 1);
+		}
+
+		private void emitBinary(int op) {
+			emit(op);
+			depth--;
+		}
+
+		private void emit(int op, int argument) {
+			emit(op);
+			emit(argument);
+			depth++;
+			maxDepth = Math.max(depth, maxDepth);
+		}
+
+		private void emit(int value) {
+			if (codeLength == code.length) {
+				code = Arrays.copyOf(code, 2 * codeLength);
+			}
+			code[codeLength++] = value;
+		}
+
+		private void rollback(int start, int nodeCount, int valueCount,
+				int oldDepth) {
+			codeLength = start;
+			depth = oldDepth;
+			while (nodes.size() > nodeCount) {
+				nodes.remove(nodes.size() - 1);
+			}
+			while (values.size() > valueCount) {
+				values.remove(values.size() - 1);
+			}
+		}
+	}
+}
@@ -14,4 +14,23 @@ public interface Evaluatable {
 	 */
 	public double value(double x);
 
+	/**
+	 * Evaluates this function/expression at xs[from], ..., xs[to - 1] and
+	 * stores the results in out at the same positions.
+	 * 
+	 * @param xs
+	 *            positions
+	 * @param out
+	 *            output array, may be the same as xs
+	 * @param from
+	 *            first index (inclusive)
+	 * @param to
+	 *            last index (exclusive)
+	 */
+	default void evaluate(double[] xs, double[] out, int from, int to) {
+		for (int i = from; i < to; i++) {
+			out[i] = value(xs[i]);
+		}
+	}
+
 }
@@ -20,6 +20,7 @@
 
 import org.apache.commons.math3.analysis.DifferentiableUnivariateFunction;
 import org.apache.commons.math3.analysis.UnivariateFunction;
+import org.geogebra.common.kernel.Construction;
 import org.geogebra.common.kernel.Kernel;
 import org.geogebra.common.kernel.StringTemplate;
 import org.geogebra.common.kernel.arithmetic.Traversing.VariableReplacer;
@@ -215,10 +216,51 @@ public double value(double x) {
 		}
 		// NumberValue
 		fVars[0].set(x);
-		return expression.evaluateDouble();
+		return evaluateExpressionDouble();
 
 	}
 
+	/**
+	 * Evaluates this function at xs[from], ..., xs[to - 1] and stores the
+	 * results in out at the same positions. Gives the same values as
+	 * {@link #value(double)}, but compiles the expression only once. Large
+	 * arrays are split among the threads of the construction's
+	 * {@link Construction#getParallelUpdateExecutor() executor} if the
+	 * expression only depends on x and free numbers. Subclasses that override
+	 * {@link #value(double)} are evaluated point by point.
+	 * 
+	 * @param xs
+	 *            positions
+	 * @param out
+	 *            output array, may be the same as xs
+	 * @param from
+	 *            first index (inclusive)
+	 * @param to
+	 *            last index (exclusive)
+	 */
+	@Override
+	public void evaluate(double[] xs, double[] out, int from, int to) {
+		// subclasses may compute the value without the expression
+		if (isBooleanFunction || getClass() != Function.class
+				|| to - from < COMPILE_THRESHOLD) {
+			for (int i = from; i < to; i++) {
+				out[i] = value(xs[i]);
+			}
+			return;
+		}
+		if (kernel != null && ParallelFunctionEvaluator.evaluate(this,
+				kernel.getConstruction().getParallelUpdateExecutor(), xs, out,
+				from, to)) {
+			return;
+		}
+		FunctionVariable fVar = fVars[0];
+		CompiledExpression compiled = getCompiledExpression();
+		for (int i = from; i < to; i++) {
+			fVar.set(xs[i]);
+			out[i] = compiled.evaluate();
+		}
+	}
+
 	/**
 	 * Returns this function's value at position x. (Note: use this method if
 	 * isBooleanFunction() returns true.
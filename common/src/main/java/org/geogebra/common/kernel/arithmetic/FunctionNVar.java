@@ -17,6 +17,7 @@
 import java.util.TreeMap;
 import java.util.TreeSet;
 
+import org.geogebra.common.kernel.Construction;
 import org.geogebra.common.kernel.ConstructionDefaults;
 import org.geogebra.common.kernel.Kernel;
 import org.geogebra.common.kernel.StringTemplate;
@@ -74,18 +75,11 @@ public class FunctionNVar extends ValidExpression
 	private String casEvalStringSymbolic;
 
 	private boolean forceInequality;
-
-	private final static class RandomCheck implements Inspecting {
-		protected RandomCheck() {
-			// make this visible
-		}
-
-		@Override
-		public boolean check(ExpressionValue v) {
-			return (v.isGeoElement() && ((GeoElement) v).isRandomGeo())
-					|| v.isOperation(Operation.RANDOM);
-		}
-	}
+	/** number of evaluations after which the expression is compiled */
+	protected static final int COMPILE_THRESHOLD = 8;
+	private CompiledExpression compiledExpression;
+	private ExpressionNode evaluatedExpression;
+	private int evaluationCount;
 
 	/**
 	 * Creates new Function from expression. Note: call initFunction() after
@@ -141,6 +135,7 @@ public void set(FunctionNVar fn) {
 		this.isBooleanFunction = fn.isBooleanFunction;
 		this.isConstantFunction = fn.isConstantFunction;
 		this.ineqs = fn.ineqs;
+		resetCompiledExpression();
 	}
 
 	/**
@@ -226,6 +221,7 @@ public void replaceChildrenByValues(GeoElement geo) {
 	 */
 	public void setExpression(ExpressionNode exp) {
 		expression = exp;
+		resetCompiledExpression();
 	}
 
 	/**
@@ -239,6 +235,7 @@ public void setExpression(ExpressionNode exp) {
 	public void setExpression(ExpressionNode exp, FunctionVariable[] vars) {
 		expression = exp;
 		fVars = vars;
+		resetCompiledExpression();
 	}
 
 	@Override
@@ -498,7 +495,49 @@ final public double evaluate(double[] vals) {
 				fVars[i].set(vals[i]);
 			}
 		}
-		return expression.evaluateDouble();
+		return evaluateExpressionDouble();
+	}
+
+	/**
+	 * Evaluates this function at several points and stores the results in
+	 * out[from], ..., out[to - 1]. For a function of n variables the
+	 * coordinates of point i are xs[n * i], ..., xs[n * i + n - 1]. Gives the
+	 * same values as {@link #evaluate(double[])}, but compiles the expression
+	 * only once. Large arrays are split among the threads of the
+	 * construction's {@link Construction#getParallelUpdateExecutor() executor}
+	 * if the expression only depends on the variables and free numbers.
+	 *
+	 * @param xs
+	 *            coordinates of the points
+	 * @param out
+	 *            output array
+	 * @param from
+	 *            first point (inclusive)
+	 * @param to
+	 *            last point (exclusive)
+	 */
+	public void evaluate(double[] xs, double[] out, int from, int to) {
+		int n = fVars == null ? 0 : fVars.length;
+		if (isBooleanFunction || n == 0 || to - from < COMPILE_THRESHOLD) {
+			double[] vals = new double[n];
+			for (int i = from; i < to; i++) {
+				System.arraycopy(xs, n * i, vals, 0, n);
+				out[i] = evaluate(vals);
+			}
+			return;
+		}
+		if (kernel != null && ParallelFunctionEvaluator.evaluate(this,
+				kernel.getConstruction().getParallelUpdateExecutor(), xs, out,
+				from, to)) {
+			return;
+		}
+		CompiledExpression compiled = getCompiledExpression();
+		for (int i = from; i < to; i++) {
+			for (int j = 0; j < n; j++) {
+				fVars[j].set(xs[n * i + j]);
+			}
+			out[i] = compiled.evaluate();
+		}
 	}
 
 	@Override
@@ -512,9 +551,61 @@ final public double evaluate(double x, double y) {
 		fVars[0].set(x);
 		fVars[1].set(y);
 
+		return evaluateExpressionDouble();
+	}
+
+	/**
+	 * Evaluates the expression for current values of function variables. Once
+	 * the same expression was evaluated a few times, it is compiled (see
+	 * {@link CompiledExpression}) and the compiled code is used until the
+	 * expression changes.
+	 * 
+	 * @return value of the expression, same as expression.evaluateDouble()
+	 */
+	protected final double evaluateExpressionDouble() {
+		CompiledExpression compiled = compiledExpression;
+		if (compiled != null) {
+			if (compiled.isCompiledFrom(expression)) {
+				return compiled.evaluate();
+			}
+			compiledExpression = null;
+			evaluationCount = 0;
+		}
+		if (evaluatedExpression != expression) {
+			evaluatedExpression = expression;
+			evaluationCount = 0;
+		}
+		if (++evaluationCount >= COMPILE_THRESHOLD) {
+			compiledExpression = CompiledExpression.compile(expression);
+			return compiledExpression.evaluate();
+		}
 		return expression.evaluateDouble();
 	}
 
+	/**
+	 * Compiles the expression unless the compiled code is up to date. Use
+	 * this when the function is evaluated at many points at once.
+	 * 
+	 * @return compiled expression
+	 */
+	protected final CompiledExpression getCompiledExpression() {
+		if (compiledExpression == null
+				|| !compiledExpression.isCompiledFrom(expression)) {
+			compiledExpression = CompiledExpression.compile(expression);
+			evaluatedExpression = expression;
+		}
+		return compiledExpression;
+	}
+
+	/**
+	 * Drops compiled code of the expression.
+	 */
+	protected void resetCompiledExpression() {
+		compiledExpression = null;
+		evaluatedExpression = null;
+		evaluationCount = 0;
+	}
+
 	/**
 	 * Returns this function's value at position vals. (Note: use this method if
 	 * isBooleanFunction() returns true.
@@ -619,7 +710,7 @@ final public FunctionNVar evalCasCommand(String ggbCasCmd, boolean symb,
 			// changed
 
 			useCaching = !expression.containsCasEvaluableFunction()
-					&& !expression.inspect(new RandomCheck());
+					&& !expression.inspect(Inspecting.RandomFinder.INSTANCE);
 
 		}
 
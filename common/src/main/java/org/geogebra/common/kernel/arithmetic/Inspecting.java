@@ -44,6 +44,17 @@ public boolean check(ExpressionValue v) {
 
 	}
 
+	/** Checks presence of random numbers */
+	public enum RandomFinder implements Inspecting {
+		/** singleton instance */
+		INSTANCE;
+		@Override
+		public boolean check(ExpressionValue v) {
+			return (v.isGeoElement() && ((GeoElement) v).isRandomGeo())
+					|| v.isOperation(Operation.RANDOM);
+		}
+	}
+
 	/** Checks presence of Commands */
 	public enum CommandFinder implements Inspecting {
 		/** singleton instance */
@@ -364,34 +364,51 @@ final public static void powDoubleSgnChange(MyDouble a, MyDouble b,
 	 * @return cos(this)
 	 */
 	final public MyDouble cos() {
-		set(Math.cos(val));
+		set(cos(val));
 		angleDim = 0;
-		checkZero();
 		return this;
 	}
 
+	/**
+	 * Cosine rounded to zero, see {@link #cos()}
+	 * 
+	 * @param x
+	 *            argument
+	 * @return cos(x)
+	 */
+	static double cos(double x) {
+		return checkZero(Math.cos(x));
+	}
+
 	/**
 	 * @return sin(this)
 	 */
 	final public MyDouble sin() {
-		boolean large = Math.abs(val) > 0.1;
-
-		set(Math.sin(val));
+		set(sin(val));
 		angleDim = 0;
+		return this;
+	}
+
+	/**
+	 * Sine rounded to zero for large arguments, see {@link #sin()}
+	 * 
+	 * @param x
+	 *            argument
+	 * @return sin(x)
+	 */
+	static double sin(double x) {
 		// don't want this for eg sin(1.23*10^-9) but we do for eg sin(10pi)
-		if (large) {
-			checkZero();
+		if (Math.abs(x) > 0.1) {
+			return checkZero(Math.sin(x));
 		}
-		return this;
+		return Math.sin(x);
 	}
 
 	/*
 	 * make sure cos(2790 deg) gives zero
 	 */
-	private void checkZero() {
-		if (DoubleUtil.isZero(val)) {
-			set(0);
-		}
+	private static double checkZero(double x) {
+		return DoubleUtil.isZero(x) ? 0 : x;
 	}
 
 	/**
@@ -400,21 +417,29 @@ private void checkZero() {
 	 * @return tangens of value
 	 */
 	final public MyDouble tan() {
-		boolean large = Math.abs(val) > 0.1;
+		set(tan(val));
+		angleDim = 0;
+		return this;
+	}
 
+	/**
+	 * Tangent, undefined in odd multiples of pi/2, see {@link #tan()}
+	 * 
+	 * @param x
+	 *            argument
+	 * @return tan(x)
+	 */
+	static double tan(double x) {
 		// Math.tan() gives a very large number for tan(pi/2)
 		// but should be undefined for pi/2, 3pi/2, 5pi/2, etc.
-		if (DoubleUtil.isEqual(Math.abs(val) % Math.PI, Kernel.PI_HALF)) {
-			set(Double.NaN);
-		} else {
-			set(Math.tan(val));
-			// don't want this for eg tan(1.23*10^-9) but we do for eg tan(10pi)
-			if (large) {
-				checkZero();
-			}
+		if (DoubleUtil.isEqual(Math.abs(x) % Math.PI, Kernel.PI_HALF)) {
+			return Double.NaN;
 		}
-		angleDim = 0;
-		return this;
+		// don't want this for eg tan(1.23*10^-9) but we do for eg tan(10pi)
+		if (Math.abs(x) > 0.1) {
+			return checkZero(Math.tan(x));
+		}
+		return Math.tan(x);
 	}
 
 	/**
@@ -0,0 +1,142 @@
+package org.geogebra.common.kernel.arithmetic;
+
+import java.util.ArrayList;
+
+import org.geogebra.common.kernel.Kernel;
+import org.geogebra.common.kernel.ParallelUpdateExecutor;
+import org.geogebra.common.kernel.geos.GeoDummyVariable;
+import org.geogebra.common.kernel.geos.GeoElement;
+import org.geogebra.common.kernel.geos.GeoNumeric;
+import org.geogebra.common.plugin.Operation;
+
+/**
+ * Evaluates a function at many points using several threads.
+ * <p>
+ * Evaluation sets the values of the function variables, so every task works on
+ * its own copy of the expression with its own variables. Free numbers in the
+ * expression are shared, they are only read. Expressions containing other
+ * elements (functions, points, lists), commands or random numbers are
+ * evaluated on the calling thread, as are expressions whose compiled code
+ * falls back to the expression tree.
+ */
+final class ParallelFunctionEvaluator {
+
+	/** minimal number of points to use more than one thread */
+	static final int MIN_PARALLEL_POINTS = 4096;
+	private static final int MIN_TASK_SIZE = 1024;
+	private static final int MAX_TASKS = 16;
+
+	private ParallelFunctionEvaluator() {
+		// utility class
+	}
+
+	/**
+	 * @param function
+	 *            function
+	 * @param executor
+	 *            executor, may be null
+	 * @param xs
+	 *            coordinates of the points, n consecutive values per point for
+	 *            a function of n variables
+	 * @param out
+	 *            output array
+	 * @param from
+	 *            first index (inclusive)
+	 * @param to
+	 *            last index (exclusive)
+	 * @return whether the values were computed; false if the caller needs to
+	 *         evaluate the function itself
+	 */
+	static boolean evaluate(FunctionNVar function,
+			ParallelUpdateExecutor executor, double[] xs, double[] out,
+			int from, int to) {
+		if (executor == null || to - from < MIN_PARALLEL_POINTS
+				|| !isThreadSafe(function)) {
+			return false;
+		}
+		int taskSize = Math.max(MIN_TASK_SIZE,
+				(to - from + MAX_TASKS - 1) / MAX_TASKS);
+		ArrayList<Runnable> tasks = new ArrayList<>();
+		for (int start = from; start < to; start += taskSize) {
+			EvaluationTask task = new EvaluationTask(function, xs, out, start,
+					Math.min(start + taskSize, to));
+			if (task.compiled.getFallbackCount() > 0) {
+				return false;
+			}
+			tasks.add(task);
+		}
+		executor.runAll(tasks);
+		return true;
+	}
+
+	private static boolean isThreadSafe(FunctionNVar function) {
+		final FunctionVariable[] fVars = function.getFunctionVariables();
+		if (fVars == null) {
+			return false;
+		}
+		return !function.getExpression().inspect(v -> v instanceof Command
+				|| v.isOperation(Operation.RANDOM)
+				|| (v instanceof FunctionVariable && !contains(fVars, v))
+				|| (v.isGeoElement() && !isFreeNumber((GeoElement) v)));
+	}
+
+	private static boolean contains(FunctionVariable[] fVars,
+			ExpressionValue v) {
+		for (FunctionVariable fVar : fVars) {
+			if (fVar == v) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private static boolean isFreeNumber(GeoElement geo) {
+		return geo instanceof GeoNumeric && !(geo instanceof GeoDummyVariable)
+				&& !geo.isRandomGeo();
+	}
+
+	/**
+	 * Evaluates a copy of the function for a range of points.
+	 */
+	private static class EvaluationTask implements Runnable {
+		private final FunctionVariable[] fVars;
+		private final CompiledExpression compiled;
+		private final double[] xs;
+		private final double[] out;
+		private final int from;
+		private final int to;
+
+		/**
+		 * Copies and compiles the expression, has to run on the calling
+		 * thread.
+		 */
+		EvaluationTask(FunctionNVar function, double[] xs, double[] out,
+				int from, int to) {
+			Kernel kernel = function.getKernel();
+			FunctionVariable[] originals = function.getFunctionVariables();
+			fVars = new FunctionVariable[originals.length];
+			ExpressionNode copy = function.getExpression().deepCopy(kernel);
+			for (int i = 0; i < originals.length; i++) {
+				fVars[i] = new FunctionVariable(kernel,
+						originals[i].getSetVarString());
+				copy = copy.replace(originals[i], fVars[i]).wrap();
+			}
+			compiled = CompiledExpression.compile(copy);
+			this.xs = xs;
+			this.out = out;
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		public void run() {
+			int n = fVars.length;
+			for (int i = from; i < to; i++) {
+				for (int j = 0; j < n; j++) {
+					fVars[j].set(xs[n * i + j]);
+				}
+				out[i] = compiled.evaluate();
+			}
+		}
+	}
+}
@@ -3299,43 +3299,16 @@ private GeoElement[] processList(ExpressionNode n, MyList evalList,
 		// no operations or no variables are present, e.g.
 		// { a, b, 7 } or { 2, 3, 5 } + {1, 2, 4}
 		if (!n.hasOperations() || n.isConstant()) {
-
-			// PROCESS list items to generate a list of geoElements
-			ArrayList<GeoElement> geoElements = new ArrayList<>();
-			boolean isIndependent = true;
-
-			// make sure we don't create any labels for the list elements
-			boolean oldMacroMode = cons.isSuppressLabelsActive();
-			cons.setSuppressLabelCreation(true);
-
-			int size = evalList.size();
-			for (int i = 0; i < size; i++) {
-				ExpressionNode en = evalList.getListElement(i).wrap();
-				// we only take one resulting object
-				GeoElement[] results = processExpressionNode(en,
-						new EvalInfo(false));
-				GeoElement geo = results[0];
-				if ((info.isForceUserEquation()
-						|| !app.getSettings().getCasSettings().isEnabled())
-						&& Equation.isAlgebraEquation(geo)) {
-					((EquationValue) geo).setToUser();
-				}
-				// add to list
-				geoElements.add(geo);
-				if (geo.isLabelSet() || geo.isLocalVariable()
-						|| !geo.isIndependent()) {
-					isIndependent = false;
-				}
+			ret = packedList(evalList);
+			if (ret != null) {
+				ret.setLabel(label);
+			} else {
+				ret = processListElements(label, evalList, info);
 			}
-			cons.setSuppressLabelCreation(oldMacroMode);
-
-			// Create GeoList object
-			ret = kernel.getAlgoDispatcher().list(label, geoElements,
-					isIndependent);
 			if (info.isSymbolic()) {
 				((HasSymbolicMode) ret).initSymbolicMode();
 			}
-			if (!evalList.isDefined() || (isIndependent && ret.isUndefinedMatrix())) {
+			if (!evalList.isDefined() || (ret.isIndependent() && ret.isUndefinedMatrix())) {
 				ret.setUndefined();
 				ret.updateRepaint();
 			}
@@ -3352,6 +3325,96 @@ private GeoElement[] processList(ExpressionNode n, MyList evalList,
 		return array(ret);
 	}
 
+	private GeoList processListElements(String label, MyList evalList,
+			EvalInfo info) {
+		// PROCESS list items to generate a list of geoElements
+		ArrayList<GeoElement> geoElements = new ArrayList<>();
+		boolean isIndependent = true;
+
+		// make sure we don't create any labels for the list elements
+		boolean oldMacroMode = cons.isSuppressLabelsActive();
+		cons.setSuppressLabelCreation(true);
+
+		int size = evalList.size();
+		for (int i = 0; i < size; i++) {
+			ExpressionNode en = evalList.getListElement(i).wrap();
+			// we only take one resulting object
+			GeoElement[] results = processExpressionNode(en,
+					new EvalInfo(false));
+			GeoElement geo = results[0];
+			if ((info.isForceUserEquation()
+					|| !app.getSettings().getCasSettings().isEnabled())
+					&& Equation.isAlgebraEquation(geo)) {
+				((EquationValue) geo).setToUser();
+			}
+			// add to list
+			geoElements.add(geo);
+			if (geo.isLabelSet() || geo.isLocalVariable()
+					|| !geo.isIndependent()) {
+				isIndependent = false;
+			}
+		}
+		cons.setSuppressLabelCreation(oldMacroMode);
+
+		// Create GeoList object
+		return kernel.getAlgoDispatcher().list(label, geoElements,
+				isIndependent);
+	}
+
+	/**
+	 * Large lists of plain numbers or points don't need a GeoElement for
+	 * each element, see {@link GeoList#setNumbers(double[])}.
+	 *
+	 * @param evalList
+	 *            evaluated list
+	 * @return list with values of the elements, null if the list is too small
+	 *         or contains anything else
+	 */
+	private GeoList packedList(MyList evalList) {
+		int size = evalList.size();
+		if (size < GeoList.MIN_PACKED_SIZE) {
+			return null;
+		}
+		double[] xs = new double[size];
+		double[] ys = evalList.getListElement(0).unwrap() instanceof MyVecNode
+				? new double[size] : null;
+		for (int i = 0; i < size; i++) {
+			ExpressionValue element = evalList.getListElement(i).unwrap();
+			if (ys == null && isPlainNumber(element)) {
+				xs[i] = element.evaluateDouble();
+			} else if (ys != null && isPlainPoint(element)) {
+				xs[i] = ((MyVecNode) element).getX().evaluateDouble();
+				ys[i] = ((MyVecNode) element).getY().evaluateDouble();
+			} else {
+				return null;
+			}
+		}
+		GeoList list = new GeoList(cons);
+		if (ys == null) {
+			list.setNumbers(xs);
+		} else {
+			list.setPoints(xs, ys);
+		}
+		return list;
+	}
+
+	private static boolean isPlainNumber(ExpressionValue value) {
+		return value instanceof MyDouble && !(value instanceof MySpecialDouble)
+				&& !((MyDouble) value).isAngle();
+	}
+
+	private static boolean isPlainPoint(ExpressionValue value) {
+		if (!(value instanceof MyVecNode)) {
+			return false;
+		}
+		MyVecNode vec = (MyVecNode) value;
+		return vec.getToStringMode() == Kernel.COORD_CARTESIAN
+				&& !vec.hasPolarCoords() && !vec.isCASVector()
+				&& !vec.evaluatesToVectorNotPoint()
+				&& isPlainNumber(vec.getX().unwrap())
+				&& isPlainNumber(vec.getY().unwrap());
+	}
+
 	/**
 	 * Creates a dependent list object with the given label, e.g. {3, 2, 1} +
 	 * {a, b, 2}
@@ -67,7 +67,7 @@ public final void compute() {
 				}
 			}
 
-			DelaunayTriangulation dt = new DelaunayTriangulation(points);
+			DelaunayTriangulation dt = getTriangulation(points);
 
 			if (dt.allCollinear) {
 				locus.setUndefined();
@@ -18,6 +18,8 @@
 import org.geogebra.common.kernel.GraphAlgo;
 import org.geogebra.common.kernel.MyPoint;
 import org.geogebra.common.kernel.algos.AlgoElement;
+import org.geogebra.common.kernel.discrete.delaunay.DelaunayTriangulation;
+import org.geogebra.common.kernel.discrete.delaunay.PointDt;
 import org.geogebra.common.kernel.geos.GeoElement;
 import org.geogebra.common.kernel.geos.GeoList;
 import org.geogebra.common.kernel.geos.GeoLocus;
@@ -36,6 +38,8 @@ public abstract class AlgoDiscrete extends AlgoElement implements GraphAlgo {
 	protected ArrayList<MyPoint> al;
 	/** number of points */
 	protected int size;
+	/** triangulation of the last computation */
+	private DelaunayTriangulation triangulation;
 
 	/**
 	 * @param cons
@@ -65,6 +69,30 @@ protected void setInputOutput() {
 		setDependencies(); // done by AlgoElement
 	}
 
+	/**
+	 * Returns the Delaunay triangulation of the points. The triangulation of
+	 * the previous call is updated if only some of the points changed (e.g.
+	 * when one of them is dragged).
+	 * 
+	 * @param points
+	 *            points, null entries are ignored
+	 * @return triangulation of the points
+	 */
+	protected DelaunayTriangulation getTriangulation(PointDt[] points) {
+		if (triangulation == null || !triangulation.update(points)) {
+			int n = 0;
+			PointDt[] nonNull = new PointDt[points.length];
+			for (PointDt p : points) {
+				if (p != null) {
+					nonNull[n++] = p;
+				}
+			}
+			// the constructor stops at the first null entry
+			triangulation = new DelaunayTriangulation(nonNull);
+		}
+		return triangulation;
+	}
+
 	/**
 	 * @return locus
 	 */
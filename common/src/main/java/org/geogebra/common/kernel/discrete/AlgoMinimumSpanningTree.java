@@ -1,39 +1,29 @@
 package org.geogebra.common.kernel.discrete;
 
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.Iterator;
+import java.util.TreeMap;
 
-import org.apache.commons.collections15.Transformer;
 import org.geogebra.common.kernel.Construction;
 import org.geogebra.common.kernel.MyPoint;
 import org.geogebra.common.kernel.SegmentType;
 import org.geogebra.common.kernel.commands.Commands;
+import org.geogebra.common.kernel.discrete.delaunay.DelaunayTriangulation;
+import org.geogebra.common.kernel.discrete.delaunay.PointDt;
+import org.geogebra.common.kernel.discrete.delaunay.TriangleDt;
+import org.geogebra.common.kernel.geos.GeoElement;
 import org.geogebra.common.kernel.geos.GeoList;
 import org.geogebra.common.kernel.kernelND.GeoPointND;
 import org.geogebra.common.kernel.matrix.Coords;
 
-import edu.uci.ics.jung.algorithms.shortestpath.MinimumSpanningForest2;
-import edu.uci.ics.jung.graph.DelegateForest;
-import edu.uci.ics.jung.graph.DelegateTree;
-import edu.uci.ics.jung.graph.Forest;
-import edu.uci.ics.jung.graph.UndirectedSparseMultigraph;
-import edu.uci.ics.jung.graph.util.EdgeType;
-
 /**
  * Minimum spanning tree algo
  */
 public class AlgoMinimumSpanningTree extends AlgoDiscrete {
 
-	/** number of edges */
-	protected int edgeCount;
-
-	private static Transformer<MyLink, Double> wtTransformer = new Transformer<MyLink, Double>() {
-		@Override
-		public Double transform(MyLink link) {
-			return link.weight;
-		}
-	};
+	private final WeightedGraph graph = new WeightedGraph();
+	/** graph vertices */
+	private final ArrayList<GeoPointND> vertices = new ArrayList<>();
 
 	/**
 	 * @param cons
@@ -62,99 +52,88 @@ public final void compute() {
 			return;
 		}
 
-		edgeCount = 0;
-
-		HashMap<GeoPointND, MyNode> nodes = new HashMap<>();
-		MyNode node1, node2;
-		UndirectedSparseMultigraph<MyNode, MyLink> g = new UndirectedSparseMultigraph<>();
-
-		for (int i = 0; i < size - 1; i++) {
-			GeoPointND p1 = (GeoPointND) inputList.get(i);
-			for (int j = i + 1; j < size; j++) {
-				GeoPointND p2 = (GeoPointND) inputList.get(j);
-
-				node1 = nodes.get(p1);
-				node2 = nodes.get(p2);
-				if (node1 == null) {
-					node1 = new MyNode(p1);
-					nodes.put(p1, node1);
-				}
-				if (node2 == null) {
-					node2 = new MyNode(p2);
-					nodes.put(p2, node2);
+		vertices.clear();
+		ArrayList<PointDt> positions = new ArrayList<>();
+		// vertices by position, duplicate points are ignored
+		TreeMap<PointDt, Integer> verticesByPoint = new TreeMap<>(
+				PointDt.getComparator());
+		double[] inhom = new double[2];
+		for (int i = 0; i < size; i++) {
+			GeoElement geo = inputList.get(i);
+			if (geo.isDefined() && geo.isGeoPoint()) {
+				GeoPointND p = (GeoPointND) geo;
+				p.getInhomCoords(inhom);
+				PointDt point = new PointDt(inhom[0], inhom[1]);
+				if (!verticesByPoint.containsKey(point)) {
+					verticesByPoint.put(point, vertices.size());
 				}
-
-				g.addEdge(
-						new MyLink(p1.distance(p2), node1, node2, edgeCount++),
-						node1,
-						node2, EdgeType.UNDIRECTED);
-
+				vertices.add(p);
+				positions.add(point);
 			}
+		}
 
-			MinimumSpanningForest2<MyNode, MyLink> prim = new MinimumSpanningForest2<>(
-					g, new DelegateForest<MyNode, MyLink>(),
-					DelegateTree.<MyNode, MyLink> getFactory(), wtTransformer);
-
-			Forest<MyNode, MyLink> tree = prim.getForest();
-
-			Iterator<MyLink> it = tree.getEdges().iterator();
+		graph.clear(vertices.size());
 
-			if (al == null) {
-				al = new ArrayList<>();
-			} else {
-				al.clear();
-			}
+		DelaunayTriangulation dt = null;
+		if (verticesByPoint.size() > 2) {
+			dt = getTriangulation(
+					positions.toArray(new PointDt[positions.size()]));
+		}
 
+		if (dt != null && !dt.allCollinear) {
+			// the minimum spanning tree is a subgraph of the Delaunay
+			// triangulation, so only its edges are needed
+			Iterator<TriangleDt> it = dt.trianglesIterator();
 			while (it.hasNext()) {
-				MyLink edge = it.next();
-
-				Coords coords = edge.n1.id.getInhomCoordsInD2();
-				al.add(new MyPoint(coords.get(1), coords.get(2),
-						SegmentType.MOVE_TO));
-				coords = edge.n2.id.getInhomCoordsInD2();
-				al.add(new MyPoint(coords.get(1), coords.get(2),
-						SegmentType.LINE_TO));
-
+				TriangleDt triangle = it.next();
+				if (!triangle.isHalfplane()) {
+					addEdge(verticesByPoint.get(triangle.p1()),
+							verticesByPoint.get(triangle.p2()));
+					addEdge(verticesByPoint.get(triangle.p2()),
+							verticesByPoint.get(triangle.p3()));
+					addEdge(verticesByPoint.get(triangle.p3()),
+							verticesByPoint.get(triangle.p1()));
+				}
+			}
+			// duplicate points are connected to their representative
+			for (int i = 0; i < vertices.size(); i++) {
+				addEdge(verticesByPoint.get(positions.get(i)), i);
+			}
+		} else {
+			for (int i = 0; i < vertices.size() - 1; i++) {
+				for (int j = i + 1; j < vertices.size(); j++) {
+					addEdge(i, j);
+				}
 			}
+		}
 
-			locus.setPoints(al);
-			locus.setDefined(true);
+		if (al == null) {
+			al = new ArrayList<>();
+		} else {
+			al.clear();
+		}
 
+		for (int edge : graph.getMinimumSpanningForest()) {
+			Coords coords = vertices.get(graph.getEdgeStart(edge))
+					.getInhomCoordsInD2();
+			al.add(new MyPoint(coords.get(1), coords.get(2),
+					SegmentType.MOVE_TO));
+			coords = vertices.get(graph.getEdgeEnd(edge)).getInhomCoordsInD2();
+			al.add(new MyPoint(coords.get(1), coords.get(2),
+					SegmentType.LINE_TO));
 		}
 
-	}
+		locus.setPoints(al);
+		locus.setDefined(true);
 
-	/** Graph edge */
-	static class MyLink {
-		/** start point */
-		protected MyNode n1;
-		/** end point */
-		protected MyNode n2;
-		/** length */
-		double weight;
-		/** identifier */
-		int id;
-
-		/**
-		 * @param weight
-		 *            length
-		 * @param n1
-		 *            start point
-		 * @param n2
-		 *            end point
-		 * @param id
-		 *            identifier
-		 */
-		public MyLink(double weight, MyNode n1, MyNode n2, int id) {
-			this.id = id; // This is defined in the outer class.
-			this.weight = weight;
-			this.n1 = n1;
-			this.n2 = n2;
-		}
+	}
 
-		@Override
-		public String toString() { // Always good for debugging
-			return "Edge" + id;
+	private void addEdge(Integer vertex1, Integer vertex2) {
+		if (vertex1 == null || vertex2 == null
+				|| vertex1.intValue() == vertex2.intValue()) {
+			return;
 		}
+		graph.addEdge(vertex1, vertex2,
+				vertices.get(vertex1).distance(vertices.get(vertex2)));
 	}
 }
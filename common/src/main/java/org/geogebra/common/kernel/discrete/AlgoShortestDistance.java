@@ -1,15 +1,13 @@
 package org.geogebra.common.kernel.discrete;
 
+import java.util.ArrayList;
 import java.util.HashMap;
-import java.util.List;
 
-import org.apache.commons.collections15.Transformer;
 import org.geogebra.common.kernel.Construction;
 import org.geogebra.common.kernel.GraphAlgo;
 import org.geogebra.common.kernel.MyPoint;
 import org.geogebra.common.kernel.algos.AlgoElement;
 import org.geogebra.common.kernel.commands.Commands;
-import org.geogebra.common.kernel.discrete.AlgoMinimumSpanningTree.MyLink;
 import org.geogebra.common.kernel.geos.GeoBoolean;
 import org.geogebra.common.kernel.geos.GeoElement;
 import org.geogebra.common.kernel.geos.GeoList;
@@ -17,10 +15,6 @@
 import org.geogebra.common.kernel.kernelND.GeoPointND;
 import org.geogebra.common.kernel.kernelND.GeoSegmentND;
 
-import edu.uci.ics.jung.algorithms.shortestpath.DijkstraShortestPath;
-import edu.uci.ics.jung.graph.SparseMultigraph;
-import edu.uci.ics.jung.graph.util.EdgeType;
-
 /**
  * Shortest path in graph
  */
@@ -30,7 +24,11 @@ public class AlgoShortestDistance extends AlgoElement implements GraphAlgo {
 	private GeoList inputList;
 	private GeoLocusND<? extends MyPoint> locus;
 	private GeoBoolean weighted;
-	private int edgeCount = 0;
+	private final WeightedGraph graph = new WeightedGraph();
+	/** graph vertices */
+	private final ArrayList<GeoPointND> vertices = new ArrayList<>();
+	/** segment for each edge of the graph */
+	private final ArrayList<GeoSegmentND> segments = new ArrayList<>();
 
 	/**
 	 * @param cons
@@ -82,15 +80,6 @@ public Commands getClassName() {
 		return Commands.ShortestDistance;
 	}
 
-	// weighted Shortest Path
-	// use length of segments to weight
-	private Transformer<MyLink, Double> wtTransformer = new Transformer<MyLink, Double>() {
-		@Override
-		public Double transform(MyLink link) {
-			return link.weight;
-		}
-	};
-
 	@Override
 	public final void compute() {
 
@@ -100,121 +89,108 @@ public final void compute() {
 			return;
 		}
 
-		edgeCount = 0;
-
-		HashMap<GeoPointND, MyNode> nodes = new HashMap<>();
-
-		SparseMultigraph<MyNode, MyLink> g = new SparseMultigraph<>();
-
-		MyNode node1, node2;
-		NodeMatcher startNode = new NodeMatcher(start);
-		NodeMatcher endNode = new NodeMatcher(end);
-
-		for (int i = 0; i < size; i++) {
-			GeoElement geo = inputList.get(i);
-			if (geo.isDefined() && geo.isGeoSegment()) {
-				GeoSegmentND seg = (GeoSegmentND) geo;
-				GeoPointND p1 = seg.getStartPoint();
-				GeoPointND p2 = seg.getEndPoint();
-				node1 = nodes.get(p1);
-				node2 = nodes.get(p2);
-				if (node1 == null) {
-					node1 = new MyNode(p1);
-					nodes.put(p1, node1);
-				}
-				if (node2 == null) {
-					node2 = new MyNode(p2);
-					nodes.put(p2, node2);
-				}
-
-				// take note of start and end points
-				startNode.check(p1, node1);
-				startNode.check(p2, node2);
-				endNode.check(p1, node1);
-				endNode.check(p2, node2);
-
-				// add edge to graph
-				g.addEdge(
-						new MyLink(seg.getLength(), node1, node2, edgeCount++),
-						node1,
-						node2, EdgeType.UNDIRECTED);
-
-			}
+		if (!updateWeights()) {
+			buildGraph();
 		}
 
 		locus.clearPoints();
-		if (startNode.node == null || endNode.node == null) {
+		int startVertex = findVertex(start);
+		int endVertex = findVertex(end);
+		if (startVertex < 0 || endVertex < 0) {
 			locus.setDefined(false);
 			return;
 		}
-		double[] inhomLast = new double[3];
-		if (startNode.node == endNode.node) {
-			start.getInhomCoords(inhomLast);
-			locus.insertPoint(inhomLast[0], inhomLast[1], inhomLast[2], false);
+		double[] inhom = new double[3];
+		if (startVertex == endVertex) {
+			start.getInhomCoords(inhom);
+			locus.insertPoint(inhom[0], inhom[1], inhom[2], false);
 			locus.setDefined(true);
 			return;
 		}
 
-		DijkstraShortestPath<MyNode, MyLink> alg;
-
-		if (weighted.getBoolean()) {
-			alg = new DijkstraShortestPath<>(g, wtTransformer);
-		} else {
-			// Unweighted Shortest Path
-			alg = new DijkstraShortestPath<>(g);
+		int[] path = graph.getShortestPath(startVertex, endVertex,
+				weighted.getBoolean());
+		if (path != null) {
+			for (int i = 0; i < path.length; i++) {
+				vertices.get(path[i]).getInhomCoords(inhom);
+				locus.insertPoint(inhom[0], inhom[1], inhom[2], i > 0);
+			}
 		}
 
-		List<MyLink> list = alg.getPath(startNode.node, endNode.node);
-
-		MyNode n1, n2;
-		if (!list.isEmpty()) {
-			MyLink link = list.get(0);
-			n1 = link.n1;
-			n2 = link.n2;
+		locus.setDefined(true);
+	}
 
-			// nodes may not be in the right order, might need n1 or n2
-			if (n1 == startNode.node || n1 == endNode.node) {
-				n1.id.getInhomCoords(inhomLast);
-			} else if (n2 == startNode.node || n2 == endNode.node) {
-				n2.id.getInhomCoords(inhomLast);
+	/**
+	 * Updates the edge weights if the graph still has the same structure,
+	 * i.e. the same segments with the same endpoints.
+	 *
+	 * @return false if the graph has to be rebuilt
+	 */
+	private boolean updateWeights() {
+		int edge = 0;
+		for (int i = 0; i < inputList.size(); i++) {
+			GeoElement geo = inputList.get(i);
+			if (geo.isDefined() && geo.isGeoSegment()) {
+				GeoSegmentND seg = (GeoSegmentND) geo;
+				if (edge >= segments.size() || segments.get(edge) != seg
+						|| vertices.get(graph.getEdgeStart(edge)) != seg
+								.getStartPoint()
+						|| vertices.get(graph.getEdgeEnd(edge)) != seg
+								.getEndPoint()) {
+					return false;
+				}
+				graph.setWeight(edge, seg.getLength());
+				edge++;
 			}
-			locus.insertPoint(inhomLast[0], inhomLast[1], inhomLast[2],
-					false);
 		}
-		double[] inhom1 = new double[3];
-		double[] inhom2 = new double[3];
-		for (MyLink link : list) {
-			link.n1.id.getInhomCoords(inhom1);
-			link.n2.id.getInhomCoords(inhom2);
-			// nodes may not be in the right order, might need n1 or n2
-			if (inhom1[1] == inhomLast[1] && inhom1[0] == inhomLast[0]) {
-				System.arraycopy(inhom2, 0, inhomLast, 0, 3);
-			} else {
-				System.arraycopy(inhom1, 0, inhomLast, 0, 3);
-			}
+		return edge == segments.size();
+	}
 
-			locus.insertPoint(inhomLast[0], inhomLast[1], inhomLast[2], true);
+	private void buildGraph() {
+		segments.clear();
+		vertices.clear();
+		HashMap<GeoPointND, Integer> vertexIndices = new HashMap<>();
+		graph.clear(0);
+		for (int i = 0; i < inputList.size(); i++) {
+			GeoElement geo = inputList.get(i);
+			if (geo.isDefined() && geo.isGeoSegment()) {
+				GeoSegmentND seg = (GeoSegmentND) geo;
+				int v1 = getVertexIndex(seg.getStartPoint(), vertexIndices);
+				int v2 = getVertexIndex(seg.getEndPoint(), vertexIndices);
+				segments.add(seg);
+				graph.addEdge(v1, v2, seg.getLength());
+			}
 		}
-
-		locus.setDefined(true);
 	}
 
-	private static class NodeMatcher {
-		private final GeoPointND target;
-		public MyNode node;
-		private boolean exactMatch;
-
-		public NodeMatcher(GeoPointND target) {
-			this.target = target;
+	private int getVertexIndex(GeoPointND point,
+			HashMap<GeoPointND, Integer> vertexIndices) {
+		Integer index = vertexIndices.get(point);
+		if (index == null) {
+			index = graph.addVertex();
+			vertexIndices.put(point, index);
+			vertices.add(point);
 		}
+		return index;
+	}
 
-		public void check(GeoPointND p1, MyNode node2) {
-			if (p1 == target) {
-				exactMatch = true;
-				node = node2;
-			} else if (!exactMatch && target.isEqual(p1)) {
-				node = node2;
+	/**
+	 * @param point
+	 *            start or end point
+	 * @return index of the vertex that is the point or, if there is none, of
+	 *         the last vertex at the same position; -1 if there is no such
+	 *         vertex
+	 */
+	private int findVertex(GeoPointND point) {
+		int found = -1;
+		for (int i = 0; i < vertices.size(); i++) {
+			if (vertices.get(i) == point) {
+				return i;
+			}
+			if (point.isEqual(vertices.get(i))) {
+				found = i;
 			}
 		}
+		return found;
 	}
 }
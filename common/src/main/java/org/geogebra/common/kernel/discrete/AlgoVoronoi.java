@@ -2,6 +2,7 @@
 
 import java.util.ArrayList;
 import java.util.Comparator;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.TreeSet;
 
@@ -52,8 +53,8 @@ public final void compute() {
 
 		double[] inhom = new double[2];
 
-		ArrayList<Double> xcoords = new ArrayList<>();
-		ArrayList<Double> ycoords = new ArrayList<>();
+		HashSet<Double> xcoords = new HashSet<>();
+		HashSet<Double> ycoords = new HashSet<>();
 
 		final double delta = 0.0000001;
 
@@ -98,7 +99,7 @@ public final void compute() {
 
 		}
 
-		DelaunayTriangulation dt = new DelaunayTriangulation(points);
+		DelaunayTriangulation dt = getTriangulation(points);
 
 		if (dt.allCollinear) {
 			locus.setUndefined();
@@ -117,6 +118,9 @@ public final void compute() {
 		TreeSet<MyLine> tree = new TreeSet<>(
 				AlgoDelauneyTriangulation.getComparator());
 
+		// the cell around an inner point is the same for all its triangles
+		HashSet<PointDt> innerCellsDone = new HashSet<>();
+
 		while (it.hasNext()) {
 			TriangleDt triangle = it.next();
 
@@ -124,7 +128,8 @@ public final void compute() {
 
 				PointDt corner = triangle.getCorner(index);
 
-				if (corner != null) {
+				if (corner != null && (triangle.isHalfplane()
+						|| innerCellsDone.add(corner))) {
 
 					PointDt[] voronoiCell = dt.calcVoronoiCell(triangle,
 							corner);
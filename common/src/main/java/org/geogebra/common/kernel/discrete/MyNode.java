@@ -1,16 +0,0 @@
-package org.geogebra.common.kernel.discrete;
-
-import org.geogebra.common.kernel.kernelND.GeoPointND;
-
-public class MyNode {
-	public GeoPointND id;
-
-	public MyNode(GeoPointND id) {
-		this.id = id;
-	}
-
-	@Override
-	public String toString() {
-		return "Vertex:" + id;
-	}
-}
\ No newline at end of file
@@ -0,0 +1,324 @@
+package org.geogebra.common.kernel.discrete;
+
+import java.util.Arrays;
+
+/**
+ * Undirected graph with weighted edges, stored in compressed sparse row
+ * format: the edges at vertex v are listed in positions offsets[v] to
+ * offsets[v + 1] - 1 of the adjacency arrays. Vertices and edges are numbered
+ * from 0.
+ *
+ * All arrays are kept when the graph is cleared, so rebuilding a graph of
+ * similar size doesn't allocate memory. Changing weights doesn't require
+ * rebuilding the adjacency arrays.
+ */
+public final class WeightedGraph {
+	private static final int NOT_SEEN = -1;
+	private static final int DONE = -2;
+
+	private int vertexCount;
+	private int edgeCount;
+	// edge list
+	private int[] edgeStart = new int[16];
+	private int[] edgeEnd = new int[16];
+	private double[] edgeWeight = new double[16];
+	// adjacency lists, built from the edge list when needed
+	private boolean adjacencyValid;
+	private int[] offsets = new int[1];
+	private int[] adjacentVertices = new int[0];
+	private int[] adjacentEdges = new int[0];
+	// search state: distances, predecessors and binary heap of vertices
+	private double[] distance = new double[0];
+	private int[] predecessor = new int[0];
+	private int[] heap = new int[0];
+	private int[] heapPosition = new int[0];
+	private int heapSize;
+
+	/**
+	 * Removes all edges and sets the number of vertices.
+	 *
+	 * @param vertices
+	 *            number of vertices
+	 */
+	public void clear(int vertices) {
+		vertexCount = vertices;
+		edgeCount = 0;
+		adjacencyValid = false;
+	}
+
+	/**
+	 * Adds a vertex without edges.
+	 *
+	 * @return index of the vertex
+	 */
+	public int addVertex() {
+		adjacencyValid = false;
+		return vertexCount++;
+	}
+
+	/**
+	 * @return number of vertices
+	 */
+	public int getVertexCount() {
+		return vertexCount;
+	}
+
+	/**
+	 * @return number of edges
+	 */
+	public int getEdgeCount() {
+		return edgeCount;
+	}
+
+	/**
+	 * Adds an edge.
+	 *
+	 * @param start
+	 *            first vertex
+	 * @param end
+	 *            second vertex
+	 * @param weight
+	 *            non-negative weight
+	 * @return index of the edge
+	 */
+	public int addEdge(int start, int end, double weight) {
+		if (edgeCount == edgeStart.length) {
+			int capacity = 2 * edgeCount;
+			edgeStart = Arrays.copyOf(edgeStart, capacity);
+			edgeEnd = Arrays.copyOf(edgeEnd, capacity);
+			edgeWeight = Arrays.copyOf(edgeWeight, capacity);
+		}
+		edgeStart[edgeCount] = start;
+		edgeEnd[edgeCount] = end;
+		edgeWeight[edgeCount] = weight;
+		adjacencyValid = false;
+		return edgeCount++;
+	}
+
+	/**
+	 * @param edge
+	 *            edge index
+	 * @return first vertex of the edge
+	 */
+	public int getEdgeStart(int edge) {
+		return edgeStart[edge];
+	}
+
+	/**
+	 * @param edge
+	 *            edge index
+	 * @return second vertex of the edge
+	 */
+	public int getEdgeEnd(int edge) {
+		return edgeEnd[edge];
+	}
+
+	/**
+	 * @param edge
+	 *            edge index
+	 * @return weight of the edge
+	 */
+	public double getWeight(int edge) {
+		return edgeWeight[edge];
+	}
+
+	/**
+	 * @param edge
+	 *            edge index
+	 * @param weight
+	 *            new non-negative weight
+	 */
+	public void setWeight(int edge, double weight) {
+		edgeWeight[edge] = weight;
+	}
+
+	/**
+	 * Finds a shortest path with Dijkstra's algorithm.
+	 *
+	 * @param source
+	 *            start vertex
+	 * @param target
+	 *            end vertex
+	 * @param weighted
+	 *            whether to use the weights; otherwise each edge has length 1
+	 * @return vertices of the path from source to target (both included) or
+	 *         null if target can't be reached
+	 */
+	public int[] getShortestPath(int source, int target, boolean weighted) {
+		initSearch();
+		distance[source] = 0;
+		push(source);
+		while (heapSize > 0) {
+			int vertex = pop();
+			if (vertex == target) {
+				break;
+			}
+			for (int i = offsets[vertex]; i < offsets[vertex + 1]; i++) {
+				int next = adjacentVertices[i];
+				double dist = distance[vertex]
+						+ (weighted ? edgeWeight[adjacentEdges[i]] : 1);
+				if (heapPosition[next] != DONE && dist < distance[next]) {
+					distance[next] = dist;
+					predecessor[next] = vertex;
+					push(next);
+				}
+			}
+		}
+		if (heapPosition[target] != DONE) {
+			return null;
+		}
+		int length = 1;
+		for (int vertex = target; vertex != source; vertex = predecessor[vertex]) {
+			length++;
+		}
+		int[] path = new int[length];
+		for (int vertex = target; length > 0; vertex = predecessor[vertex]) {
+			path[--length] = vertex;
+		}
+		return path;
+	}
+
+	/**
+	 * Finds a minimum spanning forest with Prim's algorithm (one tree for each
+	 * connected component).
+	 *
+	 * @return indices of the edges in the forest
+	 */
+	public int[] getMinimumSpanningForest() {
+		initSearch();
+		int[] forest = new int[Math.max(vertexCount - 1, 0)];
+		int size = 0;
+		for (int root = 0; root < vertexCount; root++) {
+			if (heapPosition[root] == DONE) {
+				continue;
+			}
+			distance[root] = 0;
+			push(root);
+			while (heapSize > 0) {
+				int vertex = pop();
+				if (predecessor[vertex] >= 0) {
+					// in Prim's algorithm the predecessor is the edge
+					forest[size++] = predecessor[vertex];
+				}
+				for (int i = offsets[vertex]; i < offsets[vertex + 1]; i++) {
+					int next = adjacentVertices[i];
+					double weight = edgeWeight[adjacentEdges[i]];
+					if (heapPosition[next] != DONE && weight < distance[next]) {
+						distance[next] = weight;
+						predecessor[next] = adjacentEdges[i];
+						push(next);
+					}
+				}
+			}
+		}
+		return size == forest.length ? forest : Arrays.copyOf(forest, size);
+	}
+
+	private void initSearch() {
+		buildAdjacency();
+		if (distance.length < vertexCount) {
+			distance = new double[vertexCount];
+			predecessor = new int[vertexCount];
+			heap = new int[vertexCount];
+			heapPosition = new int[vertexCount];
+		}
+		Arrays.fill(distance, 0, vertexCount, Double.POSITIVE_INFINITY);
+		Arrays.fill(predecessor, 0, vertexCount, -1);
+		Arrays.fill(heapPosition, 0, vertexCount, NOT_SEEN);
+		heapSize = 0;
+	}
+
+	/**
+	 * Sorts the edges by vertex (counting sort), each edge is listed at both
+	 * vertices.
+	 */
+	private void buildAdjacency() {
+		if (adjacencyValid) {
+			return;
+		}
+		if (offsets.length < vertexCount + 1) {
+			offsets = new int[vertexCount + 1];
+		}
+		if (adjacentVertices.length < 2 * edgeCount) {
+			adjacentVertices = new int[2 * edgeCount];
+			adjacentEdges = new int[2 * edgeCount];
+		}
+		Arrays.fill(offsets, 0, vertexCount + 1, 0);
+		for (int e = 0; e < edgeCount; e++) {
+			offsets[edgeStart[e] + 1]++;
+			offsets[edgeEnd[e] + 1]++;
+		}
+		for (int v = 0; v < vertexCount; v++) {
+			offsets[v + 1] += offsets[v];
+		}
+		// offsets[v] is used as insertion position and restored afterwards
+		for (int e = 0; e < edgeCount; e++) {
+			int pos = offsets[edgeStart[e]]++;
+			adjacentVertices[pos] = edgeEnd[e];
+			adjacentEdges[pos] = e;
+			pos = offsets[edgeEnd[e]]++;
+			adjacentVertices[pos] = edgeStart[e];
+			adjacentEdges[pos] = e;
+		}
+		for (int v = vertexCount; v > 0; v--) {
+			offsets[v] = offsets[v - 1];
+		}
+		offsets[0] = 0;
+		adjacencyValid = true;
+	}
+
+	/**
+	 * Inserts the vertex into the heap or moves it up after its distance
+	 * decreased.
+	 */
+	private void push(int vertex) {
+		int pos = heapPosition[vertex];
+		if (pos < 0) {
+			pos = heapSize++;
+		}
+		double key = distance[vertex];
+		while (pos > 0) {
+			int parent = (pos - 1) >> 1;
+			if (distance[heap[parent]] <= key) {
+				break;
+			}
+			heap[pos] = heap[parent];
+			heapPosition[heap[pos]] = pos;
+			pos = parent;
+		}
+		heap[pos] = vertex;
+		heapPosition[vertex] = pos;
+	}
+
+	/**
+	 * Removes the vertex with minimal distance from the heap.
+	 */
+	private int pop() {
+		int min = heap[0];
+		heapPosition[min] = DONE;
+		int last = heap[--heapSize];
+		if (heapSize > 0) {
+			double key = distance[last];
+			int pos = 0;
+			while (true) {
+				int child = 2 * pos + 1;
+				if (child >= heapSize) {
+					break;
+				}
+				if (child + 1 < heapSize
+						&& distance[heap[child + 1]] < distance[heap[child]]) {
+					child++;
+				}
+				if (distance[heap[child]] >= key) {
+					break;
+				}
+				heap[pos] = heap[child];
+				heapPosition[heap[pos]] = pos;
+				pos = child;
+			}
+			heap[pos] = last;
+			heapPosition[last] = pos;
+		}
+		return min;
+	}
+}
@@ -1,10 +1,10 @@
 package org.geogebra.common.kernel.discrete.delaunay;
 
+import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.Set;
 import java.util.TreeSet;
-import java.util.Vector;
 
 import org.geogebra.common.util.debug.Log;
 
@@ -64,16 +64,20 @@ public class DelaunayTriangulation {
 	private int nPoints = 0; // number of points
 	// additional data 4/8/05 used by the iterators
 	private Set<PointDt> _vertices;
-	private Vector<TriangleDt> _triangles;
+	private ArrayList<TriangleDt> _triangles;
 
 	// The triangles that were deleted in the last deletePoint iteration.
-	private Vector<TriangleDt> deletedTriangles;
+	private ArrayList<TriangleDt> deletedTriangles;
 	// The triangles that were added in the last deletePoint iteration.
-	private Vector<TriangleDt> addedTriangles;
+	private ArrayList<TriangleDt> addedTriangles;
 
 	private int _modCount = 0;
 	private int _modCount2 = 0;
 
+	// the points of the last update (null if they were not distinct)
+	private PointDt[] lastPoints;
+	private int lastPointsModCount;
+
 	// the Bounding Box, {{x0,y0,z0} , {x1,y1,z1}}
 	private PointDt _bb_min;
 	private PointDt _bb_max;
@@ -98,13 +102,17 @@ public DelaunayTriangulation(PointDt[] ps) {
 		_bb_min = null;
 		_bb_max = null;
 		this._vertices = new TreeSet<>(PointDt.getComparator());
-		_triangles = new Vector<>();
+		_triangles = new ArrayList<>();
 		deletedTriangles = null;
-		addedTriangles = new Vector<>();
+		addedTriangles = new ArrayList<>();
 		allCollinear = true;
-		for (int i = 0; ps != null && i < ps.length && ps[i] != null; i++) {
+		int i;
+		for (i = 0; ps != null && i < ps.length && ps[i] != null; i++) {
 			this.insertPoint(ps[i]);
 		}
+		if (ps != null && i == ps.length) {
+			setLastPoints(ps);
+		}
 	}
 
 	/**
@@ -164,7 +172,8 @@ public void insertPoint(PointDt p) {
 	}
 
 	/**
-	 * Deletes the given point from this.
+	 * Deletes the given point from this. Points on the convex hull can't be
+	 * deleted.
 	 * 
 	 * @param pointToDelete
 	 *            The given point to delete.
@@ -173,35 +182,37 @@ public void insertPoint(PointDt p) {
 	 *            algorithm (2002).
 	 * 
 	 *            By Eyal Roth &amp; Doron Ganel (2009).
+	 * @return whether the point was deleted
 	 */
-	public void deletePoint(PointDt pointToDelete) {
+	public boolean deletePoint(PointDt pointToDelete) {
 
 		// Finding the triangles to delete.
-		Vector<PointDt> pointsVec = findConnectedVertices(pointToDelete, true);
+		ArrayList<PointDt> pointsVec = findConnectedVertices(pointToDelete, true);
 		if (pointsVec == null) {
-			return;
+			return false;
 		}
 
 		while (pointsVec.size() >= 3) {
 			// Getting a triangle to add, and saving it.
 			TriangleDt triangle = findTriangle(pointsVec, pointToDelete);
-			addedTriangles.add(triangle);
 
 			// Finding the point on the diagonal (pointToDelete,p)
-			PointDt p = findDiagonal(triangle, pointToDelete);
-
-			for (PointDt tmpP : pointsVec) {
-				if (tmpP.equals(p)) {
-					pointsVec.removeElement(tmpP);
-					break;
-				}
+			PointDt p = triangle == null ? null
+					: findDiagonal(triangle, pointToDelete);
+			if (p == null || !pointsVec.remove(p)) {
+				// degenerate hole, the triangulation is not changed yet
+				Log.debug("deletePoint: no triangle found for " + p);
+				addedTriangles.clear();
+				deletedTriangles.clear();
+				return false;
 			}
+			addedTriangles.add(triangle);
 		}
 		// updating the trangulation
 		deleteUpdate(pointToDelete);
 		for (TriangleDt t : deletedTriangles) {
 			if (t == startTriangle) {
-				startTriangle = addedTriangles.elementAt(0);
+				startTriangle = addedTriangles.get(0);
 				break;
 			}
 		}
@@ -209,8 +220,146 @@ public void deletePoint(PointDt pointToDelete) {
 		_triangles.addAll(addedTriangles);
 		_vertices.remove(pointToDelete);
 		nPoints = nPoints + addedTriangles.size() - deletedTriangles.size();
-		addedTriangles.removeAllElements();
-		deletedTriangles.removeAllElements();
+		addedTriangles.clear();
+		deletedTriangles.clear();
+		_modCount++;
+		return true;
+	}
+
+	/**
+	 * Changes the vertices of this triangulation to the given points: vertices
+	 * that are not among the points are deleted and new points are inserted,
+	 * so only the triangles around the changed vertices are rebuilt.
+	 * 
+	 * Nothing is changed if a vertex on the convex hull would have to be
+	 * deleted or if more than a quarter of the vertices change, because
+	 * building a new triangulation is faster then. If false is returned after
+	 * an incremental update failed, the triangulation is invalid.
+	 * 
+	 * @param ps
+	 *            new vertices, null entries are ignored
+	 * @return whether this triangulation now consists of the given points; if
+	 *         not, a new triangulation has to be created
+	 */
+	public boolean update(PointDt[] ps) {
+		if (allCollinear) {
+			return false;
+		}
+		ArrayList<PointDt> removed = new ArrayList<>();
+		ArrayList<PointDt> added = new ArrayList<>();
+		if (!findMovedPoints(ps, removed, added)) {
+			TreeSet<PointDt> newVertices = new TreeSet<>(
+					PointDt.getComparator());
+			for (PointDt p : ps) {
+				if (p != null) {
+					newVertices.add(p);
+				}
+			}
+			for (PointDt p : _vertices) {
+				if (!newVertices.contains(p)) {
+					removed.add(p);
+				}
+			}
+			for (PointDt p : newVertices) {
+				if (!_vertices.contains(p)) {
+					added.add(p);
+				}
+			}
+		}
+		if (4 * (removed.size() + added.size()) > _vertices.size()) {
+			return false;
+		}
+		// deleting inner points doesn't change the hull, so the remaining
+		// points stay inner points
+		for (PointDt p : removed) {
+			TriangleDt t = find(p);
+			if (t.isHalfplane() || !t.isCorner(p)
+					|| findTriangleNeighborhood(t, p) == null) {
+				return false;
+			}
+		}
+		try {
+			for (PointDt p : removed) {
+				if (!deletePoint(p)) {
+					return false;
+				}
+			}
+			for (PointDt p : added) {
+				insertPoint(p);
+			}
+		} catch (RuntimeException e) {
+			Log.debug(e);
+			return false;
+		}
+		// with the half planes there are 2n-2 triangles (Euler's formula)
+		if (trianglesSize() != 2 * size() - 2) {
+			return false;
+		}
+		setLastPoints(ps);
+		return true;
+	}
+
+	/**
+	 * Finds the changes compared to the points of the last update by
+	 * comparing the arrays element by element, which is much faster than
+	 * comparing the vertex sets.
+	 * 
+	 * @param ps
+	 *            new points
+	 * @param removed
+	 *            output: vertices to delete
+	 * @param added
+	 *            output: points to insert
+	 * @return false if the points can't be compared to the last ones
+	 */
+	private boolean findMovedPoints(PointDt[] ps, ArrayList<PointDt> removed,
+			ArrayList<PointDt> added) {
+		if (lastPoints == null || lastPoints.length != ps.length
+				|| lastPointsModCount != _modCount) {
+			return false;
+		}
+		TreeSet<PointDt> oldPoints = new TreeSet<>(PointDt.getComparator());
+		TreeSet<PointDt> newPoints = new TreeSet<>(PointDt.getComparator());
+		for (int i = 0; i < ps.length; i++) {
+			PointDt old = lastPoints[i];
+			PointDt p = ps[i];
+			if (old == null || p == null) {
+				if (old != p) {
+					return false;
+				}
+			} else if (old.x != p.x || old.y != p.y) {
+				oldPoints.add(old);
+				newPoints.add(p);
+			}
+		}
+		// the last points were distinct, so the old positions are only
+		// kept if some other point moved there
+		for (PointDt old : oldPoints) {
+			if (!newPoints.contains(old)) {
+				removed.add(old);
+			}
+		}
+		for (PointDt p : newPoints) {
+			if (!oldPoints.contains(p) && !_vertices.contains(p)) {
+				added.add(p);
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Remembers the points for {@link #findMovedPoints}, if they are
+	 * distinct.
+	 */
+	private void setLastPoints(PointDt[] ps) {
+		int n = 0;
+		for (PointDt p : ps) {
+			if (p != null) {
+				n++;
+			}
+		}
+		lastPoints = n == size() ? ps.clone() : null;
+		lastPointsModCount = _modCount;
 	}
 
 	/**
@@ -645,7 +794,7 @@ public PointDt[] calcVoronoiCell(TriangleDt triangle, PointDt p) {
 		if (!triangle.isHalfplane()) {
 
 			// get all neighbors of given corner point
-			Vector<TriangleDt> neighbors = findTriangleNeighborhood(triangle,
+			ArrayList<TriangleDt> neighbors = findTriangleNeighborhood(triangle,
 					p);
 
 			if (neighbors == null) {
@@ -752,7 +901,7 @@ public PointDt[] calcVoronoiCell(TriangleDt triangle, PointDt p) {
 	 *         only a half plane - returns an empty iterator
 	 */
 	public Iterator<TriangleDt> getLastUpdatedTriangles() {
-		Vector<TriangleDt> tmp = new Vector<>();
+		ArrayList<TriangleDt> tmp = new ArrayList<>();
 		if (this.trianglesSize() > 1) {
 			TriangleDt t = currT;
 			allTriangles(t, tmp, this._modCount);
@@ -760,7 +909,7 @@ public Iterator<TriangleDt> getLastUpdatedTriangles() {
 		return tmp.iterator();
 	}
 
-	private void allTriangles(TriangleDt curr, Vector<TriangleDt> front,
+	private void allTriangles(TriangleDt curr, ArrayList<TriangleDt> front,
 			int mc) {
 		if (curr != null && curr._mc == mc && !front.contains(curr)) {
 			front.add(curr);
@@ -1190,11 +1339,11 @@ private static TriangleDt findnext2(TriangleDt v) {
 	 * 
 	 * By Doron Ganel & Eyal Roth
 	 */
-	private Vector<PointDt> findConnectedVertices(PointDt point,
+	private ArrayList<PointDt> findConnectedVertices(PointDt point,
 			boolean saveTriangles) {
 		Set<PointDt> pointsSet = new HashSet<>();
-		Vector<PointDt> pointsVec = new Vector<>();
-		Vector<TriangleDt> triangles = null;
+		ArrayList<PointDt> pointsVec = new ArrayList<>();
+		ArrayList<TriangleDt> triangles = null;
 		// Getting one of the neigh
 		TriangleDt triangle = find(point);
 
@@ -1250,9 +1399,9 @@ private Vector<PointDt> findConnectedVertices(PointDt point,
 	 *            point
 	 * @return vector of triangulation
 	 */
-	public Vector<TriangleDt> findTriangleNeighborhood(
+	public ArrayList<TriangleDt> findTriangleNeighborhood(
 			TriangleDt firstTriangle, PointDt point) {
-		Vector<TriangleDt> triangles = new Vector<>(30);
+		ArrayList<TriangleDt> triangles = new ArrayList<>(30);
 		triangles.add(firstTriangle);
 
 		TriangleDt prevTriangle = null;
@@ -1280,7 +1429,7 @@ public Vector<TriangleDt> findTriangleNeighborhood(
 	 * By: Doron Ganel & Eyal Roth
 	 * 
 	 */
-	private static TriangleDt findTriangle(Vector<PointDt> pointsVec,
+	private static TriangleDt findTriangle(ArrayList<PointDt> pointsVec,
 			PointDt p) {
 		PointDt[] arrayPoints = new PointDt[pointsVec.size()];
 		pointsVec.toArray(arrayPoints);
@@ -1442,7 +1591,7 @@ public PointDt maxBoundingBox() {
 	 */
 	public Iterator<TriangleDt> trianglesIterator() {
 		if (this.size() <= 2) {
-			_triangles = new Vector<>();
+			_triangles = new ArrayList<>();
 		}
 		initTriangles();
 		return _triangles.iterator();
@@ -1454,7 +1603,7 @@ public Iterator<TriangleDt> trianglesIterator() {
 	 * @return iterator to the set of all the points on the XY-convex hull.
 	 */
 	public Iterator<PointDt> chVerticesIterator() {
-		Vector<PointDt> ans = new Vector<>();
+		ArrayList<PointDt> ans = new ArrayList<>();
 		TriangleDt curr = this.startTriangleHull;
 		boolean cont = true;
 		double x0 = _bb_min.x(), x1 = _bb_max.x();
@@ -1491,30 +1640,28 @@ private void initTriangles() {
 		}
 		if (this.size() > 2) {
 			_modCount2 = _modCount;
-			Vector<TriangleDt> front = new Vector<>();
-			_triangles = new Vector<>();
-			front.add(this.startTriangle);
-			while (front.size() > 0) {
-				TriangleDt t = front.remove(0);
-				if (!t._mark) {
-					t._mark = true;
-					_triangles.add(t);
-					if (t.abnext != null && !t.abnext._mark) {
-						front.add(t.abnext);
-					}
-					if (t.bcnext != null && !t.bcnext._mark) {
-						front.add(t.bcnext);
-					}
-					if (t.canext != null && !t.canext._mark) {
-						front.add(t.canext);
-					}
-				}
+			// breadth first search, _triangles is used as the queue
+			_triangles = new ArrayList<>(2 * size());
+			_triangles.add(this.startTriangle);
+			this.startTriangle._mark = true;
+			for (int i = 0; i < _triangles.size(); i++) {
+				TriangleDt t = _triangles.get(i);
+				mark(t.abnext);
+				mark(t.bcnext);
+				mark(t.canext);
 			}
 			// _triNum = _triangles.size();
 			for (int i = 0; i < _triangles.size(); i++) {
-				_triangles.elementAt(i)._mark = false;
+				_triangles.get(i)._mark = false;
 			}
 		}
 	}
 
+	private void mark(TriangleDt t) {
+		if (t != null && !t._mark) {
+			t._mark = true;
+			_triangles.add(t);
+		}
+	}
+
 }
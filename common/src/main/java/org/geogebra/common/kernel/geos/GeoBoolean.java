@@ -152,6 +152,11 @@ public void update(boolean drag) {
 		}
 	}
 
+	@Override
+	public boolean hasUpdateSideEffects() {
+		return super.hasUpdateSideEffects() || !conditionals.isEmpty();
+	}
+
 	/**
 	 * Tells conidition listeners that their condition is removed and calls
 	 * super.remove()
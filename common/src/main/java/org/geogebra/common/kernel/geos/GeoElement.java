@@ -22,7 +22,6 @@
 
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
@@ -61,6 +60,7 @@
 import org.geogebra.common.kernel.algos.AlgoElement;
 import org.geogebra.common.kernel.algos.AlgoIntegralODE;
 import org.geogebra.common.kernel.algos.AlgoName;
+import org.geogebra.common.kernel.algos.AlgoUpdateScheduler;
 import org.geogebra.common.kernel.algos.AlgorithmSet;
 import org.geogebra.common.kernel.algos.Algos;
 import org.geogebra.common.kernel.algos.ChartStyleAlgo;
@@ -316,8 +316,6 @@ public abstract class GeoElement extends ConstructionElement implements GeoEleme
 
 	private List<Integer> viewFlags = null;
 
-	private static volatile TreeSet<AlgoElement> tempSet;
-
 	private boolean descriptionNeedsUpdateInAV;
 
 	private GeoText dynamicCaption;
@@ -328,8 +326,6 @@ public abstract class GeoElement extends ConstructionElement implements GeoEleme
 
 	private int ordering = -1;
 
-	private static Comparator<AlgoElement> algoComparator = (o1, o2) -> o1.compareTo(o2);
-
 	/**
 	 * Creates new GeoElement for given construction
 	 *
@@ -2786,15 +2782,8 @@ public String getDefaultLabel() {
 			// name "edge" for segments from polyhedron
 			if (getMetasLength() == 1
 					&& !((FromMeta) this).getMetas()[0].isGeoPolygon()) {
-				int counter = 0;
-				String str;
 				final String name = getLoc().getPlainLabel("edge", "edge"); // Name.edge
-				do {
-					counter++;
-					str = name + kernel.internationalizeDigits(counter + "",
-							StringTemplate.defaultTemplate);
-				} while (!cons.isFreeLabel(str));
-				return str;
+				return getLabelManager().getNextNumberedLabel(name);
 			}
 			chars = LabelType.lineLabels;
 		} else if (isGeoPlane()) {
@@ -3103,6 +3092,15 @@ public void update(boolean dragging) {
 		kernel.notifyUpdate(this);
 	}
 
+	/**
+	 * @return whether update() may change other objects or needs the GUI
+	 */
+	public boolean hasUpdateSideEffects() {
+		return hasDynamicCaption() || correspondingCasCell != null
+				|| (labelWanted && !isLabelSet())
+				|| (canHaveSpecialPoints() && appConfig.hasPreviewPoints());
+	}
+
 	private void maybeUpdateSpecialPoints() {
 		if (canHaveSpecialPoints() && appConfig.hasPreviewPoints()) {
 			app.getSpecialPointsManager().updateSpecialPoints(null);
@@ -3212,12 +3210,17 @@ protected void updateAlgoUpdateSetWith(final GeoElement secondGeo) {
 				algoUpdateSet.updateAll();
 			} else {
 				// join both algoUpdateSets and update all algorithms
-				final TreeSet<AlgoElement> tempAlgoSet = getTempSet();
-				tempAlgoSet.clear();
-				algoUpdateSet.addAllToCollection(tempAlgoSet);
-				secondGeo.algoUpdateSet.addAllToCollection(tempAlgoSet);
-				for (final AlgoElement algo : tempAlgoSet) {
-					algo.update();
+				final AlgoUpdateScheduler scheduler = cons
+						.getUpdateScheduler();
+				synchronized (scheduler) {
+					final AlgoUpdateScheduler.Batch batch = scheduler.begin();
+					try {
+						batch.addAll(algoUpdateSet);
+						batch.addAll(secondGeo.algoUpdateSet);
+						batch.updateAll(false);
+					} finally {
+						scheduler.end(batch);
+					}
 				}
 			}
 		}
@@ -3242,16 +3245,11 @@ public boolean hasAlgoUpdateSet() {
 	 * @param geos
 	 *            geos to be updated
 	 * 
-	 * @param tempSet1
-	 *            a temporary set that is used to collect all algorithms that
-	 *            need to be updated
-	 * 
 	 * @param updateCascadeAll
 	 *            true to update cascade over dependent geos as well
 	 */
-	static public synchronized void updateCascade(
+	static public void updateCascade(
 			final List<? extends GeoElementND> geos,
-			final TreeSet<AlgoElement> tempSet1,
 			final boolean updateCascadeAll) {
 
 		// only one geo: call updateCascade()
@@ -3260,32 +3258,34 @@ static public synchronized void updateCascade(
 			ce.updateCascade();
 			return;
 		}
+		if (geos.isEmpty()) {
+			return;
+		}
 
-		// build update set of all algorithms in construction element order
-		// clear temp set
-		tempSet1.clear();
-
-		final int size = geos.size();
-		for (int i = 0; i < size; i++) {
-			final GeoElementND geo = geos.get(i);
+		// collect all algorithms and update them in construction element
+		// order
+		final AlgoUpdateScheduler scheduler = geos.get(0).getConstruction()
+				.getUpdateScheduler();
+		synchronized (scheduler) {
+			final AlgoUpdateScheduler.Batch batch = scheduler.begin();
+			try {
+				final int size = geos.size();
+				for (int i = 0; i < size; i++) {
+					final GeoElementND geo = geos.get(i);
 
-			geo.update();
+					geo.update();
 
-			if ((geo.isIndependent() || geo.isPointOnPath() || updateCascadeAll)
-					&& (geo.hasAlgoUpdateSet())) {
-				// add all dependent algos of geo to the overall algorithm
-				// set
-				geo.getAlgoUpdateSet().addAllToCollection(tempSet1);
-			}
-		}
-
-		// now we have one nice algorithm set that we can update
-		if (tempSet1.size() > 0) {
-			for (AlgoElement algo : tempSet1) {
-				algo.update();
+					if ((geo.isIndependent() || geo.isPointOnPath()
+							|| updateCascadeAll) && (geo.hasAlgoUpdateSet())) {
+						// add all dependent algos of geo to the batch
+						batch.addAll(geo.getAlgoUpdateSet());
+					}
+				}
+				batch.updateAll(false);
+			} finally {
+				scheduler.end(batch);
 			}
 		}
-
 	}
 
 	/**
@@ -3297,41 +3297,35 @@ static public synchronized void updateCascade(
 	 * @param cons
 	 *            construction where update is done
 	 */
-	static public synchronized void updateCascadeLocation(
+	static public void updateCascadeLocation(
 			final ArrayList<Locateable> geos, Construction cons) {
-		// build update set of all algorithms in construction element order
-		// clear temp set
-		final TreeSet<AlgoElement> tempSet1 = new TreeSet<>();
-
-		final int size = geos.size();
-		for (int i = 0; i < size; i++) {
-			final Locateable geo = geos.get(i);
-
-			geo.updateLocation();
+		final AlgoUpdateScheduler scheduler = cons.getUpdateScheduler();
+		synchronized (scheduler) {
+			final AlgoUpdateScheduler.Batch batch = scheduler.begin();
+			try {
+				final int size = geos.size();
+				for (int i = 0; i < size; i++) {
+					final Locateable geo = geos.get(i);
 
-			if ((geo.isIndependent() || geo.isGeoText())
-					&& (geo.hasAlgoUpdateSet())) {
-				// add all dependent algos of geo to the overall algorithm
-				// set
-				geo.getAlgoUpdateSet().addAllToCollection(tempSet1);
-			}
-		}
+					geo.updateLocation();
 
-		// remove algos currently updated
-		AlgorithmSet algoSetCurrentlyUpdated = cons
-				.getAlgoSetCurrentlyUpdated();
-		if (algoSetCurrentlyUpdated != null) {
-			algoSetCurrentlyUpdated.removeAllFromCollection(tempSet1);
-		}
+					if ((geo.isIndependent() || geo.isGeoText())
+							&& (geo.hasAlgoUpdateSet())) {
+						// add all dependent algos of geo to the batch
+						batch.addAll(geo.getAlgoUpdateSet());
+					}
+				}
 
-		// now we have one nice algorithm set that we can update
-		if (tempSet1.size() > 0) {
-			for (AlgoElement algoElement : tempSet1) {
-				try {
-					algoElement.update();
-				} catch (Exception e) {
-					Log.debug(e);
+				// remove algos currently updated
+				AlgorithmSet algoSetCurrentlyUpdated = cons
+						.getAlgoSetCurrentlyUpdated();
+				if (algoSetCurrentlyUpdated != null) {
+					batch.removeAll(algoSetCurrentlyUpdated);
 				}
+
+				batch.updateAll(true);
+			} finally {
+				scheduler.end(batch);
 			}
 		}
 	}
@@ -5304,16 +5298,6 @@ public void removeColorFunction() {
 		colFunction = null;
 	}
 
-	/**
-	 * @return temporary set of algoritms
-	 */
-	protected static TreeSet<AlgoElement> getTempSet() {
-		if (tempSet == null) {
-			tempSet = new TreeSet<>(algoComparator);
-		}
-		return tempSet;
-	}
-
 	/**
 	 * try to move the geo with coord parent numbers (e.g. point defined by
 	 * sliders)
@@ -5379,7 +5363,7 @@ protected static void addParentToUpdateList(final GeoElement number,
 				tempMoveObjectList2 = new ArrayList<>();
 			}
 			tempMoveObjectList2.add(number);
-			updateCascade(tempMoveObjectList2, getTempSet(), false);
+			updateCascade(tempMoveObjectList2, false);
 		}
 	}
 
@@ -13,6 +13,7 @@
 package org.geogebra.common.kernel.geos;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.Map.Entry;
@@ -591,6 +592,15 @@ public double evaluate(double[] vals) {
 		return value(vals[0]);
 	}
 
+	@Override
+	public void evaluate(double[] xs, double[] out, int from, int to) {
+		if (fun == null || !isDefined) {
+			Arrays.fill(out, from, to, Double.NaN);
+			return;
+		}
+		fun.evaluate(xs, out, from, to);
+	}
+
 	/**
 	 * If restricted to interval, returns its minimum
 	 * 
@@ -13,7 +13,9 @@
 package org.geogebra.common.kernel.geos;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Iterator;
+import java.util.List;
 import java.util.TreeSet;
 import java.util.stream.Stream;
 
@@ -77,10 +79,15 @@ public class GeoList extends GeoElement
 
 	private final static GeoClass ELEMENT_TYPE_MIXED = GeoClass.DEFAULT;
 
+	/** minimal size of lists stored as plain numbers or points */
+	public static final int MIN_PACKED_SIZE = 1000;
+
 	private boolean trace;
 
 	// GeoElement list members
-	private final ArrayList<GeoElement> elements;
+	private List<GeoElement> elements;
+	/** same as elements for lists of numbers or points set as values */
+	private PackedElementList packed;
 
 	// lists will often grow and shrink dynamically,
 	// so we keep a cacheList of all old list elements
@@ -170,7 +177,7 @@ private GeoList(final Construction c, final int size) {
 	 * @param elements list elements
 	 * @return the most generic element (one that can be set by others)
 	 */
-	public static GeoElement getGenericElement(ArrayList<GeoElement> elements) {
+	public static GeoElement getGenericElement(List<GeoElement> elements) {
 		GeoElement result = elements.get(0);
 		// create output GeoElement of same type as ifGeo
 		int i = 1;
@@ -225,6 +232,10 @@ public GeoList copy() {
 	@Override
 	public GeoList deepCopyGeo() {
 		GeoList ret = new GeoList(cons);
+		if (isPackedNumbers() || isPackedPoints()) {
+			ret.setPacked(getPackedValues(true), getPackedValues(false));
+			return ret;
+		}
 
 		for (int i = 0; i < elements.size(); i++) {
 			ret.add(elements.get(i).deepCopyGeo());
@@ -277,6 +288,11 @@ public void setShowAllProperties(final boolean showAllProperties) {
 	}
 
 	private void copyListElements(final GeoList otherList) {
+		if (otherList.isPackedNumbers() || otherList.isPackedPoints()) {
+			setPacked(otherList.getPackedValues(true),
+					otherList.getPackedValues(false));
+			return;
+		}
 		final int otherListSize = otherList.size();
 		ensureCapacity(otherListSize);
 		elements.clear();
@@ -389,9 +405,7 @@ public final void removeColorFunction() {
 			return;
 		}
 
-		final int size = elements.size();
-		for (int i = 0; i < size; i++) {
-			final GeoElement geo = elements.get(i);
+		for (GeoElement geo : styledElements()) {
 			if (!geo.isLabelSet()) {
 				geo.removeColorFunction();
 			}
@@ -406,9 +420,7 @@ public final void setColorFunction(final GeoList col) {
 			return;
 		}
 
-		final int size = elements.size();
-		for (int i = 0; i < size; i++) {
-			final GeoElement geo = elements.get(i);
+		for (GeoElement geo : styledElements()) {
 			if (!geo.isLabelSet()) {
 				geo.setColorFunction(col);
 			}
@@ -424,9 +436,7 @@ public final void setColorSpace(final int colorSpace) {
 			return;
 		}
 
-		final int size = elements.size();
-		for (int i = 0; i < size; i++) {
-			final GeoElement geo = elements.get(i);
+		for (GeoElement geo : styledElements()) {
 			if (!geo.isLabelSet()) {
 				geo.setColorSpace(colorSpace);
 			}
@@ -448,9 +458,7 @@ public final void setShowObjectCondition(final GeoBoolean bool)
 			return;
 		}
 
-		final int size = elements.size();
-		for (int i = 0; i < size; i++) {
-			final GeoElement geo = elements.get(i);
+		for (GeoElement geo : styledElements()) {
 			if (!geo.isLabelSet()) {
 				geo.setShowObjectCondition(bool);
 			}
@@ -472,9 +480,7 @@ public void setBasicVisualStyle(final GeoElement style) {
 		if ((elements == null) || (elements.size() == 0)) {
 			return;
 		}
-		final int size = elements.size();
-		for (int i = 0; i < size; i++) {
-			final GeoElement geo = elements.get(i);
+		for (GeoElement geo : styledElements()) {
 			if (!geo.isLabelSet()) {
 				geo.setBasicVisualStyle(style);
 			}
@@ -488,9 +494,7 @@ public void setObjColor(final GColor color) {
 			return;
 		}
 
-		final int size = elements.size();
-		for (int i = 0; i < size; i++) {
-			final GeoElement geo = get(i);
+		for (GeoElement geo : styledElements()) {
 			if (!geo.isLabelSet()) {
 				geo.setObjColor(color);
 			}
@@ -505,9 +509,7 @@ public void setBackgroundColor(final GColor color) {
 			return;
 		}
 
-		final int size = elements.size();
-		for (int i = 0; i < size; i++) {
-			final GeoElement geo = get(i);
+		for (GeoElement geo : styledElements()) {
 			if (!geo.isLabelSet()) {
 				geo.setBackgroundColor(color);
 			}
@@ -526,9 +528,7 @@ public void setEuclidianVisible(final boolean visible) {
 				&& labelOffsetY == 0) {
 			initScreenLocation();
 		}
-		final int size = elements.size();
-		for (int i = 0; i < size; i++) {
-			final GeoElement geo = get(i);
+		for (GeoElement geo : styledElements()) {
 			setElementEuclidianVisible(geo, visible);
 		}
 	}
@@ -581,9 +581,7 @@ public void setVisibility(int viewId, boolean setVisible) {
 			return;
 		}
 
-		final int size = elements.size();
-		for (int i = 0; i < size; i++) {
-			final GeoElement geo = get(i);
+		for (GeoElement geo : styledElements()) {
 			if (!geo.isLabelSet()) {
 				geo.setVisibility(viewId, setVisible);
 			}
@@ -632,16 +630,14 @@ public void setDefined(final boolean flag) {
 
 		if (!isDefined) {
 
-			final int size = elements.size();
-			for (int i = 0; i < size; i++) {
-				final GeoElement geo = elements.get(i);
+			for (GeoElement geo : styledElements()) {
 				if (!geo.isLabelSet()) {
 					geo.setUndefined();
 				}
 			}
 
 			// set also cached geos to undefined (for lists of lists)
-			for (int i = size; i < cacheList.size(); i++) {
+			for (int i = elements.size(); i < cacheList.size(); i++) {
 				final GeoElementND geo = cacheList.get(i);
 				if (!geo.isLabelSet()) {
 					geo.setUndefined();
@@ -670,10 +666,15 @@ public boolean isDrawable() {
 	 * Clear the list
 	 */
 	public final void clear() {
-		for (GeoElement el : elements) {
+		for (GeoElement el : styledElements()) {
 			el.removeZoomerAnimationListenerIfNeeded();
 		}
-		elements.clear();
+		if (packed != null) {
+			packed = null;
+			elements = new ArrayList<>();
+		} else {
+			elements.clear();
+		}
 	}
 
 	/**
@@ -720,7 +721,7 @@ public final void add(final GeoElementND geo) {
 		final int pos = elements.size() - 1;
 		if (pos < cacheList.size()) {
 			cacheList.set(pos, geo);
-		} else {
+		} else if (pos == cacheList.size()) {
 			cacheList.add(geo);
 		}
 
@@ -825,6 +826,13 @@ final public GeoElement get(final int index, final int index2) {
 	@Override
 	public double[] toDouble(int offset) {
 		int length = elements.size();
+		if (isPackedNumbers()) {
+			final double[] valueArray = new double[length - offset];
+			for (int i = offset; i < length; i++) {
+				valueArray[i - offset] = packed.getX(i);
+			}
+			return valueArray;
+		}
 		try {
 			final double[] valueArray = new double[length - offset];
 			for (int i = offset; i < length; i++) {
@@ -836,6 +844,151 @@ public double[] toDouble(int offset) {
 		}
 	}
 
+	/**
+	 * Replaces the elements of this list by numbers. The numbers are stored as
+	 * plain values and elements are only created when accessed, which keeps
+	 * large data sets small.
+	 *
+	 * @param values
+	 *            numbers (the array is copied)
+	 */
+	public void setNumbers(double[] values) {
+		setPacked(Arrays.copyOf(values, values.length), null);
+	}
+
+	/**
+	 * Replaces the elements of this list by points, see
+	 * {@link #setNumbers(double[])}.
+	 *
+	 * @param xs
+	 *            x-coordinates (the array is copied)
+	 * @param ys
+	 *            y-coordinates (the array is copied), same length as xs
+	 */
+	public void setPoints(double[] xs, double[] ys) {
+		setPacked(Arrays.copyOf(xs, xs.length), Arrays.copyOf(ys, xs.length));
+	}
+
+	private void setPacked(double[] xs, double[] ys) {
+		clear();
+		packed = new PackedElementList(this, xs, ys, xs.length);
+		elements = packed;
+		elementType = ys == null ? GeoClass.NUMERIC : GeoClass.POINT;
+		isDefined = true;
+		isDrawable = true;
+		if (xs.length > 0) {
+			GeoElement first = packed.peek(0);
+			setTypeStringForXML(first.getXMLtypeString());
+			updateDrawableFlag(first);
+		}
+	}
+
+	/**
+	 * @return whether this list holds numbers only, stored by
+	 *         {@link #setNumbers(double[])}
+	 */
+	public boolean isPackedNumbers() {
+		return packed != null && !packed.isPoints() && packed.isHomogeneous();
+	}
+
+	/**
+	 * @return whether this list holds points only, stored by
+	 *         {@link #setPoints(double[], double[])}
+	 */
+	public boolean isPackedPoints() {
+		return packed != null && packed.isPoints() && packed.isHomogeneous();
+	}
+
+	/**
+	 * Gets number (or x-coordinate) of an element without creating it; only
+	 * for lists with {@link #isPackedNumbers()} or {@link #isPackedPoints()}.
+	 *
+	 * @param index
+	 *            element position
+	 * @return number or x-coordinate of point
+	 */
+	public double getPackedX(int index) {
+		return packed.getX(index);
+	}
+
+	/**
+	 * Gets y-coordinate of an element without creating it; only for lists
+	 * with {@link #isPackedPoints()}.
+	 *
+	 * @param index
+	 *            element position
+	 * @return y-coordinate of point
+	 */
+	public double getPackedY(int index) {
+		return packed.getY(index);
+	}
+
+	private double[] getPackedValues(boolean x) {
+		if (!x && !packed.isPoints()) {
+			return null;
+		}
+		double[] values = new double[packed.size()];
+		for (int i = 0; i < values.length; i++) {
+			values[i] = x ? packed.getX(i) : packed.getY(i);
+		}
+		return values;
+	}
+
+	/**
+	 * Initializes element of a packed list when it's created.
+	 *
+	 * @param geo
+	 *            element
+	 */
+	void initPackedElement(GeoElement geo) {
+		geo.setParentAlgorithm(getParentAlgorithm());
+		applyVisualStyle(geo);
+		geo.setViewFlags(getViewSet());
+		geo.setVisibleInView3D(this);
+		geo.setVisibleInViewForPlane(this);
+	}
+
+	/**
+	 * @param index
+	 *            element position
+	 * @return element, or a temporary copy for packed lists that may only be
+	 *         used until the next call
+	 */
+	private GeoElement peek(int index) {
+		return packed == null ? elements.get(index) : packed.peek(index);
+	}
+
+	/**
+	 * @param index
+	 *            element position
+	 * @return element, or null for elements of packed lists that were not
+	 *         created yet
+	 */
+	private GeoElement getCreated(int index) {
+		return packed == null ? elements.get(index) : packed.getCreated(index);
+	}
+
+	/**
+	 * Copies the style of this list to a point that stands in for the
+	 * elements of a list with {@link #isPackedPoints()} when they are drawn.
+	 *
+	 * @param point
+	 *            unlabeled point that is not part of this list
+	 */
+	public void applyPackedPointStyle(GeoPoint point) {
+		applyVisualStyle(point);
+		point.setLabelVisible(false);
+	}
+
+	/**
+	 * @return elements that need to follow style changes of this list; for
+	 *         packed lists only the elements created so far, the others get
+	 *         the style when created
+	 */
+	private List<GeoElement> styledElements() {
+		return packed == null ? elements : packed.getCreatedElements();
+	}
+
 	/**
 	 * Increases capcity of this list if necessary
 	 *
@@ -843,7 +996,9 @@ public double[] toDouble(int offset) {
 	 *            capcity to ensure
 	 */
 	final public void ensureCapacity(final int size) {
-		elements.ensureCapacity(size);
+		if (packed == null) {
+			((ArrayList<GeoElement>) elements).ensureCapacity(size);
+		}
 		cacheList.ensureCapacity(size);
 	}
 
@@ -899,7 +1054,7 @@ private StringBuilder buildValueString(StringTemplate tpl) {
 	 */
 	public StringBuilder appendElements(StringBuilder sb, StringTemplate tpl) {
 		for (int i = 0; i < elements.size(); i++) {
-			final GeoElement geo = elements.get(i);
+			final GeoElement geo = peek(i);
 			if (i != 0) {
 				tpl.getCommaOptionalSpace(sb, getLoc());
 			}
@@ -910,7 +1065,7 @@ public StringBuilder appendElements(StringBuilder sb, StringTemplate tpl) {
 
 	private StringBuilder appendElementsForXml(StringBuilder sb) {
 		for (int i = 0; i < elements.size(); i++) {
-			final GeoElement geo = elements.get(i);
+			final GeoElement geo = peek(i);
 			if (i != 0) {
 				sb.append(',');
 			}
@@ -1113,8 +1268,7 @@ public void setLineThickness(final int thickness) {
 			return;
 		}
 
-		for (int i = 0; i < elements.size(); i++) {
-			final GeoElement geo = elements.get(i);
+		for (GeoElement geo : styledElements()) {
 			if (!geo.isLabelSet()) {
 				geo.setLineThickness(thickness);
 			}
@@ -1153,8 +1307,7 @@ public void setLineType(final int type) {
 			return;
 		}
 
-		for (int i = 0; i < elements.size(); i++) {
-			final GeoElement geo = elements.get(i);
+		for (GeoElement geo : styledElements()) {
 			if (!geo.isLabelSet()) {
 				geo.setLineType(type);
 			}
@@ -1170,8 +1323,7 @@ public void setLineTypeHidden(final int type) {
 			return;
 		}
 
-		for (int i = 0; i < elements.size(); i++) {
-			final GeoElement geo = elements.get(i);
+		for (GeoElement geo : styledElements()) {
 			if (!geo.isLabelSet()) {
 				geo.setLineTypeHidden(type);
 			}
@@ -1186,8 +1338,7 @@ public void setPointSize(final int size) {
 			return;
 		}
 
-		for (int i = 0; i < elements.size(); i++) {
-			final GeoElement geo = elements.get(i);
+		for (GeoElement geo : styledElements()) {
 			if (!geo.isLabelSet() && (geo instanceof PointProperties)) {
 				((PointProperties) geo).setPointSize(size);
 			}
@@ -1207,8 +1358,7 @@ public void setPointStyle(final int style) {
 			return;
 		}
 
-		for (int i = 0; i < elements.size(); i++) {
-			final GeoElement geo = elements.get(i);
+		for (GeoElement geo : styledElements()) {
 			if (!geo.isLabelSet() && (geo instanceof PointProperties)) {
 				((PointProperties) geo).setPointStyle(style);
 			}
@@ -1233,8 +1383,7 @@ public double getAlphaValue() {
 				// set all the other elements in the list
 				// if appropriate
 				if (elements.size() > 1) {
-					for (int i = 1; i < elements.size(); i++) {
-						final GeoElement geo = elements.get(i);
+					for (GeoElement geo : styledElements()) {
 						if (!geo.isLabelSet()) {
 							geo.setAlphaValue(alpha);
 						}
@@ -1264,8 +1413,7 @@ public void setAlphaValue(final double alpha) {
 			return;
 		}
 
-		for (int i = 0; i < elements.size(); i++) {
-			final GeoElement geo = elements.get(i);
+		for (GeoElement geo : styledElements()) {
 			if (!geo.isLabelSet()) {
 				geo.setAlphaValue(alpha);
 			}
@@ -1352,8 +1500,7 @@ public void setFontSizeMultiplier(final double size) {
 			return;
 		}
 
-		for (int i = 0; i < elements.size(); i++) {
-			final GeoElement geo = elements.get(i);
+		for (GeoElement geo : styledElements()) {
 			if ((geo instanceof TextProperties) && !geo.isLabelSet()) {
 				((TextProperties) geo).setFontSizeMultiplier(size);
 			}
@@ -1373,8 +1520,7 @@ public void setFontStyle(final int fontStyle) {
 			return;
 		}
 
-		for (int i = 0; i < elements.size(); i++) {
-			final GeoElement geo = elements.get(i);
+		for (GeoElement geo : styledElements()) {
 			if ((geo instanceof TextProperties) && !geo.isLabelSet()) {
 				((TextProperties) geo).setFontStyle(fontStyle);
 			}
@@ -1395,8 +1541,7 @@ final public int getPrintFigures() {
 	public void setPrintDecimals(final int printDecimals,
 			final boolean update) {
 		this.printDecimals = printDecimals;
-		for (int i = 0; i < elements.size(); i++) {
-			final GeoElement geo = elements.get(i);
+		for (GeoElement geo : styledElements()) {
 			if ((geo instanceof TextProperties) && !geo.isLabelSet()) {
 				((TextProperties) geo).setPrintDecimals(printDecimals, update);
 			}
@@ -1406,8 +1551,7 @@ public void setPrintDecimals(final int printDecimals,
 	@Override
 	public void setPrintFigures(final int printFigures, final boolean update) {
 		this.printFigures = printFigures;
-		for (int i = 0; i < elements.size(); i++) {
-			final GeoElement geo = elements.get(i);
+		for (GeoElement geo : styledElements()) {
 			if ((geo instanceof TextProperties) && !geo.isLabelSet()) {
 				((TextProperties) geo).setPrintFigures(printFigures, update);
 			}
@@ -1428,8 +1572,7 @@ public boolean isSerifFont() {
 	@Override
 	public void setSerifFont(final boolean serifFont) {
 		this.serifFont = serifFont;
-		for (int i = 0; i < elements.size(); i++) {
-			final GeoElement geo = elements.get(i);
+		for (GeoElement geo : styledElements()) {
 			if ((geo instanceof TextProperties) && !geo.isLabelSet()) {
 				((TextProperties) geo).setSerifFont(serifFont);
 			}
@@ -1439,8 +1582,7 @@ public void setSerifFont(final boolean serifFont) {
 	@Override
 	public void setHatchingAngle(final int angle) {
 		super.setHatchingAngle(angle);
-		for (int i = 0; i < elements.size(); i++) {
-			final GeoElement geo = elements.get(i);
+		for (GeoElement geo : styledElements()) {
 			if (!geo.isLabelSet()) {
 				geo.setHatchingAngle(angle);
 			}
@@ -1450,8 +1592,7 @@ public void setHatchingAngle(final int angle) {
 	@Override
 	public void setHatchingDistance(final int distance) {
 		super.setHatchingDistance(distance);
-		for (int i = 0; i < elements.size(); i++) {
-			final GeoElement geo = elements.get(i);
+		for (GeoElement geo : styledElements()) {
 			if (!geo.isLabelSet()) {
 				geo.setHatchingDistance(distance);
 			}
@@ -1461,8 +1602,7 @@ public void setHatchingDistance(final int distance) {
 	@Override
 	public void setFillType(final FillType type) {
 		super.setFillType(type);
-		for (int i = 0; i < elements.size(); i++) {
-			final GeoElement geo = elements.get(i);
+		for (GeoElement geo : styledElements()) {
 			if (!geo.isLabelSet()) {
 				geo.setFillType(type);
 			}
@@ -1472,8 +1612,7 @@ public void setFillType(final FillType type) {
 	@Override
 	public void setFillImage(final String filename) {
 		super.setFillImage(filename);
-		for (int i = 0; i < elements.size(); i++) {
-			final GeoElement geo = elements.get(i);
+		for (GeoElement geo : styledElements()) {
 			if (!geo.isLabelSet()) {
 				geo.setFillImage(filename);
 			}
@@ -1483,8 +1622,7 @@ public void setFillImage(final String filename) {
 	@Override
 	public void setImageFileName(final String filename) {
 		super.setImageFileName(filename);
-		for (int i = 0; i < elements.size(); i++) {
-			final GeoElement geo = elements.get(i);
+		for (GeoElement geo : styledElements()) {
 			if (!geo.isLabelSet()) {
 				geo.setImageFileName(filename);
 			}
@@ -2122,7 +2260,7 @@ public void updateColumnHeadingsForTraceValues() {
 	 *         list
 	 */
 	final static public TraceModesEnum getTraceModes(
-			ArrayList<GeoElement> geos) {
+			List<GeoElement> geos) {
 
 		TraceModesEnum traceModes = null;
 
@@ -2390,11 +2528,6 @@ public double mean() {
 	 * @return boolean true if AlgoLocusList should be used.
 	 */
 	public boolean shouldUseAlgoLocusList(boolean locusCalling) {
-		GeoPointND[] minParArray = new GeoPoint[this.size()];
-		GeoPointND[] maxParArray = new GeoPoint[this.size()];
-		GeoPointND[] minParStatic = new GeoPoint[this.size()];
-		GeoPointND[] maxParStatic = new GeoPoint[this.size()];
-
 		// if there is no locus using this, the answer is not important
 		if (!locusCalledAlgoLocusList && !locusCalling) {
 			directionInfoArray = null;
@@ -2404,6 +2537,10 @@ public boolean shouldUseAlgoLocusList(boolean locusCalling) {
 		if (size() == 0) {
 			return false;
 		}
+		GeoPointND[] minParArray = new GeoPoint[this.size()];
+		GeoPointND[] maxParArray = new GeoPoint[this.size()];
+		GeoPointND[] minParStatic = new GeoPoint[this.size()];
+		GeoPointND[] maxParStatic = new GeoPoint[this.size()];
 		directionInfoArray = new boolean[this.size()];
 		directionInfoOrdering = new int[this.size()];
 		shouldUseAlgoLocusList = true;
@@ -2584,8 +2721,7 @@ public boolean showOnAxis() {
 	public void setShowOnAxis(boolean showOnAxis) {
 		this.showOnAxis = showOnAxis;
 
-		for (int i = 0; i < elements.size(); i++) {
-			final GeoElement geo = elements.get(i);
+		for (GeoElement geo : styledElements()) {
 			if (!geo.isLabelSet() && (geo instanceof InequalityProperties)) {
 				((InequalityProperties) geo).setShowOnAxis(showOnAxis);
 			}
@@ -2596,7 +2732,7 @@ public void setShowOnAxis(boolean showOnAxis) {
 	 * @return true if this list contains a 3D geo
 	 */
 	public boolean containsGeoElement3D() {
-		for (GeoElement geo : elements) {
+		for (GeoElement geo : styledElements()) {
 			boolean contains = false;
 			if (geo.isGeoList()) {
 				contains = ((GeoList) geo).containsGeoElement3D();
@@ -2661,7 +2797,7 @@ public void setAngleStyle(AngleStyle angleStyle) {
 			newAngleStyle = AngleStyle.ANTICLOCKWISE;
 		}
 
-		for (GeoElement geo : elements) {
+		for (GeoElement geo : styledElements()) {
 			if (!geo.isLabelSet() && (geo instanceof AngleProperties)) {
 				((AngleProperties) geo).setAngleStyle(angleStyle);
 			}
@@ -2710,7 +2846,7 @@ final public void setAllowReflexAngle(boolean allowReflexAngle) {
 			setAngleStyle(AngleStyle.NOTREFLEX);
 		}
 
-		for (GeoElement geo : elements) {
+		for (GeoElement geo : styledElements()) {
 			if (!geo.isLabelSet() && (geo instanceof AngleProperties)) {
 				((AngleProperties) geo).setAllowReflexAngle(allowReflexAngle);
 			}
@@ -2728,7 +2864,7 @@ final public void setAllowReflexAngle(boolean allowReflexAngle) {
 	public void setEmphasizeRightAngle(boolean emphasizeRightAngle) {
 		this.emphasizeRightAngle = emphasizeRightAngle;
 
-		for (GeoElement geo : elements) {
+		for (GeoElement geo : styledElements()) {
 			if (!geo.isLabelSet() && (geo instanceof AngleProperties)) {
 				((AngleProperties) geo)
 						.setEmphasizeRightAngle(emphasizeRightAngle);
@@ -2751,7 +2887,7 @@ final public void setForceReflexAngle(boolean forceReflexAngle) {
 			setAngleStyle(AngleStyle.ANTICLOCKWISE);
 		}
 
-		for (GeoElement geo : elements) {
+		for (GeoElement geo : styledElements()) {
 			if (!geo.isLabelSet() && (geo instanceof AngleProperties)) {
 				((AngleProperties) geo).setForceReflexAngle(forceReflexAngle);
 			}
@@ -2763,7 +2899,7 @@ public void setDecorationType(int type) {
 		setDecorationType(type, GeoAngle.getDecoTypes().length);
 
 		if (elements != null) {
-			for (GeoElement geo : elements) {
+			for (GeoElement geo : styledElements()) {
 				if (!geo.isLabelSet()) {
 					if (geo instanceof AngleProperties) {
 						((AngleProperties) geo).setDecorationType(type);
@@ -2786,7 +2922,7 @@ public void setDecorationType(int type) {
 	public void setArcSize(int i) {
 		arcSize = i;
 
-		for (GeoElement geo : elements) {
+		for (GeoElement geo : styledElements()) {
 			if (!geo.isLabelSet() && (geo instanceof AngleProperties)) {
 				((AngleProperties) geo).setArcSize(i);
 			}
@@ -3002,9 +3138,9 @@ public void initSymbolicMode() {
 
 	@Override
 	public void setSymbolicMode(boolean mode, boolean updateParent) {
-		for (int i = 0; i < this.size(); i++) {
-			if (get(i) instanceof HasSymbolicMode) {
-				((HasSymbolicMode) get(i)).setSymbolicMode(mode, updateParent);
+		for (GeoElement geo : styledElements()) {
+			if (geo instanceof HasSymbolicMode) {
+				((HasSymbolicMode) geo).setSymbolicMode(mode, updateParent);
 			}
 		}
 	}
@@ -3024,7 +3160,7 @@ public DescriptionMode getDescriptionMode() {
 			return DescriptionMode.DEFINITION_VALUE;
 		}
 
-		for (GeoElement geo : elements) {
+		for (GeoElement geo : styledElements()) {
 			if (geo.getDescriptionMode() == DescriptionMode.DEFINITION_VALUE
 					&& !Equation.isAlgebraEquation(geo)) {
 				return DescriptionMode.DEFINITION_VALUE;
@@ -3082,10 +3218,14 @@ public String getLaTeXAlgebraDescriptionWithFallback(
 	public void resetDefinition() {
 		super.resetDefinition();
 		for (int i = 0; i < size(); i++) {
-			if (elements.get(i).isLabelSet()) {
-				elements.set(i, elements.get(i).copyInternal(cons));
+			GeoElement element = getCreated(i);
+			if (element == null) {
+				continue;
+			}
+			if (element.isLabelSet()) {
+				elements.set(i, element.copyInternal(cons));
 			} else {
-				this.elements.get(i).resetDefinition();
+				element.resetDefinition();
 			}
 		}
 	}
@@ -3095,8 +3235,8 @@ public void resetDefinition() {
 	 */
 	public void resetDefinitionDependentList() {
 		super.resetDefinition();
-		for (int i = 0; i < size(); i++) {
-			this.elements.get(i).resetDefinition();
+		for (GeoElement element : styledElements()) {
+			element.resetDefinition();
 		}
 	}
 
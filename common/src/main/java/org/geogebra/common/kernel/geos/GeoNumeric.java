@@ -1330,6 +1330,12 @@ public void update(boolean drag) {
 		}
 	}
 
+	@Override
+	public boolean hasUpdateSideEffects() {
+		return super.hasUpdateSideEffects() || minMaxListeners != null
+				|| evListeners != null;
+	}
+
 	private void resolveMinMax() {
 		double oldValue = value;
 		if (intervalMin == null || intervalMax == null) {
@@ -1847,6 +1847,12 @@ public void update(boolean drag) {
 		}
 	}
 
+	@Override
+	public boolean hasUpdateSideEffects() {
+		return super.hasUpdateSideEffects()
+				|| (locateableList != null && !locateableList.isEmpty());
+	}
+
 	protected static TreeSet<AlgoElement> getTempSet() {
 		if (tempSet == null) {
 			tempSet = new TreeSet<>();
@@ -1,5 +1,7 @@
 package org.geogebra.common.kernel.geos;
 
+import java.util.HashMap;
+
 import org.geogebra.common.awt.GPoint;
 import org.geogebra.common.kernel.Construction;
 import org.geogebra.common.kernel.Kernel;
@@ -18,6 +20,15 @@ public class LabelManager {
 	
 	private char[] angleLabels;
 	private final Construction cons;
+	/*
+	 * Counters where the label searches for given characters or prefixes may
+	 * start: all labels before them are taken. Only valid while no label is
+	 * freed, see resetLabelSearch().
+	 */
+	private final HashMap<String, Integer> indexedSearchStart = new HashMap<>();
+	private final HashMap<String, Integer> numberedSearchStart = new HashMap<>();
+	private final HashMap<String, Integer> prefixSearchStart = new HashMap<>();
+	private final HashMap<String, Integer> prefixSearchStartDummies = new HashMap<>();
 
 	/**
 	 * @param construction
@@ -233,7 +244,8 @@ public static void setLabels(final String[] labels, final GeoElementND[] geos) {
 	 * @return next label
 	 */
 	public String getNextIndexedLabel(char[] chars) {
-		int counter = 0, q, r;
+		String key = String.valueOf(chars);
+		int counter = getSearchStart(indexedSearchStart, key), q, r;
 		String labelToUse = "";
 		boolean repeat = true;
 
@@ -275,9 +287,67 @@ public String getNextIndexedLabel(char[] chars) {
 
 		}
 
+		// the label may not be used by the caller, check it again next time
+		setSearchStart(indexedSearchStart, key, counter - 1);
 		return labelToUse;
 	}
 
+	/**
+	 * Please note that we do not check here for valid label (see
+	 * {@link Construction#getIndexLabel(String, boolean)})
+	 * 
+	 * @param pref
+	 *            prefix
+	 * @param includeDummies
+	 *            to include cas dummy variables
+	 * @return indexed label, e.g. "y_{2}"
+	 */
+	public String buildIndexedLabel(String pref, boolean includeDummies) {
+		HashMap<String, Integer> searchStart = includeDummies
+				? prefixSearchStartDummies : prefixSearchStart;
+		String longIndexLabel;
+		boolean freeLabelFound;
+		int n = getSearchStart(searchStart, pref);
+
+		do {
+			n++;
+
+			longIndexLabel = pref + "_{" + n + '}';
+			String indexLabel = pref + '_' + n;
+			freeLabelFound = cons.isFreeLabel(longIndexLabel, true,
+					includeDummies) && ((n >= 10)
+							|| cons.isFreeLabel(indexLabel, true, includeDummies));
+		} while (!freeLabelFound);
+
+		setSearchStart(searchStart, pref, n - 1);
+		return longIndexLabel;
+	}
+
+	/**
+	 * Forgets where label searches ended; needs to be called when a label may
+	 * have become free, e.g. when an element is removed or renamed.
+	 */
+	public void resetLabelSearch() {
+		indexedSearchStart.clear();
+		numberedSearchStart.clear();
+		prefixSearchStart.clear();
+		prefixSearchStartDummies.clear();
+	}
+
+	private int getSearchStart(HashMap<String, Integer> searchStart,
+			String key) {
+		Integer start = cons.isFileLoading() ? null : searchStart.get(key);
+		return start == null ? 0 : start;
+	}
+
+	private void setSearchStart(HashMap<String, Integer> searchStart,
+			String key, int start) {
+		// while loading a file labels of some numbers count as free
+		if (!cons.isFileLoading()) {
+			searchStart.put(key, start);
+		}
+	}
+
 	/**
 	 * Sets the characters which will be used as the labels of the angles.
 	 * 
@@ -309,13 +379,17 @@ public String getNextIntegerLabel() {
 	 * @return first free label of {prefix1, prefix2, ...}
 	 */
 	public String getNextNumberedLabel(String trans) {
-		int counter = 0;
+		// digits depend on the language
+		String key = trans + cons.getKernel().internationalizeDigits("0",
+				StringTemplate.defaultTemplate);
+		int counter = getSearchStart(numberedSearchStart, key);
 		String str;
 		do {
 			counter++;
 			str = trans + cons.getKernel().internationalizeDigits(counter + "",
 					StringTemplate.defaultTemplate);
 		} while (!cons.isFreeLabel(str));
+		setSearchStart(numberedSearchStart, key, counter - 1);
 		return str;
 	}
 }
@@ -73,8 +73,7 @@ public static boolean moveObjects(List<? extends GeoElement> geosToMove,
 		// then update all their algos.
 		// (don't do updateCascade() on them individually as this could cause
 		// multiple updates of the same algorithm)
-		GeoElement.updateCascade(moveObjectsUpdateList, GeoElement.getTempSet(),
-				false);
+		GeoElement.updateCascade(moveObjectsUpdateList, false);
 
 		//geoLists do not trigger the update of the cascade in the function call above
 		for (GeoElement geo : geosToMove) {
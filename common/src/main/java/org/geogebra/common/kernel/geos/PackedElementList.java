@@ -0,0 +1,246 @@
+package org.geogebra.common.kernel.geos;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+
+import org.geogebra.common.kernel.arithmetic.NumberValue;
+
+/**
+ * Elements of a list of numbers or points, stored as plain values. A
+ * GeoElement is only created when an element is accessed; values of all other
+ * elements are read from the arrays.
+ * <p>
+ * Once created, the element is used for the value of its position, so
+ * changes to it are not lost. Elements of other types can be added too, but
+ * the list isn't considered to hold numbers (or points) any more.
+ */
+final class PackedElementList extends AbstractList<GeoElement>
+		implements RandomAccess {
+
+	private final GeoList owner;
+	private double[] xs;
+	private double[] ys;
+	private GeoElement[] elements;
+	private int size;
+	private int foreignCount = 0;
+	private GeoElement flyweight;
+
+	/**
+	 * @param owner
+	 *            list
+	 * @param xs
+	 *            numbers or x-coordinates of points
+	 * @param ys
+	 *            y-coordinates of points, null for a list of numbers
+	 * @param size
+	 *            number of elements
+	 */
+	PackedElementList(GeoList owner, double[] xs, double[] ys, int size) {
+		this.owner = owner;
+		this.xs = xs;
+		this.ys = ys;
+		this.size = size;
+	}
+
+	/**
+	 * @return whether the elements are points
+	 */
+	boolean isPoints() {
+		return ys != null;
+	}
+
+	/**
+	 * @return whether all elements are numbers (or points for a list of
+	 *         points)
+	 */
+	boolean isHomogeneous() {
+		return foreignCount == 0;
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	@Override
+	public GeoElement get(int index) {
+		checkIndex(index);
+		if (elements == null) {
+			elements = new GeoElement[xs.length];
+		}
+		if (elements[index] == null) {
+			elements[index] = createElement(index);
+			owner.initPackedElement(elements[index]);
+		}
+		return elements[index];
+	}
+
+	/**
+	 * Returns the element if it was created already, otherwise a shared
+	 * element with its value that may only be used until the next call.
+	 *
+	 * @param index
+	 *            position
+	 * @return element or a temporary copy
+	 */
+	GeoElement peek(int index) {
+		checkIndex(index);
+		GeoElement element = getCreated(index);
+		if (element != null) {
+			return element;
+		}
+		if (flyweight == null) {
+			flyweight = createElement(index);
+		} else if (isPoints()) {
+			((GeoPoint) flyweight).setCoords(xs[index], ys[index], 1);
+		} else {
+			((GeoNumeric) flyweight).setValue(xs[index]);
+		}
+		return flyweight;
+	}
+
+	/**
+	 * @return elements that were created so far
+	 */
+	List<GeoElement> getCreatedElements() {
+		ArrayList<GeoElement> created = new ArrayList<>();
+		for (int i = 0; elements != null && i < size; i++) {
+			if (elements[i] != null) {
+				created.add(elements[i]);
+			}
+		}
+		return created;
+	}
+
+	/**
+	 * @param index
+	 *            position
+	 * @return number or x-coordinate of the element, NaN if it's of another
+	 *         type
+	 */
+	double getX(int index) {
+		checkIndex(index);
+		GeoElement element = getCreated(index);
+		if (element == null) {
+			return xs[index];
+		}
+		if (isPoints()) {
+			return element instanceof GeoPoint
+					? ((GeoPoint) element).getInhomX() : Double.NaN;
+		}
+		return element instanceof NumberValue ? element.evaluateDouble()
+				: Double.NaN;
+	}
+
+	/**
+	 * @param index
+	 *            position
+	 * @return y-coordinate of the element, NaN if it's not a point
+	 */
+	double getY(int index) {
+		checkIndex(index);
+		GeoElement element = getCreated(index);
+		if (element == null) {
+			return isPoints() ? ys[index] : Double.NaN;
+		}
+		return element instanceof GeoPoint ? ((GeoPoint) element).getInhomY()
+				: Double.NaN;
+	}
+
+	@Override
+	public GeoElement set(int index, GeoElement element) {
+		GeoElement old = get(index);
+		countForeign(old, -1);
+		elements[index] = element;
+		countForeign(element, 1);
+		return old;
+	}
+
+	@Override
+	public void add(int index, GeoElement element) {
+		if (index < 0 || index > size) {
+			throw new IndexOutOfBoundsException(
+					"Index: " + index + ", Size: " + size);
+		}
+		if (size == xs.length) {
+			int capacity = Math.max(16, 2 * size);
+			xs = Arrays.copyOf(xs, capacity);
+			if (ys != null) {
+				ys = Arrays.copyOf(ys, capacity);
+			}
+			if (elements != null) {
+				elements = Arrays.copyOf(elements, capacity);
+			}
+		}
+		if (elements == null) {
+			elements = new GeoElement[xs.length];
+		}
+		shift(index, index + 1, size - index);
+		elements[index] = element;
+		countForeign(element, 1);
+		size++;
+		modCount++;
+	}
+
+	@Override
+	public GeoElement remove(int index) {
+		GeoElement old = get(index);
+		countForeign(old, -1);
+		shift(index + 1, index, size - index - 1);
+		size--;
+		elements[size] = null;
+		modCount++;
+		return old;
+	}
+
+	@Override
+	public void clear() {
+		size = 0;
+		elements = null;
+		foreignCount = 0;
+		modCount++;
+	}
+
+	/**
+	 * @param index
+	 *            element position
+	 * @return element if it was created, null otherwise
+	 */
+	GeoElement getCreated(int index) {
+		return elements == null ? null : elements[index];
+	}
+
+	private GeoElement createElement(int index) {
+		if (isPoints()) {
+			return new GeoPoint(owner.getConstruction(), xs[index], ys[index],
+					1);
+		}
+		return new GeoNumeric(owner.getConstruction(), xs[index]);
+	}
+
+	private void shift(int from, int to, int count) {
+		System.arraycopy(xs, from, xs, to, count);
+		if (ys != null) {
+			System.arraycopy(ys, from, ys, to, count);
+		}
+		System.arraycopy(elements, from, elements, to, count);
+	}
+
+	private void countForeign(GeoElement element, int delta) {
+		boolean matching = isPoints() ? element instanceof GeoPoint
+				: element instanceof NumberValue;
+		if (!matching) {
+			foreignCount += delta;
+		}
+	}
+
+	private void checkIndex(int index) {
+		if (index < 0 || index >= size) {
+			throw new IndexOutOfBoundsException(
+					"Index: " + index + ", Size: " + size);
+		}
+	}
+}
@@ -0,0 +1,144 @@
+package org.geogebra.common.kernel.implicit;
+
+import java.util.HashMap;
+
+/**
+ * Results of the quadtree algorithm for the cells of a grid that is aligned
+ * to the coordinate system. The cells of one path update are kept for the
+ * next update, so panning and zooming (as long as the cell size stays the
+ * same) only evaluate the cells that became visible. Cells that were not
+ * needed in an update are dropped.
+ */
+class CellCache {
+	/** cell indices have to fit into this range to be cached */
+	static final long MAX_INDEX = Integer.MAX_VALUE;
+
+	private HashMap<Long, Cell> cells = new HashMap<>();
+	private HashMap<Long, Cell> previous = new HashMap<>();
+	private int version = -1;
+	private double cellWidth;
+	private double cellHeight;
+	private int depths = -1;
+
+	/**
+	 * Cached data of a single cell.
+	 */
+	static class Cell {
+		/** values in corners, same order as {@link Rect#evals} */
+		final double[] evals = new double[4];
+		/** whether the gradient is close to zero in the center */
+		boolean singular;
+		/** segments as (x1, y1, x2, y2) quadruples, null if not plotted */
+		double[] segments;
+		/** neighbours that have to be plotted, see QuadTree#edgeConfig */
+		int neighbours;
+	}
+
+	/**
+	 * Starts a path update. Cells from the last update are kept if the curve
+	 * and the cell size did not change.
+	 *
+	 * @param curveVersion
+	 *            version of the curve, see
+	 *            {@link GeoImplicitCurve#updatePath()}
+	 * @param width
+	 *            cell width
+	 * @param height
+	 *            cell height
+	 * @return whether cells of the last update may be reused
+	 */
+	boolean start(int curveVersion, double width, double height) {
+		HashMap<Long, Cell> swap = previous;
+		previous = cells;
+		cells = swap;
+		cells.clear();
+		if (curveVersion != version || width != cellWidth
+				|| height != cellHeight) {
+			previous.clear();
+			version = curveVersion;
+			cellWidth = width;
+			cellHeight = height;
+			depths = -1;
+			return false;
+		}
+		return !previous.isEmpty();
+	}
+
+	/**
+	 * @param plotDepth
+	 *            plot depth
+	 * @param segmentCheckDepth
+	 *            segment check depth
+	 * @return whether plotted segments were computed with the same depths
+	 */
+	boolean setDepths(int plotDepth, int segmentCheckDepth) {
+		int key = (plotDepth << 8) | segmentCheckDepth;
+		boolean same = key == depths;
+		depths = key;
+		return same;
+	}
+
+	/**
+	 * @return plot depth of the last update, -1 if unknown
+	 */
+	int getPlotDepth() {
+		return depths < 0 ? -1 : depths >> 8;
+	}
+
+	/**
+	 * @return segment check depth of the last update, -1 if unknown
+	 */
+	int getSegmentCheckDepth() {
+		return depths < 0 ? -1 : depths & 0xff;
+	}
+
+	/**
+	 * Gets a cell of the last update and keeps it for the next one.
+	 *
+	 * @param column
+	 *            cell index in x direction
+	 * @param row
+	 *            cell index in y direction
+	 * @return cell or null if it was not computed in the last update
+	 */
+	Cell reuse(long column, long row) {
+		Long key = key(column, row);
+		Cell cell = previous.remove(key);
+		if (cell != null) {
+			cells.put(key, cell);
+		}
+		return cell;
+	}
+
+	/**
+	 * @param column
+	 *            cell index in x direction
+	 * @param row
+	 *            cell index in y direction
+	 * @param cell
+	 *            new cell
+	 */
+	void put(long column, long row, Cell cell) {
+		cells.put(key(column, row), cell);
+	}
+
+	/**
+	 * Drops cells of the last update that were not reused.
+	 */
+	void finish() {
+		previous.clear();
+	}
+
+	/**
+	 * Drops all cells.
+	 */
+	void clear() {
+		cells.clear();
+		previous.clear();
+		version = -1;
+	}
+
+	private static Long key(long column, long row) {
+		return (column << 32) | (row & 0xffffffffL);
+	}
+}
@@ -13,6 +13,7 @@
 import org.geogebra.common.kernel.Construction;
 import org.geogebra.common.kernel.EuclidianViewCE;
 import org.geogebra.common.kernel.Kernel;
+import org.geogebra.common.kernel.MyPoint;
 import org.geogebra.common.kernel.PathMover;
 import org.geogebra.common.kernel.SegmentType;
 import org.geogebra.common.kernel.StringTemplate;
@@ -108,6 +109,8 @@ public class GeoImplicitCurve extends GeoElement implements EuclidianViewCE,
 	private double[] eval = new double[2];
 	private boolean calcPath = true;
 	private boolean updatePathNeeded = false;
+	/** changes whenever the curve changes, see {@link CellCache} */
+	private int pathVersion = 0;
 	private static long fastDrawThreshold = 10;
 
 	/**
@@ -236,7 +239,7 @@ public void fromEquation(Equation eqn, double[][] coeffEqn) {
 			}
 		}
 
-		euclidianViewUpdate();
+		curveChanged();
 	}
 
 	private boolean checkAbsValue(ExpressionNode leftHandSide,
@@ -722,15 +725,31 @@ protected double[] getViewBounds() {
 	}
 
 	/**
-	 * Updates the path of the curve.
+	 * Updates the path of the curve after the curve changed.
 	 */
 	public synchronized void updatePath() {
+		pathVersion++;
+		updatePathForView();
+	}
+
+	/**
+	 * Updates the path of the curve after the view changed; parts of the path
+	 * that are still visible are reused.
+	 */
+	private synchronized void updatePathForView() {
 		if (!calcPath) {
 			return;
 		}
 		updatePathNeeded = true;
 	}
 
+	@Override
+	public void update(boolean dragging) {
+		// values of the expression may have changed
+		pathVersion++;
+		super.update(dragging);
+	}
+
 	private synchronized void doUpdatePath() {
 		double[] viewBounds = getViewBounds();
 		if (viewBounds[0] == Double.POSITIVE_INFINITY) {
@@ -800,13 +819,18 @@ private void updatePathQuadTree(double x, double y, double w, double h,
 		quadTree.updatePath(x, y - h, w, h, scaleX, scaleY, locus);
 	}
 
+	private void curveChanged() {
+		pathVersion++;
+		euclidianViewUpdate();
+	}
+
 	/**
 	 * Update euclidian view
 	 */
 	@Override
 	public boolean euclidianViewUpdate() {
 		if (isDefined()) {
-			updatePath();
+			updatePathForView();
 			return true;
 		}
 		return false;
@@ -1013,7 +1037,7 @@ public void translate(Coords v) {
 			getFactor(factor).translate(v);
 		}
 		updateCoeffFromExpr();
-		euclidianViewUpdate();
+		curveChanged();
 	}
 
 	private void updateCoeffFromExpr() {
@@ -1049,7 +1073,7 @@ public void mirror(Coords Q) {
 			getFactor(factor).dilate(minusOne, Q);
 		}
 		updateCoeffFromExpr();
-		euclidianViewUpdate();
+		curveChanged();
 	}
 
 	private FunctionNVar getFactor(int factor) {
@@ -1070,7 +1094,7 @@ public void mirror(GeoLineND g) {
 			getFactor(factor).mirror((GeoLine) g);
 		}
 		updateCoeffFromExpr();
-		euclidianViewUpdate();
+		curveChanged();
 	}
 
 	@Override
@@ -1080,7 +1104,7 @@ public void dilate(NumberValue r, Coords S) {
 			getFactor(factor).dilate(r, S);
 		}
 		updateCoeffFromExpr();
-		euclidianViewUpdate();
+		curveChanged();
 	}
 
 	@Override
@@ -1090,7 +1114,7 @@ public void rotate(NumberValue phi) {
 			getFactor(factor).rotate(phi);
 		}
 		updateCoeffFromExpr();
-		euclidianViewUpdate();
+		curveChanged();
 	}
 
 	@Override
@@ -1100,7 +1124,7 @@ public void rotate(NumberValue phi, GeoPointND S) {
 			getFactor(factor).rotate(phi, S.getInhomCoords());
 		}
 		updateCoeffFromExpr();
-		euclidianViewUpdate();
+		curveChanged();
 	}
 
 	/* mirror about a circle */
@@ -1170,7 +1194,7 @@ public void mirror(GeoConic c) {
 			setDefinition(
 					new Equation(kernel, expr, new MyDouble(kernel, 0)).wrap());
 			// for polynomials pluhIn does that
-			euclidianViewUpdate();
+			curveChanged();
 		}
 	}
 
@@ -1656,87 +1680,134 @@ private class WebExperimentalQuadTree extends QuadTree {
 		private int sw;
 		private int sh;
 		private Rect[][] grid;
+		private CellCache.Cell[][] cells;
+		private final ArrayList<CellCache> caches = new ArrayList<>();
 		private final Timer timer = Timer.newTimer();
+		/** segments of the cell that is being plotted */
+		private double[] recorded = new double[64];
+		private int recordedLength;
+		private int recordedNeighbours;
 
 		public WebExperimentalQuadTree() {
 			super(GeoImplicitCurve.this);
 		}
 
+		/**
+		 * The grid is aligned to multiples of the cell size, which is a power
+		 * of two close to the cell size of a grid with MAX_SPLIT cells (or
+		 * RES_COARSE pixels per cell for small views). Values and segments of
+		 * cells that were visible in the last update are reused if the curve
+		 * did not change.
+		 */
 		@Override
 		public void updatePath() {
+			while (caches.size() < factorLength()) {
+				caches.add(new CellCache());
+			}
 			for (int factor = 0; factor < factorLength(); ++factor) {
 				try {
 					evaluateImplicitCurve(0, 0, factor);
 				} catch (Throwable e) {
 					continue;
 				}
-				this.sw = Math.min(MAX_SPLIT, (int) (w * scaleX / RES_COARSE));
-				this.sh = Math.min(MAX_SPLIT, (int) (h * scaleY / RES_COARSE));
-				if (sw == 0 || sh == 0) {
+				int splitX = Math.min(MAX_SPLIT, (int) (w * scaleX / RES_COARSE));
+				int splitY = Math.min(MAX_SPLIT, (int) (h * scaleY / RES_COARSE));
+				if (splitX == 0 || splitY == 0) {
 					return;
 				}
+				double frx = roundToPowerOfTwo(w / splitX);
+				double fry = roundToPowerOfTwo(h / splitY);
+				double column0 = Math.floor(x / frx);
+				double row0 = Math.floor(y / fry);
+				this.sw = (int) (Math.ceil((x + w) / frx) - column0);
+				this.sh = (int) (Math.ceil((y + h) / fry) - row0);
+				CellCache cache = caches.get(factor);
+				boolean cacheable = Math.abs(column0) + sw < CellCache.MAX_INDEX
+						&& Math.abs(row0) + sh < CellCache.MAX_INDEX;
+				boolean reuse = cacheable
+						&& cache.start(pathVersion, frx, fry);
+				if (!cacheable) {
+					cache.clear();
+				}
+				long c0 = (long) column0;
+				long r0 = (long) row0;
 
 				this.grid = new Rect[sh][sw];
+				this.cells = new CellCache.Cell[sh][sw];
 
-				double frx = w / sw;
-				double fry = h / sh;
-
-				double[] vertices = new double[sw + 1];
 				double[] xcoords = new double[sw + 1];
 				double[] ycoords = new double[sh + 1];
-				double cur, prev;
-
 				for (int i = 0; i <= sw; i++) {
-					xcoords[i] = x + i * frx;
+					xcoords[i] = (column0 + i) * frx;
 				}
-
 				for (int i = 0; i <= sh; i++) {
-					ycoords[i] = y + i * fry;
+					ycoords[i] = (row0 + i) * fry;
 				}
 
-				for (int i = 0; i <= sw; i++) {
-					vertices[i] = evaluateImplicitCurve(xcoords[i], ycoords[0],
-							factor);
+				timer.reset();
+				int reused = 0;
+				double[][] corners = new double[sh + 1][sw + 1];
+				boolean[][] known = new boolean[sh + 1][sw + 1];
+				if (reuse) {
+					for (int i = 0; i < sh; i++) {
+						for (int j = 0; j < sw; j++) {
+							CellCache.Cell cell = cache.reuse(c0 + j, r0 + i);
+							if (cell != null) {
+								cells[i][j] = cell;
+								setCorners(corners, known, i, j, cell.evals);
+								reused++;
+							}
+						}
+					}
+				}
+				for (int i = 0; i <= sh; i++) {
+					for (int j = 0; j <= sw; j++) {
+						if (!known[i][j]) {
+							corners[i][j] = evaluateImplicitCurve(xcoords[j],
+									ycoords[i], factor);
+						}
+					}
 				}
 
 				// initialize grid configuration at the search depth
-				int i, j;
-				double dx, dy, fx, fy;
-				// debug = true;
-				timer.reset();
-				for (i = 1; i <= sh; i++) {
-					prev = evaluateImplicitCurve(xcoords[0], ycoords[i],
-							factor);
-					fy = ycoords[i] - 0.5 * fry;
-					for (j = 1; j <= sw; j++) {
-						cur = evaluateImplicitCurve(xcoords[j], ycoords[i],
-								factor);
-						Rect rect = new Rect(j - 1, i - 1, frx, fry, false);
-						rect.coords.val[0] = xcoords[j - 1];
-						rect.coords.val[1] = ycoords[i - 1];
-						rect.evals[0] = vertices[j - 1];
-						rect.evals[1] = vertices[j];
-						rect.evals[2] = cur;
-						rect.evals[3] = prev;
+				for (int i = 0; i < sh; i++) {
+					for (int j = 0; j < sw; j++) {
+						CellCache.Cell cell = cells[i][j];
+						if (cell == null) {
+							cell = new CellCache.Cell();
+							cell.evals[0] = corners[i][j];
+							cell.evals[1] = corners[i][j + 1];
+							cell.evals[2] = corners[i + 1][j + 1];
+							cell.evals[3] = corners[i + 1][j];
+							double fx = xcoords[j] + 0.5 * frx;
+							double fy = ycoords[i] + 0.5 * fry;
+							double d = Math.abs(derivativeX(fx, fy))
+									+ Math.abs(derivativeY(fx, fy));
+							cell.singular = DoubleUtil.isZero(d, 0.001);
+							cells[i][j] = cell;
+							if (cacheable) {
+								cache.put(c0 + j, r0 + i, cell);
+							}
+						}
+						Rect rect = new Rect(j, i, frx, fry, cell.singular);
+						rect.coords.val[0] = xcoords[j];
+						rect.coords.val[1] = ycoords[i];
+						System.arraycopy(cell.evals, 0, rect.evals, 0, 4);
 						rect.status = edgeConfig(rect);
 						rect.shares = 0xff;
-						fx = xcoords[j] - 0.5 * frx;
-						dx = derivativeX(fx, fy);
-						dy = derivativeY(fx, fy);
-						dx = Math.abs(dx) + Math.abs(dy);
-						if (DoubleUtil.isZero(dx, 0.001)) {
-							rect.singular = true;
-						}
-						this.grid[i - 1][j - 1] = rect;
-						vertices[j - 1] = prev;
-						prev = cur;
+						this.grid[i][j] = rect;
 					}
-					vertices[sw] = prev;
 				}
+				cache.finish();
 
 				timer.record();
 
-				if (timer.elapse <= fastDrawThreshold) {
+				if (reused > 0 && cache.getPlotDepth() >= 0) {
+					// keep the depths of the cached segments
+					plotDepth = cache.getPlotDepth();
+					segmentCheckDepth = cache.getSegmentCheckDepth();
+					LIST_THRESHOLD = plotDepth >= 3 ? 48 : 24;
+				} else if (timer.elapse <= fastDrawThreshold) {
 					// Fast device optimize for UX
 					plotDepth = 3;
 					segmentCheckDepth = 2;
@@ -1747,14 +1818,18 @@ public void updatePath() {
 					segmentCheckDepth = 1;
 					LIST_THRESHOLD = 24;
 				}
+				boolean sameDepths = cache.setDepths(plotDepth,
+						segmentCheckDepth);
 
-				for (i = 0; i < sh; i++) {
-					for (j = 0; j < sw; j++) {
+				for (int i = 0; i < sh; i++) {
+					for (int j = 0; j < sw; j++) {
 						if (grid[i][j].status != EMPTY) {
-							plot(grid[i][j], 0, factor);
+							plotCell(i, j, factor, sameDepths);
 						}
 					}
 				}
+				grid = null;
+				cells = null;
 
 				timer.record();
 
@@ -1770,6 +1845,58 @@ public void updatePath() {
 			}
 		}
 
+		private double roundToPowerOfTwo(double size) {
+			return Math.pow(2, Math.round(Math.log(size) / Math.log(2)));
+		}
+
+		private void setCorners(double[][] corners, boolean[][] known, int i,
+				int j, double[] evals) {
+			corners[i][j] = evals[0];
+			corners[i][j + 1] = evals[1];
+			corners[i + 1][j + 1] = evals[2];
+			corners[i + 1][j] = evals[3];
+			known[i][j] = true;
+			known[i][j + 1] = true;
+			known[i + 1][j + 1] = true;
+			known[i + 1][j] = true;
+		}
+
+		/**
+		 * Plots a cell of the grid or replays its cached segments.
+		 */
+		private void plotCell(int i, int j, int factor, boolean sameDepths) {
+			CellCache.Cell cell = cells[i][j];
+			if (sameDepths && cell.segments != null) {
+				double[] segments = cell.segments;
+				for (int k = 0; k < segments.length; k += 4) {
+					super.addSegment(
+							new MyPoint(segments[k], segments[k + 1],
+									SegmentType.MOVE_TO),
+							new MyPoint(segments[k + 2], segments[k + 3],
+									SegmentType.LINE_TO));
+				}
+				markNeighbours(i, j, cell.neighbours);
+				return;
+			}
+			recordedLength = 0;
+			recordedNeighbours = 0;
+			plot(grid[i][j], 0, factor);
+			cell.segments = Arrays.copyOf(recorded, recordedLength);
+			cell.neighbours = recordedNeighbours;
+		}
+
+		@Override
+		protected void addSegment(MyPoint start, MyPoint end) {
+			if (recordedLength + 4 > recorded.length) {
+				recorded = Arrays.copyOf(recorded, 2 * recorded.length);
+			}
+			recorded[recordedLength++] = start.x;
+			recorded[recordedLength++] = start.y;
+			recorded[recordedLength++] = end.x;
+			recorded[recordedLength++] = end.y;
+			super.addSegment(start, end);
+		}
+
 		public void createTree(Rect r, int depth, int factor) {
 			Rect[] n = r.split(GeoImplicitCurve.this, factor);
 			plot(n[0], depth, factor);
@@ -1790,25 +1917,30 @@ public void plot(Rect r, int depth, int factor) {
 						createTree(r, depth + 1, factor);
 						return;
 					}
-					if (r.x != 0 && (e & r.shares & 0x1) != 0) {
-						nonempty(r.y, r.x - 1);
-
-					}
-					if (r.x + 1 != sw && (e & r.shares & 0x4) != 0) {
-						nonempty(r.y, r.x + 1);
-					}
-					if (r.y != 0 && (e & r.shares & 0x8) != 0) {
-						nonempty(r.y - 1, r.x);
-					}
-					if (r.y + 1 != sh && (e & r.shares & 0x2) != 0) {
-						nonempty(r.y + 1, r.x);
-					}
+					int neighbours = e & r.shares & 0xf;
+					recordedNeighbours |= neighbours;
+					markNeighbours(r.y, r.x, neighbours);
 				} else {
 					createTree(r, depth + 1, factor);
 				}
 			}
 		}
 
+		private void markNeighbours(int ry, int rx, int neighbours) {
+			if (rx != 0 && (neighbours & 0x1) != 0) {
+				nonempty(ry, rx - 1);
+			}
+			if (rx + 1 != sw && (neighbours & 0x4) != 0) {
+				nonempty(ry, rx + 1);
+			}
+			if (ry != 0 && (neighbours & 0x8) != 0) {
+				nonempty(ry - 1, rx);
+			}
+			if (ry + 1 != sh && (neighbours & 0x2) != 0) {
+				nonempty(ry + 1, rx);
+			}
+		}
+
 		private void nonempty(int ry, int rx) {
 			if (grid[ry][rx].status == EMPTY) {
 				grid[ry][rx].status = 1;
@@ -82,7 +82,6 @@ abstract class QuadTree {
 	private MyPoint[] pts = new MyPoint[2];
 	private PointList p1;
 	private PointList p2;
-	private MyPoint temp;
 	private ListIterator<PointList> itr1;
 	private ListIterator<PointList> itr2;
 
@@ -135,45 +134,59 @@ private static boolean equal(MyPoint q1, MyPoint q2) {
 	public int addSegment(Rect r, int factor) {
 		int status = createSegment(r, factor);
 		if (status == VALID) {
-			if (pts[0].x > pts[1].x) {
-				temp = pts[0];
-				pts[0] = pts[1];
-				pts[1] = temp;
-			}
-			itr1 = openList.listIterator();
-			itr2 = openList.listIterator();
-			boolean flag1 = false, flag2 = false;
-			while (itr1.hasNext()) {
-				p1 = itr1.next();
-				if (equal(pts[1], p1.start)) {
-					flag1 = true;
-					break;
-				}
-			}
+			addSegment(pts[0], pts[1]);
+		}
+		return status;
+	}
 
-			while (itr2.hasNext()) {
-				p2 = itr2.next();
-				if (equal(pts[0], p2.end)) {
-					flag2 = true;
-					break;
-				}
+	/**
+	 * Adds a segment to the open point lists, joining it with lists that end
+	 * in one of its points.
+	 * 
+	 * @param start
+	 *            start point
+	 * @param end
+	 *            end point
+	 */
+	protected void addSegment(MyPoint start, MyPoint end) {
+		MyPoint left = start;
+		MyPoint right = end;
+		if (left.x > right.x) {
+			left = end;
+			right = start;
+		}
+		itr1 = openList.listIterator();
+		itr2 = openList.listIterator();
+		boolean flag1 = false, flag2 = false;
+		while (itr1.hasNext()) {
+			p1 = itr1.next();
+			if (equal(right, p1.start)) {
+				flag1 = true;
+				break;
 			}
+		}
 
-			if (flag1 && flag2) {
-				itr1.remove();
-				p2.mergeTo(p1);
-			} else if (flag1) {
-				p1.extendBack(pts[0]);
-			} else if (flag2) {
-				p2.extendFront(pts[1]);
-			} else {
-				openList.addFirst(new PointList(pts[0], pts[1]));
-			}
-			if (openList.size() > LIST_THRESHOLD) {
-				abortList();
+		while (itr2.hasNext()) {
+			p2 = itr2.next();
+			if (equal(left, p2.end)) {
+				flag2 = true;
+				break;
 			}
 		}
-		return status;
+
+		if (flag1 && flag2) {
+			itr1.remove();
+			p2.mergeTo(p1);
+		} else if (flag1) {
+			p1.extendBack(left);
+		} else if (flag2) {
+			p2.extendFront(right);
+		} else {
+			openList.addFirst(new PointList(left, right));
+		}
+		if (openList.size() > LIST_THRESHOLD) {
+			abortList();
+		}
 	}
 
 	public int createSegment(Rect r, int factor) {
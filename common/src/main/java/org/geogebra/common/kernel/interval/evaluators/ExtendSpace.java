@@ -1,7 +0,0 @@
-package org.geogebra.common.kernel.interval.evaluators;
-
-import org.geogebra.common.kernel.interval.Interval;
-
-public interface ExtendSpace {
-	void extend(Interval x);
-}
@@ -1,8 +1,8 @@
 package org.geogebra.common.kernel.interval.function;
 
-import java.util.ArrayList;
 import java.util.Iterator;
-import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
 import javax.annotation.Nonnull;
@@ -12,16 +12,23 @@
 /**
  * List to hold IntervalTuples
  *
+ * Tuples are stored in a ring buffer, so adding and removing them
+ * at both ends does not move the others.
+ * Removed tuples are kept and reused by {@link #resize(int)}.
+ *
  * @author laszlo
  */
 public class IntervalTupleList implements Iterable<IntervalTuple> {
-	private final List<IntervalTuple> list;
+	private static final int INITIAL_CAPACITY = 16;
+	private IntervalTuple[] tuples;
+	private int head = 0;
+	private int size = 0;
 
 	/**
 	 * Constructor.
 	 */
 	public IntervalTupleList() {
-		this.list = new ArrayList<>();
+		this.tuples = new IntervalTuple[INITIAL_CAPACITY];
 	}
 
 	/**
@@ -29,7 +36,9 @@ public IntervalTupleList() {
 	 * @param tuple to add
 	 */
 	public void add(IntervalTuple tuple) {
-		list.add(tuple);
+		ensureCapacity(size + 1);
+		tuples[position(size)] = tuple;
+		size++;
 	}
 
 	/**
@@ -38,13 +47,64 @@ public void add(IntervalTuple tuple) {
 	 * @return the tuple on the given index.
 	 */
 	public IntervalTuple get(int index) {
-		return index > -1 && index < list.size() ? list.get(index) : null;
+		return index > -1 && index < size ? tuples[position(index)] : null;
+	}
+
+	private int position(int index) {
+		return (head + index) % tuples.length;
+	}
+
+	private void ensureCapacity(int capacity) {
+		if (capacity <= tuples.length) {
+			return;
+		}
+		IntervalTuple[] grown = new IntervalTuple[Math.max(capacity, 2 * tuples.length)];
+		for (int i = 0; i < tuples.length; i++) {
+			grown[i] = tuples[position(i)];
+		}
+		tuples = grown;
+		head = 0;
+	}
+
+	/**
+	 * Sets the number of tuples in the list. Tuples after the previous end
+	 * are undefined; tuples removed earlier are reused for them if possible.
+	 *
+	 * @param count new size of the list.
+	 */
+	public void resize(int count) {
+		ensureCapacity(count);
+		for (int i = size; i < count; i++) {
+			int position = position(i);
+			if (tuples[position] == null) {
+				tuples[position] = new IntervalTuple();
+			} else {
+				tuples[position].x().setUndefined();
+				tuples[position].y().setUndefined();
+			}
+		}
+		size = count;
 	}
 
 	@Nonnull
 	@Override
 	public Iterator<IntervalTuple> iterator() {
-		return list.iterator();
+		return new Iterator<IntervalTuple>() {
+			private int index = 0;
+
+			@Override
+			public boolean hasNext() {
+				return index < size;
+			}
+
+			@Override
+			public IntervalTuple next() {
+				if (!hasNext()) {
+					throw new NoSuchElementException();
+				}
+				return tuples[position(index++)];
+			}
+		};
 	}
 
 	/**
@@ -52,7 +112,7 @@ public Iterator<IntervalTuple> iterator() {
 	 * @return the size of the list
 	 */
 	public int count() {
-		return list.size();
+		return size;
 	}
 
 	/**
@@ -60,7 +120,7 @@ public int count() {
 	 * @return true if the list has no tuples.
 	 */
 	public boolean isEmpty() {
-		return list.isEmpty();
+		return size == 0;
 	}
 
 	public boolean isValid() {
@@ -75,7 +135,15 @@ private long countDefined() {
 	public boolean equals(Object obj) {
 		if (obj instanceof IntervalTupleList) {
 			IntervalTupleList other = (IntervalTupleList) obj;
-			return list.equals(other.list);
+			if (size != other.size) {
+				return false;
+			}
+			for (int i = 0; i < size; i++) {
+				if (!get(i).equals(other.get(i))) {
+					return false;
+				}
+			}
+			return true;
 		}
 		return super.equals(obj);
 	}
@@ -83,7 +151,7 @@ public boolean equals(Object obj) {
 	@Override
 	public String toString() {
 		StringBuilder sb = new StringBuilder();
-		for (IntervalTuple point: list) {
+		for (IntervalTuple point: this) {
 			sb.append(point.toString());
 		}
 		return sb.toString();
@@ -92,14 +160,18 @@ public String toString() {
 	@Override
 	public int hashCode() {
 		int hashCode = 7;
-		for (IntervalTuple point: list) {
+		for (IntervalTuple point: this) {
 			hashCode += point.hashCode();
 		}
 		return hashCode;
 	}
 
+	/**
+	 * Removes all tuples, they are kept for reuse.
+	 */
 	public void clear() {
-		list.clear();
+		head = 0;
+		size = 0;
 	}
 
 	public Interval valueAt(int index) {
@@ -111,7 +183,7 @@ public Interval valueAt(int index) {
 	 * @return as a stream of {@link IntervalTuple}
 	 */
 	public Stream<IntervalTuple> stream() {
-		return list.stream();
+		return IntStream.range(0, size).mapToObj(this::get);
 	}
 
 	/**
@@ -119,7 +191,7 @@ public Stream<IntervalTuple> stream() {
 	 * @return the first tuple in the list.
 	 */
 	public IntervalTuple first() {
-		return list.get(0);
+		return checkedGet(0);
 	}
 
 	/**
@@ -127,7 +199,14 @@ public IntervalTuple first() {
 	 * @return the last tuple in the list.
 	 */
 	public IntervalTuple last() {
-		return list.get(count() - 1);
+		return checkedGet(size - 1);
+	}
+
+	private IntervalTuple checkedGet(int index) {
+		if (index < 0 || index >= size) {
+			throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+		}
+		return tuples[position(index)];
 	}
 
 	/**
@@ -135,20 +214,26 @@ public IntervalTuple last() {
 	 * @param tuple to prepend.
 	 */
 	public void prepend(IntervalTuple tuple) {
-		list.add(0, tuple);
+		ensureCapacity(size + 1);
+		head = (head + tuples.length - 1) % tuples.length;
+		tuples[head] = tuple;
+		size++;
 	}
 
 	/**
 	 * Removes the last item.
 	 */
 	public void removeLast() {
-		list.remove(list.size() - 1);
+		checkedGet(size - 1);
+		size--;
 	}
 
 	/**
 	 * Removes the first item.
 	 */
 	public void removeFirst() {
-		list.remove(0);
+		checkedGet(0);
+		head = (head + 1) % tuples.length;
+		size--;
 	}
-}
\ No newline at end of file
+}
@@ -4,8 +4,6 @@
 import org.geogebra.common.euclidian.plot.interval.EuclidianViewBounds;
 import org.geogebra.common.euclidian.plot.interval.IntervalFunctionData;
 import org.geogebra.common.kernel.interval.Interval;
-import org.geogebra.common.kernel.interval.evaluators.DiscreteSpace;
-import org.geogebra.common.kernel.interval.evaluators.DiscreteSpaceCentered;
 import org.geogebra.common.kernel.interval.function.IntervalNodeFunction;
 import org.geogebra.common.kernel.interval.function.IntervalTupleList;
 
@@ -13,13 +11,21 @@
  * Class to provide samples of the given function as a
  * list of (x, y) pairs, where both x and y are intervals.
  *
+ * Function values are kept between updates: when the domain is panned only the
+ * samples at the edges are evaluated, when it is zoomed in, samples that are
+ * known to be undefined or constant are taken from the previous ones.
+ *
  * @author Laszlo
  */
 public class FunctionSampler implements IntervalFunctionSampler {
+	private static final double SAME_STEP_PRECISION = 1E-9;
 	private final EuclidianViewBounds bounds;
-	private final IntervalFunctionDomainInfo domainInfo = new IntervalFunctionDomainInfo();
 	private IntervalNodeFunction function;
-	private final DiscreteSpace space;
+	private IntervalSampleStore samples = new IntervalSampleStore();
+	private IntervalSampleStore previous = new IntervalSampleStore();
+	private final Interval x = new Interval();
+	private final Interval y = new Interval();
+	private int evaluationCount = 0;
 
 	private final int numberOfSamples;
 	private final IntervalFunctionData data;
@@ -38,14 +44,9 @@ private FunctionSampler(IntervalFunctionData data, EuclidianViewBounds bounds, I
 		this.bounds = bounds;
 		this.numberOfSamples = numberOfSamples;
 		this.data = data;
-		this.space = createSpaceOn(domain);
 		function = data.getFunction();
+		samples.reset(0, domain.getLength() / calculateNumberOfSamples(), 0);
 		extend(domain);
-
-	}
-
-	private DiscreteSpace createSpaceOn(Interval domain) {
-		return new DiscreteSpaceCentered(domain.getLength() / calculateNumberOfSamples());
 	}
 
 	/**
@@ -55,7 +56,7 @@ private DiscreteSpace createSpaceOn(Interval domain) {
 	public FunctionSampler(IntervalFunctionData data, EuclidianViewBounds bounds) {
 		this(data, bounds, bounds.domain(), -1);
 	}
-	
+
 	@Override
 	public IntervalTupleList tuples() {
 		return data.tuples();
@@ -63,54 +64,133 @@ public IntervalTupleList tuples() {
 
 	@Override
 	public void extend(Interval domain) {
-		if (domainInfo.hasZoomedOut(domain)) {
-			extendDataBothSide(domain);
-
-		} else if (domainInfo.hasPannedLeft(domain)) {
-			extendDataToLeft(domain);
-		} else if (domainInfo.hasPannedRight(domain)) {
-			extendDataToRight(domain);
+		if (isValidStep(samples.getStep())) {
+			cover(domain);
 		}
-		processAsymptotes(data.tuples());
-		domainInfo.update(domain);
+		updateTuples();
 	}
 
-	private void extendDataBothSide(Interval domain) {
-		space.extend(domain, x -> data.prepend(x, function.value(x)),
-				x -> data.append(x, function.value(x)));
+	@Override
+	public void update(Interval domain) {
+		double step = domain.getLength() / calculateNumberOfSamples();
+		if (samples.isEmpty() || !isSameStep(step)) {
+			sampleOn(domain, step, true);
+		} else {
+			cover(domain);
+		}
+		updateTuples();
 	}
 
 	@Override
 	public void resample(Interval domain) {
 		function = data.getFunction();
-		space.rescale(domain, calculateNumberOfSamples());
-		evaluateAll();
-		domainInfo.update(domain);
+		sampleOn(domain, domain.getLength() / calculateNumberOfSamples(), false);
+		updateTuples();
 	}
 
-	private void evaluateAll() {
-		data.clear();
-		space.forEach(x -> data.append(x, function.value(x)));
-		processAsymptotes(data.tuples());
+	private boolean isSameStep(double step) {
+		return Math.abs(step - samples.getStep()) <= SAME_STEP_PRECISION * step;
 	}
 
-	private static void processAsymptotes(IntervalTupleList samples) {
-		IntervalAsymptotes asymptotes = new IntervalAsymptotes(samples);
-		asymptotes.process();
+	private static boolean isValidStep(double step) {
+		return step > 0 && !Double.isInfinite(step);
+	}
+
+	/**
+	 * Samples the domain on a new grid centered to the domain.
+	 *
+	 * @param domain to sample.
+	 * @param step width of the x intervals.
+	 * @param reuse whether values of the previous samples can be reused.
+	 */
+	private void sampleOn(Interval domain, double step, boolean reuse) {
+		IntervalSampleStore swap = previous;
+		previous = samples;
+		samples = swap;
+		double center = domain.middle();
+		int countLeft = isValidStep(step) ? countSteps(center, domain.getLow(), step) : 0;
+		int countRight = isValidStep(step) ? countSteps(center, domain.getHigh(), step) : 0;
+		samples.reset(center, step, -countLeft);
+		for (int index = -countLeft; index < countRight; index++) {
+			if (reuse && previous.findValueOn(samples.xLow(index), samples.xHigh(index), y)) {
+				samples.append(y);
+			} else {
+				samples.append(evaluate(index));
+			}
+		}
+	}
+
+	private static int countSteps(double center, double limit, double step) {
+		return (int) Math.ceil(Math.abs(center - limit) / step);
+	}
+
+	/**
+	 * Keeps the grid, drops the samples outside of the domain
+	 * and evaluates the missing ones at the edges.
+	 *
+	 * @param domain to sample.
+	 */
+	private void cover(Interval domain) {
+		int first = firstIndexAt(domain.getLow());
+		int end = endIndexAt(domain.getHigh());
+		samples.retain(first, end);
+		for (int index = samples.getFirstIndex() - 1; index >= first; index--) {
+			samples.prepend(evaluate(index));
+		}
+		for (int index = samples.getEndIndex(); index < end; index++) {
+			samples.append(evaluate(index));
+		}
+	}
+
+	private int firstIndexAt(double low) {
+		int index = (int) Math.floor((low - samples.xLow(0)) / samples.getStep());
+		if (samples.xLow(index) > low) {
+			index--;
+		}
+		if (samples.xHigh(index) <= low) {
+			index++;
+		}
+		return index;
+	}
+
+	private int endIndexAt(double high) {
+		int index = (int) Math.ceil((high - samples.xLow(0)) / samples.getStep());
+		if (samples.xHigh(index - 1) < high) {
+			index++;
+		}
+		if (samples.xLow(index - 1) >= high) {
+			index--;
+		}
+		return index;
 	}
 
-	private void extendDataToLeft(Interval domain) {
-		space.extendLeft(domain, x -> data.extendLeft(x, function.value(x)));
+	private Interval evaluate(int index) {
+		x.set(samples.xLow(index), samples.xHigh(index));
+		evaluationCount++;
+		return function.value(x);
 	}
 
-	private void extendDataToRight(Interval domain) {
-		space.extendRight(domain, x -> data.extendRight(x, function.value(x)));
+	private void updateTuples() {
+		samples.copyTo(data.tuples());
+		processAsymptotes(data.tuples());
+	}
+
+	private static void processAsymptotes(IntervalTupleList samples) {
+		IntervalAsymptotes asymptotes = new IntervalAsymptotes(samples);
+		asymptotes.process();
 	}
 
 	int calculateNumberOfSamples() {
 		return hasBounds() ? bounds.getWidth() : numberOfSamples;
 	}
 
+	/**
+	 * @return number of function evaluations so far.
+	 */
+	int getEvaluationCount() {
+		return evaluationCount;
+	}
+
 	private boolean hasBounds() {
 		return bounds != null;
 	}
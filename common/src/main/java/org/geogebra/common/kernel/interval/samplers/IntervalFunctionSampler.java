@@ -10,4 +10,12 @@ public interface IntervalFunctionSampler {
 	void extend(Interval domain);
 
 	void resample(Interval domain);
+
+	/**
+	 * Samples the new domain of the same function,
+	 * reusing the values of the previous samples where possible.
+	 *
+	 * @param domain an interval of x to sample.
+	 */
+	void update(Interval domain);
 }
@@ -0,0 +1,208 @@
+package org.geogebra.common.kernel.interval.samplers;
+
+import org.geogebra.common.kernel.interval.Interval;
+import org.geogebra.common.kernel.interval.function.IntervalTuple;
+import org.geogebra.common.kernel.interval.function.IntervalTupleList;
+
+/**
+ * Function values sampled on the x intervals
+ * [center + i * step, center + (i + 1) * step] for a contiguous range of indices i.
+ *
+ * Values are stored in primitive arrays used as a ring buffer, so samples can be
+ * added and removed at both ends without moving (or allocating) the others.
+ */
+final class IntervalSampleStore {
+	private static final int INITIAL_CAPACITY = 64;
+	/** relative to step, to ignore rounding errors of the grid */
+	private static final double CONTAINMENT_PRECISION = 1E-9;
+	private double center;
+	private double step;
+	private double[] lows = new double[INITIAL_CAPACITY];
+	private double[] highs = new double[INITIAL_CAPACITY];
+	private boolean[] inverted = new boolean[INITIAL_CAPACITY];
+	private int head = 0;
+	private int count = 0;
+	private int firstIndex = 0;
+
+	/**
+	 * Removes all samples and sets up a new grid.
+	 *
+	 * @param center of the grid.
+	 * @param step width of the x intervals.
+	 * @param firstIndex index of the first sample that will be added.
+	 */
+	void reset(double center, double step, int firstIndex) {
+		this.center = center;
+		this.step = step;
+		this.firstIndex = firstIndex;
+		head = 0;
+		count = 0;
+	}
+
+	double getStep() {
+		return step;
+	}
+
+	boolean isEmpty() {
+		return count == 0;
+	}
+
+	/**
+	 * @return index of the first sample.
+	 */
+	int getFirstIndex() {
+		return firstIndex;
+	}
+
+	/**
+	 * @return index after the last sample.
+	 */
+	int getEndIndex() {
+		return firstIndex + count;
+	}
+
+	/**
+	 * @param index of the sample.
+	 * @return low bound of its x interval.
+	 */
+	double xLow(int index) {
+		return center + index * step;
+	}
+
+	/**
+	 * @param index of the sample.
+	 * @return high bound of its x interval.
+	 */
+	double xHigh(int index) {
+		return center + (index + 1) * step;
+	}
+
+	/**
+	 * Adds a sample after the last one.
+	 *
+	 * @param y function value.
+	 */
+	void append(Interval y) {
+		ensureCapacity(count + 1);
+		store(position(count), y);
+		count++;
+	}
+
+	/**
+	 * Adds a sample before the first one.
+	 *
+	 * @param y function value.
+	 */
+	void prepend(Interval y) {
+		ensureCapacity(count + 1);
+		head = (head + lows.length - 1) % lows.length;
+		store(head, y);
+		firstIndex--;
+		count++;
+	}
+
+	/**
+	 * Removes samples with index outside of [from, to).
+	 * If no sample remains, the next one added will have index from.
+	 *
+	 * @param from first index to keep.
+	 * @param to index after the last one to keep.
+	 */
+	void retain(int from, int to) {
+		while (count > 0 && firstIndex < from) {
+			head = (head + 1) % lows.length;
+			firstIndex++;
+			count--;
+		}
+		while (count > 0 && getEndIndex() > to) {
+			count--;
+		}
+		if (count == 0) {
+			reset(center, step, from);
+		}
+	}
+
+	/**
+	 * Looks up the value of a sample whose x interval contains [low, high]
+	 * if that value is undefined or a single number: as the function
+	 * can't take other values on a subset of the x interval,
+	 * it does not need to be evaluated again.
+	 *
+	 * @param low bound of the x interval.
+	 * @param high bound of the x interval.
+	 * @param y to store the value to.
+	 * @return whether such sample was found.
+	 */
+	boolean findValueOn(double low, double high, Interval y) {
+		if (count == 0) {
+			return false;
+		}
+		int index = (int) Math.floor((low - center) / step);
+		if (xHigh(index) <= low) {
+			index++;
+		}
+		double tolerance = CONTAINMENT_PRECISION * step;
+		if (index < firstIndex || index >= getEndIndex()
+				|| xLow(index) > low + tolerance || xHigh(index) < high - tolerance) {
+			return false;
+		}
+		int position = position(index - firstIndex);
+		boolean undefined = lows[position] > highs[position];
+		boolean singleton = lows[position] == highs[position]
+				&& !inverted[position] && !Double.isInfinite(lows[position]);
+		if (!undefined && !singleton) {
+			return false;
+		}
+		load(position, y);
+		return true;
+	}
+
+	/**
+	 * Fills the list with the samples as (x, y) tuples, reusing its tuple objects.
+	 *
+	 * @param tuples to fill.
+	 */
+	void copyTo(IntervalTupleList tuples) {
+		tuples.resize(count);
+		for (int i = 0; i < count; i++) {
+			IntervalTuple tuple = tuples.get(i);
+			tuple.x().set(xLow(firstIndex + i), xHigh(firstIndex + i));
+			load(position(i), tuple.y());
+		}
+	}
+
+	private void store(int position, Interval y) {
+		lows[position] = y.getLow();
+		highs[position] = y.getHigh();
+		inverted[position] = y.isInverted();
+	}
+
+	private void load(int position, Interval y) {
+		y.set(lows[position], highs[position]);
+		y.setInverted(inverted[position]);
+	}
+
+	private int position(int offset) {
+		return (head + offset) % lows.length;
+	}
+
+	private void ensureCapacity(int capacity) {
+		if (capacity <= lows.length) {
+			return;
+		}
+		int length = Math.max(capacity, 2 * lows.length);
+		double[] newLows = new double[length];
+		double[] newHighs = new double[length];
+		boolean[] newInverted = new boolean[length];
+		for (int i = 0; i < count; i++) {
+			int position = position(i);
+			newLows[i] = lows[position];
+			newHighs[i] = highs[position];
+			newInverted[i] = inverted[position];
+		}
+		lows = newLows;
+		highs = newHighs;
+		inverted = newInverted;
+		head = 0;
+	}
+}
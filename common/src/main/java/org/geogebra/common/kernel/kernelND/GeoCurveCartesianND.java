@@ -729,6 +729,27 @@ public void evaluateCurve(double t, double[] f1eval) {
 
 	}
 
+	/**
+	 * Evaluates this curve at params[from], ..., params[to - 1], see
+	 * {@link Function#evaluate(double[], double[], int, int)}.
+	 * 
+	 * @param params
+	 *            parameter values
+	 * @param out
+	 *            output arrays, out[i] receives the i-th coordinates; none of
+	 *            them may be the same as params
+	 * @param from
+	 *            first index (inclusive)
+	 * @param to
+	 *            last index (exclusive)
+	 */
+	public void evaluateCurve(double[] params, double[][] out, int from,
+			int to) {
+		for (int i = 0; i < out.length; i++) {
+			getFun(i).evaluate(params, out[i], from, to);
+		}
+	}
+
 	/**
 	 * 
 	 * @param points
@@ -1,13 +1,13 @@
 package org.geogebra.common.kernel.prover.polynomial;
 
 import java.math.BigInteger;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
-import java.util.SortedMap;
 import java.util.TreeMap;
 import java.util.TreeSet;
 
@@ -19,47 +19,65 @@
 /**
  * This is a simple polynomial class for polynomials with arbitrary many
  * variables.
- * 
+ *
+ * Polynomials are immutable. Terms are kept in a hash table with small
+ * coefficients stored as long values, so sums and products are computed in
+ * place in the table of the result; the sorted order of terms and the string
+ * representation are only computed when needed.
+ *
  * @author Simon Weitzhofer
- * 
+ *
  */
 public class PPolynomial implements Comparable<PPolynomial> {
-	private TreeMap<PTerm, BigInteger> terms;
+	private final PTermTable terms;
+	/** terms in increasing order, computed on demand */
+	private PTerm[] sortedTerms;
+	/** slots of sortedTerms in the table */
+	private int[] sortedSlots;
+	private String string;
 
 	/**
 	 * Creates the 0 polynomial
 	 */
 	public PPolynomial() {
-		terms = new TreeMap<>();
+		this(new PTermTable(0));
 	}
 
 	/**
 	 * Copies a polynomial
-	 * 
+	 *
 	 * @param poly
 	 *            the polynomial to copy
 	 */
 	public PPolynomial(final PPolynomial poly) {
-		terms = new TreeMap<>(poly.getTerms());
+		this(poly.terms);
 	}
 
-	private PPolynomial(final TreeMap<PTerm, BigInteger> terms) {
+	private PPolynomial(final PTermTable terms) {
+		terms.trim();
 		this.terms = terms;
 	}
 
 	/**
 	 * Getter for the map which contains the terms and the according
 	 * coefficients.
-	 * 
-	 * @return the map
+	 *
+	 * @return a new map of the terms and their coefficients
 	 */
 	public TreeMap<PTerm, BigInteger> getTerms() {
-		return terms;
+		TreeMap<PTerm, BigInteger> map = new TreeMap<>();
+		for (int slot = 0; slot < terms.capacity(); slot++) {
+			PTerm t = terms.getTerm(slot);
+			if (t != null) {
+				map.put(t, terms.getCoefficient(slot));
+			}
+		}
+		return map;
 	}
 
 	/**
 	 * Creates a constant polynomial.
-	 * 
+	 *
 	 * @param coeff
 	 *            the constant
 	 */
@@ -69,42 +87,40 @@ public PPolynomial(final BigInteger coeff) {
 
 	/**
 	 * Creates a constant polynomial.
-	 * 
+	 *
 	 * @param coeff
 	 *            the constant
 	 */
 	public PPolynomial(final long coeff) {
-		this(new BigInteger(Long.toString(coeff)), new PTerm());
+		this(new PTermTable(1));
+		terms.add(new PTerm(), coeff);
 	}
-	
+
 	/**
 	 * Creates a polynomial which contains only one variable
-	 * 
+	 *
 	 * @param fv
 	 *            the variable
 	 */
 	public PPolynomial(final PVariable fv) {
-		this();
-		terms.put(new PTerm(fv), BigInteger.ONE);
+		this(new PTerm(fv));
 	}
 
 	/**
 	 * Creates the polynomial coeff*variable
-	 * 
+	 *
 	 * @param coeff
 	 *            the coefficient
 	 * @param variable
 	 *            the variable
 	 */
 	public PPolynomial(final BigInteger coeff, final PVariable variable) {
-		this();
-		if (coeff != BigInteger.ZERO)
-			terms.put(new PTerm(variable), coeff);
+		this(coeff, new PTerm(variable));
 	}
 
 	/**
 	 * Creates the polynomial coeff*(variable^power)
-	 * 
+	 *
 	 * @param coeff
 	 *            The coefficient
 	 * @param variable
@@ -114,207 +130,220 @@ public PPolynomial(final BigInteger coeff, final PVariable variable) {
 	 */
 	public PPolynomial(final BigInteger coeff, final PVariable variable,
 			final int power) {
-		this();
-		if (coeff != BigInteger.ZERO)
-			terms.put(new PTerm(variable, power), coeff);
+		this(coeff, new PTerm(variable, power));
 	}
 
 	/**
 	 * Creates the polynomial which contains only one term
-	 * 
+	 *
 	 * @param t
 	 *            the term
 	 */
 	public PPolynomial(final PTerm t) {
-		this();
-		terms.put(t, BigInteger.ONE);
+		this(new PTermTable(1));
+		terms.add(t, 1);
 	}
 
 	/**
 	 * Creates the polynomial coeff*t
-	 * 
+	 *
 	 * @param coeff
 	 *            the coefficient
 	 * @param t
 	 *            the term
 	 */
 	public PPolynomial(final BigInteger coeff, final PTerm t) {
-		this();
-		if (coeff != BigInteger.ZERO)
-			terms.put(t, coeff);
+		this(new PTermTable(1));
+		terms.add(t, coeff);
 	}
 
 	/**
 	 * Returns the sum of the polynomial plus another polynomial.
-	 * 
+	 *
 	 * @param poly
 	 *            the polynomial to add
 	 * @return the sum
 	 */
 	public PPolynomial add(final PPolynomial poly) {
-		TreeMap<PTerm, BigInteger> result = new TreeMap<>(terms);
-		TreeMap<PTerm, BigInteger> terms2 = poly.getTerms();
-		Iterator<Entry<PTerm, BigInteger>> it = terms2.entrySet().iterator();
-		while (it.hasNext()) {
-			Entry<PTerm, BigInteger> entry = it.next();
-			PTerm t = entry.getKey();
-			if (terms.containsKey(t)) {
-				BigInteger coefficient = terms.get(t).add(terms2.get(t));
-				if (coefficient == BigInteger.ZERO) {
-					result.remove(t);
-				} else {
-					result.put(t, terms.get(t).add(entry.getValue()));
-				}
-			} else {
-				result.put(t, entry.getValue());
-			}
-		}
-		return new PPolynomial(result);
+		return addMultiple(poly, 1);
 	}
 
 	/**
 	 * Calculates the additive inverse of the polynomial
-	 * 
+	 *
 	 * @return the negation of the polynomial
 	 */
 	public PPolynomial negate() {
-		TreeMap<PTerm, BigInteger> result = new TreeMap<>();
-		Iterator<Entry<PTerm, BigInteger>> it = terms.entrySet().iterator();
-		while (it.hasNext()) {
-			Entry<PTerm, BigInteger> entry = it.next();
-			PTerm t = entry.getKey();
-			result.put(t, BigInteger.ZERO.subtract(entry.getValue()));
-		}
+		PTermTable result = new PTermTable(terms.size());
+		result.addAll(terms, -1);
 		return new PPolynomial(result);
 	}
 
 	/**
 	 * Subtracts another polynomial
-	 * 
+	 *
 	 * @param poly
 	 *            the polynomial which is subtracted
 	 * @return the difference
 	 */
 	public PPolynomial subtract(final PPolynomial poly) {
-		return add(poly.negate());
+		return addMultiple(poly, -1);
+	}
+
+	private PPolynomial addMultiple(final PPolynomial poly, long factor) {
+		if (poly.isZero()) {
+			return this;
+		}
+		PTermTable result = terms.copy();
+		result.addAll(poly.terms, factor);
+		return new PPolynomial(result);
 	}
 
 	/**
 	 * Multiplies the polynomial with another polynomial
-	 * 
+	 *
 	 * @param poly
 	 *            the polynomial which is multiplied
 	 * @return the product
 	 */
 	public PPolynomial multiply(final PPolynomial poly) {
-		TreeMap<PTerm, BigInteger> result = new TreeMap<>();
-		TreeMap<PTerm, BigInteger> terms2 = poly.getTerms();
-		Iterator<Entry<PTerm, BigInteger>> it1 = terms.entrySet().iterator();
-		while (it1.hasNext()) {
-			Entry<PTerm, BigInteger> entry1 = it1.next();
-			PTerm t1 = entry1.getKey();
-			Iterator<Entry<PTerm, BigInteger>> it2 = terms2.entrySet()
-					.iterator();
-			while (it2.hasNext()) {
-				Entry<PTerm, BigInteger> entry2 = it2.next();
-				PTerm t2 = entry2.getKey();
+		PTermTable terms2 = poly.terms;
+		PTermTable result = new PTermTable(
+				(int) Math.min(1 << 16, (long) terms.size() * terms2.size()));
+		for (int slot1 = 0; slot1 < terms.capacity(); slot1++) {
+			PTerm t1 = terms.getTerm(slot1);
+			if (t1 == null) {
+				continue;
+			}
+			for (int slot2 = 0; slot2 < terms2.capacity(); slot2++) {
+				PTerm t2 = terms2.getTerm(slot2);
+				if (t2 == null) {
+					continue;
+				}
 				PTerm product = t1.times(t2);
-				BigInteger productCoefficient = entry1.getValue()
-						.multiply(entry2.getValue());
-				if (result.containsKey(product)) {
-					BigInteger sum = result.get(product).add(productCoefficient);
-					if (sum == BigInteger.ZERO) {
-						result.remove(product);
-					} else {
-						result.put(product, result.get(product).add(productCoefficient));
-					}
+				if (terms.isSmall(slot1) && terms2.isSmall(slot2)) {
+					result.addProduct(product, terms.getSmallCoefficient(slot1),
+							terms2.getSmallCoefficient(slot2));
 				} else {
-					result.put(product, productCoefficient);
+					result.add(product, terms.getCoefficient(slot1)
+							.multiply(terms2.getCoefficient(slot2)));
 				}
 			}
-
 		}
 		return new PPolynomial(result);
 	}
 
-	@Override
-	public int compareTo(PPolynomial poly) {
-		if (this==poly){
-			return 0;
+	/**
+	 * Sorts the terms if they were not sorted yet.
+	 */
+	private void sortTerms() {
+		if (sortedSlots != null) {
+			return;
 		}
-
-		TreeMap<PTerm, BigInteger> polyVars = poly.getTerms();
-		if (polyVars.isEmpty()) {
-			if (terms.isEmpty()) {
-				return 0;
+		PTerm[] sorted = new PTerm[terms.size()];
+		int i = 0;
+		for (int slot = 0; slot < terms.capacity(); slot++) {
+			PTerm t = terms.getTerm(slot);
+			if (t != null) {
+				sorted[i++] = t;
 			}
-			return 1;
 		}
-		if (terms.isEmpty()) {
-			return -1;
+		Arrays.sort(sorted);
+		int[] slots = new int[sorted.length];
+		for (i = 0; i < sorted.length; i++) {
+			slots[i] = terms.find(sorted[i]);
 		}
-		
-		PTerm termsLastKey=terms.lastKey(),
-				polyVarsLastKey=polyVars.lastKey();
-
-		int compare = termsLastKey.compareTo(polyVarsLastKey);
+		sortedTerms = sorted;
+		sortedSlots = slots;
+	}
 
-		if (compare == 0) {
-			compare = terms.get(termsLastKey).compareTo(polyVars.get(polyVarsLastKey));
+	private int compareCoefficients(int slot, PPolynomial poly, int polySlot) {
+		if (terms.isSmall(slot) && poly.terms.isSmall(polySlot)) {
+			return Long.compare(terms.getSmallCoefficient(slot),
+					poly.terms.getSmallCoefficient(polySlot));
 		}
+		return terms.getCoefficient(slot)
+				.compareTo(poly.terms.getCoefficient(polySlot));
+	}
 
-		if (compare != 0) {
-			return compare;
+	@Override
+	public int compareTo(PPolynomial poly) {
+		if (this == poly) {
+			return 0;
 		}
-		
-		do {
-			SortedMap<PTerm, BigInteger> termsSub = terms.headMap(termsLastKey);
-			SortedMap<PTerm, BigInteger> oSub = polyVars.headMap(polyVarsLastKey);
-			if (termsSub.isEmpty()) {
-				if (oSub.isEmpty()) {
-					return 0;
-				}
-				return -1;
-			}
-			if (oSub.isEmpty()) {
-				return 1;
-			}
-			termsLastKey=termsSub.lastKey();
-			polyVarsLastKey=oSub.lastKey();
-			compare = termsLastKey.compareTo(polyVarsLastKey);
+		sortTerms();
+		poly.sortTerms();
+		int i = sortedTerms.length - 1;
+		int j = poly.sortedTerms.length - 1;
+		while (i >= 0 && j >= 0) {
+			int compare = sortedTerms[i].compareTo(poly.sortedTerms[j]);
 			if (compare == 0) {
-				compare = termsSub.get(termsLastKey).compareTo(
-						oSub.get(polyVarsLastKey));
+				compare = compareCoefficients(sortedSlots[i], poly,
+						poly.sortedSlots[j]);
 			}
-		} while (compare == 0);
-
-		return compare;
+			if (compare != 0) {
+				return compare;
+			}
+			i--;
+			j--;
+		}
+		if (i >= 0) {
+			return 1;
+		}
+		return j >= 0 ? -1 : 0;
 	}
 
 	@Override
 	public String toString() {
-		StringBuilder sb = new StringBuilder();
-		Iterator<Entry<PTerm, BigInteger>> it = terms.entrySet().iterator();
-		if (!it.hasNext()) {
-			return "0";
+		if (string == null) {
+			StringBuilder sb = new StringBuilder();
+			appendTo(sb);
+			string = sb.toString();
 		}
-		while (it.hasNext()) {
-			Entry<PTerm, BigInteger> entry = it.next();
-			PTerm t = entry.getKey();
-			BigInteger c = entry.getValue();
-			if (!t.getTerm().isEmpty()) {
-				if (c != BigInteger.ONE)
-					sb.append(c + "*");
-				sb.append(t);
+		return string;
+	}
+
+	/**
+	 * Appends the polynomial to a string builder, in the format of
+	 * toString(): terms in increasing order, coefficients 1 and -1 omitted.
+	 *
+	 * @param sb
+	 *            string builder
+	 */
+	private void appendTo(StringBuilder sb) {
+		if (string != null) {
+			sb.append(string);
+			return;
+		}
+		sortTerms();
+		if (sortedTerms.length == 0) {
+			sb.append('0');
+			return;
+		}
+		for (int i = 0; i < sortedTerms.length; i++) {
+			PTerm t = sortedTerms[i];
+			int slot = sortedSlots[i];
+			boolean small = terms.isSmall(slot);
+			long c = terms.getSmallCoefficient(slot);
+			boolean positive = small ? c > 0
+					: terms.getCoefficient(slot).signum() > 0;
+			if (i > 0 && positive) {
+				sb.append('+');
 			}
-			else
-				sb.append(c);
-			sb.append('+');
+			if (t.getVariableCount() == 0) {
+				sb.append(small ? Long.toString(c)
+						: terms.getCoefficient(slot).toString());
+				continue;
+			}
+			if (small && c == -1) {
+				sb.append('-');
+			} else if (!small || c != 1) {
+				sb.append(small ? Long.toString(c)
+						: terms.getCoefficient(slot).toString());
+				sb.append('*');
+			}
+			t.appendTo(sb);
 		}
-		String ret = sb.substring(0, sb.length() - 1); // removing closing "+"
-		ret = ret.replaceAll("\\+-", "-").replaceAll("-1\\*", "-")
-				.replaceAll("\\+1\\*", "+").replaceAll("^1\\*", "");
-		return ret;
 	}
 
 	/**
@@ -322,54 +351,44 @@ public String toString() {
 	 * @return the LaTeX formatted polynomial
 	 */
 	public String toTeX() {
-		StringBuilder sb = new StringBuilder();
-		Iterator<Entry<PTerm, BigInteger>> it = terms.entrySet().iterator();
-		if (!it.hasNext()) {
+		sortTerms();
+		if (sortedTerms.length == 0) {
 			return "0";
 		}
-		while (it.hasNext()) {
-			Entry<PTerm, BigInteger> entry = it.next();
-			PTerm t = entry.getKey();
-			BigInteger c = entry.getValue();
-			if (!t.getTerm().isEmpty()) {
-				if (!c.equals(BigInteger.ONE)) {
-					// c != -1
-					if (!(c.add(BigInteger.ONE)).equals(BigInteger.ZERO)) {
-						// c < -1
-						if (c.add(BigInteger.ONE).compareTo(BigInteger.ZERO) < 0) {
-							if (sb.length() > 0) {
-								sb.deleteCharAt(sb.length()-1); // removing last "+"
-							}
-						} 
-						sb.append(c);
-					} else {
-						// -1
-						if (sb.length() > 0) {
-							sb.deleteCharAt(sb.length()-1); // removing last "+"
-						}
-						sb.append('-');
-					}
-				}
-				sb.append(t.toTeX());
+		StringBuilder sb = new StringBuilder();
+		for (int i = 0; i < sortedTerms.length; i++) {
+			PTerm t = sortedTerms[i];
+			BigInteger c = terms.getCoefficient(sortedSlots[i]);
+			if (i > 0 && c.signum() > 0) {
+				sb.append('+');
 			}
-			else
+			if (t.getVariableCount() == 0) {
 				sb.append(c);
-			sb.append('+');
+				continue;
+			}
+			if (c.equals(BigInteger.ONE.negate())) {
+				sb.append('-');
+			} else if (!c.equals(BigInteger.ONE)) {
+				sb.append(c);
+			}
+			sb.append(t.toTeX());
 		}
-		return sb.substring(0, sb.length() - 1); // removing closing "+"
+		return sb.toString();
 	}
 
-	
 	/**
 	 * The set of the variables in this polynomial
 	 * @return the set of variables
 	 */
 	public HashSet<PVariable> getVars() {
 		HashSet<PVariable> v = new HashSet<>();
-		Iterator<PTerm> it = terms.keySet().iterator();
-		while (it.hasNext()) {
-			PTerm t = it.next();
-			v.addAll(t.getVars());
+		for (int slot = 0; slot < terms.capacity(); slot++) {
+			PTerm t = terms.getTerm(slot);
+			if (t != null) {
+				for (int i = 0; i < t.getVariableCount(); i++) {
+					v.add(t.getVariable(i));
+				}
+			}
 		}
 		return v;
 	}
@@ -451,7 +470,8 @@ public static String getPolysAsCommaSeparatedString(PPolynomial[] polys) {
 		StringBuilder sb = new StringBuilder();
 		for (int i = 0; i < polys.length; ++i) {
 			if (!polys[i].isZero()) { // avoid sending 0 to Giac's eliminate
-				sb.append("," + polys[i].toString());
+				sb.append(',');
+				polys[i].appendTo(sb);
 			}
 		}
 		if (sb.length()>0)
@@ -682,39 +702,32 @@ public PPolynomial substitute(Map<PVariable, BigInteger> substitutions) {
 		
 		if (substitutions == null)
 			return this;
-			
-		TreeMap<PTerm, BigInteger> result = new TreeMap<>();
 
-		Iterator<Entry<PTerm, BigInteger>> it = terms.entrySet().iterator();
-		while (it.hasNext()) {
-			Entry<PTerm, BigInteger> entry = it.next();
-			PTerm t1 = entry.getKey();
-			TreeMap<PVariable, Integer> term = new TreeMap<>(t1.getTerm());
-			BigInteger product = BigInteger.ONE;
-			Iterator<Entry<PVariable, BigInteger>> itSubst = substitutions
-					.entrySet()
-					.iterator();
-			while (itSubst.hasNext()) {
-				Entry<PVariable, BigInteger> entrySubst = itSubst.next();
-				PVariable variable = entrySubst.getKey();
-				Integer exponent = term.get(variable);
-				if (exponent != null) {
-					product = product
-							.multiply(entrySubst.getValue().pow(exponent));
-					term.remove(variable);
+		PTermTable result = new PTermTable(terms.size());
+		for (int slot = 0; slot < terms.capacity(); slot++) {
+			PTerm t = terms.getTerm(slot);
+			if (t == null) {
+				continue;
+			}
+			BigInteger product = null;
+			for (int i = t.getVariableCount() - 1; i >= 0; i--) {
+				PVariable variable = t.getVariable(i);
+				BigInteger value = substitutions.get(variable);
+				if (value != null) {
+					BigInteger power = value.pow(t.getPower(i));
+					product = product == null ? power
+							: product.multiply(power);
+					t = t.remove(variable);
 				}
 			}
-			product = product.multiply(entry.getValue());
-			PTerm t = new PTerm(term);
-			if (result.containsKey(t)) {
-				BigInteger sum = result.get(t).add(product);
-				if (sum.longValue() == 0) {
-					result.remove(t);
+			if (product == null) {
+				if (terms.isSmall(slot)) {
+					result.add(t, terms.getSmallCoefficient(slot));
 				} else {
-					result.put(t, sum);
+					result.add(t, terms.getCoefficient(slot));
 				}
-			} else if (product.intValue() != 0){
-				result.put(t, product);
+			} else {
+				result.add(t, product.multiply(terms.getCoefficient(slot)));
 			}
 		}
 		return new PPolynomial(result);
@@ -731,27 +744,17 @@ public PPolynomial substitute(Map<PVariable, BigInteger> substitutions) {
 	 */
 	public PPolynomial substitute(PVariable oldVar, PVariable newVar) {
 
-		TreeMap<PTerm, BigInteger> result = new TreeMap<>();
-		Iterator<Entry<PTerm, BigInteger>> it = terms.entrySet().iterator();
-		while (it.hasNext()) {
-			Entry<PTerm, BigInteger> entry = it.next();
-			PTerm t1 = entry.getKey();
-			TreeMap<PVariable, Integer> term = new TreeMap<>(
-					t1.getTerm());
-			Integer oldExponent = term.get(oldVar);
-			if (oldExponent != null) {
-				Integer newExponent = term.get(newVar);
-				if (newExponent == null) {
-					newExponent = 0;
-				} else {
-					term.remove(newVar);
-				}
-				term.remove(oldVar);
-				term.put(newVar, oldExponent + newExponent);
+		PTermTable result = new PTermTable(terms.size());
+		for (int slot = 0; slot < terms.capacity(); slot++) {
+			PTerm t = terms.getTerm(slot);
+			if (t == null) {
+				continue;
 			}
-			BigInteger coeff = entry.getValue();
-			PTerm t = new PTerm(term);
-			result.put(t, coeff);
+			int oldExponent = t.getPower(oldVar);
+			if (oldExponent != 0) {
+				t = t.remove(oldVar).times(new PTerm(newVar, oldExponent));
+			}
+			result.add(t, terms.getCoefficient(slot));
 		}
 		return new PPolynomial(result);
 	}
@@ -767,7 +770,16 @@ public boolean equals(Object o) {
 
 	@Override
 	public int hashCode() {
-		return terms.hashCode();
+		int hash = 0;
+		for (int slot = 0; slot < terms.capacity(); slot++) {
+			PTerm t = terms.getTerm(slot);
+			if (t != null) {
+				long c = terms.isSmall(slot) ? terms.getSmallCoefficient(slot)
+						: terms.getCoefficient(slot).hashCode();
+				hash += t.hashCode() ^ (int) (c ^ (c >>> 32));
+			}
+		}
+		return hash;
 	}
 
 	/**
@@ -775,7 +787,7 @@ public int hashCode() {
 	 * @return true if the polynomial is zero false otherwise
 	 */
 	public boolean isZero() {
-		return terms.isEmpty();
+		return terms.size() == 0;
 	}
 	
 	/**
@@ -786,11 +798,8 @@ public boolean isConstant() {
 		if (terms.size() > 1) {
 			return false;
 		}
-		if (terms.firstKey().equals(new PTerm())) {
-			return true;
-		}
-		return false;
-		}
+		return terms.size() == 0 || terms.find(new PTerm()) >= 0;
+	}
 	
 	/**
 	 * @return Integer value of Polynomial if it is constant
@@ -799,7 +808,9 @@ public BigInteger getConstant() {
 		if (terms.size() > 1) {
 			return null;
 		}
-		return terms.firstEntry().getValue();
+		sortTerms();
+		return sortedTerms.length == 0 ? BigInteger.ZERO
+				: terms.getCoefficient(sortedSlots[0]);
 	}
 
 	/**
@@ -1,112 +1,224 @@
 package org.geogebra.common.kernel.prover.polynomial;
 
 import java.util.HashSet;
-import java.util.Iterator;
-import java.util.Map.Entry;
-import java.util.SortedMap;
 import java.util.TreeMap;
 
 /**
  * A simple class for terms which are a products of potences of variables.
- * 
+ *
+ * Terms are immutable. The variables are stored in their natural order (i.e.
+ * decreasing id) in an array, the exponents in a parallel array.
+ *
  * @author Simon Weitzhofer
- * 
+ *
  */
 public class PTerm implements Comparable<PTerm> {
-	private TreeMap<PVariable, Integer> variables;
+	private static final PVariable[] NO_VARIABLES = new PVariable[0];
+	private static final int[] NO_POWERS = new int[0];
+
+	private final PVariable[] variables;
+	private final int[] powers;
+	private final int hash;
 
 	/**
 	 * creates the 1 term
 	 */
 	public PTerm() {
-		variables = new TreeMap<>();
+		this(NO_VARIABLES, NO_POWERS);
 	}
 
 	/**
 	 * Copies a term
-	 * 
+	 *
 	 * @param t
 	 *            the term to copy
 	 */
 	public PTerm(final PTerm t) {
-		variables = new TreeMap<>(t.getTerm());
+		this(t.variables, t.powers);
 	}
 
 	/**
 	 * Creates a Term out of a map from variables to integers. The term is the
 	 * product of the variables raised by the corresponding integers.
-	 * 
+	 *
 	 * @param variables
 	 *            The map
 	 */
 	PTerm(final TreeMap<PVariable, Integer> variables) {
-		this.variables = variables;
+		this(variables.keySet().toArray(new PVariable[0]),
+				toArray(variables));
 	}
 
 	/**
 	 * Creates a term which consist only of one variable
-	 * 
+	 *
 	 * @param variable
 	 *            the variable
 	 */
 	public PTerm(final PVariable variable) {
-		variables = new TreeMap<>();
-		variables.put(variable, 1);
+		this(variable, 1);
 	}
 
 	/**
 	 * Creates a term variable^exponent
-	 * 
+	 *
 	 * @param variable
 	 *            the variable
 	 * @param exponent
 	 *            the exponent
 	 */
 	public PTerm(final PVariable variable, final int exponent) {
-		variables = new TreeMap<>();
-		variables.put(variable, exponent);
+		this(new PVariable[] { variable }, new int[] { exponent });
+	}
+
+	/**
+	 * @param variables
+	 *            variables in natural order, not copied
+	 * @param powers
+	 *            exponents of the variables, not copied
+	 */
+	private PTerm(PVariable[] variables, int[] powers) {
+		this.variables = variables;
+		this.powers = powers;
+		int h = 0;
+		for (int i = 0; i < variables.length; i++) {
+			h = 31 * (31 * h + variables[i].getId()) + powers[i];
+		}
+		this.hash = h;
+	}
+
+	private static int[] toArray(TreeMap<PVariable, Integer> variables) {
+		int[] powers = new int[variables.size()];
+		int i = 0;
+		for (Integer power : variables.values()) {
+			powers[i++] = power;
+		}
+		return powers;
 	}
 
 	/**
 	 * Calculates the product of the term and another term
-	 * 
+	 *
 	 * @param term
 	 *            the other term
 	 * @return the product
 	 */
 	public PTerm times(final PTerm term) {
-		TreeMap<PVariable, Integer> productTerm = new TreeMap<>(
-				variables);
-
-		TreeMap<PVariable, Integer> variables2 = term.getTerm();
-		Iterator<PVariable> it = term.getTerm().keySet().iterator();
-		while (it.hasNext()) {
-			PVariable vp = it.next();
-			if (variables.containsKey(vp)) {
-				productTerm.put(vp, variables.get(vp) + variables2.get(vp));
+		if (term.variables.length == 0) {
+			return this;
+		}
+		if (variables.length == 0) {
+			return term;
+		}
+		PVariable[] productVariables = new PVariable[variables.length
+				+ term.variables.length];
+		int[] productPowers = new int[productVariables.length];
+		int i = 0, j = 0, k = 0;
+		while (i < variables.length || j < term.variables.length) {
+			int compare = i == variables.length ? 1
+					: j == term.variables.length ? -1
+							: variables[i].compareTo(term.variables[j]);
+			if (compare < 0) {
+				productVariables[k] = variables[i];
+				productPowers[k++] = powers[i++];
+			} else if (compare > 0) {
+				productVariables[k] = term.variables[j];
+				productPowers[k++] = term.powers[j++];
 			} else {
-				productTerm.put(vp, variables2.get(vp));
+				productVariables[k] = variables[i];
+				productPowers[k++] = powers[i++] + term.powers[j++];
 			}
 		}
-		return new PTerm(productTerm);
+		if (k < productVariables.length) {
+			PVariable[] trimmedVariables = new PVariable[k];
+			int[] trimmedPowers = new int[k];
+			System.arraycopy(productVariables, 0, trimmedVariables, 0, k);
+			System.arraycopy(productPowers, 0, trimmedPowers, 0, k);
+			return new PTerm(trimmedVariables, trimmedPowers);
+		}
+		return new PTerm(productVariables, productPowers);
 	}
 
 	/**
 	 * Getter for the map containing the variables and the exponent
-	 * 
-	 * @return the map
+	 *
+	 * @return a new map of the variables and their exponents
 	 */
 	public TreeMap<PVariable, Integer> getTerm() {
-		return variables;
+		TreeMap<PVariable, Integer> map = new TreeMap<>();
+		for (int i = 0; i < variables.length; i++) {
+			map.put(variables[i], powers[i]);
+		}
+		return map;
+	}
+
+	/**
+	 * @return number of variables in this term
+	 */
+	int getVariableCount() {
+		return variables.length;
+	}
+
+	/**
+	 * @param i
+	 *            index, variables are in natural order
+	 * @return i-th variable
+	 */
+	PVariable getVariable(int i) {
+		return variables[i];
+	}
+
+	/**
+	 * @param i
+	 *            index, variables are in natural order
+	 * @return exponent of the i-th variable
+	 */
+	int getPower(int i) {
+		return powers[i];
+	}
+
+	/**
+	 * @param variable
+	 *            variable
+	 * @return this term without the variable
+	 */
+	PTerm remove(PVariable variable) {
+		for (int i = 0; i < variables.length; i++) {
+			if (variables[i].getId() == variable.getId()) {
+				PVariable[] rest = new PVariable[variables.length - 1];
+				int[] restPowers = new int[rest.length];
+				System.arraycopy(variables, 0, rest, 0, i);
+				System.arraycopy(variables, i + 1, rest, i, rest.length - i);
+				System.arraycopy(powers, 0, restPowers, 0, i);
+				System.arraycopy(powers, i + 1, restPowers, i,
+						rest.length - i);
+				return new PTerm(rest, restPowers);
+			}
+		}
+		return this;
+	}
+
+	/**
+	 * @param variable
+	 *            variable
+	 * @return exponent of the variable, 0 if it's not in the term
+	 */
+	int getPower(PVariable variable) {
+		for (int i = 0; i < variables.length; i++) {
+			if (variables[i].getId() == variable.getId()) {
+				return powers[i];
+			}
+		}
+		return 0;
 	}
 
 	/**
 	 * Gets the variable with the highest order
-	 * 
+	 *
 	 * @return the variable with the highest order
 	 */
 	public PVariable getHighestVariable() {
-		return variables.lastKey();
+		return variables[variables.length - 1];
 	}
 
 	@Override
@@ -114,100 +226,80 @@ public int compareTo(PTerm o) {
 		if (this == o) {
 			return 0;
 		}
-
-		TreeMap<PVariable, Integer> t = o.getTerm();
-		if (t.isEmpty()) {
-			if (variables.isEmpty()) {
-				return 0;
+		int i = variables.length - 1;
+		int j = o.variables.length - 1;
+		while (i >= 0 && j >= 0) {
+			int compare = variables[i].compareTo(o.variables[j]);
+			if (compare == 0) {
+				compare = Integer.compare(powers[i], o.powers[j]);
 			}
-			return 1;
-		}
-		if (variables.isEmpty()) {
-			return -1;
-		}
-
-		PVariable variablesLastKey = variables.lastKey(), tLastKey = t.lastKey();
-
-		int compare = variablesLastKey.compareTo(tLastKey);
-
-		if (compare == 0) {
-			compare = variables.get(variablesLastKey)
-					.compareTo(t.get(tLastKey));
+			if (compare != 0) {
+				return compare;
+			}
+			i--;
+			j--;
 		}
-
-		if (compare != 0) {
-			return compare;
+		if (i >= 0) {
+			return 1;
 		}
-
-		do {
-			SortedMap<PVariable, Integer> variablesSub = variables
-					.headMap(variablesLastKey);
-			SortedMap<PVariable, Integer> oSub = t.headMap(tLastKey);
-			if (variablesSub.isEmpty()) {
-				if (oSub.isEmpty()) {
-					return 0;
-				}
-				return -1;
-			}
-			if (oSub.isEmpty()) {
-				return 1;
-			}
-			variablesLastKey = variablesSub.lastKey();
-			tLastKey = oSub.lastKey();
-			compare = variablesLastKey.compareTo(tLastKey);
-			if (compare == 0) {
-				compare = variablesSub.get(variablesLastKey)
-						.compareTo(oSub.get(tLastKey));
-			}
-		} while (compare == 0);
-
-		return compare;
+		return j >= 0 ? -1 : 0;
 	}
 
 	@Override
 	public boolean equals(Object o) {
 		if (o instanceof PTerm) {
-			return this.compareTo((PTerm) o) == 0;
+			PTerm t = (PTerm) o;
+			if (t.hash != hash || t.variables.length != variables.length) {
+				return false;
+			}
+			for (int i = 0; i < variables.length; i++) {
+				if (variables[i].getId() != t.variables[i].getId()
+						|| powers[i] != t.powers[i]) {
+					return false;
+				}
+			}
+			return true;
 		}
 		return super.equals(o);
 	}
 
 	@Override
 	public String toString() {
-		StringBuilder sb = new StringBuilder("");
-		Iterator<Entry<PVariable, Integer>> it = variables.entrySet().iterator();
-		while (it.hasNext()) {
-			Entry<PVariable, Integer> entry = it.next();
-			PVariable fv = entry.getKey();
-			sb.append("*");
-			sb.append(fv);
-			int power = entry.getValue();
-			if (power > 1) {
-				sb.append("^");
-				sb.append(power);
+		StringBuilder sb = new StringBuilder();
+		appendTo(sb);
+		return sb.toString();
+	}
+
+	/**
+	 * Appends the term to a string builder, in the format of toString()
+	 *
+	 * @param sb
+	 *            string builder
+	 */
+	void appendTo(StringBuilder sb) {
+		for (int i = 0; i < variables.length; i++) {
+			if (i > 0) {
+				sb.append('*');
+			}
+			sb.append(variables[i].getName());
+			if (powers[i] > 1) {
+				sb.append('^');
+				sb.append(powers[i]);
 			}
 		}
-		if (sb.length() > 0) {
-			return sb.substring(1); // removing first "*" character
-		}
-		return "";
 	}
 
 	/**
 	 * Exports the term into LaTeX
-	 * 
+	 *
 	 * @return LaTeX formatted polynomial
 	 */
 	public String toTeX() {
-		StringBuilder sb = new StringBuilder("");
-		Iterator<Entry<PVariable, Integer>> it = variables.entrySet().iterator();
-		while (it.hasNext()) {
-			Entry<PVariable, Integer> entry = it.next();
-			PVariable fv = entry.getKey();
-			sb.append(fv.toTeX());
-			int power = entry.getValue();
-			if (power > 1) {
-				sb.append("^{" + power + "}");
+		StringBuilder sb = new StringBuilder();
+		for (int i = 0; i < variables.length; i++) {
+			sb.append(variables[i].toTeX());
+			if (powers[i] > 1) {
+				sb.append("^{").append(powers[i]).append('}');
 			}
 		}
 		return sb.toString();
@@ -215,31 +307,25 @@ public String toTeX() {
 
 	/**
 	 * The set of variables in this term
-	 * 
+	 *
 	 * @return the set of variables
 	 */
 	public HashSet<PVariable> getVars() {
 		HashSet<PVariable> v = new HashSet<>();
-		Iterator<PVariable> it = variables.keySet().iterator();
-		while (it.hasNext()) {
-			PVariable fv = it.next();
-			v.add(fv);
+		for (PVariable variable : variables) {
+			v.add(variable);
 		}
 		return v;
 	}
 
 	@Override
 	public int hashCode() {
-		if (variables.isEmpty()) {
-			return 0;
-		}
-		return variables.firstKey().hashCode() >> variables.lastKey()
-				.hashCode();
+		return hash;
 	}
 
 	/**
 	 * Test whether the term f is a multiple of term g
-	 * 
+	 *
 	 * @param f
 	 *            the dividend
 	 * @param g
@@ -247,13 +333,15 @@ public int hashCode() {
 	 * @return true if g divides f and false otherwise
 	 */
 	public static boolean divides(final PTerm f, final PTerm g) {
-		TreeMap<PVariable, Integer> termG = g.getTerm();
-		Iterator<Entry<PVariable, Integer>> itG = termG.entrySet().iterator();
-		while (itG.hasNext()) {
-			Entry<PVariable, Integer> entry = itG.next();
-			PVariable var = entry.getKey();
-			Integer powF = f.getTerm().get(var);
-			if (powF == null || powF.intValue() < entry.getValue().intValue()) {
+		int i = 0;
+		for (int j = 0; j < g.variables.length; j++) {
+			while (i < f.variables.length
+					&& f.variables[i].compareTo(g.variables[j]) < 0) {
+				i++;
+			}
+			if (i == f.variables.length
+					|| f.variables[i].getId() != g.variables[j].getId()
+					|| f.powers[i] < g.powers[j]) {
 				return false;
 			}
 		}
@@ -0,0 +1,315 @@
+package org.geogebra.common.kernel.prover.polynomial;
+
+import java.math.BigInteger;
+
+/**
+ * Hash table from terms to coefficients with open addressing (linear
+ * probing).
+ *
+ * Coefficients are stored as long values and only promoted to BigInteger
+ * when they don't fit into a long; a BigInteger coefficient that fits into a
+ * long again is demoted, so each value has exactly one representation.
+ *
+ * Entries whose coefficient becomes zero keep their slot (the term is likely
+ * to come back during accumulation) but don't count as terms; they are
+ * dropped by {@link #trim()}.
+ */
+final class PTermTable {
+	private PTerm[] keys;
+	private long[] coeffs;
+	/** non-null at a slot iff the coefficient doesn't fit into a long */
+	private BigInteger[] bigCoeffs;
+	private int used = 0;
+	private int size = 0;
+
+	/**
+	 * @param expectedSize
+	 *            expected number of terms
+	 */
+	PTermTable(int expectedSize) {
+		int capacity = 8;
+		while (capacity < 2 * expectedSize && capacity < (1 << 30)) {
+			capacity <<= 1;
+		}
+		keys = new PTerm[capacity];
+		coeffs = new long[capacity];
+	}
+
+	/**
+	 * @return copy of this table
+	 */
+	PTermTable copy() {
+		PTermTable copy = new PTermTable(0);
+		copy.keys = keys.clone();
+		copy.coeffs = coeffs.clone();
+		copy.bigCoeffs = bigCoeffs == null ? null : bigCoeffs.clone();
+		copy.used = used;
+		copy.size = size;
+		return copy;
+	}
+
+	/**
+	 * @return number of terms with nonzero coefficient
+	 */
+	int size() {
+		return size;
+	}
+
+	/**
+	 * @return number of slots, for iteration with {@link #getTerm(int)}
+	 */
+	int capacity() {
+		return keys.length;
+	}
+
+	/**
+	 * @param slot
+	 *            slot
+	 * @return term with nonzero coefficient in the slot or null
+	 */
+	PTerm getTerm(int slot) {
+		return isZero(slot) ? null : keys[slot];
+	}
+
+	/**
+	 * @param slot
+	 *            slot of a term
+	 * @return whether the coefficient fits into a long
+	 */
+	boolean isSmall(int slot) {
+		return bigCoeffs == null || bigCoeffs[slot] == null;
+	}
+
+	/**
+	 * @param slot
+	 *            slot of a term with {@link #isSmall(int)}
+	 * @return coefficient
+	 */
+	long getSmallCoefficient(int slot) {
+		return coeffs[slot];
+	}
+
+	/**
+	 * @param slot
+	 *            slot of a term
+	 * @return coefficient
+	 */
+	BigInteger getCoefficient(int slot) {
+		return isSmall(slot) ? BigInteger.valueOf(coeffs[slot])
+				: bigCoeffs[slot];
+	}
+
+	/**
+	 * @param term
+	 *            term
+	 * @return slot of the term or -1 if it has no nonzero coefficient
+	 */
+	int find(PTerm term) {
+		int mask = keys.length - 1;
+		int slot = mix(term.hashCode()) & mask;
+		while (keys[slot] != null) {
+			if (keys[slot].equals(term)) {
+				return isZero(slot) ? -1 : slot;
+			}
+			slot = (slot + 1) & mask;
+		}
+		return -1;
+	}
+
+	/**
+	 * Adds coeff*term.
+	 *
+	 * @param term
+	 *            term
+	 * @param coeff
+	 *            coefficient
+	 */
+	void add(PTerm term, long coeff) {
+		if (coeff == 0) {
+			return;
+		}
+		int slot = slot(term);
+		boolean wasZero = isZero(slot);
+		if (isSmall(slot)) {
+			long sum = coeffs[slot] + coeff;
+			// overflow iff both summands have the sign opposite to the sum
+			if (((coeffs[slot] ^ sum) & (coeff ^ sum)) < 0) {
+				setBig(slot, BigInteger.valueOf(coeffs[slot])
+						.add(BigInteger.valueOf(coeff)));
+			} else {
+				coeffs[slot] = sum;
+			}
+		} else {
+			setBig(slot, bigCoeffs[slot].add(BigInteger.valueOf(coeff)));
+		}
+		updateSize(slot, wasZero);
+	}
+
+	/**
+	 * Adds coeff*term.
+	 *
+	 * @param term
+	 *            term
+	 * @param coeff
+	 *            coefficient
+	 */
+	void add(PTerm term, BigInteger coeff) {
+		if (coeff.bitLength() < 64) {
+			add(term, coeff.longValue());
+			return;
+		}
+		int slot = slot(term);
+		boolean wasZero = isZero(slot);
+		setBig(slot, getCoefficient(slot).add(coeff));
+		updateSize(slot, wasZero);
+	}
+
+	/**
+	 * Adds a*b*term.
+	 *
+	 * @param term
+	 *            term
+	 * @param a
+	 *            first factor of the coefficient
+	 * @param b
+	 *            second factor of the coefficient
+	 */
+	void addProduct(PTerm term, long a, long b) {
+		long product = a * b;
+		// same overflow check as Math.multiplyExact
+		if (((Math.abs(a) | Math.abs(b)) >>> 31 == 0) || a == 0
+				|| (product / a == b && !(a == -1 && b == Long.MIN_VALUE))) {
+			add(term, product);
+		} else {
+			add(term, BigInteger.valueOf(a).multiply(BigInteger.valueOf(b)));
+		}
+	}
+
+	/**
+	 * Adds factor*other to this table.
+	 *
+	 * @param other
+	 *            other table
+	 * @param factor
+	 *            factor, typically 1 or -1
+	 */
+	void addAll(PTermTable other, long factor) {
+		for (int slot = 0; slot < other.keys.length; slot++) {
+			PTerm term = other.getTerm(slot);
+			if (term != null) {
+				if (other.isSmall(slot)) {
+					addProduct(term, other.coeffs[slot], factor);
+				} else {
+					add(term, other.bigCoeffs[slot]
+							.multiply(BigInteger.valueOf(factor)));
+				}
+			}
+		}
+	}
+
+	/**
+	 * Removes the slots of terms with zero coefficient.
+	 */
+	void trim() {
+		if (used == size) {
+			return;
+		}
+		PTerm[] oldKeys = keys;
+		long[] oldCoeffs = coeffs;
+		BigInteger[] oldBigCoeffs = bigCoeffs;
+		keys = new PTerm[oldKeys.length];
+		coeffs = new long[oldKeys.length];
+		bigCoeffs = null;
+		used = 0;
+		size = 0;
+		for (int slot = 0; slot < oldKeys.length; slot++) {
+			if (oldKeys[slot] == null) {
+				continue;
+			}
+			if (oldBigCoeffs != null && oldBigCoeffs[slot] != null) {
+				add(oldKeys[slot], oldBigCoeffs[slot]);
+			} else {
+				add(oldKeys[slot], oldCoeffs[slot]);
+			}
+		}
+	}
+
+	private boolean isZero(int slot) {
+		return keys[slot] == null || (coeffs[slot] == 0 && isSmall(slot));
+	}
+
+	private void updateSize(int slot, boolean wasZero) {
+		boolean zero = isZero(slot);
+		if (wasZero && !zero) {
+			size++;
+		} else if (!wasZero && zero) {
+			size--;
+		}
+	}
+
+	private void setBig(int slot, BigInteger value) {
+		if (value.bitLength() < 64) {
+			coeffs[slot] = value.longValue();
+			if (bigCoeffs != null) {
+				bigCoeffs[slot] = null;
+			}
+			return;
+		}
+		if (bigCoeffs == null) {
+			bigCoeffs = new BigInteger[keys.length];
+		}
+		bigCoeffs[slot] = value;
+		coeffs[slot] = 0;
+	}
+
+	/**
+	 * @param term
+	 *            term
+	 * @return slot of the term, a new empty slot is taken if necessary
+	 */
+	private int slot(PTerm term) {
+		if (2 * (used + 1) > keys.length) {
+			grow();
+		}
+		int mask = keys.length - 1;
+		int slot = mix(term.hashCode()) & mask;
+		while (keys[slot] != null) {
+			if (keys[slot].equals(term)) {
+				return slot;
+			}
+			slot = (slot + 1) & mask;
+		}
+		keys[slot] = term;
+		coeffs[slot] = 0;
+		used++;
+		return slot;
+	}
+
+	private void grow() {
+		PTerm[] oldKeys = keys;
+		long[] oldCoeffs = coeffs;
+		BigInteger[] oldBigCoeffs = bigCoeffs;
+		keys = new PTerm[2 * oldKeys.length];
+		coeffs = new long[keys.length];
+		bigCoeffs = oldBigCoeffs == null ? null : new BigInteger[keys.length];
+		int mask = keys.length - 1;
+		for (int i = 0; i < oldKeys.length; i++) {
+			if (oldKeys[i] != null) {
+				int slot = mix(oldKeys[i].hashCode()) & mask;
+				while (keys[slot] != null) {
+					slot = (slot + 1) & mask;
+				}
+				keys[slot] = oldKeys[i];
+				coeffs[slot] = oldCoeffs[i];
+				if (oldBigCoeffs != null) {
+					bigCoeffs[slot] = oldBigCoeffs[i];
+				}
+			}
+		}
+	}
+
+	private static int mix(int hash) {
+		int h = hash * 0x9E3779B9;
+		return h ^ (h >>> 16);
+	}
+}
@@ -2,10 +2,8 @@
 
 import java.util.ArrayList;
 import java.util.Iterator;
-import java.util.TreeSet;
 
 import org.geogebra.common.kernel.Kernel;
-import org.geogebra.common.kernel.algos.AlgoElement;
 import org.geogebra.common.kernel.arithmetic.Command;
 import org.geogebra.common.kernel.arithmetic.NumberValue;
 import org.geogebra.common.kernel.commands.CmdScripting;
@@ -55,7 +53,7 @@ protected final GeoElement[] perform(Command c) throws MyError {
 						set.add(geo);
 					}
 				}
-				GeoElement.updateCascade(set, new TreeSet<AlgoElement>(), true);
+				GeoElement.updateCascade(set, true);
 				kernel.notifyRepaint();
 				return arg;
 			}
@@ -162,22 +162,38 @@ final public void compute() {
 				return;
 			}
 
+			boolean packed = geoListx.isPackedNumbers()
+					&& geoListy.isPackedNumbers();
 			for (int i = 0; i < sizex; i++) {
-				GeoElement geox = geoListx.get(i);
-				GeoElement geoy = geoListy.get(i);
-				if (geox instanceof NumberValue
-						&& geoy instanceof NumberValue) {
+				if (packed) {
+					valx = geoListx.getPackedX(i);
+					valy = geoListy.getPackedX(i);
+				} else {
+					GeoElement geox = geoListx.get(i);
+					GeoElement geoy = geoListy.get(i);
+					if (!(geox instanceof NumberValue)
+							|| !(geoy instanceof NumberValue)) {
+						result.setUndefined();
+						return;
+					}
 					valx = geox.evaluateDouble();
 					valy = geoy.evaluateDouble();
-					sumx += valx;
-					sumy += valy;
-					sumxx += valx * valx;
-					sumyy += valy * valy;
-					sumxy += valx * valy;
-				} else {
-					result.setUndefined();
-					return;
 				}
+				sumx += valx;
+				sumy += valy;
+				sumxx += valx * valx;
+				sumyy += valy * valy;
+				sumxy += valx * valy;
+			}
+		} else if (geoListx.isPackedPoints()) {
+			for (int i = 0; i < sizex; i++) {
+				valx = geoListx.getPackedX(i);
+				valy = geoListx.getPackedY(i);
+				sumx += valx;
+				sumy += valy;
+				sumxx += valx * valx;
+				sumyy += valy * valy;
+				sumxy += valx * valy;
 			}
 		} else { // MODE_LISTOFPOINTS
 			for (int i = 0; i < sizex; i++) {
@@ -578,6 +578,13 @@ private void getPoints() {
 		// GeoPoint geopoint;
 		xlist = new double[size];
 		ylist = new double[size];
+		if (geolist.isPackedPoints()) {
+			for (int i = 0; i < size; i++) {
+				xlist[i] = geolist.getPackedX(i);
+				ylist[i] = geolist.getPackedY(i);
+			}
+			return;
+		}
 		for (int i = 0; i < size; i++) {
 			geoelement = geolist.get(i);
 			if (geoelement instanceof GeoPoint) {
@@ -3738,6 +3738,9 @@ public final boolean has(Feature f) {
 		case GEOMETRIC_DISCOVERY:
 			return prerelease;
 
+		case DELTA_UNDO:
+			return prerelease;
+
 		// **********************************************************************
        // G3D START
        //
@@ -35,4 +35,7 @@ public enum Feature {
 
 	/** G3D-343 */
 	G3D_SELECT_META,
+
+	/** store undo points as differences, see DeltaUndoManager */
+	DELTA_UNDO,
 }
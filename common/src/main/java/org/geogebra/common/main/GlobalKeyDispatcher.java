@@ -20,7 +20,6 @@
 import org.geogebra.common.kernel.ConstructionDefaults;
 import org.geogebra.common.kernel.Kernel;
 import org.geogebra.common.kernel.StringTemplate;
-import org.geogebra.common.kernel.algos.AlgoElement;
 import org.geogebra.common.kernel.arithmetic.NumberValue;
 import org.geogebra.common.kernel.geos.AbsoluteScreenLocateable;
 import org.geogebra.common.kernel.geos.GeoAngle;
@@ -57,7 +56,6 @@ public abstract class GlobalKeyDispatcher {
 	@Weak
 	protected final SelectionManager selection;
 
-	private TreeSet<AlgoElement> tempSet;
 	private Coords tempVec;
 	private boolean hasUnsavedGeoChanges;
 
@@ -99,16 +97,6 @@ public void handleFunctionKeyForAlgebraInput(int fkey, GeoElement geo) {
 		}
 	}
 
-	/**
-	 * @return temporary set of algos
-	 */
-	protected TreeSet<AlgoElement> getTempSet() {
-		if (tempSet == null) {
-			tempSet = new TreeSet<>();
-		}
-		return tempSet;
-	}
-
 	/**
 	 * Open rename dialog when first letter is typed
 	 * @param ch letter typed
@@ -1657,7 +1645,7 @@ else if (!geo.isIndependent()) {
 			}
 
 			// update all geos together
-			GeoElement.updateCascade(geos, getTempSet(), false);
+			GeoElement.updateCascade(geos, false);
 			app.getKernel().notifyRepaint();
 
 			return true;
@@ -52,6 +52,13 @@ public class ProverSettings {
 	 */
 	public boolean captionAlgebra = false;
 
+	/**
+	 * Run the engines of the Auto prover concurrently and take the first
+	 * conclusive answer (portfolio mode). The engines are tried in the order
+	 * of their past performance. Only supported in the desktop version.
+	 */
+	public boolean portfolio = false;
+
 	/**
 	 * @return singleton instance
 	 */
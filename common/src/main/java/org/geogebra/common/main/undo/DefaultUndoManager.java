@@ -36,14 +36,39 @@ public void storeUndoInfo(StringBuilder currentUndoXML, boolean refresh) {
      *            string builder with construction XML
      */
     private synchronized void doStoreUndoInfo(final StringBuilder undoXML) {
-        AppState appStateToAdd = new StringAppState(undoXML.toString());
+        AppState appStateToAdd = createAppState(undoXML);
         UndoCommand command = createUndoCommand(appStateToAdd);
-        maybeStoreUndoCommand(command);
+        if (maybeStoreUndoCommand(command)) {
+            // same as current state, not stored
+            command.delete();
+        } else {
+            onAppStateStored(appStateToAdd);
+        }
         pruneStateList();
         app.getEventDispatcher().dispatchEvent(new Event(EventType.STOREUNDO));
         onStoreUndo();
     }
 
+	/**
+	 * @param undoXML
+	 *            construction XML
+	 * @return state to be stored in the undo list
+	 */
+	protected AppState createAppState(StringBuilder undoXML) {
+		return new StringAppState(undoXML.toString());
+	}
+
+	/**
+	 * Called after a state was added to the undo list; states equal to the
+	 * current one are discarded without calling this.
+	 *
+	 * @param state
+	 *            stored state
+	 */
+	protected void onAppStateStored(AppState state) {
+		// only needed for delta undo
+	}
+
 	protected UndoCommand createUndoCommand(AppState appState) {
 		return new UndoCommand(appState);
 	}
@@ -0,0 +1,317 @@
+package org.geogebra.common.main.undo;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+
+/**
+ * App state that stores the construction XML as a list of chunks (see
+ * {@link XMLChunks}). Keyframes store all chunks, other states only store the
+ * chunks that were added, removed or changed with respect to the previous
+ * state.
+ */
+public class DeltaAppState implements AppState {
+
+	private static final char SEPARATOR = '\0';
+
+	private static int nextId = 0;
+
+	private final int id;
+	private final int previousId;
+	private final boolean changed;
+	private int depth;
+	private DeltaAppState base;
+	/** all chunks for keyframes, inserted chunks for deltas */
+	private String[] chunks;
+	/** triples (start, removed count, inserted count) in base coordinates */
+	private int[] splices;
+	private int chunkCount;
+	private byte[] compressed;
+	private StateCompressor compressor;
+	private long size;
+	private int dependents = 0;
+	private boolean deleted = false;
+
+	private DeltaAppState(DeltaAppState previous, DeltaAppState base,
+			String[] chunks, int[] splices, int chunkCount, boolean changed) {
+		this.id = nextId++;
+		this.base = base;
+		this.chunks = chunks;
+		this.splices = splices;
+		this.chunkCount = chunkCount;
+		this.changed = changed;
+		this.previousId = previous == null ? -1 : previous.id;
+		this.depth = base == null ? 0 : base.depth + 1;
+		this.size = computeSize(chunks, splices);
+		if (base != null) {
+			base.dependents++;
+		}
+	}
+
+	/**
+	 * @param previous
+	 *            previous state, may be null
+	 * @param previousChunks
+	 *            chunks of the previous state, ignored if previous is null
+	 * @param newChunks
+	 *            chunks of the new state; equal chunks are replaced by the
+	 *            instances of previous state to share memory
+	 * @param keyframe
+	 *            whether to store the full state
+	 * @return new state
+	 */
+	public static DeltaAppState create(DeltaAppState previous,
+			String[] previousChunks, String[] newChunks, boolean keyframe) {
+		if (previous == null) {
+			return new DeltaAppState(null, null, newChunks, null,
+					newChunks.length, true);
+		}
+		int prefix = 0;
+		int maxPrefix = Math.min(previousChunks.length, newChunks.length);
+		while (prefix < maxPrefix
+				&& previousChunks[prefix].equals(newChunks[prefix])) {
+			newChunks[prefix] = previousChunks[prefix];
+			prefix++;
+		}
+		int suffix = 0;
+		int oldLast = previousChunks.length - 1;
+		int newLast = newChunks.length - 1;
+		while (suffix < maxPrefix - prefix && previousChunks[oldLast - suffix]
+				.equals(newChunks[newLast - suffix])) {
+			newChunks[newLast - suffix] = previousChunks[oldLast - suffix];
+			suffix++;
+		}
+		boolean changed = prefix + suffix < previousChunks.length
+				|| prefix + suffix < newChunks.length;
+		if (keyframe) {
+			shareInstances(previousChunks, newChunks, prefix,
+					newChunks.length - suffix);
+			return new DeltaAppState(previous, null, newChunks, null,
+					newChunks.length, changed);
+		}
+		ArrayList<String> inserted = new ArrayList<>();
+		ArrayList<Integer> splices = new ArrayList<>();
+		if (previousChunks.length == newChunks.length) {
+			int i = prefix;
+			int end = newChunks.length - suffix;
+			while (i < end) {
+				if (previousChunks[i].equals(newChunks[i])) {
+					newChunks[i] = previousChunks[i];
+					i++;
+					continue;
+				}
+				int start = i;
+				while (i < end && !previousChunks[i].equals(newChunks[i])) {
+					inserted.add(newChunks[i]);
+					i++;
+				}
+				addSplice(splices, start, i - start, i - start);
+			}
+		} else {
+			int end = newChunks.length - suffix;
+			shareInstances(previousChunks, newChunks, prefix, end);
+			for (int i = prefix; i < end; i++) {
+				inserted.add(newChunks[i]);
+			}
+			addSplice(splices, prefix,
+					previousChunks.length - suffix - prefix, end - prefix);
+		}
+		int[] spliceArray = new int[splices.size()];
+		for (int i = 0; i < spliceArray.length; i++) {
+			spliceArray[i] = splices.get(i);
+		}
+		return new DeltaAppState(previous, previous,
+				inserted.toArray(new String[0]), spliceArray, newChunks.length,
+				changed);
+	}
+
+	private static void addSplice(ArrayList<Integer> splices, int start,
+			int removed, int inserted) {
+		splices.add(start);
+		splices.add(removed);
+		splices.add(inserted);
+	}
+
+	private static void shareInstances(String[] previousChunks,
+			String[] newChunks, int from, int to) {
+		if (from >= to) {
+			return;
+		}
+		HashMap<String, String> instances = new HashMap<>();
+		for (String chunk : previousChunks) {
+			instances.put(chunk, chunk);
+		}
+		for (int i = from; i < to; i++) {
+			String old = instances.get(newChunks[i]);
+			if (old != null) {
+				newChunks[i] = old;
+			}
+		}
+	}
+
+	private static long computeSize(String[] chunks, int[] splices) {
+		long ret = splices == null ? 0 : 4L * splices.length;
+		for (String chunk : chunks) {
+			ret += 2L * chunk.length();
+		}
+		return ret;
+	}
+
+	/**
+	 * @return chunks of this state, caller may not modify the array
+	 */
+	public String[] getChunks() {
+		return deleted ? null : materialize();
+	}
+
+	private String[] materialize() {
+		String[] own = getOwnChunks();
+		if (base == null) {
+			return own;
+		}
+		String[] baseChunks = base.materialize();
+		String[] ret = new String[chunkCount];
+		int read = 0;
+		int write = 0;
+		int insertedRead = 0;
+		for (int i = 0; i < splices.length; i += 3) {
+			int copy = splices[i] - read;
+			System.arraycopy(baseChunks, read, ret, write, copy);
+			write += copy;
+			read = splices[i] + splices[i + 1];
+			System.arraycopy(own, insertedRead, ret, write, splices[i + 2]);
+			write += splices[i + 2];
+			insertedRead += splices[i + 2];
+		}
+		System.arraycopy(baseChunks, read, ret, write,
+				baseChunks.length - read);
+		return ret;
+	}
+
+	private String[] getOwnChunks() {
+		if (compressed != null) {
+			String data = compressor.decompress(compressed);
+			ArrayList<String> ret = new ArrayList<>();
+			int start = 0;
+			for (int i = 0; i < data.length(); i++) {
+				if (data.charAt(i) == SEPARATOR) {
+					ret.add(data.substring(start, i));
+					start = i + 1;
+				}
+			}
+			return ret.toArray(new String[0]);
+		}
+		return chunks;
+	}
+
+	/**
+	 * Replaces the stored chunks by compressed data.
+	 *
+	 * @param stateCompressor
+	 *            compressor
+	 */
+	public void compress(StateCompressor stateCompressor) {
+		if (deleted || compressed != null || chunks.length == 0) {
+			return;
+		}
+		StringBuilder sb = new StringBuilder();
+		for (String chunk : chunks) {
+			sb.append(chunk);
+			sb.append(SEPARATOR);
+		}
+		this.compressor = stateCompressor;
+		this.compressed = stateCompressor.compress(sb.toString());
+		this.size = compressed.length
+				+ (splices == null ? 0 : 4L * splices.length);
+		this.chunks = null;
+	}
+
+	/**
+	 * Stores all chunks in this state so that it no longer depends on older
+	 * states.
+	 */
+	public void makeKeyframe() {
+		if (base == null || deleted) {
+			return;
+		}
+		String[] all = materialize();
+		base.dependents--;
+		base.release();
+		base = null;
+		chunks = all;
+		compressed = null;
+		compressor = null;
+		splices = null;
+		depth = 0;
+		size = computeSize(all, null);
+	}
+
+	/**
+	 * @return whether this state was compressed
+	 */
+	public boolean isCompressed() {
+		return compressed != null;
+	}
+
+	/**
+	 * @return whether this state stores all chunks
+	 */
+	public boolean isKeyframe() {
+		return base == null;
+	}
+
+	/**
+	 * @return number of deltas that need to be applied to get this state
+	 */
+	public int getDepth() {
+		return depth;
+	}
+
+	/**
+	 * @return approximate memory used by this state in bytes
+	 */
+	public long getSize() {
+		return chunks == null && compressed == null ? 0 : size;
+	}
+
+	@Override
+	public String getXml() {
+		String[] all = getChunks();
+		return all == null ? null : XMLChunks.join(all);
+	}
+
+	@Override
+	public void delete() {
+		deleted = true;
+		release();
+	}
+
+	private void release() {
+		if (!deleted || dependents > 0) {
+			return;
+		}
+		chunks = null;
+		compressed = null;
+		splices = null;
+		if (base != null) {
+			base.dependents--;
+			base.release();
+			base = null;
+		}
+	}
+
+	@Override
+	public boolean equalsTo(AppState state) {
+		if (state instanceof DeltaAppState) {
+			DeltaAppState other = (DeltaAppState) state;
+			if (other.previousId == id && !other.changed
+					|| previousId == other.id && !changed) {
+				return true;
+			}
+		}
+		if (state == null || deleted) {
+			return false;
+		}
+		String xml = getXml();
+		return xml != null && xml.equals(state.getXml());
+	}
+}
@@ -0,0 +1,236 @@
+package org.geogebra.common.main.undo;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import org.geogebra.common.io.MyXMLio;
+import org.geogebra.common.kernel.Construction;
+import org.geogebra.common.kernel.Kernel;
+import org.geogebra.common.kernel.geos.GeoElement;
+import org.geogebra.common.util.debug.Log;
+
+/**
+ * Undo manager that stores the differences between consecutive construction
+ * states rather than full copies of the construction XML.
+ * <p>
+ * Every {@link #KEYFRAME_INTERVAL}-th state is stored in full, the others only
+ * keep the XML chunks of elements that were added, removed or changed. Undo
+ * points that only differ in values or styles of existing elements are
+ * restored by reloading just the changed elements; structural changes fall
+ * back to rebuilding the construction.
+ * <p>
+ * The history is limited by the number of undo points and the approximate
+ * memory used by the stored states. Old states can be compressed, see
+ * {@link #setCompressor(StateCompressor)}.
+ */
+public class DeltaUndoManager extends DefaultUndoManager {
+
+	/** every n-th state is stored in full */
+	public static final int KEYFRAME_INTERVAL = 20;
+	/** default memory limit for stored states */
+	public static final long DEFAULT_MAX_BYTES = 64L * 1024 * 1024;
+	/** number of states around the current one that are never compressed */
+	private static final int UNCOMPRESSED_STATES = 10;
+
+	private long maxBytes = DEFAULT_MAX_BYTES;
+	private StateCompressor compressor;
+	/** last stored or loaded state and its chunks */
+	private DeltaAppState cachedState;
+	private String[] cachedChunks;
+	/** chunks of the last created state, cached once it's stored */
+	private String[] createdChunks;
+	private int statesSinceKeyframe = 0;
+
+	/**
+	 * @param cons
+	 *            construction
+	 */
+	public DeltaUndoManager(Construction cons) {
+		super(cons);
+	}
+
+	/**
+	 * @param compressor
+	 *            compressor for old states, null to keep all states
+	 *            uncompressed
+	 */
+	public void setCompressor(StateCompressor compressor) {
+		this.compressor = compressor;
+	}
+
+	/**
+	 * @param maxBytes
+	 *            approximate memory limit for stored states
+	 */
+	public void setMaxBytes(long maxBytes) {
+		this.maxBytes = maxBytes;
+	}
+
+	@Override
+	protected AppState createAppState(StringBuilder undoXML) {
+		String[] chunks = XMLChunks.split(undoXML);
+		AppState current = getHistorySize() >= 0 ? getCurrentUndoInfo() : null;
+		DeltaAppState previous = null;
+		String[] previousChunks = null;
+		if (current instanceof DeltaAppState) {
+			previous = (DeltaAppState) current;
+			previousChunks = previous == cachedState ? cachedChunks
+					: previous.getChunks();
+		}
+		if (previousChunks == null) {
+			previous = null;
+		}
+		boolean keyframe = previous == null
+				|| statesSinceKeyframe >= KEYFRAME_INTERVAL - 1;
+		createdChunks = chunks;
+		return DeltaAppState.create(previous, previousChunks, chunks,
+				keyframe);
+	}
+
+	@Override
+	protected void onAppStateStored(AppState state) {
+		if (state instanceof DeltaAppState) {
+			DeltaAppState stored = (DeltaAppState) state;
+			statesSinceKeyframe = stored.isKeyframe() ? 0
+					: statesSinceKeyframe + 1;
+			cachedState = stored;
+			cachedChunks = createdChunks;
+		}
+		createdChunks = null;
+	}
+
+	@Override
+	public void pruneStateList() {
+		super.pruneStateList();
+		if (undoInfoList.isEmpty()) {
+			return;
+		}
+		// oldest state may depend on states that were removed
+		AppState oldest = undoInfoList.getFirst().getAppState();
+		if (oldest instanceof DeltaAppState) {
+			((DeltaAppState) oldest).makeKeyframe();
+		}
+		if (compressor == null) {
+			return;
+		}
+		int uncompressedFrom = getHistorySize() - UNCOMPRESSED_STATES;
+		int index = 0;
+		for (UndoCommand command : undoInfoList) {
+			if (index >= uncompressedFrom) {
+				break;
+			}
+			AppState state = command.getAppState();
+			if (state instanceof DeltaAppState
+					&& !((DeltaAppState) state).isCompressed()) {
+				((DeltaAppState) state).compress(compressor);
+			}
+			index++;
+		}
+	}
+
+	@Override
+	protected boolean isOverCapacity() {
+		return super.isOverCapacity() || getStoredBytes() > maxBytes;
+	}
+
+	/**
+	 * @return approximate memory used by stored states in bytes
+	 */
+	public long getStoredBytes() {
+		long bytes = 0;
+		for (UndoCommand command : undoInfoList) {
+			AppState state = command.getAppState();
+			if (state instanceof DeltaAppState) {
+				bytes += ((DeltaAppState) state).getSize();
+			}
+		}
+		return bytes;
+	}
+
+	@Override
+	public synchronized void clearUndoInfo() {
+		for (UndoCommand command : undoInfoList) {
+			command.delete();
+		}
+		super.clearUndoInfo();
+		cachedState = null;
+		cachedChunks = null;
+		createdChunks = null;
+		statesSinceKeyframe = 0;
+	}
+
+	@Override
+	protected void loadUndoInfo(AppState state, String slideID) {
+		if (slideID == null && state instanceof DeltaAppState) {
+			try {
+				if (loadIncrementally((DeltaAppState) state)) {
+					return;
+				}
+			} catch (Exception e) {
+				Log.debug(e);
+			}
+		}
+		super.loadUndoInfo(state, slideID);
+	}
+
+	/**
+	 * Reloads the elements that differ between current construction and
+	 * given state.
+	 *
+	 * @param state
+	 *            state to be restored
+	 * @return whether the construction matches the state after the reload
+	 * @throws Exception
+	 *             if the XML could not be processed
+	 */
+	private boolean loadIncrementally(DeltaAppState state) throws Exception {
+		String[] target = state.getChunks();
+		if (target == null) {
+			return false;
+		}
+		String[] current = XMLChunks
+				.split(construction.getCurrentUndoXML(true));
+		if (current.length != target.length) {
+			return false;
+		}
+		Kernel kernel = construction.getKernel();
+		StringBuilder changedXML = new StringBuilder();
+		ArrayList<GeoElement> changedGeos = new ArrayList<>();
+		for (int i = 0; i < target.length; i++) {
+			if (current[i].equals(target[i])) {
+				continue;
+			}
+			if (!XMLChunks.isElement(target[i])
+					|| !XMLChunks.getKey(target[i])
+							.equals(XMLChunks.getKey(current[i]))) {
+				return false;
+			}
+			String label = XMLChunks.getLabel(target[i]);
+			GeoElement geo = label == null ? null : kernel.lookupLabel(label);
+			if (geo == null) {
+				return false;
+			}
+			changedXML.append(target[i]);
+			changedGeos.add(geo);
+		}
+		if (!changedGeos.isEmpty()) {
+			StringBuilder sb = new StringBuilder();
+			MyXMLio.addXMLHeader(sb);
+			MyXMLio.addGeoGebraHeader(sb, false, null, app);
+			sb.append("<construction>\n");
+			sb.append(changedXML);
+			sb.append("</construction>\n</geogebra>\n");
+			construction.getXMLio().processXMLString(sb.toString(), false,
+					false, true, false);
+			GeoElement.updateCascade(changedGeos, true);
+			if (!Arrays.equals(target, XMLChunks
+					.split(construction.getCurrentUndoXML(true)))) {
+				return false;
+			}
+			kernel.notifyRepaint();
+		}
+		cachedState = state;
+		cachedChunks = target;
+		return true;
+	}
+}
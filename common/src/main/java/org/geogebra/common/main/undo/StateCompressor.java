@@ -0,0 +1,22 @@
+package org.geogebra.common.main.undo;
+
+/**
+ * Compresses old undo states, see
+ * {@link DeltaUndoManager#setCompressor(StateCompressor)}
+ */
+public interface StateCompressor {
+
+	/**
+	 * @param data
+	 *            text to compress
+	 * @return compressed data
+	 */
+	byte[] compress(String data);
+
+	/**
+	 * @param compressed
+	 *            output of {@link #compress(String)}
+	 * @return original text
+	 */
+	String decompress(byte[] compressed);
+}
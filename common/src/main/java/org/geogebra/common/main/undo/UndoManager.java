@@ -371,7 +371,7 @@ public void pruneStateList() {
 		}
 
 		// delete first if too many in list
-		if (undoInfoList.size() > MAX_CAPACITY) {
+		while (isOverCapacity() && undoInfoList.size() > 1) {
 			// use iterator to delete to avoid
 			// ConcurrentModificationException
 			// go to beginning of list
@@ -393,6 +393,13 @@ public void pruneStateList() {
 		// debugStates();
 	}
 
+	/**
+	 * @return whether the oldest undo point should be removed
+	 */
+	protected boolean isOverCapacity() {
+		return undoInfoList.size() > MAX_CAPACITY;
+	}
+
 	/**
 	 * This stores the undo command, if the state changed.
 	 *
@@ -0,0 +1,159 @@
+package org.geogebra.common.main.undo;
+
+import java.util.ArrayList;
+
+/**
+ * Splits construction XML into chunks, one chunk per top level tag (element,
+ * command, expression, view settings, ...). The XML produced by GeoGebra puts
+ * top level tags at the beginning of a line and indents nested tags, so the
+ * chunks can be found without parsing.
+ */
+public final class XMLChunks {
+
+	private static final String LABEL_ATTRIBUTE = " label=\"";
+
+	private XMLChunks() {
+		// utility class
+	}
+
+	/**
+	 * @param xml
+	 *            construction XML
+	 * @return chunks, concatenation of chunks gives the original XML
+	 */
+	public static String[] split(CharSequence xml) {
+		ArrayList<String> chunks = new ArrayList<>();
+		String str = xml.toString();
+		int start = 0;
+		String openTag = null;
+		int lineStart = 0;
+		int length = str.length();
+		while (lineStart < length) {
+			if (str.charAt(lineStart) == '<' && lineStart + 1 < length) {
+				boolean closing = str.charAt(lineStart + 1) == '/';
+				String tag = getTagName(str, closing ? lineStart + 2
+						: lineStart + 1);
+				if (!closing || !tag.equals(openTag)) {
+					if (lineStart > start) {
+						chunks.add(str.substring(start, lineStart));
+					}
+					start = lineStart;
+					openTag = closing ? null : tag;
+				}
+			}
+			int nextLine = str.indexOf('\n', lineStart);
+			lineStart = nextLine < 0 ? length : nextLine + 1;
+		}
+		if (start < length) {
+			chunks.add(str.substring(start));
+		}
+		return chunks.toArray(new String[0]);
+	}
+
+	private static String getTagName(String str, int from) {
+		int end = from;
+		while (end < str.length() && isTagNameChar(str.charAt(end))) {
+			end++;
+		}
+		return str.substring(from, end);
+	}
+
+	private static boolean isTagNameChar(char c) {
+		return Character.isLetterOrDigit(c) || c == '_' || c == '-'
+				|| c == ':' || c == '?';
+	}
+
+	/**
+	 * @param chunks
+	 *            chunks
+	 * @return concatenated chunks
+	 */
+	public static String join(String[] chunks) {
+		int length = 0;
+		for (String chunk : chunks) {
+			length += chunk.length();
+		}
+		StringBuilder sb = new StringBuilder(length);
+		for (String chunk : chunks) {
+			sb.append(chunk);
+		}
+		return sb.toString();
+	}
+
+	/**
+	 * @param chunk
+	 *            chunk
+	 * @return first line of the chunk, identifies the element for most chunks
+	 */
+	public static String getKey(String chunk) {
+		int end = chunk.indexOf('\n');
+		return end < 0 ? chunk : chunk.substring(0, end);
+	}
+
+	/**
+	 * @param chunk
+	 *            chunk
+	 * @return whether the chunk describes a single geo element
+	 */
+	public static boolean isElement(String chunk) {
+		return chunk.startsWith("<element ");
+	}
+
+	/**
+	 * @param chunk
+	 *            element chunk
+	 * @return decoded label or null if not found
+	 */
+	public static String getLabel(String chunk) {
+		String key = getKey(chunk);
+		int start = key.indexOf(LABEL_ATTRIBUTE);
+		if (start < 0) {
+			return null;
+		}
+		start += LABEL_ATTRIBUTE.length();
+		int end = key.indexOf('"', start);
+		if (end < 0) {
+			return null;
+		}
+		return decodeXML(key.substring(start, end));
+	}
+
+	/**
+	 * Inverse of StringUtil.encodeXML
+	 */
+	private static String decodeXML(String str) {
+		if (str.indexOf('&') < 0) {
+			return str;
+		}
+		StringBuilder sb = new StringBuilder(str.length());
+		int i = 0;
+		while (i < str.length()) {
+			char c = str.charAt(i);
+			int end = c == '&' ? str.indexOf(';', i) : -1;
+			if (end < 0) {
+				sb.append(c);
+				i++;
+				continue;
+			}
+			String entity = str.substring(i + 1, end);
+			if ("gt".equals(entity)) {
+				sb.append('>');
+			} else if ("lt".equals(entity)) {
+				sb.append('<');
+			} else if ("quot".equals(entity)) {
+				sb.append('"');
+			} else if ("apos".equals(entity)) {
+				sb.append('\'');
+			} else if ("amp".equals(entity)) {
+				sb.append('&');
+			} else if (entity.startsWith("#x")) {
+				sb.append(Character.toChars(
+						Integer.parseInt(entity.substring(2), 16)));
+			} else {
+				sb.append(str, i, end + 1);
+			}
+			i = end + 1;
+		}
+		return sb.toString();
+	}
+}
@@ -8,6 +8,7 @@
 import java.util.List;
 import java.util.TreeSet;
 
+import org.geogebra.common.factories.UtilFactory;
 import org.geogebra.common.kernel.Construction;
 import org.geogebra.common.kernel.StringTemplate;
 import org.geogebra.common.kernel.algos.AlgoDependentBoolean;
@@ -22,6 +23,7 @@
 import org.geogebra.common.kernel.prover.ProverBotanasMethod;
 import org.geogebra.common.kernel.prover.ProverPureSymbolicMethod;
 import org.geogebra.common.main.Localization;
+import org.geogebra.common.main.ProverSettings;
 import org.geogebra.common.plugin.EuclidianStyleConstants;
 import org.geogebra.common.util.debug.Log;
 
@@ -137,6 +139,8 @@ public enum ProofResult {
 	 * The result of the proof
 	 */
 	protected ProofResult result;
+	/** set by another thread to stop before the next engine */
+	private volatile boolean cancelled = false;
 
 	/**
 	 * Should the prover return extra NDG conditions? If not, some computation
@@ -516,17 +520,23 @@ public void decideStatement() {
 
 		// Step 4: AUTO prover
 		Log.debug("Using " + engine);
-		Iterator<ProverEngine> it;
-		if (isReturnExtraNDGs()) {
-			it = proveDetailsAutoOrder.iterator();
-		} else {
-			it = proveAutoOrder.iterator();
+		List<ProverEngine> engines = getAutoEngines();
+		if (ProverSettings.get().portfolio) {
+			engines = ProverEngineStatistics.get().sort(engines);
+			if (decideConcurrently(engines)) {
+				return;
+			}
 		}
-		result = ProofResult.UNKNOWN;
-		while ((result == ProofResult.UNKNOWN
-				|| result == ProofResult.TRUE_NDG_UNREADABLE)
-				&& it.hasNext()) {
-			ProverEngine pe = it.next();
+		decideSequentially(engines);
+	}
+
+	/**
+	 * @return engines to be tried by the AUTO prover, in default order
+	 */
+	private List<ProverEngine> getAutoEngines() {
+		List<ProverEngine> engines = new ArrayList<>();
+		for (ProverEngine pe : isReturnExtraNDGs() ? proveDetailsAutoOrder
+				: proveAutoOrder) {
 			if (pe == ProverEngine.OPENGEOPROVER_WU
 					|| pe == ProverEngine.OPENGEOPROVER_AREA) {
 				/*
@@ -541,8 +551,47 @@ public void decideStatement() {
 					continue; /* try the next prover */
 				}
 			}
-			callEngine(pe);
+			engines.add(pe);
 		}
+		return engines;
+	}
+
+	/**
+	 * Calls the engines one by one until one of them gives a conclusive
+	 * result.
+	 * 
+	 * @param engines
+	 *            engines in the order they should be tried
+	 */
+	protected void decideSequentially(List<ProverEngine> engines) {
+		Iterator<ProverEngine> it = engines.iterator();
+		result = ProofResult.UNKNOWN;
+		while ((result == ProofResult.UNKNOWN
+				|| result == ProofResult.TRUE_NDG_UNREADABLE)
+				&& it.hasNext() && !cancelled) {
+			callEngine(it.next());
+		}
+	}
+
+	/**
+	 * Makes {@link #decideSequentially(List)} stop before calling the next
+	 * engine; the running engine is not interrupted.
+	 */
+	public void cancel() {
+		cancelled = true;
+	}
+
+	/**
+	 * Runs the engines concurrently (portfolio mode) and takes the result of
+	 * the first engine that gives a conclusive answer. Only supported on
+	 * platforms with threads.
+	 * 
+	 * @param engines
+	 *            engines in the order they should be tried
+	 * @return false if the engines have to be called sequentially instead
+	 */
+	protected boolean decideConcurrently(List<ProverEngine> engines) {
+		return false;
 	}
 
 	/**
@@ -564,22 +613,28 @@ private ProofResult override(ProofResult pr) {
 	private void callEngine(ProverEngine currentEngine) {
 		Log.debug("Using " + currentEngine);
 		ndgConditions = new HashSet<>(); // reset
+		double startTime = UtilFactory.getPrototype().getMillisecondTime();
+		ProofResult engineResult;
 		if (currentEngine == ProverEngine.BOTANAS_PROVER) {
 			ProverBotanasMethod pbm = new ProverBotanasMethod();
-			result = override(pbm.prove(this));
-			return;
+			engineResult = pbm.prove(this);
 		} else if (currentEngine == ProverEngine.RECIOS_PROVER) {
-			result = override(getReciosProver().prove(this));
-			return;
+			engineResult = getReciosProver().prove(this);
 		} else if (currentEngine == ProverEngine.PURE_SYMBOLIC_PROVER) {
-			result = override(ProverPureSymbolicMethod.prove(this));
-			return;
+			engineResult = ProverPureSymbolicMethod.prove(this);
 		} else if (currentEngine == ProverEngine.OPENGEOPROVER_WU
 				|| currentEngine == ProverEngine.OPENGEOPROVER_AREA) {
-			result = override(openGeoProver(currentEngine));
+			engineResult = openGeoProver(currentEngine);
+		} else {
 			return;
 		}
-
+		if (engineResult != ProofResult.PROCESSING) {
+			ProverEngineStatistics.get().record(currentEngine,
+					UtilFactory.getPrototype().getMillisecondTime()
+							- startTime,
+					engineResult);
+		}
+		result = override(engineResult);
 	}
 
 	/**
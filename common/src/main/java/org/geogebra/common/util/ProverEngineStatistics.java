@@ -0,0 +1,166 @@
+package org.geogebra.common.util;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+import org.geogebra.common.util.Prover.ProofResult;
+import org.geogebra.common.util.Prover.ProverEngine;
+
+/**
+ * Running times and success rates of the prover engines, collected over all
+ * proofs in this session. Used to put the engine with the lowest expected time
+ * to a conclusive answer first.
+ */
+public final class ProverEngineStatistics {
+
+	/**
+	 * Number of runs of each engine before the default order is changed.
+	 */
+	static final int MIN_RUNS = 5;
+
+	private static ProverEngineStatistics INSTANCE;
+
+	private final Map<ProverEngine, EngineRecord> records = new EnumMap<>(
+			ProverEngine.class);
+
+	private static final class EngineRecord {
+		int runs;
+		int conclusiveRuns;
+		double totalTime;
+
+		double getTimePerConclusiveRun() {
+			return conclusiveRuns == 0 ? Double.POSITIVE_INFINITY
+					: totalTime / conclusiveRuns;
+		}
+	}
+
+	/**
+	 * @return singleton instance
+	 */
+	public static synchronized ProverEngineStatistics get() {
+		if (INSTANCE == null) {
+			INSTANCE = new ProverEngineStatistics();
+		}
+		return INSTANCE;
+	}
+
+	/**
+	 * @param result
+	 *            proof result
+	 * @return whether the result decides the statement, so no other engine
+	 *         has to be tried
+	 */
+	public static boolean isConclusive(ProofResult result) {
+		return result != null && result != ProofResult.UNKNOWN
+				&& result != ProofResult.TRUE_NDG_UNREADABLE
+				&& result != ProofResult.PROCESSING;
+	}
+
+	/**
+	 * Records a run of an engine.
+	 *
+	 * @param engine
+	 *            engine
+	 * @param time
+	 *            running time in milliseconds
+	 * @param result
+	 *            result of the engine
+	 */
+	public synchronized void record(ProverEngine engine, double time,
+			ProofResult result) {
+		EngineRecord record = records.get(engine);
+		if (record == null) {
+			record = new EngineRecord();
+			records.put(engine, record);
+		}
+		record.runs++;
+		record.totalTime += time;
+		if (isConclusive(result)) {
+			record.conclusiveRuns++;
+		}
+	}
+
+	/**
+	 * @param engine
+	 *            engine
+	 * @return number of recorded runs
+	 */
+	public synchronized int getRuns(ProverEngine engine) {
+		EngineRecord record = records.get(engine);
+		return record == null ? 0 : record.runs;
+	}
+
+	/**
+	 * @param engine
+	 *            engine
+	 * @return number of recorded runs with conclusive result
+	 */
+	public synchronized int getConclusiveRuns(ProverEngine engine) {
+		EngineRecord record = records.get(engine);
+		return record == null ? 0 : record.conclusiveRuns;
+	}
+
+	/**
+	 * @param engine
+	 *            engine
+	 * @return average running time in milliseconds, 0 if there were no runs
+	 */
+	public synchronized double getAverageTime(ProverEngine engine) {
+		EngineRecord record = records.get(engine);
+		return record == null || record.runs == 0 ? 0
+				: record.totalTime / record.runs;
+	}
+
+	/**
+	 * Sorts the engines by the expected time to get a conclusive answer, i.e.
+	 * total running time divided by the number of conclusive runs. The order
+	 * is only changed if each engine was run at least {@value #MIN_RUNS}
+	 * times.
+	 *
+	 * @param engines
+	 *            engines in default order
+	 * @return engines in the order they should be tried
+	 */
+	public synchronized List<ProverEngine> sort(List<ProverEngine> engines) {
+		ArrayList<ProverEngine> sorted = new ArrayList<>(engines);
+		for (ProverEngine engine : engines) {
+			if (getRuns(engine) < MIN_RUNS) {
+				return sorted;
+			}
+		}
+		Collections.sort(sorted, new Comparator<ProverEngine>() {
+			@Override
+			public int compare(ProverEngine e1, ProverEngine e2) {
+				return Double.compare(
+						records.get(e1).getTimePerConclusiveRun(),
+						records.get(e2).getTimePerConclusiveRun());
+			}
+		});
+		return sorted;
+	}
+
+	/**
+	 * Removes all records.
+	 */
+	public synchronized void reset() {
+		records.clear();
+	}
+
+	@Override
+	public synchronized String toString() {
+		StringBuilder sb = new StringBuilder();
+		for (Map.Entry<ProverEngine, EngineRecord> entry : records
+				.entrySet()) {
+			EngineRecord record = entry.getValue();
+			sb.append(entry.getKey()).append(": ").append(record.runs)
+					.append(" runs, ").append(record.conclusiveRuns)
+					.append(" conclusive, ")
+					.append(Math.round(record.totalTime)).append(" ms\n");
+		}
+		return sb.toString();
+	}
+}
@@ -0,0 +1,52 @@
+package org.geogebra.desktop.export;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+
+import org.geogebra.common.geogebra3D.euclidian3D.printer3D.BinaryOutput;
+
+/**
+ * Binary export output writing to a file channel.
+ */
+public class FileChannelOutput implements BinaryOutput {
+
+	private final FileChannel channel;
+
+	/**
+	 * @param file
+	 *            file, replaced if it exists
+	 * @throws IOException
+	 *             if the file can't be opened
+	 */
+	public FileChannelOutput(File file) throws IOException {
+		channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE,
+				StandardOpenOption.WRITE,
+				StandardOpenOption.TRUNCATE_EXISTING);
+	}
+
+	@Override
+	public void write(byte[] data, int offset, int length)
+			throws IOException {
+		ByteBuffer buffer = ByteBuffer.wrap(data, offset, length);
+		while (buffer.hasRemaining()) {
+			channel.write(buffer);
+		}
+	}
+
+	@Override
+	public void writeAt(long position, byte[] data) throws IOException {
+		ByteBuffer buffer = ByteBuffer.wrap(data);
+		long current = position;
+		while (buffer.hasRemaining()) {
+			current += channel.write(buffer, current);
+		}
+	}
+
+	@Override
+	public void close() throws IOException {
+		channel.close();
+	}
+}
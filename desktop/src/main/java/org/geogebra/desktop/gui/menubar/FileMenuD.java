@@ -14,7 +14,6 @@
 import org.geogebra.common.export.pstricks.GeoGebraToAsymptote;
 import org.geogebra.common.geogebra3D.euclidian3D.printer3D.FormatCollada;
 import org.geogebra.common.geogebra3D.euclidian3D.printer3D.FormatColladaHTML;
-import org.geogebra.common.geogebra3D.euclidian3D.printer3D.FormatSTL;
 import org.geogebra.common.move.events.BaseEvent;
 import org.geogebra.common.move.ggtapi.TubeAvailabilityCheckEvent;
 import org.geogebra.common.move.views.EventRenderable;
@@ -503,7 +502,7 @@ public void actionPerformed(ActionEvent e) {
 				@Override
 				public void actionPerformed(ActionEvent e) {
 					try {
-						app.setExport3D(new FormatSTL());
+						app.exportBinarySTL();
 					} catch (Exception ex) {
 						ex.printStackTrace();
 						Log.debug("Problem exporting to STL");
@@ -23,7 +23,9 @@
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.OutputStream;
+import java.util.Enumeration;
 import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
 import java.util.zip.ZipInputStream;
 
 import javax.imageio.ImageIO;
@@ -43,6 +45,9 @@
  * @author Markus Hohenwarter
  */
 public class MyXMLioD extends MyXMLioJre {
+
+	private boolean constructionLastEntry = false;
+
 	/**
 	 * 
 	 * @param kernel
@@ -60,13 +65,17 @@ protected final void readZip(ZipInputStream zip, boolean isGGTfile)
 
 		// we have to read everything (i.e. all images)
 		// before we process the XML file, that's why we
-		// read the XML file into a buffer first
+		// read the XML file into a buffer first, unless we know that
+		// it's the last entry (see setConstructionLastEntry)
+		boolean streamConstruction = constructionLastEntry && !isGGTfile;
+		constructionLastEntry = false;
 		byte[] xmlFileBuffer = null;
 		byte[] macroXmlFileBuffer = null;
 		byte[] defaults2dXmlFileBuffer = null;
 		byte[] defaults3dXmlFileBuffer = null;
 		boolean xmlFound = false;
 		boolean macroXMLfound = false;
+		boolean macrosProcessed = false;
 		boolean javaScriptFound = false;
 		boolean structureFound = false;
 
@@ -86,10 +95,21 @@ protected final void readZip(ZipInputStream zip, boolean isGGTfile)
 			if (name.equals("structure.json")) {
 				structureFound = true;
 			} else if (name.equals(XML_FILE)) {
-				// load xml file into memory first
-				xmlFileBuffer = UtilD.loadIntoMemory(zip);
 				xmlFound = true;
 				handler = getGGBHandler();
+				if (streamConstruction) {
+					// all images and macros have been read already
+					processMacros(macroXmlFileBuffer, isGGTfile);
+					macrosProcessed = true;
+					// process construction
+					kernel.getConstruction().setFileLoading(true);
+					app.getCompanion().resetEuclidianViewForPlaneIds();
+					processXMLStream(zip, !macroXMLfound, isGGTfile);
+					kernel.getConstruction().setFileLoading(false);
+				} else {
+					// load xml file into memory first
+					xmlFileBuffer = UtilD.loadIntoMemory(zip);
+				}
 			} else if (name.equals(XML_FILE_DEFAULTS_2D)) {
 				// load defaults xml file into memory first
 				defaults2dXmlFileBuffer = UtilD.loadIntoMemory(zip);
@@ -121,7 +141,8 @@ protected final void readZip(ZipInputStream zip, boolean isGGTfile)
 					if ("".equals(name)) {
 						Log.warn("image in zip file with empty name");
 					} else {
-						((AppDI) app).addExternalImage(name, new MyImageD(img));
+						((AppDI) app).addExternalImage(name,
+								new MyImageD(img));
 					}
 				} catch (IOException e) {
 					Log.debug("readZipFromURL: image could not be loaded: "
@@ -139,17 +160,8 @@ protected final void readZip(ZipInputStream zip, boolean isGGTfile)
 		}
 		zip.close();
 
-		if (!isGGTfile) {
-			// ggb file: remove all macros from kernel before processing
-			kernel.removeAllMacros();
-		}
-
-		// process macros
-		if (macroXmlFileBuffer != null) {
-			// don't clear kernel for macro files
-			kernel.getConstruction().setFileLoading(true);
-			processXMLBuffer(macroXmlFileBuffer, !isGGTfile, isGGTfile);
-			kernel.getConstruction().setFileLoading(false);
+		if (!macrosProcessed) {
+			processMacros(macroXmlFileBuffer, isGGTfile);
 		}
 
 		// process construction
@@ -180,6 +192,53 @@ protected final void readZip(ZipInputStream zip, boolean isGGTfile)
 		}
 	}
 
+	private void processMacros(byte[] macroXmlFileBuffer, boolean isGGTfile)
+			throws Exception {
+		if (!isGGTfile) {
+			// ggb file: remove all macros from kernel before processing
+			kernel.removeAllMacros();
+		}
+
+		if (macroXmlFileBuffer != null) {
+			// don't clear kernel for macro files
+			kernel.getConstruction().setFileLoading(true);
+			processXMLBuffer(macroXmlFileBuffer, !isGGTfile, isGGTfile);
+			kernel.getConstruction().setFileLoading(false);
+		}
+	}
+
+	/**
+	 * Allows the next {@link #readZip(ZipInputStream, boolean)} to parse the
+	 * construction directly from the zip stream. This is only safe if all
+	 * images and macros are stored before the construction; files saved by
+	 * the web app may store them in any order.
+	 * 
+	 * @param lastEntry
+	 *            whether the construction is the last entry of the next file
+	 */
+	public void setConstructionLastEntry(boolean lastEntry) {
+		this.constructionLastEntry = lastEntry;
+	}
+
+	/**
+	 * @param file
+	 *            ggb file
+	 * @return whether the construction is the last entry of the file
+	 */
+	public static boolean isConstructionLastEntry(File file) {
+		try (ZipFile zipFile = new ZipFile(file)) {
+			String lastName = null;
+			Enumeration<? extends ZipEntry> entries = zipFile.entries();
+			while (entries.hasMoreElements()) {
+				lastName = entries.nextElement().getName();
+			}
+			return XML_FILE.equals(lastName);
+		} catch (IOException e) {
+			// not a zip file, e.g. base64 encoded
+			return false;
+		}
+	}
+
 	@Override
 	final protected MyImageJre getExportImage(double width, double height) {
 		return ((AppDI) app).getExportImage(THUMBNAIL_PIXELS_X,
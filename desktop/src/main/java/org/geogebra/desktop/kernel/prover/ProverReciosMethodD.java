@@ -1,12 +1,18 @@
 package org.geogebra.desktop.kernel.prover;
 
 import java.math.BigInteger;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map.Entry;
-import java.util.concurrent.LinkedBlockingQueue;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 
 import org.geogebra.common.kernel.algos.SymbolicParameters;
 import org.geogebra.common.kernel.prover.AbstractProverReciosMethod;
@@ -21,20 +27,20 @@
 
 /**
  * This class can prove a statement by a bounded number of checks. In this
- * desktop version this is done by multiple threads, if the CPU has multiple
- * threads.
- * 
+ * desktop version the test points are checked by the threads of a fork/join
+ * pool, if the CPU has multiple threads.
+ *
  * @author Simon
- * 
+ *
  */
 public class ProverReciosMethodD extends AbstractProverReciosMethod {
 
-	private enum TestPointResult {
+	/**
+	 * Number of test points a task takes from the shared enumeration at once.
+	 */
+	private static final int POINTS_PER_BATCH = 8;
 
-		/**
-		 * The statement is true in the point
-		 */
-		PASSED,
+	private enum TestPointResult {
 		/**
 		 * The statement is false in the point
 		 */
@@ -45,47 +51,6 @@ private enum TestPointResult {
 		ERROR
 	}
 
-	private PointTester[] pointTesters;
-	/**
-	 * The queue which contains the coordinates of the points to test
-	 */
-	final LinkedBlockingQueue<BigInteger[]> coordinatesQueue = new LinkedBlockingQueue<>();
-	private AtomicInteger verifiedPoints;
-	private boolean stop;
-	private boolean errorOccured;
-	private Thread[] threads;
-
-	// stops all working threads
-	private void interruptThreads() {
-		for (Thread t : threads) {
-			t.interrupt();
-		}
-	}
-
-	/**
-	 * Takes the result back from the threads.
-	 * 
-	 * @param result
-	 *            the result of the test point.
-	 */
-	protected void writeResult(TestPointResult result) {
-		switch (result) {
-		case PASSED:
-			verifiedPoints.incrementAndGet();
-			break;
-		case ERROR:
-			errorOccured = true;
-			//$FALL-THROUGH$
-		case FALSE:
-			stop = true;
-			coordinatesQueue.clear();
-		}
-	}
-
-	private boolean getErrorOccured() {
-		return errorOccured;
-	}
-
 	@Override
 	protected final ProofResult computeNd(HashSet<PVariable> freeVariables,
 			HashMap<PVariable, BigInteger> values, int deg, SymbolicParameters s,
@@ -97,42 +62,89 @@ protected final ProofResult computeNd(HashSet<PVariable> freeVariables,
 			variables[i] = it.next();
 		}
 
-		coordinatesQueue.clear();
-		verifiedPoints = new AtomicInteger(0);
-		stop = false;
-		errorOccured = false;
+		TestPoints testPoints = new TestPoints(n, deg);
 
-		int[] indices = new int[n];
-		for (int i = 0; i < n; i++) {
-			indices[i] = n - i;
+		if (as != null) {
+			// Giac is called for each test point, not in parallel
+			return computeBotana(testPoints, variables, values, as);
+		}
+
+		AtomicReference<TestPointResult> failure = new AtomicReference<>();
+		AtomicInteger nrOfTests = new AtomicInteger();
+		ForkJoinPool pool = ForkJoinPool.commonPool();
+		// the tasks share the lazy enumeration, so at most a batch of
+		// points per task is in memory
+		List<ForkJoinTask<?>> tasks = new ArrayList<>();
+		for (int i = 0; i < Math.max(1, pool.getParallelism()); i++) {
+			tasks.add(pool.submit(new PointTester(testPoints, variables,
+					new HashMap<>(values), s, failure, nrOfTests)));
+		}
+		try {
+			for (ForkJoinTask<?> task : tasks) {
+				task.get();
+			}
+		} catch (InterruptedException e) {
+			// stop the remaining tests
+			failure.compareAndSet(null, TestPointResult.ERROR);
+			return ProofResult.UNKNOWN;
+		} catch (ExecutionException e) {
+			failure.compareAndSet(null, TestPointResult.ERROR);
+			Log.debug(e.getCause());
+			return ProofResult.UNKNOWN;
 		}
+		Log.debug("nr of tests: " + nrOfTests.get());
 
-		boolean indicesChanged;
-		int nrOfTests = 0, changedIndex = n - 1;
-		BigInteger[][] cache = new BigInteger[n][n];
-		BigInteger[] coordinates = new BigInteger[n];
+		if (failure.get() == TestPointResult.ERROR) {
+			return ProofResult.UNKNOWN;
+		}
+		if (failure.get() == TestPointResult.FALSE) {
+			// the theorem could not be verified in one point
+			return ProofResult.FALSE;
+		}
+		return ProofResult.TRUE;
+	}
 
-		Runtime runtime = Runtime.getRuntime();
-		int useProcessors = runtime.availableProcessors() - 1;
-		useProcessors = 0; // do not use threads until #3399 is fixed
+	/**
+	 * Enumerates the coordinates of the free variables for all test points.
+	 * The points are created on demand, each in a new array.
+	 */
+	static final class TestPoints implements Iterator<BigInteger[]> {
+		private final int n;
+		private final int deg;
+		private final int[] indices;
+		private final BigInteger[][] cache;
+		private int changedIndex;
+		private boolean indicesChanged = true;
 
-		pointTesters = new PointTester[useProcessors];
-		threads = new Thread[useProcessors];
+		/**
+		 * @param n
+		 *            number of free variables
+		 * @param deg
+		 *            bound for the degree of the statement
+		 */
+		TestPoints(int n, int deg) {
+			this.n = n;
+			this.deg = deg;
+			indices = new int[n];
+			for (int i = 0; i < n; i++) {
+				indices[i] = n - i;
+			}
+			changedIndex = n - 1;
+			cache = new BigInteger[n][n];
+		}
 
-		for (int i = 0; i < useProcessors; i++) {
-			pointTesters[i] = new PointTester(this, values, variables, s);
-			threads[i] = new Thread(pointTesters[i],
-					"ProverReciosMethod_TestPoints" + i);
-			threads[i].start();
+		@Override
+		public boolean hasNext() {
+			return indicesChanged;
 		}
 
-		do {
-			if (Thread.interrupted()) {
-				interruptThreads();
-				return ProofResult.UNKNOWN;
+		@Override
+		public BigInteger[] next() {
+			if (!indicesChanged) {
+				throw new NoSuchElementException();
 			}
-
 			// calculation of the coordinates
+			BigInteger[] coordinates = new BigInteger[n];
 			for (int i = 0; i < n; i++) {
 				BigInteger result;
 
@@ -151,15 +163,6 @@ protected final ProofResult computeNd(HashSet<PVariable> freeVariables,
 				coordinates[i] = result;
 			}
 
-			nrOfTests++;
-
-			try {
-				coordinatesQueue.put(coordinates);
-			} catch (InterruptedException e) {
-				return ProofResult.UNKNOWN;
-			}
-
-			// the following is the loop header
 			// the created indices sequence is:
 			// [n n-1 n-2 ... 1]
 			// [n+1 n-1 n-2 ... 1]
@@ -183,156 +186,106 @@ protected final ProofResult computeNd(HashSet<PVariable> freeVariables,
 					break;
 				}
 			}
-
-		} while (indicesChanged && !stop);
-
-		if (stop) {
-			interruptThreads();
-			if (getErrorOccured()) {
-				return ProofResult.UNKNOWN;
-			}
-			return ProofResult.FALSE;
+			return coordinates;
 		}
+	}
 
-		int nrOfChecks = 0;
-		boolean wrong = false;
-
-		// if the tests are not finished by the threads
-		// we help the threads testing the points.
-		while (!stop && verifiedPoints.get() < nrOfTests) {
+	private static ProofResult computeBotana(Iterator<BigInteger[]> testPoints,
+			PVariable[] variables, HashMap<PVariable, BigInteger> values,
+			AlgebraicStatement as) {
+		PPolynomial[] polynomials = as.getPolynomials()
+				.toArray(new PPolynomial[as.getPolynomials().size()]);
+		while (testPoints.hasNext()) {
+			BigInteger[] coordinates = testPoints.next();
 			if (Thread.interrupted()) {
-				interruptThreads();
 				return ProofResult.UNKNOWN;
 			}
-
-			coordinates = coordinatesQueue.poll();
-			if (coordinates == null) {
-				continue;
-			}
 			for (int i = 0; i < coordinates.length; i++) {
 				values.put(variables[i], coordinates[i]);
 			}
-
-			if (as != null) {
-				// use Botana's method
-				HashMap<PVariable, BigInteger> substitutions = new HashMap<>();
-				for (Entry<PVariable, BigInteger> entry : values.entrySet()) {
-
-					PVariable v = entry.getKey();
-					// FIXME: Change Long in Variable to BigInteger
-					substitutions.put(v, entry.getValue());
-				}
-				ExtendedBoolean solvable = PPolynomial.solvable(
-						as.getPolynomials()
-								.toArray(new PPolynomial[as.getPolynomials().size()]),
-						substitutions, as.geoStatement.getKernel(),
-						ProverSettings.get().transcext, as.getFreeVariables());
-				Log.debug("Recio meets Botana (threaded): " + substitutions);
-				if (solvable.boolVal()) {
-					wrong = true;
-					break;
-				}
-			} else {
-				try {
-					BigInteger[] exactCoordinates = s
-							.getExactCoordinates(values);
-
-					wrong = false;
-					for (BigInteger result : exactCoordinates) {
-						nrOfChecks++;
-						if (!result.equals(BigInteger.ZERO)) {
-							wrong = true;
-							break;
-						}
-					}
-				} catch (NoSymbolicParametersException e) {
-					writeResult(TestPointResult.ERROR);
-					continue;
-				}
-			}
-			if (wrong) {
-				writeResult(TestPointResult.FALSE);
-			} else {
-				writeResult(TestPointResult.PASSED);
+			// use Botana's method
+			HashMap<PVariable, BigInteger> substitutions = new HashMap<>();
+			for (Entry<PVariable, BigInteger> entry : values.entrySet()) {
+				PVariable v = entry.getKey();
+				// FIXME: Change Long in Variable to BigInteger
+				substitutions.put(v, entry.getValue());
 			}
-		}
-
-		if (stop) {
-			// the theorem could not be verified in one point
-			if (getErrorOccured()) {
-				return ProofResult.UNKNOWN;
+			ExtendedBoolean solvable = PPolynomial.solvable(polynomials,
+					substitutions, as.geoStatement.getKernel(),
+					ProverSettings.get().transcext, as.getFreeVariables());
+			Log.debug("Recio meets Botana: " + substitutions);
+			if (solvable.boolVal()) {
+				return ProofResult.FALSE;
 			}
-			return ProofResult.FALSE;
 		}
-
-		// all points are tested now
-
-		interruptThreads();
-
-		for (int i = 0; i < pointTesters.length; i++) {
-			Log.debug(pointTesters[i].nrOfTests + " tests done by thread " + i);
-		}
-		Log.debug(nrOfChecks + " tests done by main thread");
-
 		return ProofResult.TRUE;
-
 	}
 
-	private final static class PointTester implements Runnable {
-		HashMap<PVariable, BigInteger> values;
-		PVariable[] variables;
-		ProverReciosMethodD prover;
-		SymbolicParameters s;
-		public int nrOfTests;
-
-		public PointTester(final ProverReciosMethodD prover,
-				final HashMap<PVariable, BigInteger> values,
-				final PVariable[] variables, final SymbolicParameters s) {
-			this.prover = prover;
+	/**
+	 * Checks batches of test points taken from the shared enumeration until
+	 * it is exhausted. All tasks stop after the first point where the
+	 * statement is false.
+	 */
+	private static final class PointTester implements Runnable {
+		private final TestPoints testPoints;
+		private final PVariable[] variables;
+		private final HashMap<PVariable, BigInteger> values;
+		private final SymbolicParameters s;
+		private final AtomicReference<TestPointResult> failure;
+		private final AtomicInteger nrOfTests;
+
+		PointTester(TestPoints testPoints, PVariable[] variables,
+				HashMap<PVariable, BigInteger> values, SymbolicParameters s,
+				AtomicReference<TestPointResult> failure,
+				AtomicInteger nrOfTests) {
+			this.testPoints = testPoints;
 			this.variables = variables;
-			this.values = (HashMap<PVariable, BigInteger>) values.clone();
+			this.values = values;
 			this.s = s;
+			this.failure = failure;
+			this.nrOfTests = nrOfTests;
 		}
 
 		@Override
 		public void run() {
-			BigInteger[] coordinates;
-			boolean wrong;
-			nrOfTests = 0;
-			while (!Thread.interrupted()) {
-
-				try {
-					coordinates = prover.coordinatesQueue.take();
-				} catch (InterruptedException e) {
-					return;
+			BigInteger[][] batch = new BigInteger[POINTS_PER_BATCH][];
+			while (failure.get() == null) {
+				int size = 0;
+				synchronized (testPoints) {
+					while (size < POINTS_PER_BATCH && testPoints.hasNext()) {
+						batch[size++] = testPoints.next();
+					}
 				}
-
-				for (int i = 0; i < coordinates.length; i++) {
-					this.values.put(variables[i], coordinates[i]);
+				if (size == 0) {
+					return;
 				}
-				try {
-					BigInteger[] exactCoordinates = s
-							.getExactCoordinates(values);
-					nrOfTests++;
-					wrong = false;
-					for (BigInteger result : exactCoordinates) {
-						if (!result.equals(BigInteger.ZERO)) {
-							wrong = true;
-							break;
-						}
+				for (int k = 0; k < size && failure.get() == null; k++) {
+					if (!test(batch[k])) {
+						return;
 					}
-				} catch (NoSymbolicParametersException e) {
-					prover.writeResult(TestPointResult.ERROR);
-					continue;
-				}
-				if (wrong) {
-					prover.writeResult(TestPointResult.FALSE);
-				} else {
-					prover.writeResult(TestPointResult.PASSED);
 				}
 			}
 		}
 
+		private boolean test(BigInteger[] coordinates) {
+			for (int i = 0; i < coordinates.length; i++) {
+				values.put(variables[i], coordinates[i]);
+			}
+			try {
+				BigInteger[] exactCoordinates = s.getExactCoordinates(values);
+				nrOfTests.incrementAndGet();
+				for (BigInteger result : exactCoordinates) {
+					if (!result.equals(BigInteger.ZERO)) {
+						failure.compareAndSet(null, TestPointResult.FALSE);
+						return false;
+					}
+				}
+			} catch (NoSymbolicParametersException e) {
+				failure.compareAndSet(null, TestPointResult.ERROR);
+				return false;
+			}
+			return true;
+		}
 	}
 
-}
\ No newline at end of file
+}
@@ -118,6 +118,7 @@
 import org.geogebra.common.factories.FormatFactory;
 import org.geogebra.common.factories.LaTeXFactory;
 import org.geogebra.common.factories.UtilFactory;
+import org.geogebra.common.geogebra3D.euclidian3D.printer3D.FormatSTLBinary;
 import org.geogebra.common.geogebra3D.io.OFFHandler;
 import org.geogebra.common.geogebra3D.kernel3D.commands.CommandDispatcher3D;
 import org.geogebra.common.gui.toolbar.ToolBar;
@@ -125,13 +126,17 @@
 import org.geogebra.common.io.layout.DockPanelData;
 import org.geogebra.common.io.layout.Perspective;
 import org.geogebra.common.javax.swing.GImageIcon;
+import org.geogebra.common.jre.cas.giac.CASgiacJre;
+import org.geogebra.common.jre.cas.giac.GiacCacheFile;
 import org.geogebra.common.jre.factory.FormatFactoryJre;
 import org.geogebra.common.jre.gui.MyImageJre;
 import org.geogebra.common.jre.headless.AppDI;
+import org.geogebra.common.jre.kernel.ForkJoinUpdateExecutor;
 import org.geogebra.common.jre.kernel.commands.CommandDispatcher3DJre;
 import org.geogebra.common.jre.kernel.commands.CommandDispatcherJre;
 import org.geogebra.common.jre.main.TemplateHelper;
 import org.geogebra.common.jre.util.Base64;
+import org.geogebra.common.kernel.CASGenericInterface;
 import org.geogebra.common.kernel.Construction;
 import org.geogebra.common.kernel.Kernel;
 import org.geogebra.common.kernel.Macro;
@@ -176,6 +181,7 @@
 import org.geogebra.desktop.euclidian.event.MouseEventD;
 import org.geogebra.desktop.euclidian.event.MouseEventND;
 import org.geogebra.desktop.euclidianND.EuclidianViewInterfaceD;
+import org.geogebra.desktop.export.FileChannelOutput;
 import org.geogebra.desktop.export.GeoGebraTubeExportD;
 import org.geogebra.desktop.export.PrintPreviewD;
 import org.geogebra.desktop.export.pstricks.GeoGebraToAsymptoteD;
@@ -696,6 +702,12 @@ private static void handleHelpVersionArgs(CommandLineArguments args) {
 					+ "  --show3D=BOOLEAN\tshow/hide 3D window\n"
 					+ "  --showSplash=BOOLEAN\tenable/disable the splash screen\n"
 					+ "  --enableUndo=BOOLEAN\tenable/disable Undo\n"
+					+ "  --parallelUpdate=BOOLEAN"
+							+ "\tupdate independent objects on several threads\n"
+					+ "  --giacWorkers=NUMBER"
+							+ "\tnumber of threads for CAS calls\n"
+					+ "  --giacCache=FILENAME"
+							+ "\tkeep CAS results in a file\n"
 					+ "  --fontSize=NUMBER\tset default font size\n"
 					+ "  --showAxes=BOOLEAN\tshow/hide coordinate axes\n"
 					+ "  --showGrid=BOOLEAN\tshow/hide grid\n"
@@ -743,6 +755,10 @@ private static void handleHelpVersionArgs(CommandLineArguments args) {
 							+ " in object captions ["
 							+ proverSettings.captionAlgebra
 							+ "] (Botana only)\n"
+							+ "      portfolio:BOOLEAN\trun the engines concurrently,"
+							+ " take the first conclusive answer ["
+							+ proverSettings.portfolio
+							+ "] (Auto only)\n"
 							+ "  Example: --prover=engine:Botana,timeout:10,"
 							+ "fpnevercoll:true,usefixcoords:43\n");
 			AppD.exit(0);
@@ -970,6 +986,10 @@ private static void setProverOption(String option) {
 			proverSettings.captionAlgebra = Boolean.parseBoolean(str[1]);
 			return;
 		}
+		if ("portfolio".equalsIgnoreCase(str[0])) {
+			proverSettings.portfolio = Boolean.parseBoolean(str[1]);
+			return;
+		}
 		Log.warn("Prover option not recognized: ".concat(option));
 	}
 
@@ -1016,6 +1036,34 @@ protected void handleOptionArgsEarly(CommandLineArguments args) {
 				setLocale(getLocale(language));
 			}
 		}
+		if (args.getBooleanValue("parallelUpdate", false)) {
+			kernel.getConstruction()
+					.setParallelUpdateExecutor(new ForkJoinUpdateExecutor());
+		}
+		String giacWorkers = args.getStringValue("giacWorkers");
+		if (giacWorkers.length() > 0) {
+			CASGenericInterface cas = kernel.getGeoGebraCAS().getCurrentCAS();
+			if (cas instanceof CASgiacJre) {
+				((CASgiacJre) cas)
+						.setWorkerPoolSize(Integer.parseInt(giacWorkers));
+			}
+		}
+		String giacCache = args.getStringValue("giacCache");
+		if (giacCache.length() > 0) {
+			CASGenericInterface cas = kernel.getGeoGebraCAS().getCurrentCAS();
+			if (cas instanceof CASgiacJre) {
+				CASgiacJre giac = (CASgiacJre) cas;
+				try {
+					giac.getResultCache()
+							.setStorage(new GiacCacheFile(new File(giacCache),
+									GeoGebraConstants.VERSION_STRING));
+					Runtime.getRuntime().addShutdownHook(
+							new Thread(giac::shutdown, "Giac shutdown"));
+				} catch (IOException e) {
+					Log.error("Could not open CAS cache " + giacCache);
+				}
+			}
+		}
 		if (args.containsArg("prover")) {
 			String[] proverOptions = args.getStringValue("prover").split(",");
 			for (int i = 0; i < proverOptions.length; i++) {
@@ -3034,6 +3082,8 @@ final public boolean loadXML(File file, boolean isMacroFile) {
 		FileInputStream fis = null;
 		try {
 			fis = new FileInputStream(file);
+			getXMLio().setConstructionLastEntry(
+					MyXMLioD.isConstructionLastEntry(file));
 
 			boolean success = false;
 
@@ -3059,6 +3109,7 @@ final public boolean loadXML(File file, boolean isMacroFile) {
 			return false;
 		} finally {
 			initing = false;
+			getXMLio().setConstructionLastEntry(false);
 			if (fis != null) {
 				try {
 					fis.close();
@@ -4796,11 +4847,9 @@ public void resetCurrentFile() {
 	@Override
 	public void exportStringToFile(String ext, String content, boolean showDialog) {
 		try {
-			StringBuilder fileName = new StringBuilder();
-			fileName.append("test.");
-			fileName.append(ext);
+			String fileName = getExportFileName(ext);
 			BufferedWriter objBufferedWriter = new BufferedWriter(
-					new OutputStreamWriter(new FileOutputStream(fileName.toString()), "UTF-8"));
+					new OutputStreamWriter(new FileOutputStream(fileName), "UTF-8"));
 			Log.debug("Export to " + fileName);
 			objBufferedWriter.write(content);
 			objBufferedWriter.close();
@@ -4813,6 +4862,27 @@ public void exportStringToFile(String ext, String content, boolean showDialog) {
 		}
 	}
 	
+	private static String getExportFileName(String ext) {
+		return "test." + ext;
+	}
+
+	/**
+	 * Exports the 3D view to binary STL, written directly to the same file as
+	 * {@link #exportStringToFile(String, String, boolean)} uses.
+	 */
+	public void exportBinarySTL() {
+		String fileName = getExportFileName("stl");
+		try {
+			FormatSTLBinary format = new FormatSTLBinary(
+					new FileChannelOutput(new File(fileName)));
+			format.setProgressListener(count -> Log
+					.debug("Export to " + fileName + ": " + count + " triangles"));
+			setExport3D(format);
+		} catch (IOException e) {
+			Log.debug(e);
+		}
+	}
+
 	@Override
 	public void handleImageExport(String base64image) {
 		if (base64image.startsWith("<svg") || base64image.startsWith("<?xml")
@@ -1,12 +1,22 @@
 package org.geogebra.desktop.util;
 
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Vector;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import org.geogebra.common.kernel.geos.GeoElement;
 import org.geogebra.common.kernel.prover.AbstractProverReciosMethod;
 import org.geogebra.common.main.ProverSettings;
 import org.geogebra.common.util.Prover;
+import org.geogebra.common.util.ProverEngineStatistics;
 import org.geogebra.common.util.debug.Log;
 import org.geogebra.desktop.kernel.prover.ProverReciosMethodD;
 
@@ -24,6 +34,14 @@
  */
 public class ProverD extends Prover {
 
+	/**
+	 * Construction XML for OpenGeoProver, taken before the engines are started
+	 * in portfolio mode
+	 */
+	private String ogpConstruction;
+	/** labeled predecessors of the statement, used in portfolio mode */
+	private HashMap<String, GeoElement> geosByLabel;
+
 	/**
 	 * Starts computation of the proof, based on the defined subsystem.
 	 */
@@ -72,7 +90,143 @@ public void compute() {
 		}
 	}
 
+	/**
+	 * Runs the OpenGeoProver engines in a lane of their own each, and the
+	 * other engines one after the other in another lane. Recio's and Botana's
+	 * methods share lazily computed data of the algorithms and the variable
+	 * numbering of the application, so they can't run concurrently.
+	 * OpenGeoProver gets a copy of the construction as XML. With the default
+	 * engine lists this means at most two lanes: the kernel engines and
+	 * OpenGeoProver (Wu's method).
+	 * <p>
+	 * The kernel lane works on the construction, so this method does not
+	 * return before it has finished; once a result is found, it only
+	 * completes the engine that is running.
+	 */
+	@Override
+	protected boolean decideConcurrently(List<ProverEngine> engines) {
+		List<List<ProverEngine>> lanes = new ArrayList<>();
+		List<ProverEngine> kernelEngines = new ArrayList<>();
+		for (ProverEngine engine : engines) {
+			if (engine == ProverEngine.OPENGEOPROVER_WU
+					|| engine == ProverEngine.OPENGEOPROVER_AREA) {
+				List<ProverEngine> lane = new ArrayList<>();
+				lane.add(engine);
+				lanes.add(lane);
+			} else {
+				kernelEngines.add(engine);
+			}
+		}
+		if (!kernelEngines.isEmpty()) {
+			lanes.add(0, kernelEngines);
+		}
+		if (lanes.size() < 2) {
+			return false;
+		}
+		String construction = simplifiedXML(getConstruction(), statement);
+		HashMap<String, GeoElement> geos = new HashMap<>();
+		for (GeoElement geo : statement.getAllPredecessors()) {
+			geos.put(geo.getLabelSimple(), geo);
+		}
+
+		ExecutorService executor = Executors.newFixedThreadPool(lanes.size(),
+				runnable -> {
+					Thread thread = new Thread(runnable, "prover portfolio");
+					thread.setDaemon(true);
+					return thread;
+				});
+		CompletionService<ProverD> completionService = new ExecutorCompletionService<>(
+				executor);
+		ProverD kernelLaneProver = null;
+		Future<ProverD> kernelLane = null;
+		List<Future<ProverD>> otherLanes = new ArrayList<>();
+		for (List<ProverEngine> lane : lanes) {
+			ProverD laneProver = new ProverD();
+			laneProver.setConstruction(getConstruction());
+			laneProver.setStatement(statement);
+			laneProver.setTimeout(getTimeout());
+			laneProver.setReturnExtraNDGs(isReturnExtraNDGs());
+			laneProver.ogpConstruction = construction;
+			laneProver.geosByLabel = geos;
+			Future<ProverD> future = completionService.submit(() -> {
+				laneProver.decideSequentially(lane);
+				return laneProver;
+			});
+			if (lane == kernelEngines) {
+				kernelLaneProver = laneProver;
+				kernelLane = future;
+			} else {
+				otherLanes.add(future);
+			}
+		}
+
+		ProverD best = null;
+		try {
+			for (int i = 0; i < lanes.size(); i++) {
+				ProverD done;
+				try {
+					done = completionService.take().get();
+				} catch (ExecutionException e) {
+					Log.debug(e.getCause());
+					continue;
+				}
+				if (best == null || best.result == ProofResult.UNKNOWN) {
+					best = done;
+				}
+				if (ProverEngineStatistics.isConclusive(done.result)) {
+					best = done;
+					break;
+				}
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		} finally {
+			// the remaining engines are not needed any more; OpenGeoProver
+			// works on a copy and can be interrupted
+			for (Future<ProverD> lane : otherLanes) {
+				lane.cancel(true);
+			}
+			executor.shutdown();
+			if (kernelLaneProver != null) {
+				kernelLaneProver.cancel();
+				awaitLane(kernelLane);
+			}
+		}
+		Log.debug(ProverEngineStatistics.get());
+
+		result = best == null ? ProofResult.UNKNOWN : best.result;
+		getNDGConditions().clear();
+		if (best != null) {
+			getNDGConditions().addAll(best.getNDGConditions());
+		}
+		return true;
+	}
+
+	/**
+	 * Waits for a lane to finish, even if this thread is interrupted.
+	 */
+	private static void awaitLane(Future<ProverD> lane) {
+		boolean interrupted = false;
+		while (true) {
+			try {
+				lane.get();
+				break;
+			} catch (InterruptedException e) {
+				interrupted = true;
+			} catch (ExecutionException e) {
+				Log.debug(e.getCause());
+				break;
+			}
+		}
+		if (interrupted) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
 	private GeoElement getGeoByLabel(String label) {
+		if (geosByLabel != null) {
+			return geosByLabel.get(label);
+		}
 		Iterator<GeoElement> it = statement.getAllPredecessors().iterator();
 		while (it.hasNext()) {
 			GeoElement geo = it.next();
@@ -86,7 +240,9 @@ private GeoElement getGeoByLabel(String label) {
 	@Override
 	protected ProofResult openGeoProver(ProverEngine pe) {
 		Log.debug("OGP is about to run...");
-		String c = simplifiedXML(getConstruction(), statement).replace(
+		String construction = ogpConstruction != null ? ogpConstruction
+				: simplifiedXML(getConstruction(), statement);
+		String c = construction.replace(
 				"command name=\"ProveDetails\"", "command name=\"Prove\""); // dirty
 																			// hack,
 																			// FIXME
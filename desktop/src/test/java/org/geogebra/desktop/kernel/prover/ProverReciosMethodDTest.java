@@ -0,0 +1,79 @@
+package org.geogebra.desktop.kernel.prover;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertFalse;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.geogebra.desktop.kernel.prover.ProverReciosMethodD.TestPoints;
+import org.junit.Test;
+
+public class ProverReciosMethodDTest {
+
+	@Test
+	public void testPointsShouldMatchEagerEnumeration() {
+		for (int n = 0; n <= 4; n++) {
+			for (int deg = 0; deg <= 5; deg++) {
+				TestPoints testPoints = new TestPoints(n, deg);
+				for (BigInteger[] expected : getTestPoints(n, deg)) {
+					assertArrayEquals(expected, testPoints.next());
+				}
+				assertFalse(testPoints.hasNext());
+			}
+		}
+	}
+
+	/**
+	 * Eager enumeration the lazy one replaced.
+	 */
+	private static List<BigInteger[]> getTestPoints(int n, int deg) {
+		ArrayList<BigInteger[]> testPoints = new ArrayList<>();
+		int[] indices = new int[n];
+		for (int i = 0; i < n; i++) {
+			indices[i] = n - i;
+		}
+
+		boolean indicesChanged;
+		int changedIndex = n - 1;
+		BigInteger[][] cache = new BigInteger[n][n];
+
+		do {
+			BigInteger[] coordinates = new BigInteger[n];
+			for (int i = 0; i < n; i++) {
+				BigInteger result;
+
+				if (changedIndex == n - 1) {
+					result = BigInteger.ONE;
+				} else {
+					result = cache[i][changedIndex + 1];
+				}
+
+				for (int j = changedIndex; j >= 0; j--) {
+					result = result.multiply((BigInteger.valueOf(n)
+							.multiply(BigInteger.valueOf(indices[j])))
+									.subtract(BigInteger.valueOf(i)));
+					cache[i][j] = result;
+				}
+				coordinates[i] = result;
+			}
+			testPoints.add(coordinates);
+
+			indicesChanged = false;
+
+			for (int i = 0; i < n; i++) {
+				if (indices[i] < (deg - i + n)) {
+					indices[i]++;
+					for (int j = 0; j < i; j++) {
+						indices[j] = indices[i] + i - j;
+					}
+					changedIndex = i;
+					indicesChanged = true;
+					break;
+				}
+			}
+		} while (indicesChanged);
+		return testPoints;
+	}
+}
@@ -636,6 +636,11 @@ public void createImage() {
 		bgGraphics = bgImage.createGraphics();
 	}
 
+	@Override
+	protected GBufferedImage createLayerImage() {
+		return makeImage();
+	}
+
 	private GBufferedImage makeImage() {
 		return new GBufferedImageW(g2p.getOffsetWidth(), g2p.getOffsetHeight(),
 				appW == null || appW.getPixelRatio() == 0 ? 1
@@ -1434,6 +1439,7 @@ public void embed(GGraphics2D g2, DrawWidget widget) {
 
 	@Override
 	public void invalidateCache() {
+		super.invalidateCache();
 		if (overlayGraphics != null) {
 			cacheGraphics = false;
 		}